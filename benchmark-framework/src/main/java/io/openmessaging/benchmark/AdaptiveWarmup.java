@@ -0,0 +1,59 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+/**
+ * Warm-up that ends when the traffic has reached a steady state, instead of after a fixed duration. The traffic is
+ * steady once, over the last stablePeriods stats periods, the publish rate and the p99 publish latency vary less than
+ * their coefficient of variation thresholds and the backlog is neither building nor draining.
+ */
+public class AdaptiveWarmup {
+
+    /** The warm-up lasts at least this long, even if the traffic is steady earlier */
+    public int minDurationSeconds = 30;
+
+    /** The warm-up ends after this long, even if the traffic is not steady yet */
+    public int maxDurationSeconds = 600;
+
+    /** Consecutive stats periods over which the traffic should be steady */
+    public int stablePeriods = 3;
+
+    /** Max ratio between the standard deviation and the mean of the publish rate */
+    public double maxPublishRateVariation = 0.05;
+
+    /** Max ratio between the standard deviation and the mean of the p99 publish latency */
+    public double maxPublishLatencyVariation = 0.25;
+
+    /** Max growth or shrinking of the backlog per second, as a ratio of the publish rate */
+    public double maxBacklogSlope = 0.02;
+
+    public void validate() throws IllegalArgumentException {
+        if (minDurationSeconds < 0 || maxDurationSeconds <= 0 || maxDurationSeconds < minDurationSeconds) {
+            throw new IllegalArgumentException("Adaptive warm-up needs 0 <= minDurationSeconds <= maxDurationSeconds");
+        }
+
+        if (stablePeriods < 2) {
+            throw new IllegalArgumentException("Adaptive warm-up needs at least 2 stable periods");
+        }
+
+        if (maxPublishRateVariation <= 0 || maxPublishLatencyVariation <= 0 || maxBacklogSlope <= 0) {
+            throw new IllegalArgumentException("Adaptive warm-up thresholds should be > 0");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+/**
+ * Topics created, subscribed and deleted at a target rate to measure the admin operations of the cluster, next to the
+ * traffic of the workload or on their own with topics: 0. The topics are named after the driver prefix and hold no
+ * data.
+ */
+public class AdminOperations {
+
+    /** Topics created per second, over all the producer workers */
+    public double topicsPerSecond;
+
+    /** Partitions of each created topic */
+    public int partitionsPerTopic = 1;
+
+    /** Subscriptions created on each topic, by opening and closing a consumer */
+    public int subscriptionsPerTopic = 0;
+
+    /** Delete each topic once subscribed, or leave them behind to measure how the cluster copes with many topics */
+    public boolean deleteTopics = true;
+
+    /** Topics being created, subscribed or deleted at once on each worker */
+    public int maxConcurrentTopics = 100;
+
+    public void validate() throws IllegalArgumentException {
+        if (topicsPerSecond <= 0 || partitionsPerTopic <= 0 || maxConcurrentTopics <= 0) {
+            throw new IllegalArgumentException(
+                    "Admin operations need topicsPerSecond, partitionsPerTopic and maxConcurrentTopics > 0");
+        }
+        if (subscriptionsPerTopic < 0) {
+            throw new IllegalArgumentException("Admin operations need subscriptionsPerTopic >= 0");
+        }
+    }
+}
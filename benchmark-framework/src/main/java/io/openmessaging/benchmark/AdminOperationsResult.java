@@ -0,0 +1,56 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Admin operations of a workload with adminOperations: how many of each kind succeeded per second, and how long they
+ * took. The operations are "create topic", "create subscription" and "delete topic".
+ */
+public class AdminOperationsResult {
+    public double targetTopicsPerSecond;
+    public int partitionsPerTopic;
+    public int subscriptionsPerTopic;
+    public boolean deleteTopics;
+    public int maxConcurrentTopics;
+
+    // Successful operations of each kind, and operations that failed
+    public Map<String, Long> operations = new TreeMap<>();
+    public long errors;
+
+    // Operations per second of each kind over each stats period, and over the whole test
+    public Map<String, List<Double>> rate = new TreeMap<>();
+    public Map<String, Double> aggregatedRate = new TreeMap<>();
+
+    public Map<String, LatencySummary> latency = new TreeMap<>();
+
+    public AdminOperationsResult() {
+    }
+
+    public AdminOperationsResult(AdminOperations adminOperations) {
+        this.targetTopicsPerSecond = adminOperations.topicsPerSecond;
+        this.partitionsPerTopic = adminOperations.partitionsPerTopic;
+        this.subscriptionsPerTopic = adminOperations.subscriptionsPerTopic;
+        this.deleteTopics = adminOperations.deleteTopics;
+        this.maxConcurrentTopics = adminOperations.maxConcurrentTopics;
+    }
+}
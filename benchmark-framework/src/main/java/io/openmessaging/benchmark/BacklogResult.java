@@ -0,0 +1,49 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Build and drain of the backlog of a workload with consumerBacklogSizeGB: how long it took to accumulate the
+ * requested backlog with the consumers paused, and how fast the consumers then read it back while the producers keep
+ * writing
+ */
+public class BacklogResult {
+    public long requestedBacklogBytes;
+
+    // Backlog accumulated when the consumers were resumed
+    public long builtBacklogMessages;
+    public long builtBacklogBytes;
+    public double buildSeconds;
+
+    // Null until the backlog is drained
+    public Double drainSeconds;
+    public double drainRate;
+    public double drainThroughput;
+
+    // Consume rate and throughput of the stats periods while the backlog was draining
+    public List<Double> drainConsumeRate = new ArrayList<>();
+    public List<Double> drainConsumeThroughput = new ArrayList<>();
+
+    // Publish latency while the broker serves the backlog reads and the new writes at the same time
+    public List<Double> drainPublishRate = new ArrayList<>();
+    public LatencySummary drainPublishLatency;
+}
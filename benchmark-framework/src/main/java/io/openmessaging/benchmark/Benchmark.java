@@ -21,11 +21,18 @@ package io.openmessaging.benchmark;
 import java.io.File;
 import java.io.IOException;
 import java.text.DateFormat;
+import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,8 +45,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 
+import io.openmessaging.benchmark.utils.PaddingDecimalFormat;
 import io.openmessaging.benchmark.worker.DistributedWorkersEnsemble;
 import io.openmessaging.benchmark.worker.LocalWorker;
+import io.openmessaging.benchmark.worker.LocalWorkerProcesses;
 import io.openmessaging.benchmark.worker.Worker;
 
 public class Benchmark {
@@ -67,6 +76,74 @@ public class Benchmark {
         @Parameter(names = { "-x", "--extra" }, description = "Allocate extra consumer workers when your backlog builds.")
         boolean extraConsumers;
 
+        @Parameter(names = { "-s",
+                "--symmetric" }, description = "Run both producers and consumers on every worker, the consumers of each topic on half of the workers and its producers on the other half")
+        boolean symmetricWorkers;
+
+        @Parameter(names = { "-sf",
+                "--stats-fanout" }, description = "Collect the stats through a tree of aggregator workers with the given fanout, 0 to query all the workers from the coordinator")
+        int statsFanout = 0;
+
+        @Parameter(names = { "-lw",
+                "--local-workers" }, description = "Fork this number of worker JVMs on the local host and drive them as distributed workers")
+        int localWorkers = 0;
+
+        @Parameter(names = {
+                "--local-workers-cpu-sets" }, description = "Semicolon separated CPU sets, in taskset format, to pin the local workers to. eg: 0-23;24-47")
+        String localWorkersCpuSets;
+
+        @Parameter(names = {
+                "--local-workers-numa" }, description = "Bind each local worker to a NUMA node")
+        boolean localWorkersNuma;
+
+        @Parameter(names = {
+                "--local-workers-jvm-opts" }, description = "JVM options of the local workers")
+        String localWorkersJvmOpts = "-Xms4G -Xmx4G -XX:+UseG1GC";
+
+        @Parameter(names = { "-sw",
+                "--sweep" }, description = "Read the workload files as sweeps: a base workload and axes of values to run all the combinations of, reusing the topics, producers and consumers when only the rate or the payload changes")
+        boolean sweep;
+
+        @Parameter(names = { "-t",
+                "--trials" }, description = "Run each workload this number of times on every driver, and summarize the trials with confidence intervals")
+        int trials = 1;
+
+        @Parameter(names = {
+                "--trials-confidence" }, description = "Confidence level of the intervals of the trials")
+        double trialsConfidence = 0.95;
+
+        @Parameter(names = {
+                "--trials-precision" }, description = "Stop the trials once the confidence intervals of the publish rate and of the p99 latencies are within this fraction of their mean, eg. 0.02. 0 to run all the trials")
+        double trialsPrecision = 0;
+
+        @Parameter(names = {
+                "--shuffle-drivers" }, description = "Run the drivers in a random order in each trial")
+        boolean shuffleDrivers;
+
+        @Parameter(names = { "-sr",
+                "--stream-results" }, description = "Write each stats period of a test to a .ndjson file next to its result as soon as it is collected, rather than keeping the periods in memory until the end of the test")
+        boolean streamResults;
+
+        @Parameter(names = {
+                "--rebuild-results" }, description = "Rebuild the result of each of these .ndjson files, eg. of a test that crashed")
+        List<String> rebuildResults;
+
+        @Parameter(names = { "-cb",
+                "--compare-baseline" }, description = "Compare the results of these directories or files, as the baseline, with the ones of --compare-candidate for each workload and driver, and exit with status 2 on a significant regression. Significance is only tested with several runs in both sets")
+        List<String> compareBaseline;
+
+        @Parameter(names = { "-cc",
+                "--compare-candidate" }, description = "Results to compare with the ones of --compare-baseline")
+        List<String> compareCandidate;
+
+        @Parameter(names = {
+                "--compare-confidence" }, description = "Confidence level of the tests of the comparison")
+        double compareConfidence = 0.95;
+
+        @Parameter(names = {
+                "--compare-threshold" }, description = "Smallest relative change of the publish rate or of the p99 latencies that counts as a regression, eg. 0.05")
+        double compareThreshold = 0.05;
+
         @Parameter(description = "Workloads")//, required = true)
         public List<String> workloads;
 
@@ -98,12 +175,56 @@ public class Benchmark {
             System.exit(0);
         }
 
+        if (arguments.compareBaseline != null || arguments.compareCandidate != null) {
+            if (arguments.compareBaseline == null || arguments.compareCandidate == null
+                    || arguments.compareConfidence <= 0 || arguments.compareConfidence >= 1
+                    || arguments.compareThreshold < 0) {
+                System.err.println("--compare-baseline and --compare-candidate should be used together, with "
+                        + "--compare-confidence in (0, 1) and --compare-threshold >= 0");
+                System.exit(-1);
+            }
+
+            List<ComparisonResult> results = new ResultsComparison(arguments.compareConfidence,
+                    arguments.compareThreshold).compare(arguments.compareBaseline, arguments.compareCandidate);
+
+            String fileName = (arguments.output != null && arguments.output.length() > 0) ? arguments.output
+                    : String.format("comparison-%s.json", dateFormat.format(new Date()));
+            log.info("Writing comparison into {}", fileName);
+            writer.writeValue(new File(fileName), results);
+            System.exit(results.stream().anyMatch(r -> r.regression) ? 2 : 0);
+        }
+
+        if (arguments.rebuildResults != null) {
+            for (String path : arguments.rebuildResults) {
+                String fileName = path.replaceAll("\\.ndjson$", "") + ".json";
+                log.info("Rebuilding test result {} from {}", fileName, path);
+                writer.writeValue(new File(fileName), ResultsStream.read(new File(path)));
+            }
+            System.exit(0);
+        }
+
         if (arguments.workers != null && arguments.workersFile != null) {
             System.err.println("Only one between --workers and --workers-file can be specified");
             System.exit(-1);
         }
 
-        if (arguments.workers == null && arguments.workersFile == null) {
+        if (arguments.localWorkers > 0 && (arguments.workers != null || arguments.workersFile != null)) {
+            System.err.println("--local-workers cannot be used with --workers or --workers-file");
+            System.exit(-1);
+        }
+
+        if (arguments.trials < 1 || arguments.trialsConfidence <= 0 || arguments.trialsConfidence >= 1
+                || arguments.trialsPrecision < 0) {
+            System.err.println("--trials should be >= 1, --trials-confidence in (0, 1) and --trials-precision >= 0");
+            System.exit(-1);
+        }
+
+        if (arguments.trials > 1 && (arguments.sweep || arguments.output != null)) {
+            System.err.println("--trials cannot be used with --sweep or --output");
+            System.exit(-1);
+        }
+
+        if (arguments.workers == null && arguments.workersFile == null && arguments.localWorkers == 0) {
             File defaultFile = new File("workers.yaml");
             if (defaultFile.exists()) {
                 log.info("Using default worker file workers.yaml");
@@ -111,33 +232,70 @@ public class Benchmark {
             }
         }
 
+        Map<String, Double> workerWeights = Collections.emptyMap();
         if (arguments.workersFile != null) {
             log.info("Reading workers list from {}", arguments.workersFile);
-            arguments.workers = mapper.readValue(arguments.workersFile, Workers.class).workers;
+            Workers workers = mapper.readValue(arguments.workersFile, Workers.class);
+            arguments.workers = workers.workers;
+            workerWeights = workers.weights;
         }
 
         // Dump configuration variables
         log.info("Starting benchmark with config: {}", writer.writeValueAsString(arguments));
 
         Map<String, Workload> workloads = new TreeMap<>();
+        Map<String, List<Workload>> sweeps = new TreeMap<>();
         for (String path : arguments.workloads) {
             File file = new File(path);
             String name = file.getName().substring(0, file.getName().lastIndexOf('.'));
 
-            workloads.put(name, mapper.readValue(file, Workload.class));
+            if (arguments.sweep) {
+                sweeps.put(name, mapper.readValue(file, WorkloadSweep.class).expand());
+            } else {
+                workloads.put(name, mapper.readValue(file, Workload.class));
+            }
+        }
+
+        if (arguments.sweep) {
+            sweeps.forEach((name, points) -> log.info("Sweep {}: {} points", name,
+                    points.stream().map(point -> point.name).collect(Collectors.toList())));
         }
 
         log.info("Workloads: {}", writer.writeValueAsString(workloads));
 
         Worker worker;
+        LocalWorkerProcesses localWorkerProcesses = null;
+
+        if (arguments.localWorkers > 0) {
+            List<String> cpuSets = arguments.localWorkersCpuSets == null ? Collections.emptyList()
+                    : Arrays.asList(arguments.localWorkersCpuSets.split(";"));
+            localWorkerProcesses = new LocalWorkerProcesses(arguments.localWorkers, cpuSets,
+                    arguments.localWorkersNuma, arguments.localWorkersJvmOpts);
+            arguments.workers = localWorkerProcesses.getWorkers();
+        }
 
         if (arguments.workers != null && !arguments.workers.isEmpty()) {
-            worker = new DistributedWorkersEnsemble(arguments.workers, arguments.extraConsumers);
+            worker = new DistributedWorkersEnsemble(arguments.workers, arguments.extraConsumers, workerWeights,
+                    arguments.symmetricWorkers, arguments.statsFanout);
         } else {
             // Use local worker implementation
             worker = new LocalWorker();
         }
 
+        sweeps.forEach((sweepName, points) -> {
+            points.forEach(point -> {
+                try {
+                    point.validate();
+                } catch (IllegalArgumentException e) {
+                    e.printStackTrace();
+                    System.exit(-1);
+                }
+            });
+
+            arguments.drivers.forEach(driverConfig -> runSweep(sweepName, points, driverConfig, worker,
+                    arguments.streamResults));
+        });
+
         workloads.forEach((workloadName, workload) -> {
 
             try {
@@ -147,6 +305,11 @@ public class Benchmark {
                 System.exit(-1);
             }
 
+            if (arguments.trials > 1) {
+                runTrials(workloadName, workload, arguments, worker);
+                return;
+            }
+
             arguments.drivers.forEach(driverConfig -> {
                 try {
                     File driverConfigFile = new File(driverConfig);
@@ -160,19 +323,12 @@ public class Benchmark {
 
                     worker.initializeDriver(new File(driverConfig));
 
-                    WorkloadGenerator generator = new WorkloadGenerator(driverConfiguration.name, workload, worker);
-
-                    TestResult result = generator.run();
-
                     boolean useOutput = (arguments.output != null) && (arguments.output.length() > 0);
+                    String fileName = useOutput ? arguments.output : String.format("%s-%s-%s.json", workloadName,
+                            driverConfiguration.name, dateFormat.format(new Date()));
 
-                    String fileName = useOutput? arguments.output: String.format("%s-%s-%s.json", workloadName,
-                    driverConfiguration.name, dateFormat.format(new Date()));
-
-                    log.info("Writing test result into {}", fileName);
-                    writer.writeValue(new File(fileName), result);
-
-                    generator.close();
+                    runWorkload(driverConfiguration.name, workload, worker, fileName, arguments.streamResults, null,
+                            false, (generator, result) -> result);
                 } catch (Exception e) {
                     log.error("Failed to run the workload '{}' for driver '{}'", workload.name, driverConfig, e);
                     System.exit(1);
@@ -186,8 +342,164 @@ public class Benchmark {
         });
 
         worker.close();
+        if (localWorkerProcesses != null) {
+            localWorkerProcesses.close();
+        }
     }
 
+    /**
+     * Run the points of a sweep on a driver. Consecutive points with the same topology run on the same topics,
+     * producers and consumers, only the load is restarted with the new rate and payloads.
+     */
+    private static void runSweep(String sweepName, List<Workload> points, String driverConfig, Worker worker,
+            boolean streamResults) {
+        List<String> topics = null;
+        try {
+            DriverConfiguration driverConfiguration = mapper.readValue(new File(driverConfig),
+                    DriverConfiguration.class);
+
+            for (int i = 0; i < points.size(); i++) {
+                Workload point = points.get(i);
+                log.info("--------------- SWEEP : {} --- POINT : {} --- DRIVER : {}---------------", sweepName,
+                        point.name, driverConfiguration.name);
+
+                if (topics == null) {
+                    // Stop any left over workload
+                    worker.stopAll();
+                    worker.initializeDriver(new File(driverConfig));
+                }
+
+                boolean keepTopology = i + 1 < points.size()
+                        && WorkloadSweep.sameTopology(point, points.get(i + 1));
+
+                String fileName = String.format("%s-%d-%s-%s.json", sweepName, i, driverConfiguration.name,
+                        dateFormat.format(new Date()));
+                topics = runWorkload(driverConfiguration.name, point, worker, fileName, streamResults, topics,
+                        keepTopology, (generator, result) -> keepTopology ? generator.getTopics() : null);
+            }
+        } catch (Exception e) {
+            log.error("Failed to run the sweep '{}' for driver '{}'", sweepName, driverConfig, e);
+            System.exit(1);
+        } finally {
+            try {
+                worker.stopAll();
+            } catch (IOException e) {
+            }
+        }
+    }
+
+    /**
+     * Run a workload several times on each driver, with all the drivers in each trial so that a slow drift of the
+     * environment affects them alike. Each trial is written as a test result, and the trials of each driver are
+     * summarized with confidence intervals in a trials result.
+     */
+    private static void runTrials(String workloadName, Workload workload, Arguments arguments, Worker worker) {
+        Map<String, TrialsResult> results = new LinkedHashMap<>();
+        List<String> drivers = new ArrayList<>(arguments.drivers);
+        String date = dateFormat.format(new Date());
+        try {
+            for (int trial = 0; trial < arguments.trials; trial++) {
+                if (arguments.shuffleDrivers) {
+                    Collections.shuffle(drivers);
+                }
+
+                for (String driverConfig : drivers) {
+                    DriverConfiguration driverConfiguration = mapper.readValue(new File(driverConfig),
+                            DriverConfiguration.class);
+                    log.info("--------------- WORKLOAD : {} --- DRIVER : {} --- TRIAL : {}/{}---------------",
+                            workload.name, driverConfiguration.name, trial + 1, arguments.trials);
+
+                    // Stop any left over workload
+                    worker.stopAll();
+                    worker.initializeDriver(new File(driverConfig));
+
+                    String fileName = String.format("%s-%s-trial-%d-%s.json", workloadName,
+                            driverConfiguration.name, trial + 1, date);
+
+                    TrialsResult trials = results.computeIfAbsent(driverConfig, d -> new TrialsResult(workload.name,
+                            driverConfiguration.name, arguments.trialsConfidence));
+                    runWorkload(driverConfiguration.name, workload, worker, fileName, arguments.streamResults, null,
+                            false, (generator, result) -> {
+                                trials.addTrial(fileName, result, generator.getCumulativeLatencies());
+                                return result;
+                            });
+                }
+
+                // A single trial has no interval yet
+                results.values().stream().filter(r -> r.trials > 1).forEach(r -> log.info(
+                        "----- Trials of {}: {} | Pub rate {} msg/s +/- {}% | Pub Latency 99% (ms) {} +/- {}%",
+                        r.driver, r.trials, dec.format(r.publishRate.mean),
+                        dec.format(r.publishRate.relativeHalfWidth * 100),
+                        dec.format(r.publishLatency.get("pct99").mean),
+                        dec.format(r.publishLatency.get("pct99").relativeHalfWidth * 100)));
+
+                if (arguments.trialsPrecision > 0 && trial + 1 >= MIN_TRIALS_BEFORE_STOPPING
+                        && trial + 1 < arguments.trials
+                        && results.values().stream().allMatch(r -> r.reachedPrecision(arguments.trialsPrecision))) {
+                    log.info("Confidence intervals within {}% after {} trials, stopping",
+                            arguments.trialsPrecision * 100, trial + 1);
+                    results.values().forEach(r -> r.stoppedEarly = true);
+                    break;
+                }
+            }
+
+            for (TrialsResult result : results.values()) {
+                String fileName = String.format("%s-%s-trials-%s.json", workloadName, result.driver, date);
+                log.info("Writing trials result into {}", fileName);
+                writer.writeValue(new File(fileName), result);
+            }
+        } catch (Exception e) {
+            log.error("Failed to run the trials of the workload '{}'", workload.name, e);
+            System.exit(1);
+        } finally {
+            try {
+                worker.stopAll();
+            } catch (IOException e) {
+            }
+        }
+    }
+
+    /**
+     * Run a workload on the initialized driver and write its result into the given file, with its periods streamed
+     * next to it when the results are streamed. The generator and the stream are closed even when the run fails.
+     *
+     * @param existingTopics
+     *            the topics of a previous run to reuse, null to create them
+     * @param keepTopology
+     *            only stop the load at the end of the run, so that the next run can reuse the topology
+     * @param onResult
+     *            called with the generator and the result of the run before they are closed
+     * @return what onResult returns
+     */
+    private static <T> T runWorkload(String driverName, Workload workload, Worker worker, String fileName,
+            boolean streamResults, List<String> existingTopics, boolean keepTopology,
+            BiFunction<WorkloadGenerator, TestResult, T> onResult) throws Exception {
+        try (WorkloadGenerator generator = new WorkloadGenerator(driverName, workload, worker);
+                ResultsStream stream = openResultsStream(streamResults, fileName.replaceAll("\\.json$", ""))) {
+            generator.setResultsStream(stream);
+            TestResult result = generator.run(existingTopics, keepTopology);
+
+            log.info("Writing test result into {}", fileName);
+            writer.writeValue(new File(fileName), result);
+            return onResult.apply(generator, result);
+        }
+    }
+
+    /**
+     * Open the stream of the periods of a test, named after its result file, when the results are streamed
+     */
+    private static ResultsStream openResultsStream(boolean streamResults, String name) throws IOException {
+        if (!streamResults) {
+            return null;
+        }
+
+        String fileName = name + ".ndjson";
+        log.info("Streaming the test periods into {}", fileName);
+        return new ResultsStream(new File(fileName));
+    }
+
+    private static final int MIN_TRIALS_BEFORE_STOPPING = 3;
+
     private static final ObjectMapper mapper = new ObjectMapper(new YAMLFactory())
             .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
@@ -199,5 +511,7 @@ public class Benchmark {
 
     private static final DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd-HH-mm-ss");
 
+    private static final DecimalFormat dec = new PaddingDecimalFormat("0.0", 4);
+
     private static final Logger log = LoggerFactory.getLogger(Benchmark.class);
 }
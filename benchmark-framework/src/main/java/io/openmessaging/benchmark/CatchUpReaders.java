@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+/**
+ * Subscriptions reading behind the others, to measure how reading older data affects the subscriptions tailing the
+ * topics and the producers. The catch-up subscriptions are held once all the consumers are ready, and released
+ * pauseSeconds after the measured traffic starts: they then read what was published meanwhile, and all the history
+ * of the topics if they start from the earliest message.
+ */
+public class CatchUpReaders {
+
+    /** Subscriptions of each topic reading behind, out of the subscriptionsPerTopic of the workload */
+    public int subscriptionsPerTopic = 1;
+
+    /** Start from the earliest message kept in the topics, eg. to read back existing topics */
+    public boolean startFromEarliest;
+
+    /** Time the catch-up subscriptions are held after the measured traffic starts, to build their backlog */
+    public int pauseSeconds;
+
+    public void validate(Workload workload) throws IllegalArgumentException {
+        if (subscriptionsPerTopic <= 0 || subscriptionsPerTopic >= workload.subscriptionsPerTopic) {
+            throw new IllegalArgumentException(
+                    "Catch-up readers need 0 < subscriptionsPerTopic < the subscriptions of the workload");
+        }
+
+        if (pauseSeconds < 0) {
+            throw new IllegalArgumentException("Catch-up readers need pauseSeconds >= 0");
+        }
+
+        if (!startFromEarliest && pauseSeconds == 0) {
+            throw new IllegalArgumentException("Catch-up readers need to start from the earliest message or a pause");
+        }
+    }
+}
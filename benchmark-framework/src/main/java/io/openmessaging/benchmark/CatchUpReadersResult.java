@@ -0,0 +1,48 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads of the catch-up subscriptions of a workload with catchUpReaders, next to the latencies of the tailing
+ * subscriptions and of the producers while the catch-up reads were going on and otherwise
+ */
+public class CatchUpReadersResult {
+    public int subscriptionsPerTopic;
+    public boolean startFromEarliest;
+    public int pauseSeconds;
+
+    public long messages;
+    public long bytes;
+
+    // Read rate and throughput of all the catch-up subscriptions over each stats period
+    public List<Double> readRate = new ArrayList<>();
+    public List<Double> readThroughput = new ArrayList<>();
+
+    // Time from the release of the catch-up subscriptions until they read as fast as the tailing ones, null if they
+    // did not catch up before the end of the test
+    public Double caughtUpSeconds;
+
+    public LatencySummary tailEndToEndLatencyDuringCatchUp;
+    public LatencySummary tailEndToEndLatencyOtherwise;
+    public LatencySummary publishLatencyDuringCatchUp;
+    public LatencySummary publishLatencyOtherwise;
+}
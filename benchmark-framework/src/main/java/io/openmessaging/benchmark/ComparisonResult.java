@@ -0,0 +1,62 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+/**
+ * Comparison of the results of a workload on a driver between a baseline and a candidate set of runs, eg. before and
+ * after a client or broker upgrade
+ */
+public class ComparisonResult {
+    public String workload;
+    public String driver;
+    public int baselineRuns;
+    public int candidateRuns;
+
+    // Whether the changes were tested for significance, which needs several runs in both sets. The stats periods of
+    // a single run are autocorrelated and not independent samples, so no regression is reported without it.
+    public boolean significanceTested;
+
+    public MetricComparison publishRate;
+    // Null when the results have no such latencies
+    public MetricComparison publishLatency99pct;
+    public MetricComparison endToEndLatency99pct;
+
+    // Whether any of the metrics regressed
+    public boolean regression;
+
+    public static class MetricComparison {
+        public double baselineMean;
+        public double candidateMean;
+
+        // 99th percentile of the latency histograms of all the runs of each set merged together, each run weighing
+        // the same. Only for latencies, for information as the change is judged on the means of the runs.
+        public Double baselineMerged;
+        public Double candidateMerged;
+
+        // Relative change from the baseline mean to the candidate mean
+        public double relativeChange;
+
+        // Two-sided p-value of Welch's t-test on the values of the runs, null when not tested
+        public Double pValue;
+        public boolean significant;
+
+        // Significant change in the wrong direction, by more than the threshold
+        public boolean regression;
+    }
+}
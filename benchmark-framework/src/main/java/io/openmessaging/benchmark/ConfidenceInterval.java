@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+import java.util.List;
+
+import io.openmessaging.benchmark.utils.Statistics;
+
+/**
+ * Mean of a metric over repeated trials, with the bounds of its Student's t confidence interval
+ */
+public class ConfidenceInterval {
+    public int samples;
+    public double mean;
+    public double stdDev;
+    public double lower;
+    public double upper;
+
+    /** Half-width of the interval, relative to the mean */
+    public double relativeHalfWidth;
+
+    public static ConfidenceInterval of(List<Double> values, double confidenceLevel) {
+        ConfidenceInterval interval = new ConfidenceInterval();
+        interval.samples = values.size();
+        interval.mean = Statistics.mean(values);
+        interval.stdDev = Statistics.stdDev(values);
+
+        double halfWidth = values.size() < 2 ? Double.POSITIVE_INFINITY
+                : Statistics.tQuantile(1 - (1 - confidenceLevel) / 2, values.size() - 1) * interval.stdDev
+                        / Math.sqrt(values.size());
+        interval.lower = interval.mean - halfWidth;
+        interval.upper = interval.mean + halfWidth;
+        interval.relativeHalfWidth = halfWidth == 0 ? 0 : halfWidth / Math.abs(interval.mean);
+        return interval;
+    }
+}
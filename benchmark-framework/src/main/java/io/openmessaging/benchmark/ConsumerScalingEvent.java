@@ -0,0 +1,47 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+/**
+ * Consumers added to, or closed from, each subscription at a given time of the measured traffic, like an autoscaler
+ * would. Each event triggers a rebalance of the subscriptions, whose impact on the consumption is measured until the
+ * next event.
+ */
+public class ConsumerScalingEvent {
+
+    /** Time of the event, from the start of the measured traffic */
+    public int afterSeconds;
+
+    /** Consumers added to each subscription, or closed from it when negative */
+    public int consumersPerSubscription;
+
+    public ConsumerScalingEvent() {
+    }
+
+    public ConsumerScalingEvent(int afterSeconds, int consumersPerSubscription) {
+        this.afterSeconds = afterSeconds;
+        this.consumersPerSubscription = consumersPerSubscription;
+    }
+
+    @Override
+    public String toString() {
+        return (consumersPerSubscription > 0 ? "+" : "") + consumersPerSubscription + " consumers per subscription"
+                + " after " + afterSeconds + " s";
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+/**
+ * Impact of a consumer scaling event on the consumption of the subscriptions
+ */
+public class ConsumerScalingResult {
+    public int afterSeconds;
+    public int delta;
+
+    // Consumers of each subscription once the event is applied
+    public int consumersPerSubscription;
+
+    // Time to create or close the consumers
+    public double scalingMillis;
+
+    // Longest time a subscription did not receive any message, from the event until the subscriptions recovered or
+    // the next event, and its average over the subscriptions
+    public double maxConsumptionGapMillis;
+    public double avgConsumptionGapMillis;
+
+    // Time from the event until the backlog was back to its level before the event, null if it did not recover
+    // before the next event or the end of the test
+    public Double recoverySeconds;
+
+    // End-to-end latency of the stats period before the event, and the worst of the periods until it recovered
+    public double baselineEndToEndLatency99pct;
+    public double peakEndToEndLatency99pct;
+    public double peakEndToEndLatencyMax;
+}
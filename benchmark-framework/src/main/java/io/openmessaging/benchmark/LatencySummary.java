@@ -0,0 +1,50 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Aggregated percentiles of a latency histogram, expressed in milliseconds
+ */
+public class LatencySummary {
+    public long count;
+    public double avg;
+    public double pct50;
+    public double pct75;
+    public double pct95;
+    public double pct99;
+    public double pct999;
+    public double pct9999;
+    public double max;
+
+    public static LatencySummary fromMicros(Histogram histogram) {
+        LatencySummary summary = new LatencySummary();
+        summary.count = histogram.getTotalCount();
+        summary.avg = histogram.getMean() / 1000.0;
+        summary.pct50 = histogram.getValueAtPercentile(50) / 1000.0;
+        summary.pct75 = histogram.getValueAtPercentile(75) / 1000.0;
+        summary.pct95 = histogram.getValueAtPercentile(95) / 1000.0;
+        summary.pct99 = histogram.getValueAtPercentile(99) / 1000.0;
+        summary.pct999 = histogram.getValueAtPercentile(99.9) / 1000.0;
+        summary.pct9999 = histogram.getValueAtPercentile(99.99) / 1000.0;
+        summary.max = histogram.getMaxValue() / 1000.0;
+        return summary;
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Results of a single stats period. The per-period series of a {@link TestResult} are the values of its periods,
+ * in the same units.
+ */
+public class PeriodResult {
+    // End of the period, in milliseconds since the epoch
+    public long timestamp;
+
+    public double publishRate;
+    public double consumeRate;
+    public long backlog;
+
+    public double publishLatencyAvg;
+    public double publishLatency50pct;
+    public double publishLatency75pct;
+    public double publishLatency95pct;
+    public double publishLatency99pct;
+    public double publishLatency999pct;
+    public double publishLatency9999pct;
+    public double publishLatencyMax;
+
+    public double publishDelayLatencyAvg;
+    public long publishDelayLatency50pct;
+    public long publishDelayLatency75pct;
+    public long publishDelayLatency95pct;
+    public long publishDelayLatency99pct;
+    public long publishDelayLatency999pct;
+    public long publishDelayLatency9999pct;
+    public long publishDelayLatencyMax;
+
+    public double endToEndLatencyAvg;
+    public double endToEndLatency50pct;
+    public double endToEndLatency75pct;
+    public double endToEndLatency95pct;
+    public double endToEndLatency99pct;
+    public double endToEndLatency999pct;
+    public double endToEndLatency9999pct;
+    public double endToEndLatencyMax;
+
+    public Map<String, Double> additionalMetrics = new LinkedHashMap<>();
+
+    // Only for drivers that report partitions
+    public Double partitionConsumeRateMin;
+    public Double partitionConsumeRateAvg;
+    public Double partitionConsumeRateMax;
+
+    // Only for distributed runs
+    public Map<String, Double> publishRateByWorker = new TreeMap<>();
+    public Map<String, Double> targetPublishRateByWorker = new TreeMap<>();
+
+    // Only for request/reply workloads
+    public Double replyRate;
+    public Double roundTripLatencyAvg;
+    public Double roundTripLatency50pct;
+    public Double roundTripLatency99pct;
+    public Double roundTripLatency999pct;
+    public Double roundTripLatencyMax;
+}
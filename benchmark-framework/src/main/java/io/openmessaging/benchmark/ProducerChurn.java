@@ -0,0 +1,43 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+/**
+ * Short-lived producers created next to the long-lived ones, like serverless callers opening a producer to send a
+ * few messages before closing it. They publish on the topics of the workload, so their messages are consumed and
+ * accounted like the others.
+ */
+public class ProducerChurn {
+
+    /** Producers created per second, over all the producer workers */
+    public double producersPerSecond;
+
+    /** Messages sent by each producer before it is closed */
+    public int messagesPerProducer = 1;
+
+    /** Producers alive at once on each worker, a driver slow to create or close them then lowers the creation rate */
+    public int maxConcurrentProducers = 100;
+
+    public void validate() throws IllegalArgumentException {
+        if (producersPerSecond <= 0 || messagesPerProducer <= 0 || maxConcurrentProducers <= 0) {
+            throw new IllegalArgumentException(
+                    "Producer churn needs producersPerSecond, messagesPerProducer and maxConcurrentProducers > 0");
+        }
+    }
+}
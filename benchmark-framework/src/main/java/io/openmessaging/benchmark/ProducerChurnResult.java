@@ -0,0 +1,53 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Short-lived producers of a workload with producerChurn: how fast they could be created, and the time to create each
+ * of them, to send its first message and to close it
+ */
+public class ProducerChurnResult {
+    public double targetProducersPerSecond;
+    public int messagesPerProducer;
+    public int maxConcurrentProducers;
+
+    public long producersCreated;
+    // Producers that could not be created or closed
+    public long errors;
+
+    // Producers created per second over each stats period, and over the whole test
+    public List<Double> creationRate = new ArrayList<>();
+    public double aggregatedCreationRate;
+
+    public LatencySummary createLatency;
+    public LatencySummary firstSendLatency;
+    public LatencySummary closeLatency;
+
+    public ProducerChurnResult() {
+    }
+
+    public ProducerChurnResult(ProducerChurn churn) {
+        this.targetProducersPerSecond = churn.producersPerSecond;
+        this.messagesPerProducer = churn.messagesPerProducer;
+        this.maxConcurrentProducers = churn.maxConcurrentProducers;
+    }
+}
@@ -0,0 +1,306 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import io.openmessaging.benchmark.ComparisonResult.MetricComparison;
+import io.openmessaging.benchmark.utils.PaddingDecimalFormat;
+import io.openmessaging.benchmark.utils.Statistics;
+
+/**
+ * Compare a candidate set of test results with a baseline set, for each workload and driver, and tell the
+ * significant regressions of the publish rate and of the p99 latencies apart from the noise between runs.
+ * <p>
+ * The tests take each run as one sample, so they need several runs in both sets. The stats periods of a single run
+ * are autocorrelated, testing them as independent samples would report noise as regressions, so the changes between
+ * single runs are only reported, without a significance test.
+ */
+public class ResultsComparison {
+
+    /**
+     * What the comparison needs of a test result, so that thousands of them fit in memory
+     */
+    static class RunSummary {
+        String workload;
+        String driver;
+
+        double publishRate;
+        double publishLatency99pct;
+        double endToEndLatency99pct;
+
+        // Aggregated latency quantiles of the run: percentiles, and the latencies at them in milliseconds
+        double[][] publishLatencyQuantiles;
+        double[][] endToEndLatencyQuantiles;
+    }
+
+    private final double confidenceLevel;
+    private final double threshold;
+
+    /**
+     * @param confidenceLevel
+     *            confidence level of the tests, a change is significant when its p-value is below 1 - confidenceLevel
+     * @param threshold
+     *            smallest relative change in the wrong direction that counts as a regression, eg. 0.05
+     */
+    public ResultsComparison(double confidenceLevel, double threshold) {
+        this.confidenceLevel = confidenceLevel;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Compare the results found in the baseline and candidate directories or files, for each workload and driver in
+     * both sets
+     */
+    public List<ComparisonResult> compare(List<String> baselinePaths, List<String> candidatePaths)
+            throws IOException {
+        Map<String, List<RunSummary>> baseline = groupByWorkloadAndDriver(readResults(baselinePaths));
+        Map<String, List<RunSummary>> candidate = groupByWorkloadAndDriver(readResults(candidatePaths));
+
+        List<ComparisonResult> results = new ArrayList<>();
+        baseline.forEach((group, baselineRuns) -> {
+            List<RunSummary> candidateRuns = candidate.get(group);
+            if (candidateRuns == null) {
+                log.warn("No candidate result of {}", group);
+            } else {
+                results.add(compareRuns(baselineRuns, candidateRuns));
+            }
+        });
+        candidate.keySet().stream().filter(group -> !baseline.containsKey(group))
+                .forEach(group -> log.warn("No baseline result of {}", group));
+
+        log.info("----- {} workloads and drivers compared, {} regressed", results.size(),
+                results.stream().filter(r -> r.regression).count());
+        long untested = results.stream().filter(r -> !r.significanceTested).count();
+        if (untested > 0) {
+            log.warn("----- {} workloads and drivers have a single run in a set, their changes are not tested for "
+                    + "significance as the stats periods of a run are not independent samples. Compare several "
+                    + "runs of each set to detect regressions.", untested);
+        }
+        return results;
+    }
+
+    private ComparisonResult compareRuns(List<RunSummary> baselineRuns, List<RunSummary> candidateRuns) {
+        ComparisonResult result = new ComparisonResult();
+        result.workload = baselineRuns.get(0).workload;
+        result.driver = baselineRuns.get(0).driver;
+        result.baselineRuns = baselineRuns.size();
+        result.candidateRuns = candidateRuns.size();
+
+        // A single run in a set leaves no variance between runs to test against
+        boolean tested = baselineRuns.size() > 1 && candidateRuns.size() > 1;
+        result.significanceTested = tested;
+
+        result.publishRate = compareMetric(samples(baselineRuns, r -> r.publishRate),
+                samples(candidateRuns, r -> r.publishRate), tested, false);
+        result.publishLatency99pct = compareLatencies(baselineRuns, candidateRuns, tested,
+                r -> r.publishLatency99pct, r -> r.publishLatencyQuantiles);
+        result.endToEndLatency99pct = compareLatencies(baselineRuns, candidateRuns, tested,
+                r -> r.endToEndLatency99pct, r -> r.endToEndLatencyQuantiles);
+
+        result.regression = result.publishRate.regression
+                || (result.publishLatency99pct != null && result.publishLatency99pct.regression)
+                || (result.endToEndLatency99pct != null && result.endToEndLatency99pct.regression);
+
+        String message = String.format("%s on %s (%d / %d runs) | Pub rate %s -> %s msg/s %s", result.workload,
+                result.driver, result.baselineRuns, result.candidateRuns,
+                rateFormat.format(result.publishRate.baselineMean).trim(),
+                rateFormat.format(result.publishRate.candidateMean).trim(), describe(result.publishRate));
+        if (result.publishLatency99pct != null) {
+            message += String.format(" | Pub Latency 99%% %s -> %s ms %s",
+                    latencyFormat.format(result.publishLatency99pct.baselineMean),
+                    latencyFormat.format(result.publishLatency99pct.candidateMean),
+                    describe(result.publishLatency99pct));
+        }
+        if (result.endToEndLatency99pct != null) {
+            message += String.format(" | E2E Latency 99%% %s -> %s ms %s",
+                    latencyFormat.format(result.endToEndLatency99pct.baselineMean),
+                    latencyFormat.format(result.endToEndLatency99pct.candidateMean),
+                    describe(result.endToEndLatency99pct));
+        }
+
+        if (result.regression) {
+            log.warn("----- REGRESSION {}", message);
+        } else {
+            log.info("----- {}", message);
+        }
+        return result;
+    }
+
+    /**
+     * Compare the means of the samples, and test the change for significance when there are several runs in both
+     * sets
+     */
+    private MetricComparison compareMetric(List<Double> baseline, List<Double> candidate, boolean tested,
+            boolean lowerIsBetter) {
+        MetricComparison comparison = new MetricComparison();
+        comparison.baselineMean = Statistics.mean(baseline);
+        comparison.candidateMean = Statistics.mean(candidate);
+        comparison.relativeChange = relativeChange(comparison.baselineMean, comparison.candidateMean);
+        if (tested) {
+            comparison.pValue = Statistics.welchTTest(baseline, candidate);
+            comparison.significant = comparison.pValue < 1 - confidenceLevel;
+            double worsening = lowerIsBetter ? comparison.relativeChange : -comparison.relativeChange;
+            comparison.regression = comparison.significant && worsening > threshold;
+        }
+        return comparison;
+    }
+
+    /**
+     * Compare the p99 latencies of the runs, skipped when a run has no latency quantiles. The p99 of the merged
+     * latency histograms of each set is reported next to them.
+     */
+    private MetricComparison compareLatencies(List<RunSummary> baselineRuns, List<RunSummary> candidateRuns,
+            boolean tested, Function<RunSummary, Double> latency99pct, Function<RunSummary, double[][]> quantiles) {
+        if (!Stream.concat(baselineRuns.stream(), candidateRuns.stream())
+                .allMatch(r -> quantiles.apply(r)[0].length > 0)) {
+            return null;
+        }
+
+        MetricComparison comparison = compareMetric(samples(baselineRuns, latency99pct),
+                samples(candidateRuns, latency99pct), tested, true);
+        comparison.baselineMerged = merge(baselineRuns, quantiles).getValueAtPercentile(99) / 1000.0;
+        comparison.candidateMerged = merge(candidateRuns, quantiles).getValueAtPercentile(99) / 1000.0;
+        return comparison;
+    }
+
+    private static double relativeChange(double baseline, double candidate) {
+        return baseline != 0 ? (candidate - baseline) / baseline : 0;
+    }
+
+    /**
+     * Rebuild a latency histogram, in microseconds, from the quantiles of each run. The latency at a percentile
+     * stands for the runs' messages between the previous percentile and it, with the same weight for every run.
+     */
+    private static Histogram merge(List<RunSummary> runs, Function<RunSummary, double[][]> quantiles) {
+        Histogram histogram = new Histogram(3);
+        for (RunSummary run : runs) {
+            double[][] runQuantiles = quantiles.apply(run);
+            double previousPercentile = 0;
+            for (int i = 0; i < runQuantiles[0].length; i++) {
+                double percentile = runQuantiles[0][i];
+                long count = Math.max(1, Math.round((percentile - previousPercentile) * COUNT_PER_PERCENT));
+                histogram.recordValueWithCount(Math.round(runQuantiles[1][i] * 1000), count);
+                previousPercentile = percentile;
+            }
+        }
+        return histogram;
+    }
+
+    private static List<Double> samples(List<RunSummary> runs, Function<RunSummary, Double> value) {
+        return runs.stream().map(value).collect(Collectors.toList());
+    }
+
+    private String describe(MetricComparison comparison) {
+        return String.format("(%s%%, p = %s)", dec.format(comparison.relativeChange * 100).trim(),
+                comparison.pValue == null || comparison.pValue.isNaN() ? "n/a" : pFormat.format(comparison.pValue));
+    }
+
+    private static Map<String, List<RunSummary>> groupByWorkloadAndDriver(List<RunSummary> runs) {
+        return runs.stream().collect(Collectors.groupingBy(r -> r.workload + " / " + r.driver, TreeMap::new,
+                Collectors.toList()));
+    }
+
+    /**
+     * Read the test results of the given directories, recursively, and files, in parallel
+     */
+    private static List<RunSummary> readResults(List<String> paths) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String path : paths) {
+            try (Stream<Path> walk = Files.walk(Paths.get(path))) {
+                walk.filter(Files::isRegularFile).filter(file -> file.toString().endsWith(".json"))
+                        .forEach(files::add);
+            }
+        }
+
+        List<RunSummary> runs = files.parallelStream().map(ResultsComparison::readResult).filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        log.info("Read {} test results out of {} files from {}", runs.size(), files.size(), paths);
+        return runs;
+    }
+
+    private static RunSummary readResult(Path file) {
+        TestResult result;
+        try {
+            result = reader.readValue(file.toFile());
+        } catch (IOException e) {
+            // Trials results and other files that are not test results
+            log.debug("Skipping {}: {}", file, e.getMessage());
+            return null;
+        }
+        if (result.workload == null || result.driver == null || result.publishRate.isEmpty()) {
+            log.debug("Skipping {}: not a test result", file);
+            return null;
+        }
+
+        RunSummary run = new RunSummary();
+        run.workload = result.workload;
+        run.driver = result.driver;
+        run.publishRate = Statistics.mean(result.publishRate);
+        run.publishLatency99pct = result.aggregatedPublishLatency99pct;
+        run.endToEndLatency99pct = result.aggregatedEndToEndLatency99pct;
+        run.publishLatencyQuantiles = toArrays(result.aggregatedPublishLatencyQuantiles);
+        run.endToEndLatencyQuantiles = toArrays(result.aggregatedEndToEndLatencyQuantiles);
+        return run;
+    }
+
+    private static double[][] toArrays(Map<Double, Double> quantiles) {
+        double[][] arrays = new double[2][quantiles.size()];
+        int i = 0;
+        for (Map.Entry<Double, Double> entry : quantiles.entrySet()) {
+            arrays[0][i] = entry.getKey();
+            arrays[1][i] = entry.getValue();
+            i++;
+        }
+        return arrays;
+    }
+
+    // Weight of each run in the merged histograms
+    private static final long COUNT_PER_PERCENT = 10_000;
+
+    private static final ObjectReader reader = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false).readerFor(TestResult.class);
+
+    private static final DecimalFormat rateFormat = new PaddingDecimalFormat("0.0", 7);
+    private static final DecimalFormat dec = new PaddingDecimalFormat("0.0", 4);
+    private static final DecimalFormat latencyFormat = new DecimalFormat("0.###");
+    private static final DecimalFormat pFormat = new DecimalFormat("0.####");
+
+    private static final Logger log = LoggerFactory.getLogger(ResultsComparison.class);
+}
@@ -0,0 +1,156 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Results of a test appended to a file, as newline delimited JSON, as soon as each stats period is collected. A long
+ * test then keeps its per-period series on disk rather than in memory, and a crash does not lose the periods already
+ * collected.
+ *
+ * <p>The first record describes the test, one record follows per period, and a last record holds the aggregated
+ * results once the test completed. The result of the test is rebuilt from the records with {@link #read(File)}.
+ */
+public class ResultsStream implements Closeable {
+
+    /**
+     * A line of the stream, with either the test result, without its per-period series, or a period
+     */
+    static class Record {
+        public TestResult result;
+        public PeriodResult period;
+    }
+
+    private final File file;
+    private final Writer out;
+
+    public ResultsStream(File file) throws IOException {
+        this.file = file;
+        this.out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Record the description of the test, or its aggregated results once complete. The per-period series are left
+     * out, they are streamed with {@link #append(PeriodResult)}.
+     */
+    public void write(TestResult result) throws IOException {
+        Record record = new Record();
+        record.result = result;
+        write(record);
+    }
+
+    public void append(PeriodResult period) throws IOException {
+        Record record = new Record();
+        record.period = period;
+        write(record);
+    }
+
+    private synchronized void write(Record record) throws IOException {
+        out.write(mapper.writeValueAsString(record));
+        out.write('\n');
+        out.flush();
+    }
+
+    /**
+     * Append the periods recorded so far to the per-period series of the result
+     */
+    public void readPeriods(TestResult result) throws IOException {
+        readRecords(file, "period", record -> result.addPeriod(record.period));
+    }
+
+    /**
+     * Rebuild the result of a test from its stream: the last description or aggregated results recorded, with the
+     * series of all the periods. The aggregated values are missing when the test did not complete.
+     */
+    public static TestResult read(File file) throws IOException {
+        AtomicReference<TestResult> result = new AtomicReference<>();
+        readRecords(file, "result", record -> result.set(record.result));
+        if (result.get() == null) {
+            throw new IOException("No test result in " + file);
+        }
+
+        readRecords(file, "period", record -> result.get().addPeriod(record.period));
+        return result.get();
+    }
+
+    /**
+     * Read the records of a kind, without parsing the other ones
+     */
+    private static void readRecords(File file, String kind, Consumer<Record> consumer) throws IOException {
+        String prefix = "{\"" + kind + "\":";
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (!line.startsWith(prefix)) {
+                    continue;
+                }
+
+                Record record;
+                try {
+                    record = mapper.readValue(line, Record.class);
+                } catch (JsonProcessingException e) {
+                    // The last line of a crashed test can be cut short
+                    log.warn("Skipping the unreadable record at line {} of {}: {}", lineNumber, file,
+                            e.getOriginalMessage());
+                    continue;
+                }
+                consumer.accept(record);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_EMPTY)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final Logger log = LoggerFactory.getLogger(ResultsStream.class);
+}
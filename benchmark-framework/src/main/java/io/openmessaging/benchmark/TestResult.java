@@ -18,12 +18,14 @@
  */
 package io.openmessaging.benchmark;
 
-import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
+import io.openmessaging.benchmark.utils.DoubleList;
+import io.openmessaging.benchmark.utils.LongList;
+
 public class TestResult {
     public String workload;
     public String driver;
@@ -33,27 +35,27 @@ public class TestResult {
     public int producersPerTopic;
     public int consumersPerTopic;
 
-    public List<Double> publishRate = new ArrayList<>();
-    public List<Double> consumeRate = new ArrayList<>();
-    public List<Long> backlog = new ArrayList<>();
-
-    public List<Double> publishLatencyAvg = new ArrayList<>();
-    public List<Double> publishLatency50pct = new ArrayList<>();
-    public List<Double> publishLatency75pct = new ArrayList<>();
-    public List<Double> publishLatency95pct = new ArrayList<>();
-    public List<Double> publishLatency99pct = new ArrayList<>();
-    public List<Double> publishLatency999pct = new ArrayList<>();
-    public List<Double> publishLatency9999pct = new ArrayList<>();
-    public List<Double> publishLatencyMax = new ArrayList<>();
-
-    public List<Double> publishDelayLatencyAvg = new ArrayList<>();
-    public List<Long> publishDelayLatency50pct = new ArrayList<>();
-    public List<Long> publishDelayLatency75pct = new ArrayList<>();
-    public List<Long> publishDelayLatency95pct = new ArrayList<>();
-    public List<Long> publishDelayLatency99pct = new ArrayList<>();
-    public List<Long> publishDelayLatency999pct = new ArrayList<>();
-    public List<Long> publishDelayLatency9999pct = new ArrayList<>();
-    public List<Long> publishDelayLatencyMax = new ArrayList<>();
+    public List<Double> publishRate = new DoubleList();
+    public List<Double> consumeRate = new DoubleList();
+    public List<Long> backlog = new LongList();
+
+    public List<Double> publishLatencyAvg = new DoubleList();
+    public List<Double> publishLatency50pct = new DoubleList();
+    public List<Double> publishLatency75pct = new DoubleList();
+    public List<Double> publishLatency95pct = new DoubleList();
+    public List<Double> publishLatency99pct = new DoubleList();
+    public List<Double> publishLatency999pct = new DoubleList();
+    public List<Double> publishLatency9999pct = new DoubleList();
+    public List<Double> publishLatencyMax = new DoubleList();
+
+    public List<Double> publishDelayLatencyAvg = new DoubleList();
+    public List<Long> publishDelayLatency50pct = new LongList();
+    public List<Long> publishDelayLatency75pct = new LongList();
+    public List<Long> publishDelayLatency95pct = new LongList();
+    public List<Long> publishDelayLatency99pct = new LongList();
+    public List<Long> publishDelayLatency999pct = new LongList();
+    public List<Long> publishDelayLatency9999pct = new LongList();
+    public List<Long> publishDelayLatencyMax = new LongList();
 
     public double aggregatedPublishLatencyAvg;
     public double aggregatedPublishLatency50pct;
@@ -80,16 +82,28 @@ public class TestResult {
     // End to end latencies (from producer to consumer)
     // Latencies are expressed in milliseconds (without decimals)
 
-    public List<Double> endToEndLatencyAvg = new ArrayList<>();
-    public List<Double> endToEndLatency50pct = new ArrayList<>();
-    public List<Double> endToEndLatency75pct = new ArrayList<>();
-    public List<Double> endToEndLatency95pct = new ArrayList<>();
-    public List<Double> endToEndLatency99pct = new ArrayList<>();
-    public List<Double> endToEndLatency999pct = new ArrayList<>();
-    public List<Double> endToEndLatency9999pct = new ArrayList<>();
-    public List<Double> endToEndLatencyMax = new ArrayList<>();
+    public List<Double> endToEndLatencyAvg = new DoubleList();
+    public List<Double> endToEndLatency50pct = new DoubleList();
+    public List<Double> endToEndLatency75pct = new DoubleList();
+    public List<Double> endToEndLatency95pct = new DoubleList();
+    public List<Double> endToEndLatency99pct = new DoubleList();
+    public List<Double> endToEndLatency999pct = new DoubleList();
+    public List<Double> endToEndLatency9999pct = new DoubleList();
+    public List<Double> endToEndLatencyMax = new DoubleList();
     public Map<String, List<Double>> additionalMetrics = new LinkedHashMap<>();
 
+    // Spread of the consume rate across partitions, only for drivers that report partitions
+    public List<Double> partitionConsumeRateMin = new DoubleList();
+    public List<Double> partitionConsumeRateAvg = new DoubleList();
+    public List<Double> partitionConsumeRateMax = new DoubleList();
+
+    // Achieved and target publish rate of each producer worker, only for distributed runs
+    public Map<String, List<Double>> publishRateByWorker = new TreeMap<>();
+    public Map<String, List<Double>> targetPublishRateByWorker = new TreeMap<>();
+
+    // Total messages received by topic and partition over the test
+    public Map<String, Map<Integer, Long>> messagesReceivedByPartition = new TreeMap<>();
+
     public Map<Double, Double> aggregatedEndToEndLatencyQuantiles = new TreeMap<>();
 
     public double aggregatedEndToEndLatencyAvg;
@@ -101,9 +115,125 @@ public class TestResult {
     public double aggregatedEndToEndLatency9999pct;
     public double aggregatedEndToEndLatencyMax;
 
+    // Aggregated latencies broken down by message size bucket, keyed by the bucket upper bound in bytes
+    public Map<Integer, LatencySummary> aggregatedPublishLatencyBySize = new TreeMap<>();
+    public Map<Integer, LatencySummary> aggregatedEndToEndLatencyBySize = new TreeMap<>();
+
+    // Throughput and latencies of each traffic group of a multi-group workload
+    public Map<String, TrafficGroupResult> trafficGroups = new TreeMap<>();
+
+    // Time for each producer and consumer to be ready, keyed by client kind
+    public Map<String, LatencySummary> clientSetupLatency = new TreeMap<>();
+
+    // Length of the warm-up before the measured traffic. With an adaptive warm-up, whether the traffic became steady
+    // before the maximum warm-up duration, null with a fixed warm-up
+    public double warmupSeconds;
+    public Boolean warmupSteadyStateReached;
+
+    // Time for all the partitions to be assigned and the consumers to receive a probe message on each of them, null
+    // when the consumers of a previous run were reused
+    public Double consumersReadySeconds;
+
+    // Latency of the coordinator commands to the workers, keyed by command, only for distributed runs
+    public Map<String, LatencySummary> controlPlaneLatency = new TreeMap<>();
+
+    // Catch-up reads of existing topics: what was read and how fast, until the consumers caught up or the end of
+    // the test. The time to drain is only set when the consumers caught up.
+    public long catchUpMessages;
+    public long catchUpBytes;
+    public double catchUpConsumeRate;
+    public double catchUpConsumeThroughput;
+    public Double timeToDrainSeconds;
+
+    // Replies received by the producers and round trip of their requests, for request/reply workloads
+    public List<Double> replyRate = new DoubleList();
+    public List<Double> roundTripLatencyAvg = new DoubleList();
+    public List<Double> roundTripLatency50pct = new DoubleList();
+    public List<Double> roundTripLatency99pct = new DoubleList();
+    public List<Double> roundTripLatency999pct = new DoubleList();
+    public List<Double> roundTripLatencyMax = new DoubleList();
+    public LatencySummary aggregatedRoundTripLatency;
+
+    // Catch-up subscriptions reading behind the tailing ones, for workloads with catchUpReaders. The other latencies
+    // and consume rates are then the ones of the tailing subscriptions only.
+    public CatchUpReadersResult catchUpReaders;
+
+    // Short-lived producers, for workloads with producerChurn
+    public ProducerChurnResult producerChurn;
+
+    // Commits of the transactions, for workloads with transactions
+    public TransactionsResult transactions;
+
+    // Topics created, subscribed and deleted, for workloads with adminOperations
+    public AdminOperationsResult adminOperations;
+
+    // Impact of each consumer scaling event, for workloads with consumerScaling
+    public List<ConsumerScalingResult> consumerScaling;
+
+    // Build and drain of the backlog, for workloads with consumerBacklogSizeGB
+    public BacklogResult backlogBuildAndDrain;
+
     public long aggregatedPublishErrors;
     public long aggregatedConsumerErrors;
 
+    /**
+     * Append the values of a stats period to the per-period series
+     */
+    public void addPeriod(PeriodResult period) {
+        publishRate.add(period.publishRate);
+        consumeRate.add(period.consumeRate);
+        backlog.add(period.backlog);
+
+        publishLatencyAvg.add(period.publishLatencyAvg);
+        publishLatency50pct.add(period.publishLatency50pct);
+        publishLatency75pct.add(period.publishLatency75pct);
+        publishLatency95pct.add(period.publishLatency95pct);
+        publishLatency99pct.add(period.publishLatency99pct);
+        publishLatency999pct.add(period.publishLatency999pct);
+        publishLatency9999pct.add(period.publishLatency9999pct);
+        publishLatencyMax.add(period.publishLatencyMax);
+
+        publishDelayLatencyAvg.add(period.publishDelayLatencyAvg);
+        publishDelayLatency50pct.add(period.publishDelayLatency50pct);
+        publishDelayLatency75pct.add(period.publishDelayLatency75pct);
+        publishDelayLatency95pct.add(period.publishDelayLatency95pct);
+        publishDelayLatency99pct.add(period.publishDelayLatency99pct);
+        publishDelayLatency999pct.add(period.publishDelayLatency999pct);
+        publishDelayLatency9999pct.add(period.publishDelayLatency9999pct);
+        publishDelayLatencyMax.add(period.publishDelayLatencyMax);
+
+        endToEndLatencyAvg.add(period.endToEndLatencyAvg);
+        endToEndLatency50pct.add(period.endToEndLatency50pct);
+        endToEndLatency75pct.add(period.endToEndLatency75pct);
+        endToEndLatency95pct.add(period.endToEndLatency95pct);
+        endToEndLatency99pct.add(period.endToEndLatency99pct);
+        endToEndLatency999pct.add(period.endToEndLatency999pct);
+        endToEndLatency9999pct.add(period.endToEndLatency9999pct);
+        endToEndLatencyMax.add(period.endToEndLatencyMax);
+        period.additionalMetrics.forEach((metric, value) -> additionalMetrics
+                .computeIfAbsent(metric, k -> new DoubleList()).add(value));
+
+        if (period.partitionConsumeRateMin != null) {
+            partitionConsumeRateMin.add(period.partitionConsumeRateMin);
+            partitionConsumeRateAvg.add(period.partitionConsumeRateAvg);
+            partitionConsumeRateMax.add(period.partitionConsumeRateMax);
+        }
+
+        period.publishRateByWorker.forEach((worker, rate) -> publishRateByWorker
+                .computeIfAbsent(worker, k -> new DoubleList()).add(rate));
+        period.targetPublishRateByWorker.forEach((worker, rate) -> targetPublishRateByWorker
+                .computeIfAbsent(worker, k -> new DoubleList()).add(rate));
+
+        if (period.replyRate != null) {
+            replyRate.add(period.replyRate);
+            roundTripLatencyAvg.add(period.roundTripLatencyAvg);
+            roundTripLatency50pct.add(period.roundTripLatency50pct);
+            roundTripLatency99pct.add(period.roundTripLatency99pct);
+            roundTripLatency999pct.add(period.roundTripLatency999pct);
+            roundTripLatencyMax.add(period.roundTripLatencyMax);
+        }
+    }
+
     public int getTopics() {
         return topics;
     }
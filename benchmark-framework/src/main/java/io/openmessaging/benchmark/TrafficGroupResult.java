@@ -0,0 +1,57 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Results of a traffic group of a multi-group workload
+ */
+public class TrafficGroupResult {
+    public int topics;
+    public int partitions;
+    public long messageSize;
+    public int producersPerTopic;
+    public int subscriptionsPerTopic;
+    public int consumersPerSubscription;
+    public double targetPublishRate;
+
+    public List<Double> publishRate = new ArrayList<>();
+    public List<Double> publishThroughput = new ArrayList<>();
+    public List<Double> consumeRate = new ArrayList<>();
+    public List<Double> consumeThroughput = new ArrayList<>();
+    public List<Long> backlog = new ArrayList<>();
+
+    public LatencySummary aggregatedPublishLatency;
+    public LatencySummary aggregatedEndToEndLatency;
+
+    public TrafficGroupResult() {
+    }
+
+    public TrafficGroupResult(Workload group) {
+        this.topics = group.topics;
+        this.partitions = group.partitionsPerTopic;
+        this.messageSize = group.messageSize;
+        this.producersPerTopic = group.producersPerTopic;
+        this.subscriptionsPerTopic = group.subscriptionsPerTopic;
+        this.consumersPerSubscription = group.consumerPerSubscription;
+        this.targetPublishRate = group.producerRate;
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+/**
+ * Publish the messages in transactions, on transactional producers created next to the producers of the workload. A
+ * transaction is committed after messagesPerTransaction messages, or commitIntervalMillis after its first message,
+ * whichever comes first.
+ */
+public class Transactions {
+
+    /** Messages of each transaction, 0 to only commit on the commit interval */
+    public int messagesPerTransaction;
+
+    /** Time a transaction stays open after its first message, 0 to only commit after messagesPerTransaction */
+    public long commitIntervalMillis;
+
+    public void validate() throws IllegalArgumentException {
+        if (messagesPerTransaction < 0 || commitIntervalMillis < 0
+                || (messagesPerTransaction == 0 && commitIntervalMillis == 0)) {
+            throw new IllegalArgumentException(
+                    "Transactions need messagesPerTransaction or commitIntervalMillis > 0, and neither < 0");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transactions of a workload with transactions: how many were committed per second, the time to commit them, and the
+ * time from their first message to their messages being visible once committed
+ */
+public class TransactionsResult {
+    public int messagesPerTransaction;
+    public long commitIntervalMillis;
+
+    public long transactionsCommitted;
+    public long messagesCommitted;
+    // Transactions that could not be committed
+    public long errors;
+
+    // Transactions committed per second over each stats period, and over the whole test
+    public List<Double> commitRate = new ArrayList<>();
+    public double aggregatedCommitRate;
+    public double averageMessagesPerTransaction;
+
+    public LatencySummary commitLatency;
+    public LatencySummary firstMessageToCommitLatency;
+
+    public TransactionsResult() {
+    }
+
+    public TransactionsResult(Transactions transactions) {
+        this.messagesPerTransaction = transactions.messagesPerTransaction;
+        this.commitIntervalMillis = transactions.commitIntervalMillis;
+    }
+}
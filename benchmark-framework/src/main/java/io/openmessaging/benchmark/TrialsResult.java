@@ -0,0 +1,126 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+import io.openmessaging.benchmark.worker.commands.CumulativeLatencies;
+
+/**
+ * Summary of the repeated trials of a workload on a driver: mean and confidence interval of the throughput and of
+ * each latency percentile over the trials, and the latency percentiles of all the trials merged together
+ */
+public class TrialsResult {
+    public String workload;
+    public String driver;
+    public int trials;
+    public double confidenceLevel;
+
+    // Whether the confidence intervals got tight enough to stop before the requested number of trials
+    public boolean stoppedEarly;
+
+    // Result files of the trials, in order
+    public List<String> trialResults = new ArrayList<>();
+
+    public ConfidenceInterval publishRate;
+    public ConfidenceInterval consumeRate;
+
+    // Intervals of the latency statistics of the trials, keyed by statistic: avg, pct50, pct99, ...
+    public Map<String, ConfidenceInterval> publishLatency = new LinkedHashMap<>();
+    public Map<String, ConfidenceInterval> endToEndLatency = new LinkedHashMap<>();
+
+    public LatencySummary mergedPublishLatency;
+    public LatencySummary mergedEndToEndLatency;
+
+    private final List<Double> publishRates = new ArrayList<>();
+    private final List<Double> consumeRates = new ArrayList<>();
+    private final Map<String, List<Double>> publishLatencies = new LinkedHashMap<>();
+    private final Map<String, List<Double>> endToEndLatencies = new LinkedHashMap<>();
+    private Histogram mergedPublishHistogram;
+    private Histogram mergedEndToEndHistogram;
+
+    public TrialsResult() {
+    }
+
+    public TrialsResult(String workload, String driver, double confidenceLevel) {
+        this.workload = workload;
+        this.driver = driver;
+        this.confidenceLevel = confidenceLevel;
+    }
+
+    public void addTrial(String resultFile, TestResult result, CumulativeLatencies latencies) {
+        trials++;
+        trialResults.add(resultFile);
+
+        publishRates.add(result.publishRate.stream().mapToDouble(Double::doubleValue).average().orElse(0));
+        consumeRates.add(result.consumeRate.stream().mapToDouble(Double::doubleValue).average().orElse(0));
+        publishRate = ConfidenceInterval.of(publishRates, confidenceLevel);
+        consumeRate = ConfidenceInterval.of(consumeRates, confidenceLevel);
+
+        addLatencies(LatencySummary.fromMicros(latencies.publishLatency), publishLatencies, publishLatency);
+        addLatencies(LatencySummary.fromMicros(latencies.endToEndLatency), endToEndLatencies, endToEndLatency);
+
+        mergedPublishHistogram = merge(mergedPublishHistogram, latencies.publishLatency);
+        mergedEndToEndHistogram = merge(mergedEndToEndHistogram, latencies.endToEndLatency);
+        mergedPublishLatency = LatencySummary.fromMicros(mergedPublishHistogram);
+        mergedEndToEndLatency = LatencySummary.fromMicros(mergedEndToEndHistogram);
+    }
+
+    /**
+     * Whether the intervals of the publish rate and of the p99 latencies are within the given fraction of their mean
+     */
+    public boolean reachedPrecision(double maxRelativeHalfWidth) {
+        return publishRate.relativeHalfWidth <= maxRelativeHalfWidth
+                && publishLatency.get("pct99").relativeHalfWidth <= maxRelativeHalfWidth
+                && (mergedEndToEndLatency.count == 0
+                        || endToEndLatency.get("pct99").relativeHalfWidth <= maxRelativeHalfWidth);
+    }
+
+    private void addLatencies(LatencySummary summary, Map<String, List<Double>> values,
+            Map<String, ConfidenceInterval> intervals) {
+        Map<String, Double> statistics = new LinkedHashMap<>();
+        statistics.put("avg", summary.avg);
+        statistics.put("pct50", summary.pct50);
+        statistics.put("pct75", summary.pct75);
+        statistics.put("pct95", summary.pct95);
+        statistics.put("pct99", summary.pct99);
+        statistics.put("pct999", summary.pct999);
+        statistics.put("pct9999", summary.pct9999);
+        statistics.put("max", summary.max);
+
+        statistics.forEach((statistic, value) -> {
+            List<Double> trialValues = values.computeIfAbsent(statistic, s -> new ArrayList<>());
+            trialValues.add(value);
+            intervals.put(statistic, ConfidenceInterval.of(trialValues, confidenceLevel));
+        });
+    }
+
+    private static Histogram merge(Histogram merged, Histogram histogram) {
+        if (merged == null) {
+            return histogram.copy();
+        }
+        merged.add(histogram);
+        return merged;
+    }
+}
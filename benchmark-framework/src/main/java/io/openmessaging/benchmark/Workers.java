@@ -19,8 +19,16 @@
 package io.openmessaging.benchmark;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Workers {
     public List<String> workers = new ArrayList<>();
+
+    /**
+     * Optional relative weight of each worker, keyed by worker address. Producers, and so publish rate, are assigned
+     * to workers in proportion to their weight. Workers that are not listed have a weight of 1.
+     */
+    public Map<String, Double> weights = new HashMap<>();
 }
@@ -18,7 +18,15 @@
  */
 package io.openmessaging.benchmark;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.openmessaging.benchmark.driver.ConsumerStartPosition;
+import io.openmessaging.benchmark.utils.distributor.KeyDistributorConfig;
 import io.openmessaging.benchmark.utils.distributor.KeyDistributorType;
+import io.openmessaging.benchmark.utils.payload.MessageSizeDistribution;
+import io.openmessaging.benchmark.worker.commands.ClientSetup;
 
 public class Workload {
     public String name;
@@ -31,8 +39,17 @@ public class Workload {
 
     public KeyDistributorType keyDistributor = KeyDistributorType.KEY_ROUND_ROBIN;
 
+    public KeyDistributorConfig keyDistributorConfig = new KeyDistributorConfig();
+
     public int messageSize;
 
+    /**
+     * Optional distribution of message sizes. When set, the payload pool is filled with
+     * randomizedPayloadPoolSize payloads of sampled sizes and messageSize is ignored. The content is taken from
+     * payloadFile (repeated or truncated as needed) if present, otherwise it is random data.
+     */
+    public MessageSizeDistribution messageSizeDistribution;
+
     public boolean useRandomizedPayloads;
     public double randomBytesRatio;
     public int randomizedPayloadPoolSize;
@@ -60,6 +77,9 @@ public class Workload {
 
     public int warmupDurationMinutes = 1;
 
+    /** Optional warm-up lasting until the traffic is steady, warmupDurationMinutes is then ignored */
+    public AdaptiveWarmup adaptiveWarmup;
+
     /**
      * Consumer only tests. The warn-up phase will be run w/ the specified producer
      * configuration until the specified backlog is built. Following that, the
@@ -67,6 +87,93 @@ public class Workload {
      */
     public boolean consumerOnly;
 
+    /**
+     * Optional traffic groups running concurrently, eg. a few high throughput topics next to many small latency
+     * critical ones. Each group is described with the traffic settings of a workload: name, topics, partitions,
+     * message size and payload, key distribution, producers, subscriptions and a fixed producer rate. The durations of
+     * this workload apply to all the groups, and its own traffic settings are ignored.
+     */
+    public List<Workload> trafficGroups;
+
+    /**
+     * Optional existing topics to run on instead of creating new ones. The topics and partitionsPerTopic settings are
+     * then ignored. Topics created and filled beforehand can be read back with producersPerTopic set to 0.
+     */
+    public List<String> existingTopics;
+
+    /** Run on the existing topics whose name starts with this prefix, for drivers that can list the topics */
+    public String existingTopicsPrefix;
+
+    /** Where the subscriptions start reading, to read the data already stored in existing topics */
+    public ConsumerStartPosition consumeFrom = ConsumerStartPosition.LATEST;
+
+    /** With consumeFrom: TIMESTAMP, the publish time of the first message to read, in milliseconds since the epoch */
+    public long consumeFromTimestamp;
+
+    /** Optional subscriptions reading behind the others, whose reads are reported apart from them */
+    public CatchUpReaders catchUpReaders;
+
+    /**
+     * Request/reply mode: the consumers echo each message to a reply topic of the producer worker that sent it, which
+     * measures the round trip on its own clock
+     */
+    public boolean requestReply;
+
+    /**
+     * Optional consumers added to or closed from each subscription during the measured traffic, to measure the impact
+     * of the rebalances
+     */
+    public List<ConsumerScalingEvent> consumerScaling;
+
+    /** Optional short-lived producers created during the test, each sending a few messages before being closed */
+    public ProducerChurn producerChurn;
+
+    /**
+     * Optional topics created, subscribed and deleted during the test to measure the admin operations, next to the
+     * traffic of the workload or on their own with topics: 0
+     */
+    public AdminOperations adminOperations;
+
+    /** Optional transactions the producers publish their messages in, to measure the cost of committing them */
+    public Transactions transactions;
+
+    /** Producers or consumers created or closed at once on each worker */
+    public int clientSetupConcurrency = ClientSetup.DEFAULT_CONCURRENCY;
+
+    /** Time allowed to create or close each producer or consumer */
+    public int clientSetupTimeoutSeconds = ClientSetup.DEFAULT_TIMEOUT_SECONDS;
+
+    public boolean hasTrafficGroups() {
+        return trafficGroups != null && !trafficGroups.isEmpty();
+    }
+
+    public boolean hasConsumerScaling() {
+        return consumerScaling != null && !consumerScaling.isEmpty();
+    }
+
+    /** Admin operations only, without topics carrying traffic */
+    public boolean runsAdminOperationsOnly() {
+        return adminOperations != null && topics == 0 && !hasTrafficGroups() && !hasExistingTopics();
+    }
+
+    public boolean hasExistingTopics() {
+        return (existingTopics != null && !existingTopics.isEmpty()) || existingTopicsPrefix != null;
+    }
+
+    /** Subscriptions of each topic reading the new messages, leaving out the catch-up ones */
+    public int tailingSubscriptionsPerTopic() {
+        return catchUpReaders != null ? subscriptionsPerTopic - catchUpReaders.subscriptionsPerTopic
+                : subscriptionsPerTopic;
+    }
+
+    /**
+     * Consumers only, catching up with the data already stored in existing topics. The test ends when the consumers
+     * have read everything, or after testDurationMinutes when it is set.
+     */
+    public boolean readsExistingData() {
+        return hasExistingTopics() && producersPerTopic == 0;
+    }
+
     public void validate() throws IllegalArgumentException {
         if (consumerOnly && (subscriptionsPerTopic == 0 || consumerPerSubscription == 0)) {
             throw new IllegalArgumentException("Consumer only tests need subscriptions/consumers");
@@ -79,5 +186,125 @@ public class Workload {
         if (producerRate < 0) {
             throw new IllegalArgumentException("Producer rate should be >= 0");
         }
+
+        if (clientSetupConcurrency <= 0 || clientSetupTimeoutSeconds <= 0) {
+            throw new IllegalArgumentException("Client setup concurrency and timeout should be > 0");
+        }
+
+        if (keyDistributorConfig != null) {
+            keyDistributorConfig.validate();
+        }
+
+        if (messageSizeDistribution != null) {
+            messageSizeDistribution.validate();
+        }
+
+        if (adaptiveWarmup != null) {
+            adaptiveWarmup.validate();
+        }
+
+        if (catchUpReaders != null) {
+            catchUpReaders.validate(this);
+            if (hasTrafficGroups() || readsExistingData() || consumerBacklogSizeGB > 0 || consumerOnly
+                    || consumerPerSubscription == 0) {
+                throw new IllegalArgumentException("Catch-up readers need consumers and producers, without traffic"
+                        + " groups or backlog");
+            }
+        }
+
+        if (requestReply && (subscriptionsPerTopic != 1 || consumerPerSubscription == 0 || hasTrafficGroups()
+                || readsExistingData() || consumerOnly || catchUpReaders != null)) {
+            throw new IllegalArgumentException("Request/reply needs producers and a single subscription per topic,"
+                    + " without traffic groups or catch-up readers");
+        }
+
+        if (hasConsumerScaling()) {
+            if (consumerPerSubscription == 0 || hasTrafficGroups() || readsExistingData()
+                    || consumerBacklogSizeGB > 0 || consumerOnly || catchUpReaders != null) {
+                throw new IllegalArgumentException("Consumer scaling needs consumers and producers, without traffic"
+                        + " groups, backlog or catch-up readers");
+            }
+
+            int consumers = consumerPerSubscription;
+            int afterSeconds = -1;
+            for (ConsumerScalingEvent event : consumerScaling) {
+                if (event.afterSeconds <= afterSeconds || event.consumersPerSubscription == 0) {
+                    throw new IllegalArgumentException("Consumer scaling events need increasing afterSeconds and a"
+                            + " non zero consumersPerSubscription");
+                }
+                consumers += event.consumersPerSubscription;
+                if (consumers < 1) {
+                    throw new IllegalArgumentException("Consumer scaling cannot leave a subscription without"
+                            + " consumers: " + event);
+                }
+                afterSeconds = event.afterSeconds;
+            }
+        }
+
+        if (producerChurn != null) {
+            producerChurn.validate();
+            if (producersPerTopic == 0 || hasTrafficGroups() || readsExistingData() || consumerBacklogSizeGB > 0
+                    || consumerOnly || requestReply) {
+                throw new IllegalArgumentException("Producer churn needs long-lived producers on the topics, without"
+                        + " traffic groups, backlog or request/reply");
+            }
+        }
+
+        if (transactions != null) {
+            transactions.validate();
+            if (producersPerTopic == 0 || hasTrafficGroups() || readsExistingData() || requestReply) {
+                throw new IllegalArgumentException("Transactions need producers on the topics, without traffic"
+                        + " groups or request/reply");
+            }
+        }
+
+        if (adminOperations != null) {
+            adminOperations.validate();
+            if (runsAdminOperationsOnly() && (consumerBacklogSizeGB > 0 || consumerOnly || catchUpReaders != null
+                    || requestReply || hasConsumerScaling() || producerChurn != null)) {
+                throw new IllegalArgumentException("Admin operations without topics cannot have a backlog, catch-up"
+                        + " readers, request/reply, consumer scaling or producer churn");
+            }
+        }
+
+        if (existingTopics != null && !existingTopics.isEmpty() && existingTopicsPrefix != null) {
+            throw new IllegalArgumentException("Only one between existingTopics and existingTopicsPrefix can be set");
+        }
+
+        if (consumeFrom == ConsumerStartPosition.TIMESTAMP && consumeFromTimestamp <= 0) {
+            throw new IllegalArgumentException("Consuming from a timestamp needs a consumeFromTimestamp");
+        }
+
+        if (readsExistingData()) {
+            if (subscriptionsPerTopic == 0 || consumerPerSubscription == 0) {
+                throw new IllegalArgumentException("Catch-up reads of existing topics need subscriptions/consumers");
+            }
+            if (consumerBacklogSizeGB > 0 || consumerOnly) {
+                throw new IllegalArgumentException("Catch-up reads of existing topics cannot build a backlog");
+            }
+        }
+
+        if (hasTrafficGroups()) {
+            if (hasExistingTopics()) {
+                throw new IllegalArgumentException("Traffic groups cannot run on existing topics");
+            }
+            if (consumerBacklogSizeGB > 0 || consumerOnly) {
+                throw new IllegalArgumentException("Backlog and consumer only tests do not support traffic groups");
+            }
+
+            Set<String> names = new HashSet<>();
+            for (Workload group : trafficGroups) {
+                if (group.name == null || !names.add(group.name)) {
+                    throw new IllegalArgumentException("Traffic groups need a unique name");
+                }
+                if (group.producerRate <= 0) {
+                    throw new IllegalArgumentException("Traffic group " + group.name + " needs a producer rate > 0");
+                }
+                if (group.hasTrafficGroups()) {
+                    throw new IllegalArgumentException("Traffic group " + group.name + " cannot have groups");
+                }
+                group.validate();
+            }
+        }
     }
 }
@@ -24,33 +24,53 @@ import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
+import org.HdrHistogram.Histogram;
 import org.apache.commons.lang.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Preconditions;
+
 import io.netty.util.concurrent.DefaultThreadFactory;
+import io.openmessaging.benchmark.driver.ConsumerStartPosition;
 import io.openmessaging.benchmark.utils.PaddingDecimalFormat;
+import io.openmessaging.benchmark.utils.SteadyStateDetector;
 import io.openmessaging.benchmark.utils.Timer;
 import io.openmessaging.benchmark.utils.payload.FilePayloadReader;
 import io.openmessaging.benchmark.utils.payload.PayloadReader;
 import io.openmessaging.benchmark.worker.Worker;
+import io.openmessaging.benchmark.worker.commands.AdminOperationsAssignment;
+import io.openmessaging.benchmark.worker.commands.ClientSetup;
 import io.openmessaging.benchmark.worker.commands.ConsumerAssignment;
 import io.openmessaging.benchmark.worker.commands.CountersStats;
 import io.openmessaging.benchmark.worker.commands.CumulativeLatencies;
+import io.openmessaging.benchmark.worker.commands.PartitionAssignments;
 import io.openmessaging.benchmark.worker.commands.PeriodStats;
 import io.openmessaging.benchmark.worker.commands.ProducerWorkAssignment;
 import io.openmessaging.benchmark.worker.commands.TopicSubscription;
 import io.openmessaging.benchmark.worker.commands.TopicsInfo;
+import io.openmessaging.benchmark.worker.commands.TrafficGroupStats;
 
 public class WorkloadGenerator implements AutoCloseable {
 
     public static final int STATS_PERIOD = 10_000;
+    private static final long CONSUMER_SCALING_POLL_MILLIS = 100;
+    private static final double RECOVERY_BACKLOG_SECONDS = 0.5;
+    private static final long RECOVERED_SECONDS = 10;
+    private static final List<String> ADMIN_OPERATIONS = Arrays.asList("create topic", "create subscription",
+            "delete topic");
+    private static final int DEFAULT_DISTRIBUTED_PAYLOAD_POOL_SIZE = 1000;
     private final String driverName;
     private final Workload workload;
     private final Worker worker;
@@ -63,6 +83,55 @@ public class WorkloadGenerator implements AutoCloseable {
 
     private volatile double targetPublishRate;
 
+    private List<String> topics;
+
+    private CumulativeLatencies cumulativeLatencies;
+
+    private boolean keepTopology;
+
+    // Set to write the periods of the measured traffic to disk as they are collected, rather than keeping them in
+    // memory until the end of the test
+    private ResultsStream resultsStream;
+
+    // Time from the creation of the producers to all the consumers receiving the probe messages
+    private Double consumersReadySeconds;
+
+    // Build and drain of the backlog, with the times the drain started and ended
+    private BacklogResult backlogResult;
+    private volatile long drainStartTime;
+    private volatile long drainEndTime;
+    private Histogram drainPublishLatency;
+
+    // Set during an adaptive warm-up, to end it as soon as the traffic is steady
+    private SteadyStateDetector steadyStateDetector;
+    private double warmupSeconds;
+    private Boolean warmupSteadyStateReached;
+
+    // Catch-up subscriptions, with the times they were released and read as fast as the tailing ones, and the
+    // latencies of the periods in between and of the others
+    private CatchUpReadersResult catchUpReadersResult;
+    private volatile long catchUpReadersStartTime;
+    private volatile Exception catchUpReadersFailure;
+    private long catchUpReadersCaughtUpTime;
+    private Histogram tailEndToEndLatencyDuringCatchUp;
+    private Histogram tailEndToEndLatencyOtherwise;
+    private Histogram publishLatencyDuringCatchUp;
+    private Histogram publishLatencyOtherwise;
+
+    private long catchUpStartTime;
+    private volatile long lastCatchUpReceiveTime;
+
+    // Subscriptions whose consumers are scaled, one entry per topic subscription, and the time window of each scaling
+    // event from the event until the consumption recovered, or the next event
+    private final Map<String, TopicSubscription> scaledSubscriptions = new LinkedHashMap<>();
+    private final List<ConsumerScalingWindow> consumerScalingWindows = new CopyOnWriteArrayList<>();
+    private final List<ConsumerScalingResult> consumerScalingResults = new CopyOnWriteArrayList<>();
+    private volatile double lastEndToEndLatency99pct;
+
+    // Topics and running backlog of each traffic group of a multi-group workload
+    private final Map<String, List<String>> trafficGroupTopics = new LinkedHashMap<>();
+    private final Map<String, Long> trafficGroupBacklog = new TreeMap<>();
+
     public WorkloadGenerator(String driverName, Workload workload, Worker worker) {
         this.driverName = driverName;
         this.workload = workload;
@@ -73,22 +142,79 @@ public class WorkloadGenerator implements AutoCloseable {
         }
     }
 
+    /**
+     * Stream the periods of the next runs to disk. The result of a run still has all its periods, read back from
+     * the stream once the run is complete.
+     */
+    public void setResultsStream(ResultsStream resultsStream) {
+        this.resultsStream = resultsStream;
+    }
+
     public TestResult run() throws Exception {
-        Timer timer = new Timer();
-        List<String> topics = worker.createTopics(new TopicsInfo(workload.topics, workload.partitionsPerTopic));
-        log.info("Created {} topics in {} ms", topics.size(), timer.elapsedMillis());
+        return run(null, false);
+    }
 
-        if (workload.consumerPerSubscription > 0) {
-          createConsumers(topics);
-        }
+    /**
+     * Run the workload, possibly on the topology of a previous run
+     *
+     * @param existingTopics
+     *            the topics of a previous run with the same topics, partitions, producers and subscriptions, whose
+     *            producers and consumers are still in place. Only the load is started again, with the rate and
+     *            payloads of this workload. Null to create the topics, producers and consumers.
+     * @param keepTopology
+     *            only stop the load at the end of the run, so that the next run can reuse the topology
+     */
+    public TestResult run(List<String> existingTopics, boolean keepTopology) throws Exception {
+        Preconditions.checkArgument(!workload.hasTrafficGroups() || (existingTopics == null && !keepTopology),
+                "Workloads with traffic groups cannot reuse a topology");
+
+        this.keepTopology = keepTopology;
+
+        // Discard the latencies of the commands sent before this test
+        worker.getControlPlaneLatencies();
 
-        createProducers(topics);
+        if (existingTopics != null) {
+            log.info("Reusing the {} topics, producers and consumers of the previous run", existingTopics.size());
+            topics = existingTopics;
+            // Discard the traffic of the previous run
+            worker.getPeriodStats();
+        } else {
+            worker.configureClientSetup(new ClientSetup(workload.clientSetupConcurrency,
+                    workload.clientSetupTimeoutSeconds));
+
+            Timer timer = new Timer();
+            topics = workload.hasTrafficGroups() ? createTrafficGroupTopics() : worker.createTopics(topicsInfo());
+            log.info("Created {} topics in {} ms", topics.size(), timer.elapsedMillis());
 
-        if (workload.consumerPerSubscription > 0) {
-          ensureTopicsAreReady();
+            if (workload.readsExistingData()) {
+                return completeRun(readExistingData());
+            }
+
+            if (workload.runsAdminOperationsOnly()) {
+                return completeRun(runAdminOperations());
+            }
+
+            if (workload.hasTrafficGroups()) {
+                createTrafficGroupConsumersAndProducers();
+            } else {
+                if (workload.consumerPerSubscription > 0) {
+                  createConsumers(topics);
+                }
+
+                createProducers(topics);
+
+                if (workload.consumerPerSubscription > 0) {
+                  Map<String, Integer> partitionsByTopic = partitionsByTopic(topics, workload);
+                  ensureTopicsAreReady(partitionsByTopic,
+                          partitionsByTopic.values().stream().mapToInt(Integer::intValue).sum()
+                                  * workload.tailingSubscriptionsPerTopic());
+                }
+            }
         }
 
-        if (workload.producerRate > 0) {
+        if (workload.hasTrafficGroups()) {
+            targetPublishRate = workload.trafficGroups.stream().mapToDouble(g -> g.producerRate).sum();
+        } else if (workload.producerRate > 0) {
             targetPublishRate = workload.producerRate;
         } else {
             // Producer rate is 0 and we need to discover the sustainable rate
@@ -104,39 +230,47 @@ public class WorkloadGenerator implements AutoCloseable {
             });
         }
 
-        final PayloadReader payloadReader = new FilePayloadReader(workload.messageSize);
-
         ProducerWorkAssignment producerWorkAssignment = new ProducerWorkAssignment();
-        producerWorkAssignment.keyDistributorType = workload.keyDistributor;
-        producerWorkAssignment.publishRate = targetPublishRate;
-        producerWorkAssignment.payloadData = new ArrayList<>();
-
-        if(workload.useRandomizedPayloads) {
-            // create messages that are part random and part zeros
-            // better for testing effects of compression
-            Random r = new Random();
-            int randomBytes = (int)(workload.messageSize * workload.randomBytesRatio);
-            int zerodBytes = workload.messageSize - randomBytes;
-            for(int i = 0; i<workload.randomizedPayloadPoolSize; i++) {
-                byte[] randArray = new byte[randomBytes];
-                r.nextBytes(randArray);
-                byte[] zerodArray = new byte[zerodBytes];
-                byte[] combined = ArrayUtils.addAll(randArray, zerodArray);
-                producerWorkAssignment.payloadData.add(combined);
+        if (workload.hasTrafficGroups()) {
+            producerWorkAssignment.groups = new ArrayList<>();
+            for (Workload group : workload.trafficGroups) {
+                ProducerWorkAssignment groupAssignment = producerWorkAssignment(group, group.producerRate);
+                groupAssignment.group = group.name;
+                groupAssignment.topics = trafficGroupTopics.get(group.name);
+                producerWorkAssignment.groups.add(groupAssignment);
             }
+        } else {
+            producerWorkAssignment = producerWorkAssignment(workload, targetPublishRate);
         }
-        else {
-            producerWorkAssignment.payloadData.add(payloadReader.load(workload.payloadFile));
+
+        if (workload.catchUpReaders != null) {
+            // Hold the catch-up subscriptions, so that they have something to catch up with once released
+            worker.pauseCatchUpConsumers();
         }
 
         worker.startLoad(producerWorkAssignment);
 
-        if (workload.warmupDurationMinutes > 0) {
+        if (workload.adaptiveWarmup != null) {
+            log.info("----- Starting adaptive warm-up traffic ({}-{} s) ------",
+                    workload.adaptiveWarmup.minDurationSeconds, workload.adaptiveWarmup.maxDurationSeconds);
+            steadyStateDetector = new SteadyStateDetector(workload.adaptiveWarmup);
+            printAndCollectStats(workload.adaptiveWarmup.maxDurationSeconds, TimeUnit.SECONDS, true);
+            warmupSeconds = steadyStateDetector.getElapsedSeconds();
+            if (warmupSteadyStateReached == null) {
+                warmupSteadyStateReached = false;
+                log.warn("Traffic not steady after the maximum warm-up of {} s",
+                        workload.adaptiveWarmup.maxDurationSeconds);
+            }
+            steadyStateDetector = null;
+        } else if (workload.warmupDurationMinutes > 0) {
             log.info("----- Starting warm-up traffic ({}m) ------", workload.warmupDurationMinutes);
-            printAndCollectStats(workload.warmupDurationMinutes, TimeUnit.MINUTES);
+            Timer timer = new Timer();
+            printAndCollectStats(workload.warmupDurationMinutes, TimeUnit.MINUTES, true);
+            warmupSeconds = timer.elapsedMillis() / 1000;
         }
 
         if (workload.consumerBacklogSizeGB > 0) {
+            backlogResult = new BacklogResult();
             executor.execute(() -> {
                 try {
                     buildAndDrainBacklog(topics);
@@ -147,44 +281,319 @@ public class WorkloadGenerator implements AutoCloseable {
         }
 
         worker.resetStats();
+        if (workload.catchUpReaders != null) {
+            startCatchUpReaders();
+        }
+        if (workload.hasConsumerScaling()) {
+            startConsumerScaling();
+        }
+        if (workload.adminOperations != null) {
+            startAdminOperations();
+        }
         log.info("----- Starting benchmark traffic ({}m)------", workload.testDurationMinutes);
 
-        TestResult result = printAndCollectStats(workload.testDurationMinutes, TimeUnit.MINUTES);
+        return completeRun(printAndCollectStats(workload.testDurationMinutes, TimeUnit.MINUTES, false));
+    }
+
+    private TestResult completeRun(TestResult result) throws IOException {
         runCompleted = true;
 
-        try {
-            worker.stopAll();
-        } catch (Exception e) {
-            log.error("Unable to stop workload - {}", e.toString());
+        if (keepTopology) {
+            worker.stopLoad();
+            waitForConsumersToCatchUp();
+        } else {
+            try {
+                worker.stopAll();
+            } catch (Exception e) {
+                log.error("Unable to stop workload - {}", e.toString());
+            }
+        }
+
+        worker.getControlPlaneLatencies().forEach((command, histogram) -> {
+            LatencySummary summary = LatencySummary.fromMicros(histogram);
+            log.info("----- Control plane latency (ms) for {} ({} requests) avg: {} - 50%: {} - 99%: {} - Max: {}",
+                    command, summary.count, dec.format(summary.avg), dec.format(summary.pct50),
+                    dec.format(summary.pct99), dec.format(summary.max));
+            result.controlPlaneLatency.put(command, summary);
+        });
+
+        if (resultsStream != null) {
+            resultsStream.write(result);
+            resultsStream.readPeriods(result);
         }
         return result;
     }
 
-    private void ensureTopicsAreReady() throws IOException {
-        log.info("Waiting for consumers to be ready");
-        // This is work around the fact that there's no way to have a consumer ready in Kafka without first publishing
-        // some message on the topic, which will then trigger the partitions assignment to the consumers
+    private TopicsInfo topicsInfo() {
+        TopicsInfo topicsInfo = new TopicsInfo(workload.topics, workload.partitionsPerTopic);
+        topicsInfo.existingTopics = workload.existingTopics;
+        topicsInfo.existingTopicsPrefix = workload.existingTopicsPrefix;
+        return topicsInfo;
+    }
 
-        int expectedMessages = workload.topics * workload.subscriptionsPerTopic;
+    /**
+     * Read the data already stored in existing topics, without producers, until the consumers have caught up
+     */
+    private TestResult readExistingData() throws IOException {
+        // Only account for what the new consumers read
+        worker.getPeriodStats();
+        catchUpStartTime = System.nanoTime();
+        lastCatchUpReceiveTime = catchUpStartTime;
+        createConsumers(topics);
+
+        // Follow the reads more closely than the stats periods, to tell when the last message was read
+        executor.execute(() -> {
+            try {
+                long received = worker.getCountersStats().messagesReceived;
+                while (!runCompleted) {
+                    Thread.sleep(100);
+                    long total = worker.getCountersStats().messagesReceived;
+                    if (total != received) {
+                        received = total;
+                        lastCatchUpReceiveTime = System.nanoTime();
+                    }
+                }
+            } catch (InterruptedException e) {
+                // The run is complete
+            } catch (IOException e) {
+                log.warn("Failure in following the catch-up reads", e);
+            }
+        });
 
-        // In this case we just publish 1 message and then wait for consumers to receive the data
-        worker.probeProducers();
+        worker.resetStats();
+        log.info("----- Reading the existing data of {} topics from {} ------", topics.size(), workload.consumeFrom);
+        return printAndCollectStats(workload.testDurationMinutes, TimeUnit.MINUTES, false);
+    }
 
-	while (true) {
+    /**
+     * Admin operations only, without traffic to warm up
+     */
+    private TestResult runAdminOperations() throws IOException {
+        // Start the first stats period, which no load started
+        worker.getPeriodStats();
+        worker.resetStats();
+        startAdminOperations();
+        log.info("----- Starting admin operations ({}m) ------", workload.testDurationMinutes);
+        return printAndCollectStats(workload.testDurationMinutes, TimeUnit.MINUTES, false);
+    }
+
+    private void startAdminOperations() throws IOException {
+        AdminOperationsAssignment assignment = new AdminOperationsAssignment();
+        assignment.topicsPerSecond = workload.adminOperations.topicsPerSecond;
+        assignment.partitionsPerTopic = workload.adminOperations.partitionsPerTopic;
+        assignment.subscriptionsPerTopic = workload.adminOperations.subscriptionsPerTopic;
+        assignment.deleteTopics = workload.adminOperations.deleteTopics;
+        assignment.maxConcurrentTopics = workload.adminOperations.maxConcurrentTopics;
+        worker.startAdminOperations(assignment);
+    }
+
+    /**
+     * Topics of the last run, to reuse them in a next run with the same topology
+     */
+    public List<String> getTopics() {
+        return topics;
+    }
+
+    /**
+     * Latencies of the whole measured traffic of the last run
+     */
+    public CumulativeLatencies getCumulativeLatencies() {
+        return cumulativeLatencies;
+    }
+
+    /**
+     * Wait for the consumers to read what was published before the load was stopped, so that it does not count in
+     * the next run
+     */
+    private void waitForConsumersToCatchUp() throws IOException {
+        if (workload.consumerPerSubscription == 0) {
+            return;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (true) {
             CountersStats stats = worker.getCountersStats();
+            long backlog = workload.tailingSubscriptionsPerTopic() * stats.messagesSent - stats.messagesReceived;
+            if (backlog <= 0) {
+                return;
+            } else if (System.nanoTime() > deadline) {
+                log.warn("Consumers are still {} messages behind, starting the next run anyway", backlog);
+                return;
+            }
 
-            if (stats.messagesReceived < expectedMessages) {
-                try {
-                    Thread.sleep(100);
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private ProducerWorkAssignment producerWorkAssignment(Workload workload, double publishRate) {
+        ProducerWorkAssignment producerWorkAssignment = new ProducerWorkAssignment();
+        producerWorkAssignment.keyDistributorType = workload.keyDistributor;
+        producerWorkAssignment.keyDistributorConfig = workload.keyDistributorConfig;
+        producerWorkAssignment.publishRate = publishRate;
+        producerWorkAssignment.requestReply = workload.requestReply;
+        if (workload.producerChurn != null) {
+            producerWorkAssignment.producerChurnRate = workload.producerChurn.producersPerSecond;
+            producerWorkAssignment.messagesPerChurnProducer = workload.producerChurn.messagesPerProducer;
+            producerWorkAssignment.maxConcurrentChurnProducers = workload.producerChurn.maxConcurrentProducers;
+        }
+        if (workload.transactions != null) {
+            producerWorkAssignment.messagesPerTransaction = workload.transactions.messagesPerTransaction;
+            producerWorkAssignment.transactionCommitIntervalMillis = workload.transactions.commitIntervalMillis;
+        }
+        producerWorkAssignment.payloadData = new ArrayList<>();
+
+        if (workload.messageSizeDistribution != null) {
+            producerWorkAssignment.payloadData.addAll(createDistributedPayloads(workload));
+        } else if(workload.useRandomizedPayloads) {
+            // create messages that are part random and part zeros
+            // better for testing effects of compression
+            Random r = new Random();
+            int randomBytes = (int)(workload.messageSize * workload.randomBytesRatio);
+            int zerodBytes = workload.messageSize - randomBytes;
+            for(int i = 0; i<workload.randomizedPayloadPoolSize; i++) {
+                byte[] randArray = new byte[randomBytes];
+                r.nextBytes(randArray);
+                byte[] zerodArray = new byte[zerodBytes];
+                byte[] combined = ArrayUtils.addAll(randArray, zerodArray);
+                producerWorkAssignment.payloadData.add(combined);
+            }
+        }
+        else {
+            final PayloadReader payloadReader = new FilePayloadReader(workload.messageSize);
+            producerWorkAssignment.payloadData.add(payloadReader.load(workload.payloadFile));
+        }
+        return producerWorkAssignment;
+    }
+
+    /**
+     * Build a pool of payloads whose sizes follow the workload message size distribution. Producers pick from the
+     * pool uniformly, so the pool needs to be large enough to represent the tail of the distribution.
+     */
+    private List<byte[]> createDistributedPayloads(Workload workload) {
+        Random r = new Random();
+        byte[] seed = workload.payloadFile != null ? new FilePayloadReader().load(workload.payloadFile) : null;
+        int poolSize = workload.randomizedPayloadPoolSize > 0 ? workload.randomizedPayloadPoolSize
+                : DEFAULT_DISTRIBUTED_PAYLOAD_POOL_SIZE;
+
+        List<byte[]> payloads = new ArrayList<>(poolSize);
+        long totalSize = 0;
+        for (int i = 0; i < poolSize; i++) {
+            int size = workload.messageSizeDistribution.sample(r);
+            byte[] payload = new byte[size];
+            if (seed != null && seed.length > 0) {
+                for (int offset = 0; offset < size; offset += seed.length) {
+                    System.arraycopy(seed, 0, payload, offset, Math.min(seed.length, size - offset));
                 }
             } else {
+                // Same layout as the randomized payloads: random head and zeroed tail
+                int randomBytes = workload.useRandomizedPayloads ? (int) (size * workload.randomBytesRatio) : size;
+                byte[] randArray = new byte[randomBytes];
+                r.nextBytes(randArray);
+                System.arraycopy(randArray, 0, payload, 0, randomBytes);
+            }
+            payloads.add(payload);
+            totalSize += size;
+        }
+
+        log.info("Created {} payloads following a {} size distribution, average size {} bytes", poolSize,
+                workload.messageSizeDistribution.type, totalSize / poolSize);
+        return payloads;
+    }
+
+    /**
+     * Wait for the consumers to be ready: first until every partition of each subscription is assigned to a consumer,
+     * for the drivers that report the assignment, then until a probe message published on each partition is received
+     * by every subscription. Each wait fails after the client setup timeout.
+     *
+     * @param partitionsByTopic
+     *            topics with subscriptions, and their number of partitions
+     * @param expectedMessages
+     *            probe messages to receive, one per partition and subscription
+     */
+    private void ensureTopicsAreReady(Map<String, Integer> partitionsByTopic, int expectedMessages)
+            throws IOException {
+        log.info("Waiting for consumers to be ready");
+        Timer timer = new Timer();
+        Timer progressTimer = new Timer();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(workload.clientSetupTimeoutSeconds);
+
+        while (true) {
+            PartitionAssignments assignments = worker.getPartitionAssignments();
+            long missing = assignments.partitions.entrySet().stream()
+                    .filter(e -> partitionsByTopic.containsKey(e.getKey()))
+                    .mapToLong(e -> e.getValue().values().stream()
+                            .mapToLong(assigned -> IntStream.range(0, partitionsByTopic.get(e.getKey()))
+                                    .filter(partition -> !assigned.contains(partition)).count())
+                            .sum())
+                    .sum();
+            if (missing == 0) {
+                if (assignments.unreportedConsumers > 0) {
+                    log.info("{} consumers do not report their partitions, relying on the probe messages only",
+                            assignments.unreportedConsumers);
+                } else {
+                    log.info("All partitions are assigned after {} ms", (long) timer.elapsedMillis());
+                }
                 break;
             }
+
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException(String.format(
+                        "Timed out after %d s waiting for %d partitions to be assigned to the consumers",
+                        workload.clientSetupTimeoutSeconds, missing));
+            }
+            if (progressTimer.elapsedMillis() >= 10_000) {
+                log.info("Waiting for {} partitions to be assigned", missing);
+                progressTimer = new Timer();
+            }
+            sleep(100);
         }
 
-        log.info("All consumers are ready");
+        // Even with the partitions assigned, publish a message on each of them and wait for all the subscriptions to
+        // receive it, so that the consumers have actually started fetching
+        worker.probeProducers(partitionsByTopic);
+
+        deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(workload.clientSetupTimeoutSeconds);
+        long received;
+        while ((received = worker.getCountersStats().messagesReceived) < expectedMessages) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException(String.format(
+                        "Timed out after %d s waiting for the probe messages: received %d of %d",
+                        workload.clientSetupTimeoutSeconds, received, expectedMessages));
+            }
+            if (progressTimer.elapsedMillis() >= 10_000) {
+                log.info("Waiting for the probe messages to be received: {} of {}", received, expectedMessages);
+                progressTimer = new Timer();
+            }
+            sleep(100);
+        }
+
+        consumersReadySeconds = timer.elapsedMillis() / 1000.0;
+        log.info("All consumers are ready in {} ms", (long) timer.elapsedMillis());
+    }
+
+    /**
+     * Partitions of each topic of a workload, asked to the driver for existing topics. When the driver cannot tell,
+     * only the first partition of the existing topics is waited for.
+     */
+    private Map<String, Integer> partitionsByTopic(List<String> topics, Workload workload) throws IOException {
+        Map<String, Integer> existingPartitions = workload.hasExistingTopics() ? worker.getPartitions(topics)
+                : Collections.emptyMap();
+        Map<String, Integer> partitionsByTopic = new TreeMap<>();
+        topics.forEach(topic -> partitionsByTopic.put(topic, workload.hasExistingTopics()
+                ? Math.max(1, existingPartitions.getOrDefault(topic, 1)) : Math.max(1, workload.partitionsPerTopic)));
+        return partitionsByTopic;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     /**
@@ -258,7 +667,8 @@ public class WorkloadGenerator implements AutoCloseable {
                 worker.adjustPublishRate(minRate / 10);
                 while (true) {
                     stats = worker.getCountersStats();
-                    long backlog = workload.subscriptionsPerTopic * stats.messagesSent - stats.messagesReceived;
+                    long backlog = workload.tailingSubscriptionsPerTopic() * stats.messagesSent
+                            - stats.messagesReceived;
                     if (backlog < 1000) {
                         break;
                     }
@@ -301,44 +711,122 @@ public class WorkloadGenerator implements AutoCloseable {
     @Override
     public void close() throws Exception {
         executor.shutdownNow();
-        worker.stopAll();
+        if (!keepTopology) {
+            worker.stopAll();
+        }
     }
 
     private void createConsumers(List<String> topics) throws IOException {
         ConsumerAssignment consumerAssignment = new ConsumerAssignment();
+        addSubscriptions(consumerAssignment, workload, topics, null);
+        consumerAssignment.startPosition = workload.consumeFrom;
+        consumerAssignment.startTimestamp = workload.consumeFromTimestamp;
+        consumerAssignment.requestReply = workload.requestReply;
+        if (workload.catchUpReaders != null && workload.catchUpReaders.startFromEarliest) {
+            consumerAssignment.catchUpStartPosition = ConsumerStartPosition.EARLIEST;
+        }
+        if (workload.hasConsumerScaling()) {
+            consumerAssignment.trackSubscriptions = true;
+            consumerAssignment.topicsSubscriptions.forEach(ts -> scaledSubscriptions.putIfAbsent(ts.subscription, ts));
+        }
+
+        Collections.shuffle(consumerAssignment.topicsSubscriptions);
+
+        Timer timer = new Timer();
 
+        worker.createConsumers(consumerAssignment);
+        log.info("Created {} consumers in {} ms", consumerAssignment.topicsSubscriptions.size(), timer.elapsedMillis());
+    }
+
+    private static void addSubscriptions(ConsumerAssignment consumerAssignment, Workload workload,
+            List<String> topics, String group) {
+        int catchUpSubscriptions = workload.catchUpReaders != null ? workload.catchUpReaders.subscriptionsPerTopic : 0;
         for(String topic: topics){
             for(int i = 0; i < workload.subscriptionsPerTopic; i++){
                 String subscriptionName = String.format("sub-%03d-%s", i, RandomGenerator.getRandomString());
                 for (int j = 0; j < workload.consumerPerSubscription; j++) {
-                    consumerAssignment.topicsSubscriptions
-                        .add(new TopicSubscription(topic, subscriptionName));
+                    TopicSubscription subscription = new TopicSubscription(topic, subscriptionName, group);
+                    subscription.catchUp = i < catchUpSubscriptions;
+                    consumerAssignment.topicsSubscriptions.add(subscription);
                 }
             }
         }
+    }
 
-        Collections.shuffle(consumerAssignment.topicsSubscriptions);
+    private void createProducers(List<String> topics) throws IOException {
+        List<String> fullListOfTopics = new ArrayList<>();
+        addProducers(fullListOfTopics, workload, topics);
+
+        Collections.shuffle(fullListOfTopics);
 
         Timer timer = new Timer();
 
-        worker.createConsumers(consumerAssignment);
-        log.info("Created {} consumers in {} ms", consumerAssignment.topicsSubscriptions.size(), timer.elapsedMillis());
+        worker.createProducers(fullListOfTopics);
+        log.info("Created {} producers in {} ms", fullListOfTopics.size(), timer.elapsedMillis());
     }
 
-    private void createProducers(List<String> topics) throws IOException {
-        List<String> fullListOfTopics = new ArrayList<>();
-
+    private static void addProducers(List<String> fullListOfTopics, Workload workload, List<String> topics) {
         // Add the topic multiple times, one for each producer
         for (int i = 0; i < workload.producersPerTopic; i++) {
             topics.forEach(fullListOfTopics::add);
         }
+    }
 
-        Collections.shuffle(fullListOfTopics);
+    /**
+     * Create the topics of all the traffic groups, with contiguous indexes so that the names do not overlap
+     */
+    private List<String> createTrafficGroupTopics() throws IOException {
+        List<String> topics = new ArrayList<>();
+        for (Workload group : workload.trafficGroups) {
+            List<String> groupTopics = worker
+                    .createTopics(new TopicsInfo(group.topics, group.partitionsPerTopic, topics.size()));
+            log.info("Traffic group {}: {} topics with {} partitions", group.name, groupTopics.size(),
+                    group.partitionsPerTopic);
+            trafficGroupTopics.put(group.name, groupTopics);
+            topics.addAll(groupTopics);
+        }
+        return topics;
+    }
+
+    /**
+     * Create the consumers and the producers of all the traffic groups at once, so that the workers spread them
+     * regardless of the group they belong to
+     */
+    private void createTrafficGroupConsumersAndProducers() throws IOException {
+        ConsumerAssignment consumerAssignment = new ConsumerAssignment();
+        List<String> fullListOfTopics = new ArrayList<>();
+        Map<String, Integer> partitionsByTopic = new TreeMap<>();
+        int expectedMessages = 0;
+        for (Workload group : workload.trafficGroups) {
+            List<String> topics = trafficGroupTopics.get(group.name);
+            if (group.consumerPerSubscription > 0) {
+                addSubscriptions(consumerAssignment, group, topics, group.name);
+                Map<String, Integer> groupPartitions = partitionsByTopic(topics, group);
+                partitionsByTopic.putAll(groupPartitions);
+                expectedMessages += groupPartitions.values().stream().mapToInt(Integer::intValue).sum()
+                        * group.subscriptionsPerTopic;
+            }
+            addProducers(fullListOfTopics, group, topics);
+        }
 
         Timer timer = new Timer();
+        if (!consumerAssignment.topicsSubscriptions.isEmpty()) {
+            Collections.shuffle(consumerAssignment.topicsSubscriptions);
+            worker.createConsumers(consumerAssignment);
+            log.info("Created {} consumers in {} ms", consumerAssignment.topicsSubscriptions.size(),
+                    timer.elapsedMillis());
+        }
 
+        timer = new Timer();
+        Collections.shuffle(fullListOfTopics);
         worker.createProducers(fullListOfTopics);
         log.info("Created {} producers in {} ms", fullListOfTopics.size(), timer.elapsedMillis());
+
+        if (expectedMessages > 0) {
+            ensureTopicsAreReady(partitionsByTopic, expectedMessages);
+            // Discard the probe messages, they are not accounted to any group on the producer side
+            worker.getPeriodStats();
+        }
     }
 
     private void buildAndDrainBacklog(List<String> topics) throws IOException {
@@ -348,15 +836,19 @@ public class WorkloadGenerator implements AutoCloseable {
         this.needToWaitForBacklogDraining = true;
 
         long requestedBacklogSize = workload.consumerBacklogSizeGB * 1024 * 1024 * 1024;
+        backlogResult.requestedBacklogBytes = requestedBacklogSize;
 
+        Timer timer = new Timer();
         worker.adjustPublishRate(workload.producerRate * 10);
 
         while (true) {
             CountersStats stats = worker.getCountersStats();
-            long currentBacklogSize = (workload.subscriptionsPerTopic * stats.messagesSent - stats.messagesReceived)
-                    * workload.messageSize;
+            long currentBacklogSize = workload.subscriptionsPerTopic * stats.bytesSent - stats.bytesReceived;
 
             if (currentBacklogSize >= requestedBacklogSize) {
+                backlogResult.builtBacklogBytes = currentBacklogSize;
+                backlogResult.builtBacklogMessages = workload.subscriptionsPerTopic * stats.messagesSent
+                        - stats.messagesReceived;
                 break;
             }
 
@@ -367,6 +859,10 @@ public class WorkloadGenerator implements AutoCloseable {
             }
         }
 
+        backlogResult.buildSeconds = timer.elapsedMillis() / 1000;
+        log.info("--- Built a backlog of {} messages / {} MB in {} s ---", backlogResult.builtBacklogMessages,
+                dec.format(backlogResult.builtBacklogBytes / 1024.0 / 1024.0), dec.format(backlogResult.buildSeconds));
+
         worker.adjustPublishRate(workload.producerRate);
 
         log.info("--- Start draining backlog ---");
@@ -375,6 +871,10 @@ public class WorkloadGenerator implements AutoCloseable {
             log.info("Consume only test. Pausing producers while backlog is drained");
             worker.pauseProducers();
         }
+
+        CountersStats drainStartStats = worker.getCountersStats();
+        timer = new Timer();
+        drainStartTime = System.nanoTime();
         worker.resumeConsumers();
 
         final long minBacklog = 1000;
@@ -383,7 +883,15 @@ public class WorkloadGenerator implements AutoCloseable {
             CountersStats stats = worker.getCountersStats();
             long currentBacklog = workload.subscriptionsPerTopic * stats.messagesSent - stats.messagesReceived;
             if (currentBacklog <= minBacklog) {
-                log.info("--- Completed backlog draining ---");
+                drainEndTime = System.nanoTime();
+                double drainSeconds = timer.elapsedMillis() / 1000;
+                backlogResult.drainRate = (stats.messagesReceived - drainStartStats.messagesReceived) / drainSeconds;
+                backlogResult.drainThroughput = (stats.bytesReceived - drainStartStats.bytesReceived) / drainSeconds
+                        / 1024 / 1024;
+                backlogResult.drainSeconds = drainSeconds;
+                log.info("--- Completed backlog draining in {} s | Cons rate {} msg/s / {} MB/s ---",
+                        dec.format(drainSeconds), rateFormat.format(backlogResult.drainRate),
+                        throughputFormat.format(backlogResult.drainThroughput));
                 needToWaitForBacklogDraining = false;
                 return;
             }
@@ -396,7 +904,454 @@ public class WorkloadGenerator implements AutoCloseable {
         }
     }
 
-    private TestResult printAndCollectStats(long testDurations, TimeUnit unit) throws IOException {
+    /**
+     * Add a stats period to the drain timeline, if the backlog was draining during the period
+     */
+    private void collectBacklogDrainStats(PeriodStats stats, long periodEnd, double consumeRate,
+            double consumeThroughput, double publishRate) {
+        long periodStart = periodEnd - TimeUnit.MILLISECONDS.toNanos((long) stats.elapsedMillis);
+        if (backlogResult == null || drainStartTime == 0 || drainStartTime >= periodEnd
+                || (drainEndTime != 0 && drainEndTime <= periodStart)) {
+            return;
+        }
+
+        backlogResult.drainConsumeRate.add(consumeRate);
+        backlogResult.drainConsumeThroughput.add(consumeThroughput);
+        backlogResult.drainPublishRate.add(publishRate);
+        if (drainPublishLatency == null) {
+            drainPublishLatency = stats.publishLatency.copy();
+        } else {
+            drainPublishLatency.add(stats.publishLatency);
+        }
+        backlogResult.drainPublishLatency = LatencySummary.fromMicros(drainPublishLatency);
+    }
+
+    /**
+     * Release the catch-up subscriptions once their pause is over, in the background
+     */
+    private void startCatchUpReaders() {
+        CatchUpReaders catchUpReaders = workload.catchUpReaders;
+        catchUpReadersResult = new CatchUpReadersResult();
+        catchUpReadersResult.subscriptionsPerTopic = catchUpReaders.subscriptionsPerTopic;
+        catchUpReadersResult.startFromEarliest = catchUpReaders.startFromEarliest;
+        catchUpReadersResult.pauseSeconds = catchUpReaders.pauseSeconds;
+
+        executor.execute(() -> {
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(catchUpReaders.pauseSeconds));
+                catchUpReadersStartTime = System.nanoTime();
+                worker.resumeCatchUpConsumers();
+                log.info("----- Released the catch-up subscriptions after {} s", catchUpReaders.pauseSeconds);
+            } catch (InterruptedException e) {
+                // The test ended before the end of the pause
+            } catch (IOException e) {
+                // The catch-up subscriptions would stay paused, the stats loop fails the run
+                log.error("Failed to release the catch-up subscriptions", e);
+                catchUpReadersFailure = e;
+            }
+        });
+    }
+
+    /**
+     * Add a stats period to the reads of the catch-up subscriptions, and split the latencies of the period between
+     * the ones seen while the catch-up subscriptions were reading behind and the others
+     */
+    private void collectCatchUpReadersStats(PeriodStats stats, long periodEnd, double elapsed, double consumeRate) {
+        if (catchUpReadersResult == null) {
+            return;
+        }
+
+        double readRate = stats.catchUpMessagesReceived / elapsed;
+        catchUpReadersResult.messages += stats.catchUpMessagesReceived;
+        catchUpReadersResult.bytes += stats.catchUpBytesReceived;
+        catchUpReadersResult.readRate.add(readRate);
+        catchUpReadersResult.readThroughput.add(stats.catchUpBytesReceived / elapsed / 1024 / 1024);
+
+        long periodStart = periodEnd - TimeUnit.MILLISECONDS.toNanos((long) stats.elapsedMillis);
+        long startTime = catchUpReadersStartTime;
+        if (startTime != 0) {
+            log.info("Catch-up read rate {} msg/s / {} MB/s", rateFormat.format(readRate),
+                    throughputFormat.format(stats.catchUpBytesReceived / elapsed / 1024 / 1024));
+        }
+        boolean duringCatchUp = startTime != 0 && startTime < periodEnd
+                && (catchUpReadersCaughtUpTime == 0 || catchUpReadersCaughtUpTime > periodStart);
+
+        // Caught up once a whole period shows the catch-up subscriptions reading no faster than the tailing ones
+        if (startTime != 0 && startTime <= periodStart && catchUpReadersCaughtUpTime == 0 && consumeRate > 0
+                && readRate / workload.catchUpReaders.subscriptionsPerTopic
+                        <= 1.05 * consumeRate / workload.tailingSubscriptionsPerTopic()) {
+            catchUpReadersCaughtUpTime = periodEnd;
+            catchUpReadersResult.caughtUpSeconds = (periodEnd - startTime) / 1e9;
+            log.info("----- Catch-up subscriptions caught up with {} messages in {} s",
+                    catchUpReadersResult.messages, dec.format(catchUpReadersResult.caughtUpSeconds));
+        }
+
+        if (duringCatchUp) {
+            tailEndToEndLatencyDuringCatchUp = merge(tailEndToEndLatencyDuringCatchUp, stats.endToEndLatency);
+            publishLatencyDuringCatchUp = merge(publishLatencyDuringCatchUp, stats.publishLatency);
+            catchUpReadersResult.tailEndToEndLatencyDuringCatchUp = LatencySummary
+                    .fromMicros(tailEndToEndLatencyDuringCatchUp);
+            catchUpReadersResult.publishLatencyDuringCatchUp = LatencySummary.fromMicros(publishLatencyDuringCatchUp);
+        } else {
+            tailEndToEndLatencyOtherwise = merge(tailEndToEndLatencyOtherwise, stats.endToEndLatency);
+            publishLatencyOtherwise = merge(publishLatencyOtherwise, stats.publishLatency);
+            catchUpReadersResult.tailEndToEndLatencyOtherwise = LatencySummary.fromMicros(tailEndToEndLatencyOtherwise);
+            catchUpReadersResult.publishLatencyOtherwise = LatencySummary.fromMicros(publishLatencyOtherwise);
+        }
+    }
+
+    /**
+     * Time window of a consumer scaling event, over which the end-to-end latency of the stats periods is accounted to
+     * the event
+     */
+    private static class ConsumerScalingWindow {
+        final ConsumerScalingResult result = new ConsumerScalingResult();
+        final long startTime = System.nanoTime();
+        volatile long endTime;
+    }
+
+    /**
+     * Apply the consumer scaling events at their time in the background, each one followed by the monitoring of the
+     * consumption until it recovers or the next event
+     */
+    private void startConsumerScaling() {
+        long startTime = System.nanoTime();
+        executor.execute(() -> {
+            int consumers = workload.consumerPerSubscription;
+            List<ConsumerScalingEvent> events = workload.consumerScaling;
+            try {
+                for (int i = 0; i < events.size() && !runCompleted; i++) {
+                    ConsumerScalingEvent event = events.get(i);
+                    long eventTime = startTime + TimeUnit.SECONDS.toNanos(event.afterSeconds);
+                    Thread.sleep(Math.max(0, TimeUnit.NANOSECONDS.toMillis(eventTime - System.nanoTime())));
+                    long nextEventTime = i + 1 < events.size()
+                            ? startTime + TimeUnit.SECONDS.toNanos(events.get(i + 1).afterSeconds) : Long.MAX_VALUE;
+                    consumers += event.consumersPerSubscription;
+                    scaleConsumers(event, consumers, nextEventTime);
+                }
+            } catch (InterruptedException e) {
+                // The test ended before the next event
+            } catch (Exception e) {
+                log.error("Failed to scale the consumers", e);
+            }
+        });
+    }
+
+    /**
+     * Add or close the consumers of an event, then poll the counters of the subscriptions to find the longest time
+     * each of them went without receiving anything. The consumption has recovered once every subscription received
+     * messages again and the backlog stays within half a second of traffic of its level before the event, which the
+     * rebalance may take a moment to disturb: the monitoring goes on until it has stayed there for a while, or the
+     * next event.
+     */
+    private void scaleConsumers(ConsumerScalingEvent event, int consumers, long nextEventTime)
+            throws IOException, InterruptedException {
+        CountersStats before = worker.getCountersStats();
+        long baselineBacklog = workload.tailingSubscriptionsPerTopic() * before.messagesSent - before.messagesReceived;
+
+        ConsumerScalingWindow window = new ConsumerScalingWindow();
+        ConsumerScalingResult result = window.result;
+        result.afterSeconds = event.afterSeconds;
+        result.delta = event.consumersPerSubscription;
+        result.consumersPerSubscription = consumers;
+        result.baselineEndToEndLatency99pct = lastEndToEndLatency99pct;
+        consumerScalingWindows.add(window);
+        consumerScalingResults.add(result);
+
+        Timer timer = new Timer();
+        List<TopicSubscription> topicsSubscriptions = new ArrayList<>();
+        for (int i = 0; i < Math.abs(event.consumersPerSubscription); i++) {
+            topicsSubscriptions.addAll(scaledSubscriptions.values());
+        }
+        if (event.consumersPerSubscription > 0) {
+            ConsumerAssignment consumerAssignment = new ConsumerAssignment();
+            consumerAssignment.topicsSubscriptions = topicsSubscriptions;
+            consumerAssignment.requestReply = workload.requestReply;
+            consumerAssignment.trackSubscriptions = true;
+            worker.createConsumers(consumerAssignment);
+        } else {
+            List<TopicSubscription> notClosed = worker.closeConsumers(topicsSubscriptions);
+            if (!notClosed.isEmpty()) {
+                log.warn("Found no consumer to close for {} of the topic subscriptions", notClosed.size());
+            }
+        }
+        result.scalingMillis = timer.elapsedMillis();
+        log.info("----- Scaled to {} consumers per subscription ({}) in {} ms", consumers, event,
+                dec.format(result.scalingMillis));
+
+        Map<String, Long> received = new TreeMap<>(before.messagesReceivedBySubscription);
+        Map<String, Long> lastReceiveTime = new TreeMap<>();
+        Map<String, Long> maxGap = new TreeMap<>();
+        scaledSubscriptions.keySet().forEach(subscription -> {
+            lastReceiveTime.put(subscription, window.startTime);
+            maxGap.put(subscription, 0L);
+        });
+        double recoveryBacklog = baselineBacklog
+                + workload.tailingSubscriptionsPerTopic() * targetPublishRate * RECOVERY_BACKLOG_SECONDS;
+
+        // Start of the current stretch of polls with every subscription received and the backlog recovered
+        long recoveredSince = 0;
+        long now = System.nanoTime();
+        while (!runCompleted && now < nextEventTime
+                && (recoveredSince == 0 || now - recoveredSince < TimeUnit.SECONDS.toNanos(RECOVERED_SECONDS))) {
+            Thread.sleep(CONSUMER_SCALING_POLL_MILLIS);
+            CountersStats stats = worker.getCountersStats();
+            now = System.nanoTime();
+
+            boolean allReceived = true;
+            for (String subscription : scaledSubscriptions.keySet()) {
+                long count = stats.messagesReceivedBySubscription.getOrDefault(subscription, 0L);
+                if (count > received.getOrDefault(subscription, 0L)) {
+                    received.put(subscription, count);
+                    maxGap.merge(subscription, now - lastReceiveTime.get(subscription), Math::max);
+                    lastReceiveTime.put(subscription, now);
+                }
+                allReceived &= lastReceiveTime.get(subscription) > window.startTime;
+            }
+
+            long backlog = workload.tailingSubscriptionsPerTopic() * stats.messagesSent - stats.messagesReceived;
+            if (!allReceived || backlog > recoveryBacklog) {
+                recoveredSince = 0;
+            } else if (recoveredSince == 0) {
+                recoveredSince = now;
+            }
+        }
+        if (recoveredSince != 0) {
+            result.recoverySeconds = (recoveredSince - window.startTime) / 1e9;
+        }
+
+        // Subscriptions still waiting for messages count up to the end of the monitoring
+        for (String subscription : scaledSubscriptions.keySet()) {
+            maxGap.merge(subscription, now - lastReceiveTime.get(subscription), Math::max);
+        }
+        window.endTime = now;
+
+        result.maxConsumptionGapMillis = TimeUnit.NANOSECONDS.toMicros(
+                maxGap.values().stream().mapToLong(Long::longValue).max().orElse(0)) / 1000.0;
+        result.avgConsumptionGapMillis = TimeUnit.NANOSECONDS.toMicros(
+                (long) maxGap.values().stream().mapToLong(Long::longValue).average().orElse(0)) / 1000.0;
+        if (result.recoverySeconds != null) {
+            log.info("----- Consumption recovered {} s after scaling to {} consumers per subscription | Consumption gap"
+                    + " (ms) avg: {} - Max: {}", dec.format(result.recoverySeconds), consumers,
+                    dec.format(result.avgConsumptionGapMillis), dec.format(result.maxConsumptionGapMillis));
+        } else {
+            log.warn("Consumption did not recover after scaling to {} consumers per subscription | Consumption gap"
+                    + " (ms) avg: {} - Max: {}", consumers, dec.format(result.avgConsumptionGapMillis),
+                    dec.format(result.maxConsumptionGapMillis));
+        }
+    }
+
+    /**
+     * Add a stats period to the replies of a request/reply benchmark
+     */
+    private void collectRoundTripStats(PeriodStats stats, double elapsed, PeriodResult period) {
+        if (!workload.requestReply) {
+            return;
+        }
+
+        double replyRate = stats.repliesReceived / elapsed;
+        log.info("Reply rate {} msg/s | Round trip Latency (ms) avg: {} - 50%: {} - 99%: {} - 99.9%: {} - Max: {}",
+                rateFormat.format(replyRate),
+                dec.format(microsToMillis(stats.roundTripLatency.getMean())),
+                dec.format(microsToMillis(stats.roundTripLatency.getValueAtPercentile(50))),
+                dec.format(microsToMillis(stats.roundTripLatency.getValueAtPercentile(99))),
+                dec.format(microsToMillis(stats.roundTripLatency.getValueAtPercentile(99.9))),
+                throughputFormat.format(microsToMillis(stats.roundTripLatency.getMaxValue())));
+
+        period.replyRate = replyRate;
+        period.roundTripLatencyAvg = microsToMillis(stats.roundTripLatency.getMean());
+        period.roundTripLatency50pct = microsToMillis(stats.roundTripLatency.getValueAtPercentile(50));
+        period.roundTripLatency99pct = microsToMillis(stats.roundTripLatency.getValueAtPercentile(99));
+        period.roundTripLatency999pct = microsToMillis(stats.roundTripLatency.getValueAtPercentile(99.9));
+        period.roundTripLatencyMax = microsToMillis(stats.roundTripLatency.getMaxValue());
+    }
+
+    /**
+     * Summarize the round trip latency of a request/reply benchmark over the whole test
+     */
+    private void aggregateRoundTripStats(CumulativeLatencies agg, TestResult result) {
+        if (!workload.requestReply) {
+            return;
+        }
+
+        LatencySummary summary = LatencySummary.fromMicros(agg.roundTripLatency);
+        log.info("----- Aggregated Round trip Latency (ms) ({} replies) avg: {} - 50%: {} - 99%: {} - 99.9%: {} - Max: {}",
+                summary.count, dec.format(summary.avg), dec.format(summary.pct50),
+                dec.format(summary.pct99), dec.format(summary.pct999), throughputFormat.format(summary.max));
+        result.aggregatedRoundTripLatency = summary;
+    }
+
+    /**
+     * Add a stats period to the short-lived producers of the producer churn
+     */
+    private void collectProducerChurnStats(PeriodStats stats, double elapsed, TestResult result) {
+        ProducerChurnResult churn = result.producerChurn;
+        if (churn == null) {
+            return;
+        }
+
+        double creationRate = stats.churnProducersCreated / elapsed;
+        churn.producersCreated += stats.churnProducersCreated;
+        churn.errors += stats.producerChurnErrors;
+        churn.creationRate.add(creationRate);
+        log.info("Producer churn {} producers/s | Errors: {}", rateFormat.format(creationRate),
+                stats.producerChurnErrors);
+    }
+
+    /**
+     * Summarize the creation rate and latencies of the short-lived producers over the whole test
+     */
+    private void aggregateProducerChurnStats(CumulativeLatencies agg, TestResult result) {
+        ProducerChurnResult churn = result.producerChurn;
+        if (churn == null) {
+            return;
+        }
+
+        churn.aggregatedCreationRate = churn.creationRate.stream().mapToDouble(Double::doubleValue)
+                .average().orElse(0);
+        churn.createLatency = LatencySummary
+                .fromMicros(agg.producerChurnLatency.getOrDefault("create", EMPTY_HISTOGRAM));
+        churn.firstSendLatency = LatencySummary
+                .fromMicros(agg.producerChurnLatency.getOrDefault("first send", EMPTY_HISTOGRAM));
+        churn.closeLatency = LatencySummary
+                .fromMicros(agg.producerChurnLatency.getOrDefault("close", EMPTY_HISTOGRAM));
+        log.info("----- Producer churn: {} producers/s ({} producers, {} errors) | Create (ms) avg: {} - 50%: {} - 99%: {} - Max: {} | First send (ms) avg: {} - 50%: {} - 99%: {} - Max: {} | Close (ms) avg: {} - 50%: {} - 99%: {} - Max: {}",
+                rateFormat.format(churn.aggregatedCreationRate), churn.producersCreated, churn.errors,
+                dec.format(churn.createLatency.avg), dec.format(churn.createLatency.pct50),
+                dec.format(churn.createLatency.pct99), throughputFormat.format(churn.createLatency.max),
+                dec.format(churn.firstSendLatency.avg), dec.format(churn.firstSendLatency.pct50),
+                dec.format(churn.firstSendLatency.pct99),
+                throughputFormat.format(churn.firstSendLatency.max),
+                dec.format(churn.closeLatency.avg), dec.format(churn.closeLatency.pct50),
+                dec.format(churn.closeLatency.pct99), throughputFormat.format(churn.closeLatency.max));
+    }
+
+    /**
+     * Add a stats period to the committed transactions
+     */
+    private void collectTransactionStats(PeriodStats stats, double elapsed, TestResult result) {
+        TransactionsResult transactions = result.transactions;
+        if (transactions == null) {
+            return;
+        }
+
+        double commitRate = stats.transactionsCommitted / elapsed;
+        transactions.transactionsCommitted += stats.transactionsCommitted;
+        transactions.messagesCommitted += stats.transactionMessagesCommitted;
+        transactions.errors += stats.transactionErrors;
+        transactions.commitRate.add(commitRate);
+        log.info("Transactions {} commits/s | {} msg/transaction | Errors: {}", rateFormat.format(commitRate),
+                dec.format(stats.transactionsCommitted == 0 ? 0
+                        : (double) stats.transactionMessagesCommitted / stats.transactionsCommitted),
+                stats.transactionErrors);
+    }
+
+    /**
+     * Summarize the commit rate and latencies of the transactions over the whole test
+     */
+    private void aggregateTransactionStats(CumulativeLatencies agg, TestResult result) {
+        TransactionsResult transactions = result.transactions;
+        if (transactions == null) {
+            return;
+        }
+
+        transactions.aggregatedCommitRate = transactions.commitRate.stream()
+                .mapToDouble(Double::doubleValue).average().orElse(0);
+        transactions.averageMessagesPerTransaction = transactions.transactionsCommitted == 0 ? 0
+                : (double) transactions.messagesCommitted / transactions.transactionsCommitted;
+        transactions.commitLatency = LatencySummary
+                .fromMicros(agg.transactionLatency.getOrDefault("commit", EMPTY_HISTOGRAM));
+        transactions.firstMessageToCommitLatency = LatencySummary.fromMicros(
+                agg.transactionLatency.getOrDefault("first message to commit", EMPTY_HISTOGRAM));
+        log.info("----- Transactions: {} commits/s ({} transactions of {} msg, {} errors) | Commit (ms) avg: {} - 50%: {} - 99%: {} - 99.9%: {} - Max: {} | First message to commit (ms) avg: {} - 50%: {} - 99%: {} - 99.9%: {} - Max: {}",
+                rateFormat.format(transactions.aggregatedCommitRate), transactions.transactionsCommitted,
+                dec.format(transactions.averageMessagesPerTransaction), transactions.errors,
+                dec.format(transactions.commitLatency.avg), dec.format(transactions.commitLatency.pct50),
+                dec.format(transactions.commitLatency.pct99),
+                dec.format(transactions.commitLatency.pct999),
+                throughputFormat.format(transactions.commitLatency.max),
+                dec.format(transactions.firstMessageToCommitLatency.avg),
+                dec.format(transactions.firstMessageToCommitLatency.pct50),
+                dec.format(transactions.firstMessageToCommitLatency.pct99),
+                dec.format(transactions.firstMessageToCommitLatency.pct999),
+                throughputFormat.format(transactions.firstMessageToCommitLatency.max));
+    }
+
+    /**
+     * Add a stats period to the admin operations
+     */
+    private void collectAdminOperationsStats(PeriodStats stats, double elapsed, TestResult result) {
+        AdminOperationsResult admin = result.adminOperations;
+        if (admin == null) {
+            return;
+        }
+
+        StringBuilder rates = new StringBuilder();
+        for (String operation : ADMIN_OPERATIONS) {
+            long count = stats.adminOperations.getOrDefault(operation, 0L);
+            double rate = count / elapsed;
+            admin.operations.merge(operation, count, Long::sum);
+            admin.rate.computeIfAbsent(operation, o -> new ArrayList<>()).add(rate);
+            rates.append(operation).append(' ').append(rateFormat.format(rate)).append("/s | ");
+        }
+        admin.errors += stats.adminOperationErrors;
+        log.info("Admin ops {}Errors: {}", rates, stats.adminOperationErrors);
+    }
+
+    /**
+     * Summarize the rate and latency of each kind of admin operation over the whole test
+     */
+    private void aggregateAdminOperationsStats(CumulativeLatencies agg, TestResult result) {
+        AdminOperationsResult admin = result.adminOperations;
+        if (admin == null) {
+            return;
+        }
+
+        admin.rate.forEach((operation, rates) -> admin.aggregatedRate.put(operation,
+                rates.stream().mapToDouble(Double::doubleValue).average().orElse(0)));
+        agg.adminOperationLatency.forEach((operation, histogram) -> {
+            LatencySummary summary = LatencySummary.fromMicros(histogram);
+            log.info("----- Admin operation {}: {}/s ({} operations) | Latency (ms) avg: {} - 50%: {} - 99%: {} - 99.9%: {} - Max: {}",
+                    operation, rateFormat.format(admin.aggregatedRate.getOrDefault(operation, 0d)),
+                    summary.count, dec.format(summary.avg), dec.format(summary.pct50),
+                    dec.format(summary.pct99), dec.format(summary.pct999),
+                    throughputFormat.format(summary.max));
+            admin.latency.put(operation, summary);
+        });
+        log.info("----- Admin operation errors: {}", admin.errors);
+    }
+
+    /**
+     * Account the end-to-end latency of a stats period to the consumer scaling events whose window it overlaps
+     */
+    private void collectConsumerScalingStats(PeriodStats stats, long periodEnd, double elapsed) {
+        if (!workload.hasConsumerScaling()) {
+            return;
+        }
+
+        long periodStart = periodEnd - (long) (elapsed * 1e9);
+        double endToEndLatency99pct = microsToMillis(stats.endToEndLatency.getValueAtPercentile(99));
+        double endToEndLatencyMax = microsToMillis(stats.endToEndLatency.getMaxValue());
+        for (ConsumerScalingWindow window : consumerScalingWindows) {
+            long endTime = window.endTime != 0 ? window.endTime : periodEnd;
+            if (window.startTime < periodEnd && endTime > periodStart) {
+                ConsumerScalingResult result = window.result;
+                result.peakEndToEndLatency99pct = Math.max(result.peakEndToEndLatency99pct, endToEndLatency99pct);
+                result.peakEndToEndLatencyMax = Math.max(result.peakEndToEndLatencyMax, endToEndLatencyMax);
+            }
+        }
+        lastEndToEndLatency99pct = endToEndLatency99pct;
+    }
+
+    private static Histogram merge(Histogram target, Histogram period) {
+        if (target == null) {
+            return period.copy();
+        }
+        target.add(period);
+        return target;
+    }
+
+    private TestResult printAndCollectStats(long testDurations, TimeUnit unit, boolean warmup) throws IOException {
         long startTime = System.nanoTime();
 
         // Print report stats
@@ -406,11 +1361,38 @@ public class WorkloadGenerator implements AutoCloseable {
         TestResult result = new TestResult();
         result.workload = workload.name;
         result.driver = driverName;
-        result.topics = workload.topics;
+        result.topics = workload.hasExistingTopics() ? topics.size() : workload.topics;
         result.partitions = workload.partitionsPerTopic;
+        result.consumersReadySeconds = consumersReadySeconds;
+        result.warmupSeconds = warmupSeconds;
+        result.warmupSteadyStateReached = warmupSteadyStateReached;
+        result.backlogBuildAndDrain = backlogResult;
+        result.catchUpReaders = catchUpReadersResult;
+        if (workload.hasConsumerScaling()) {
+            result.consumerScaling = consumerScalingResults;
+        }
+        if (workload.producerChurn != null) {
+            result.producerChurn = new ProducerChurnResult(workload.producerChurn);
+        }
+        if (workload.transactions != null) {
+            result.transactions = new TransactionsResult(workload.transactions);
+        }
+        if (workload.adminOperations != null) {
+            result.adminOperations = new AdminOperationsResult(workload.adminOperations);
+        }
         result.messageSize = workload.messageSize;
         result.producersPerTopic = workload.producersPerTopic;
         result.consumersPerTopic = workload.consumerPerSubscription;
+        if (workload.hasTrafficGroups()) {
+            result.topics = workload.trafficGroups.stream().mapToInt(g -> g.topics).sum();
+            workload.trafficGroups.forEach(group -> result.trafficGroups.put(group.name,
+                    new TrafficGroupResult(group)));
+        }
+
+        ResultsStream stream = warmup ? null : resultsStream;
+        if (stream != null) {
+            stream.write(result);
+        }
 
         long due = System.currentTimeMillis() + STATS_PERIOD;
         while (!runCompleted) {
@@ -424,6 +1406,11 @@ public class WorkloadGenerator implements AutoCloseable {
                 break;
             }
 
+            if (catchUpReadersFailure != null) {
+                throw new IllegalStateException("Failed to release the catch-up subscriptions",
+                        catchUpReadersFailure);
+            }
+
             PeriodStats stats = worker.getPeriodStats();
             CountersStats counterStats = worker.getCountersStats();
 
@@ -436,8 +1423,12 @@ public class WorkloadGenerator implements AutoCloseable {
             double consumeRate = stats.messagesReceived / elapsed;
             double consumeThroughput = stats.bytesReceived / elapsed / 1024 / 1024;
 
-            long currentBacklog = workload.subscriptionsPerTopic * stats.totalMessagesSent
-                    - stats.totalMessagesReceived;
+            PeriodResult period = new PeriodResult();
+            period.timestamp = System.currentTimeMillis();
+
+            long currentBacklog = workload.hasTrafficGroups() ? updateTrafficGroupBacklog(stats)
+                    : workload.readsExistingData() ? 0
+                    : workload.tailingSubscriptionsPerTopic() * stats.totalMessagesSent - stats.totalMessagesReceived;
 
             log.info(
                     "Pub rate {} msg/s / {} MB/s | Cons rate {} msg/s / {} MB/s | Backlog: {} K | Pub Latency (ms) avg: {} - 50%: {} - 99%: {} - 99.9%: {} - Max: {} | Pub Delay Latency (us) avg: {} - 50%: {} - 99%: {} - 99.9%: {} - Max: {}",
@@ -456,6 +1447,15 @@ public class WorkloadGenerator implements AutoCloseable {
                     throughputFormat.format(stats.publishDelayLatency.getMaxValue()));
 
             printAdditionalStats(counterStats);
+            collectPartitionStats(stats, elapsed, result, period);
+            collectWorkerPublishRates(stats, period);
+            collectTrafficGroupStats(stats, elapsed, result);
+            collectBacklogDrainStats(stats, now, consumeRate, consumeThroughput, publishRate);
+            collectCatchUpReadersStats(stats, now, elapsed, consumeRate);
+            collectConsumerScalingStats(stats, now, elapsed);
+            collectProducerChurnStats(stats, elapsed, result);
+            collectTransactionStats(stats, elapsed, result);
+            collectAdminOperationsStats(stats, elapsed, result);
 
             log.info("E2E Latency (ms) avg: {} - 50%: {} - 99%: {} - 99.9%: {} - Max: {}",
                     dec.format(microsToMillis(stats.endToEndLatency.getMean())),
@@ -464,44 +1464,84 @@ public class WorkloadGenerator implements AutoCloseable {
                     dec.format(microsToMillis(stats.endToEndLatency.getValueAtPercentile(99.9))),
                     throughputFormat.format(microsToMillis(stats.endToEndLatency.getMaxValue())));
 
+            collectRoundTripStats(stats, elapsed, period);
+
             if (stats.publishErrors > 0 || stats.consumerErrors > 0) {
                 throw new IllegalStateException(String.format("Experience %s publish and %s consume errors", stats.publishErrors, stats.consumerErrors));
             }
 
-            result.publishRate.add(publishRate);
-            result.consumeRate.add(consumeRate);
-            result.backlog.add(currentBacklog);
-            result.publishLatencyAvg.add(microsToMillis(stats.publishLatency.getMean()));
-            result.publishLatency50pct.add(microsToMillis(stats.publishLatency.getValueAtPercentile(50)));
-            result.publishLatency75pct.add(microsToMillis(stats.publishLatency.getValueAtPercentile(75)));
-            result.publishLatency95pct.add(microsToMillis(stats.publishLatency.getValueAtPercentile(95)));
-            result.publishLatency99pct.add(microsToMillis(stats.publishLatency.getValueAtPercentile(99)));
-            result.publishLatency999pct.add(microsToMillis(stats.publishLatency.getValueAtPercentile(99.9)));
-            result.publishLatency9999pct.add(microsToMillis(stats.publishLatency.getValueAtPercentile(99.99)));
-            result.publishLatencyMax.add(microsToMillis(stats.publishLatency.getMaxValue()));
-
-            result.publishDelayLatencyAvg.add(stats.publishDelayLatency.getMean());
-            result.publishDelayLatency50pct.add(stats.publishDelayLatency.getValueAtPercentile(50));
-            result.publishDelayLatency75pct.add(stats.publishDelayLatency.getValueAtPercentile(75));
-            result.publishDelayLatency95pct.add(stats.publishDelayLatency.getValueAtPercentile(95));
-            result.publishDelayLatency99pct.add(stats.publishDelayLatency.getValueAtPercentile(99));
-            result.publishDelayLatency999pct.add(stats.publishDelayLatency.getValueAtPercentile(99.9));
-            result.publishDelayLatency9999pct.add(stats.publishDelayLatency.getValueAtPercentile(99.99));
-            result.publishDelayLatencyMax.add(stats.publishDelayLatency.getMaxValue());
-
-            result.endToEndLatencyAvg.add(microsToMillis(stats.endToEndLatency.getMean()));
-            result.endToEndLatency50pct.add(microsToMillis(stats.endToEndLatency.getValueAtPercentile(50)));
-            result.endToEndLatency75pct.add(microsToMillis(stats.endToEndLatency.getValueAtPercentile(75)));
-            result.endToEndLatency95pct.add(microsToMillis(stats.endToEndLatency.getValueAtPercentile(95)));
-            result.endToEndLatency99pct.add(microsToMillis(stats.endToEndLatency.getValueAtPercentile(99)));
-            result.endToEndLatency999pct.add(microsToMillis(stats.endToEndLatency.getValueAtPercentile(99.9)));
-            result.endToEndLatency9999pct.add(microsToMillis(stats.endToEndLatency.getValueAtPercentile(99.99)));
-            result.endToEndLatencyMax.add(microsToMillis(stats.endToEndLatency.getMaxValue()));
-            counterStats.additionalMetrics.forEach((k, v) -> result.additionalMetrics.merge(k,
-                    new ArrayList<>(Arrays.asList(v.getValue())), (l1, l2) -> {
-                        l1.addAll(l2);
-                        return l1;
-                    }));
+            period.publishRate = publishRate;
+            period.consumeRate = consumeRate;
+            period.backlog = currentBacklog;
+            period.publishLatencyAvg = microsToMillis(stats.publishLatency.getMean());
+            period.publishLatency50pct = microsToMillis(stats.publishLatency.getValueAtPercentile(50));
+            period.publishLatency75pct = microsToMillis(stats.publishLatency.getValueAtPercentile(75));
+            period.publishLatency95pct = microsToMillis(stats.publishLatency.getValueAtPercentile(95));
+            period.publishLatency99pct = microsToMillis(stats.publishLatency.getValueAtPercentile(99));
+            period.publishLatency999pct = microsToMillis(stats.publishLatency.getValueAtPercentile(99.9));
+            period.publishLatency9999pct = microsToMillis(stats.publishLatency.getValueAtPercentile(99.99));
+            period.publishLatencyMax = microsToMillis(stats.publishLatency.getMaxValue());
+
+            period.publishDelayLatencyAvg = stats.publishDelayLatency.getMean();
+            period.publishDelayLatency50pct = stats.publishDelayLatency.getValueAtPercentile(50);
+            period.publishDelayLatency75pct = stats.publishDelayLatency.getValueAtPercentile(75);
+            period.publishDelayLatency95pct = stats.publishDelayLatency.getValueAtPercentile(95);
+            period.publishDelayLatency99pct = stats.publishDelayLatency.getValueAtPercentile(99);
+            period.publishDelayLatency999pct = stats.publishDelayLatency.getValueAtPercentile(99.9);
+            period.publishDelayLatency9999pct = stats.publishDelayLatency.getValueAtPercentile(99.99);
+            period.publishDelayLatencyMax = stats.publishDelayLatency.getMaxValue();
+
+            period.endToEndLatencyAvg = microsToMillis(stats.endToEndLatency.getMean());
+            period.endToEndLatency50pct = microsToMillis(stats.endToEndLatency.getValueAtPercentile(50));
+            period.endToEndLatency75pct = microsToMillis(stats.endToEndLatency.getValueAtPercentile(75));
+            period.endToEndLatency95pct = microsToMillis(stats.endToEndLatency.getValueAtPercentile(95));
+            period.endToEndLatency99pct = microsToMillis(stats.endToEndLatency.getValueAtPercentile(99));
+            period.endToEndLatency999pct = microsToMillis(stats.endToEndLatency.getValueAtPercentile(99.9));
+            period.endToEndLatency9999pct = microsToMillis(stats.endToEndLatency.getValueAtPercentile(99.99));
+            period.endToEndLatencyMax = microsToMillis(stats.endToEndLatency.getMaxValue());
+            counterStats.additionalMetrics.forEach((k, v) -> period.additionalMetrics.put(k, v.getValue()));
+
+            if (stream != null) {
+                stream.append(period);
+            } else {
+                result.addPeriod(period);
+            }
+
+            if (steadyStateDetector != null && steadyStateDetector.addPeriod(elapsed, publishRate,
+                    microsToMillis(stats.publishLatency.getValueAtPercentile(99)), currentBacklog)) {
+                log.info("----- Steady traffic after {} s | Pub rate variation: {} - Pub latency 99% variation: {}"
+                        + " - Backlog slope: {}", dec.format(steadyStateDetector.getElapsedSeconds()),
+                        ratioFormat.format(steadyStateDetector.getPublishRateVariation()),
+                        ratioFormat.format(steadyStateDetector.getPublishLatencyVariation()),
+                        ratioFormat.format(steadyStateDetector.getBacklogSlope()));
+                warmupSteadyStateReached = true;
+                testEndTime = now;
+            }
+
+            if (workload.readsExistingData()) {
+                result.catchUpMessages += stats.messagesReceived;
+                result.catchUpBytes += stats.bytesReceived;
+                if (stats.messagesReceived == 0 && (result.catchUpMessages > 0
+                        || now - catchUpStartTime > TimeUnit.MILLISECONDS.toNanos(6 * STATS_PERIOD))) {
+                    // A whole period without anything to read, the consumers have caught up. Allow them a minute to
+                    // start when nothing was read yet
+                    result.timeToDrainSeconds = (lastCatchUpReceiveTime - catchUpStartTime) / 1e9;
+                    testEndTime = now;
+                }
+
+                double catchUpSeconds = ((result.timeToDrainSeconds != null ? lastCatchUpReceiveTime : now)
+                        - catchUpStartTime) / 1e9;
+                if (catchUpSeconds > 0) {
+                    result.catchUpConsumeRate = result.catchUpMessages / catchUpSeconds;
+                    result.catchUpConsumeThroughput = result.catchUpBytes / catchUpSeconds / 1024 / 1024;
+                }
+                if (result.timeToDrainSeconds != null) {
+                    log.info("----- Caught up with {} messages in {} s | Cons rate {} msg/s / {} MB/s",
+                            result.catchUpMessages, dec.format(result.timeToDrainSeconds),
+                            rateFormat.format(result.catchUpConsumeRate),
+                            throughputFormat.format(result.catchUpConsumeThroughput));
+                }
+            }
 
             if (now >= testEndTime && !needToWaitForBacklogDraining) {
                 boolean complete = false;
@@ -521,6 +1561,7 @@ public class WorkloadGenerator implements AutoCloseable {
                 if (!complete) {
                     throw new RuntimeException("Failed to collect aggregate latencies");
                 }
+                cumulativeLatencies = agg;
 
                 log.info(
                         "----- Aggregated Pub Latency (ms) avg: {} - 50%: {} - 95%: {} - 99%: {} - 99.9%: {} - 99.99%: {} - Max: {} | Pub Delay (us)  avg: {} - 50%: {} - 95%: {} - 99%: {} - 99.9%: {} - 99.99%: {} - Max: {}",
@@ -581,6 +1622,40 @@ public class WorkloadGenerator implements AutoCloseable {
                             microsToMillis(value.getValueIteratedTo()));
                 });
 
+                aggregateRoundTripStats(agg, result);
+
+                agg.publishLatencyBySize.forEach((bucket, histogram) -> {
+                    LatencySummary summary = LatencySummary.fromMicros(histogram);
+                    log.info("----- Aggregated Pub Latency (ms) for messages <= {} bytes ({} msgs) avg: {} - 50%: {} - 99%: {} - 99.9%: {} - Max: {}",
+                            bucket, summary.count, dec.format(summary.avg), dec.format(summary.pct50),
+                            dec.format(summary.pct99), dec.format(summary.pct999), throughputFormat.format(summary.max));
+                    result.aggregatedPublishLatencyBySize.put(bucket, summary);
+                });
+
+                agg.endToEndLatencyBySize.forEach((bucket, histogram) -> {
+                    LatencySummary summary = LatencySummary.fromMicros(histogram);
+                    log.info("----- Aggregated E2E Latency (ms) for messages <= {} bytes ({} msgs) avg: {} - 50%: {} - 99%: {} - 99.9%: {} - Max: {}",
+                            bucket, summary.count, dec.format(summary.avg), dec.format(summary.pct50),
+                            dec.format(summary.pct99), dec.format(summary.pct999), throughputFormat.format(summary.max));
+                    result.aggregatedEndToEndLatencyBySize.put(bucket, summary);
+                });
+
+                aggregateTrafficGroupStats(agg, result);
+
+                aggregateProducerChurnStats(agg, result);
+
+                aggregateTransactionStats(agg, result);
+
+                aggregateAdminOperationsStats(agg, result);
+
+                agg.clientSetupLatency.forEach((client, histogram) -> {
+                    LatencySummary summary = LatencySummary.fromMicros(histogram);
+                    log.info("----- Time to ready (ms) of {}s ({} clients) avg: {} - 50%: {} - 99%: {} - Max: {}",
+                            client, summary.count, dec.format(summary.avg), dec.format(summary.pct50),
+                            dec.format(summary.pct99), throughputFormat.format(summary.max));
+                    result.clientSetupLatency.put(client, summary);
+                });
+
                 result.aggregatedPublishErrors = counterStats.publishErrors;
                 result.aggregatedConsumerErrors = counterStats.consumerErrors;
                 break;
@@ -590,6 +1665,130 @@ public class WorkloadGenerator implements AutoCloseable {
         return result;
     }
 
+    /**
+     * Report how evenly the consumed traffic is spread over the partitions. Partitions that did not receive anything
+     * are accounted as idle, as long as the driver reported at least one partition of the topic.
+     */
+    private void collectPartitionStats(PeriodStats stats, double elapsed, TestResult result, PeriodResult period) {
+        if (stats.messagesReceivedByPartition.isEmpty()) {
+            return;
+        }
+
+        double min = Double.MAX_VALUE;
+        double max = 0;
+        long total = 0;
+        int partitions = 0;
+        for (Map.Entry<String, Map<Integer, Long>> entry : stats.messagesReceivedByPartition.entrySet()) {
+            Map<Integer, Long> counts = entry.getValue();
+            int topicPartitions = Math.max(workload.partitionsPerTopic, counts.keySet().stream()
+                    .mapToInt(Integer::intValue).max().orElse(0) + 1);
+            Map<Integer, Long> totals = result.messagesReceivedByPartition.computeIfAbsent(entry.getKey(),
+                    t -> new TreeMap<>());
+            for (int p = 0; p < topicPartitions; p++) {
+                long count = counts.getOrDefault(p, 0L);
+                totals.merge(p, count, Long::sum);
+                min = Math.min(min, count);
+                max = Math.max(max, count);
+                total += count;
+                partitions++;
+            }
+        }
+
+        double avgRate = total / (double) partitions / elapsed;
+        double minRate = min / elapsed;
+        double maxRate = max / elapsed;
+        log.info("Partition cons rate (msg/s) over {} partitions min: {} - avg: {} - max: {} | max/avg: {}",
+                partitions, rateFormat.format(minRate), rateFormat.format(avgRate), rateFormat.format(maxRate),
+                dec.format(avgRate > 0 ? maxRate / avgRate : 0));
+
+        period.partitionConsumeRateMin = minRate;
+        period.partitionConsumeRateAvg = avgRate;
+        period.partitionConsumeRateMax = maxRate;
+    }
+
+    /**
+     * Report the publish rate each producer worker achieved against the rate it was asked for, to point out the load
+     * generators that cannot keep up.
+     */
+    private void collectWorkerPublishRates(PeriodStats stats, PeriodResult period) {
+        if (stats.publishRateByWorker.isEmpty()) {
+            return;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        stats.publishRateByWorker.forEach((w, rate) -> {
+            double targetRate = stats.targetPublishRateByWorker.getOrDefault(w, 0.0);
+            period.publishRateByWorker.put(w, rate);
+            period.targetPublishRateByWorker.put(w, targetRate);
+            sb.append(String.format(" | %s: %s / %s", w, rateFormat.format(rate).trim(),
+                    rateFormat.format(targetRate).trim()));
+        });
+        log.info("Worker pub rate / target (msg/s){}", sb);
+    }
+
+    /**
+     * Accumulate the backlog of each traffic group, as the groups can have a different number of subscriptions
+     *
+     * @return the total backlog
+     */
+    private long updateTrafficGroupBacklog(PeriodStats stats) {
+        for (Workload group : workload.trafficGroups) {
+            TrafficGroupStats traffic = stats.trafficByGroup.get(group.name);
+            if (traffic != null) {
+                trafficGroupBacklog.merge(group.name,
+                        group.subscriptionsPerTopic * traffic.messagesSent - traffic.messagesReceived, Long::sum);
+            }
+        }
+        return trafficGroupBacklog.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private void collectTrafficGroupStats(PeriodStats stats, double elapsed, TestResult result) {
+        result.trafficGroups.forEach((group, groupResult) -> {
+            TrafficGroupStats traffic = stats.trafficByGroup.getOrDefault(group, new TrafficGroupStats());
+            double publishRate = traffic.messagesSent / elapsed;
+            double publishThroughput = traffic.bytesSent / elapsed / 1024 / 1024;
+            double consumeRate = traffic.messagesReceived / elapsed;
+            double consumeThroughput = traffic.bytesReceived / elapsed / 1024 / 1024;
+            long backlog = trafficGroupBacklog.getOrDefault(group, 0L);
+
+            log.info("Group {} | Pub rate {} msg/s / {} MB/s | Cons rate {} msg/s / {} MB/s | Backlog: {} K", group,
+                    rateFormat.format(publishRate), throughputFormat.format(publishThroughput),
+                    rateFormat.format(consumeRate), throughputFormat.format(consumeThroughput),
+                    dec.format(backlog / 1000.0));
+
+            groupResult.publishRate.add(publishRate);
+            groupResult.publishThroughput.add(publishThroughput);
+            groupResult.consumeRate.add(consumeRate);
+            groupResult.consumeThroughput.add(consumeThroughput);
+            groupResult.backlog.add(backlog);
+        });
+    }
+
+    /**
+     * Summarize the latencies of each traffic group over the whole test
+     */
+    private void aggregateTrafficGroupStats(CumulativeLatencies agg, TestResult result) {
+        for (Map.Entry<String, TrafficGroupResult> entry : result.trafficGroups.entrySet()) {
+            String group = entry.getKey();
+            TrafficGroupResult groupResult = entry.getValue();
+            groupResult.aggregatedPublishLatency = LatencySummary
+                    .fromMicros(agg.publishLatencyByGroup.getOrDefault(group, EMPTY_HISTOGRAM));
+            groupResult.aggregatedEndToEndLatency = LatencySummary
+                    .fromMicros(agg.endToEndLatencyByGroup.getOrDefault(group, EMPTY_HISTOGRAM));
+            log.info("----- Aggregated latency (ms) of group {} | Pub avg: {} - 50%: {} - 99%: {} - 99.9%: {} - Max: {} | E2E avg: {} - 50%: {} - 99%: {} - 99.9%: {} - Max: {}",
+                    group, dec.format(groupResult.aggregatedPublishLatency.avg),
+                    dec.format(groupResult.aggregatedPublishLatency.pct50),
+                    dec.format(groupResult.aggregatedPublishLatency.pct99),
+                    dec.format(groupResult.aggregatedPublishLatency.pct999),
+                    throughputFormat.format(groupResult.aggregatedPublishLatency.max),
+                    dec.format(groupResult.aggregatedEndToEndLatency.avg),
+                    dec.format(groupResult.aggregatedEndToEndLatency.pct50),
+                    dec.format(groupResult.aggregatedEndToEndLatency.pct99),
+                    dec.format(groupResult.aggregatedEndToEndLatency.pct999),
+                    throughputFormat.format(groupResult.aggregatedEndToEndLatency.max));
+        }
+    }
+
     protected void printAdditionalStats(CountersStats counterStats) {
         counterStats.additionalMetrics.forEach((k, v) -> {
             log.info("{} ({}): {}", k, v.getUnits(), v.getValue());
@@ -599,6 +1798,9 @@ public class WorkloadGenerator implements AutoCloseable {
     private static final DecimalFormat rateFormat = new PaddingDecimalFormat("0.0", 7);
     private static final DecimalFormat throughputFormat = new PaddingDecimalFormat("0.0", 4);
     private static final DecimalFormat dec = new PaddingDecimalFormat("0.0", 4);
+    private static final DecimalFormat ratioFormat = new PaddingDecimalFormat("0.000", 5);
+
+    private static final Histogram EMPTY_HISTOGRAM = new Histogram(5);
 
     private static double microsToMillis(double timeInMicros) {
         return timeInMicros / 1000.0;
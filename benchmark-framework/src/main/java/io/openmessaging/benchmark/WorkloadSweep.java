@@ -0,0 +1,131 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * A base workload and axes of values for some of its fields, expanded into the matrix of all the combinations.
+ *
+ * The points that only differ in the rate, payload, key distribution or durations share the same topology, so the
+ * benchmark can run them one after the other on the same driver, topics, producers and consumers. The axes changing
+ * the topology vary the slowest so that the points sharing a topology are contiguous.
+ */
+public class WorkloadSweep {
+    public String name;
+
+    public Workload base;
+
+    /** Values of each swept workload field, eg. producerRate: [10000, 50000, 100000] */
+    public Map<String, List<Object>> axes = new LinkedHashMap<>();
+
+    /** Workload fields that can be changed without recreating the topics, producers and consumers */
+    static final Set<String> REUSABLE_FIELDS = new HashSet<>(Arrays.asList("name", "producerRate", "messageSize",
+            "messageSizeDistribution", "payloadFile", "useRandomizedPayloads", "randomBytesRatio",
+            "randomizedPayloadPoolSize", "keyDistributor", "keyDistributorConfig", "testDurationMinutes",
+            "warmupDurationMinutes", "adaptiveWarmup"));
+
+    public List<Workload> expand() {
+        if (base == null) {
+            throw new IllegalArgumentException("Sweep " + name + " needs a base workload");
+        }
+
+        ObjectNode baseNode = mapper.valueToTree(base);
+        for (Map.Entry<String, List<Object>> axis : axes.entrySet()) {
+            if (!baseNode.has(axis.getKey()) || axis.getKey().equals("name")
+                    || axis.getKey().equals("trafficGroups")) {
+                throw new IllegalArgumentException("Cannot sweep the workload field " + axis.getKey());
+            }
+            if (axis.getValue() == null || axis.getValue().isEmpty()) {
+                throw new IllegalArgumentException("Axis " + axis.getKey() + " needs at least one value");
+            }
+        }
+
+        // Topology axes first, so that they vary the slowest
+        List<String> order = new ArrayList<>();
+        axes.keySet().stream().filter(axis -> !REUSABLE_FIELDS.contains(axis)).forEach(order::add);
+        axes.keySet().stream().filter(REUSABLE_FIELDS::contains).forEach(order::add);
+
+        List<Workload> points = new ArrayList<>();
+        expand(baseNode, order, 0, new ArrayList<>(), points);
+        return points;
+    }
+
+    private void expand(ObjectNode node, List<String> order, int index, List<String> labels, List<Workload> points) {
+        if (index == order.size()) {
+            ObjectNode point = node.deepCopy();
+            String baseName = name != null ? name : base.name;
+            point.put("name", labels.isEmpty() ? baseName
+                    : String.format("%s [%s]", baseName, labels.stream().collect(Collectors.joining(", "))));
+            points.add(mapper.convertValue(point, Workload.class));
+            return;
+        }
+
+        String axis = order.get(index);
+        for (Object value : axes.get(axis)) {
+            ObjectNode point = node.deepCopy();
+            point.set(axis, mapper.valueToTree(value));
+            labels.add(axis + "=" + value);
+            expand(point, order, index + 1, labels, points);
+            labels.remove(labels.size() - 1);
+        }
+    }
+
+    /**
+     * Whether the second workload can run on the topics, producers and consumers created for the first one
+     */
+    public static boolean sameTopology(Workload a, Workload b) {
+        if (!canReuseTopology(a) || !canReuseTopology(b)) {
+            return false;
+        }
+
+        return topology(a).equals(topology(b));
+    }
+
+    private static boolean canReuseTopology(Workload workload) {
+        return !workload.hasTrafficGroups() && workload.consumerBacklogSizeGB == 0 && !workload.consumerOnly
+                && !workload.readsExistingData() && !workload.hasConsumerScaling()
+                && !workload.runsAdminOperationsOnly();
+    }
+
+    private static JsonNode topology(Workload workload) {
+        ObjectNode node = mapper.valueToTree(workload);
+        node.remove(REUSABLE_FIELDS);
+        return node;
+    }
+
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    static {
+        mapper.enable(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_USING_DEFAULT_VALUE);
+    }
+}
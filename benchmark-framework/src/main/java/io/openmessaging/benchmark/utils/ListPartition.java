@@ -20,6 +20,7 @@ package io.openmessaging.benchmark.utils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BiPredicate;
 
 public class ListPartition {
 
@@ -61,4 +62,60 @@ public class ListPartition {
         return resultList;
     }
 
+    /**
+     * partition a list into as many parts as there are weights, with part sizes proportional to the weights. Items
+     * are interleaved across parts (smooth weighted round-robin), so equal weights give the same result as
+     * {@link #partitionList(List, int)}
+     *
+     * @param originList
+     * @param weights
+     * @param <T>
+     * @return
+     */
+    public static <T> List<List<T>> partitionList(List<T> originList, List<Double> weights) {
+        return partitionList(originList, weights, (item, part) -> true);
+    }
+
+    /**
+     * same as {@link #partitionList(List, List)}, but each item only goes to a part accepted by
+     * <code>allowed</code>. Items that no part accepts are assigned as if all parts accepted them
+     *
+     * @param originList
+     * @param weights
+     * @param allowed
+     * @param <T>
+     * @return
+     */
+    public static <T> List<List<T>> partitionList(List<T> originList, List<Double> weights,
+            BiPredicate<T, Integer> allowed) {
+        List<List<T>> resultList = new ArrayList<>();
+        for (int i = 0; i < weights.size(); i++) {
+            resultList.add(new ArrayList<>());
+        }
+        if (null == originList || weights.isEmpty()) {
+            return resultList;
+        }
+
+        double totalWeight = weights.stream().mapToDouble(Double::doubleValue).sum();
+        double[] credits = new double[weights.size()];
+        for (T item : originList) {
+            int selected = -1;
+            int fallback = 0;
+            for (int i = 0; i < credits.length; i++) {
+                credits[i] += weights.get(i);
+                if (credits[i] > credits[fallback]) {
+                    fallback = i;
+                }
+                if (allowed.test(item, i) && (selected < 0 || credits[i] > credits[selected])) {
+                    selected = i;
+                }
+            }
+            if (selected < 0) {
+                selected = fallback;
+            }
+            credits[selected] -= totalWeight;
+            resultList.get(selected).add(item);
+        }
+        return resultList;
+    }
 }
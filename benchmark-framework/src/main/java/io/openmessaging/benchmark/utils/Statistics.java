@@ -0,0 +1,172 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.utils;
+
+import java.util.List;
+
+/**
+ * Descriptive statistics and Student's t distribution, to compare the results of repeated runs
+ */
+public class Statistics {
+
+    public static double mean(List<Double> values) {
+        return values.stream().mapToDouble(Double::doubleValue).average().orElse(Double.NaN);
+    }
+
+    /**
+     * Sample standard deviation, with n - 1 degrees of freedom
+     */
+    public static double stdDev(List<Double> values) {
+        if (values.size() < 2) {
+            return 0;
+        }
+        double mean = mean(values);
+        double sum = values.stream().mapToDouble(v -> (v - mean) * (v - mean)).sum();
+        return Math.sqrt(sum / (values.size() - 1));
+    }
+
+    /**
+     * Two-sided p-value of Welch's t-test, that two samples with possibly different variances have the same mean. NaN
+     * when a sample has less than two values.
+     */
+    public static double welchTTest(List<Double> a, List<Double> b) {
+        if (a.size() < 2 || b.size() < 2) {
+            return Double.NaN;
+        }
+
+        double varianceA = Math.pow(stdDev(a), 2) / a.size();
+        double varianceB = Math.pow(stdDev(b), 2) / b.size();
+        double difference = mean(a) - mean(b);
+        if (varianceA + varianceB == 0) {
+            return difference == 0 ? 1 : 0;
+        }
+
+        double t = difference / Math.sqrt(varianceA + varianceB);
+        // Welch-Satterthwaite approximation of the degrees of freedom
+        double degreesOfFreedom = Math.pow(varianceA + varianceB, 2)
+                / (varianceA * varianceA / (a.size() - 1) + varianceB * varianceB / (b.size() - 1));
+        return 2 * tCdf(-Math.abs(t), degreesOfFreedom);
+    }
+
+    /**
+     * Cumulative distribution function of Student's t distribution
+     */
+    public static double tCdf(double t, double degreesOfFreedom) {
+        double tail = 0.5 * regularizedIncompleteBeta(degreesOfFreedom / (degreesOfFreedom + t * t),
+                degreesOfFreedom / 2, 0.5);
+        return t >= 0 ? 1 - tail : tail;
+    }
+
+    /**
+     * Inverse of the cumulative distribution function of Student's t distribution, found by bisection
+     */
+    public static double tQuantile(double p, double degreesOfFreedom) {
+        if (p <= 0 || p >= 1) {
+            throw new IllegalArgumentException("Probability should be in (0, 1)");
+        }
+        if (p < 0.5) {
+            return -tQuantile(1 - p, degreesOfFreedom);
+        }
+
+        double low = 0;
+        double high = 1;
+        while (tCdf(high, degreesOfFreedom) < p) {
+            high *= 2;
+        }
+        for (int i = 0; i < 100 && high - low > 1e-12 * high; i++) {
+            double mid = (low + high) / 2;
+            if (tCdf(mid, degreesOfFreedom) < p) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    /**
+     * Regularized incomplete beta function I_x(a, b), evaluated with its continued fraction
+     */
+    public static double regularizedIncompleteBeta(double x, double a, double b) {
+        if (x <= 0) {
+            return 0;
+        }
+        if (x >= 1) {
+            return 1;
+        }
+
+        double front = Math.exp(logGamma(a + b) - logGamma(a) - logGamma(b) + a * Math.log(x) + b * Math.log(1 - x));
+        // The continued fraction converges quickly only below the mean of the distribution, use the symmetry above
+        if (x < (a + 1) / (a + b + 2)) {
+            return front * betaContinuedFraction(x, a, b) / a;
+        } else {
+            return 1 - front * betaContinuedFraction(1 - x, b, a) / b;
+        }
+    }
+
+    private static double betaContinuedFraction(double x, double a, double b) {
+        final double tiny = 1e-300;
+        double c = 1;
+        double d = 1 - (a + b) * x / (a + 1);
+        d = Math.abs(d) < tiny ? tiny : d;
+        d = 1 / d;
+        double h = d;
+
+        for (int m = 1; m <= 300; m++) {
+            int m2 = 2 * m;
+            double numerator = m * (b - m) * x / ((a + m2 - 1) * (a + m2));
+            d = 1 + numerator * d;
+            d = Math.abs(d) < tiny ? tiny : d;
+            c = 1 + numerator / c;
+            c = Math.abs(c) < tiny ? tiny : c;
+            d = 1 / d;
+            h *= d * c;
+
+            numerator = -(a + m) * (a + b + m) * x / ((a + m2) * (a + m2 + 1));
+            d = 1 + numerator * d;
+            d = Math.abs(d) < tiny ? tiny : d;
+            c = 1 + numerator / c;
+            c = Math.abs(c) < tiny ? tiny : c;
+            d = 1 / d;
+            double delta = d * c;
+            h *= delta;
+            if (Math.abs(delta - 1) < 1e-15) {
+                break;
+            }
+        }
+        return h;
+    }
+
+    private static final double[] LANCZOS = { 76.18009172947146, -86.50532032941677, 24.01409824083091,
+            -1.231739572450155, 0.1208650973866179e-2, -0.5395239384953e-5 };
+
+    /**
+     * Natural logarithm of the gamma function, with the Lanczos approximation
+     */
+    public static double logGamma(double x) {
+        double y = x;
+        double tmp = x + 5.5;
+        tmp -= (x + 0.5) * Math.log(tmp);
+        double series = 1.000000000190015;
+        for (double coefficient : LANCZOS) {
+            series += coefficient / ++y;
+        }
+        return -tmp + Math.log(2.5066282746310005 * series / x);
+    }
+}
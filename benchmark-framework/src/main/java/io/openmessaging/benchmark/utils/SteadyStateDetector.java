@@ -0,0 +1,111 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.utils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import io.openmessaging.benchmark.AdaptiveWarmup;
+
+/**
+ * Tells when the traffic of a warm-up has become steady, from the stats of its successive periods
+ */
+public class SteadyStateDetector {
+
+    private final AdaptiveWarmup settings;
+
+    private final Deque<double[]> periods = new ArrayDeque<>();
+    private double elapsedSeconds;
+
+    private double publishRateVariation = Double.NaN;
+    private double publishLatencyVariation = Double.NaN;
+    private double backlogSlope = Double.NaN;
+
+    public SteadyStateDetector(AdaptiveWarmup settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Add the stats of a period
+     *
+     * @param seconds
+     *            length of the period
+     * @param publishRate
+     *            messages published per second
+     * @param publishLatency99pct
+     *            p99 publish latency
+     * @param backlog
+     *            backlog at the end of the period, in messages
+     * @return whether the traffic is steady and the warm-up has lasted its minimum duration
+     */
+    public boolean addPeriod(double seconds, double publishRate, double publishLatency99pct, long backlog) {
+        elapsedSeconds += seconds;
+        periods.addLast(new double[] { seconds, publishRate, publishLatency99pct, backlog });
+        if (periods.size() > settings.stablePeriods) {
+            periods.removeFirst();
+        }
+        if (periods.size() < settings.stablePeriods) {
+            return false;
+        }
+
+        publishRateVariation = coefficientOfVariation(1);
+        publishLatencyVariation = coefficientOfVariation(2);
+
+        // Backlog change per second over the window, relative to the publish rate
+        double windowSeconds = periods.stream().skip(1).mapToDouble(p -> p[0]).sum();
+        double meanPublishRate = periods.stream().mapToDouble(p -> p[1]).average().orElse(0);
+        double backlogChange = periods.getLast()[3] - periods.getFirst()[3];
+        backlogSlope = backlogChange == 0 ? 0
+                : meanPublishRate > 0 && windowSeconds > 0
+                        ? Math.abs(backlogChange) / windowSeconds / meanPublishRate
+                        : Double.POSITIVE_INFINITY;
+
+        return elapsedSeconds >= settings.minDurationSeconds
+                && meanPublishRate > 0
+                && publishRateVariation <= settings.maxPublishRateVariation
+                && publishLatencyVariation <= settings.maxPublishLatencyVariation
+                && backlogSlope <= settings.maxBacklogSlope;
+    }
+
+    private double coefficientOfVariation(int index) {
+        double mean = periods.stream().mapToDouble(p -> p[index]).average().orElse(0);
+        double variance = periods.stream().mapToDouble(p -> (p[index] - mean) * (p[index] - mean)).sum()
+                / periods.size();
+        if (mean == 0) {
+            return variance == 0 ? 0 : Double.POSITIVE_INFINITY;
+        }
+        return Math.sqrt(variance) / mean;
+    }
+
+    public double getElapsedSeconds() {
+        return elapsedSeconds;
+    }
+
+    public double getPublishRateVariation() {
+        return publishRateVariation;
+    }
+
+    public double getPublishLatencyVariation() {
+        return publishLatencyVariation;
+    }
+
+    public double getBacklogSlope() {
+        return backlogSlope;
+    }
+}
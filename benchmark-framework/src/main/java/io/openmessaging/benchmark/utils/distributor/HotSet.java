@@ -0,0 +1,51 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.utils.distributor;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A fixed set of hot keys receives a given share of the traffic, the remaining keys share the rest uniformly
+ */
+public class HotSet extends KeyDistributor {
+
+    private final SplittableRandom random;
+    private final int hotKeys;
+    private final double hotTrafficRatio;
+
+    public HotSet(KeySpace keySpace, double hotKeysRatio, double hotTrafficRatio) {
+        this(keySpace, hotKeysRatio, hotTrafficRatio, new SplittableRandom(ThreadLocalRandom.current().nextLong()));
+    }
+
+    HotSet(KeySpace keySpace, double hotKeysRatio, double hotTrafficRatio, SplittableRandom random) {
+        super(keySpace);
+        this.random = random;
+        this.hotKeys = Math.max(1, Math.min(getLength(), (int) Math.ceil(getLength() * hotKeysRatio)));
+        this.hotTrafficRatio = hotTrafficRatio;
+    }
+
+    @Override
+    public int nextIndex() {
+        if (hotKeys == getLength() || random.nextDouble() < hotTrafficRatio) {
+            return random.nextInt(hotKeys);
+        }
+        return hotKeys + random.nextInt(getLength() - hotKeys);
+    }
+}
@@ -18,48 +18,77 @@
  */
 package io.openmessaging.benchmark.utils.distributor;
 
-import com.google.common.io.BaseEncoding;
-
-import java.util.Random;
-
+/**
+ * Picks the key of each message from a {@link KeySpace}.
+ * <p>
+ * Instances hold per-producer state and are not thread safe: every producer gets its own distributor.
+ */
 public abstract class KeyDistributor {
 
-    static final int UNIQUE_COUNT = 10_000;
-    private static final int KEY_BYTE_SIZE = 7;
-
-    private static final String[] randomKeys = new String[UNIQUE_COUNT];
-    private static final Random random = new Random();
+    private final KeySpace keySpace;
 
-    static {
-        // Generate a number of random keys to be used when publishing
-        byte[] buffer = new byte[KEY_BYTE_SIZE];
-        for (int i = 0; i < randomKeys.length; i++) {
-            random.nextBytes(buffer);
-            randomKeys[i] = BaseEncoding.base64Url().omitPadding().encode(buffer);
-        }
+    protected KeyDistributor(KeySpace keySpace) {
+        this.keySpace = keySpace;
     }
 
     protected String get(int index) {
-        return randomKeys[index];
+        return keySpace.key(index);
     }
 
     protected int getLength() {
-        return UNIQUE_COUNT;
+        return keySpace.size();
     }
 
-    public abstract String next();
+    /**
+     * @return the index of the next key in the key space, or -1 to publish without key
+     */
+    public abstract int nextIndex();
+
+    public String next() {
+        return key(nextIndex());
+    }
+
+    public String key(int index) {
+        return index < 0 ? null : keySpace.key(index);
+    }
+
+    public byte[] keyBytes(int index) {
+        return index < 0 ? null : keySpace.keyBytes(index);
+    }
 
     public static KeyDistributor build(KeyDistributorType keyType) {
+        return build(keyType, new KeyDistributorConfig());
+    }
+
+    public static KeyDistributor build(KeyDistributorType keyType, KeyDistributorConfig config) {
+        if (config == null) {
+            config = new KeyDistributorConfig();
+        }
+
+        if (keyType == KeyDistributorType.NO_KEY) {
+            return new NoKeyDistributor();
+        }
+
+        KeySpace keySpace = KeySpace.of(config.keyCount, config.keySize);
         KeyDistributor keyDistributor = null;
         switch (keyType) {
-            case NO_KEY:
-                keyDistributor = new NoKeyDistributor();
-                break;
             case KEY_ROUND_ROBIN:
-                keyDistributor = new KeyRoundRobin();
+                keyDistributor = new KeyRoundRobin(keySpace);
                 break;
             case RANDOM_NANO:
-                keyDistributor = new RandomNano();
+                keyDistributor = new RandomNano(keySpace);
+                break;
+            case ZIPFIAN:
+                keyDistributor = new Zipfian(keySpace, config.zipfExponent);
+                break;
+            case HOT_SET:
+                keyDistributor = new HotSet(keySpace, config.hotSetKeysRatio, config.hotSetTrafficRatio);
+                break;
+            case SHIFTING_HOT_KEY:
+                keyDistributor = new ShiftingHotKey(keySpace, config.hotKeyShiftIntervalSeconds,
+                        config.hotSetTrafficRatio);
+                break;
+            default:
                 break;
         }
         return keyDistributor;
@@ -0,0 +1,61 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.utils.distributor;
+
+/**
+ * Key space and tuning parameters for the key distributors
+ */
+public class KeyDistributorConfig {
+
+    /** Number of distinct keys */
+    public int keyCount = 10_000;
+
+    /** Length of each key, in bytes */
+    public int keySize = 10;
+
+    /** ZIPFIAN: exponent of the distribution, higher values concentrate more traffic on the hottest keys */
+    public double zipfExponent = 1.0;
+
+    /** HOT_SET: fraction of the keys that are considered hot */
+    public double hotSetKeysRatio = 0.01;
+
+    /** HOT_SET and SHIFTING_HOT_KEY: fraction of the traffic that goes to the hot keys */
+    public double hotSetTrafficRatio = 0.8;
+
+    /** SHIFTING_HOT_KEY: how long a key stays hot before the next one takes over */
+    public int hotKeyShiftIntervalSeconds = 60;
+
+    public void validate() throws IllegalArgumentException {
+        if (keyCount <= 0 || keySize <= 0) {
+            throw new IllegalArgumentException("Key count and key size should be > 0");
+        }
+
+        if (zipfExponent <= 0) {
+            throw new IllegalArgumentException("Zipf exponent should be > 0");
+        }
+
+        if (hotSetKeysRatio <= 0 || hotSetKeysRatio > 1 || hotSetTrafficRatio < 0 || hotSetTrafficRatio > 1) {
+            throw new IllegalArgumentException("Hot set ratios should be between 0 and 1");
+        }
+
+        if (hotKeyShiftIntervalSeconds <= 0) {
+            throw new IllegalArgumentException("Hot key shift interval should be > 0");
+        }
+    }
+}
@@ -33,7 +33,22 @@ public enum KeyDistributorType {
     KEY_ROUND_ROBIN,
 
     /**
-     * Random distribution based on System.nanoTime()
+     * Uniformly random keys
      */
     RANDOM_NANO,
+
+    /**
+     * Zipf distribution over the keys, with a configurable exponent
+     */
+    ZIPFIAN,
+
+    /**
+     * A configurable share of the traffic goes to a configurable share of the keys
+     */
+    HOT_SET,
+
+    /**
+     * A single hot key that moves to a different key at a fixed interval
+     */
+    SHIFTING_HOT_KEY,
 }
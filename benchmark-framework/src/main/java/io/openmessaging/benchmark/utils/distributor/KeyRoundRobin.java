@@ -18,14 +18,24 @@
  */
 package io.openmessaging.benchmark.utils.distributor;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class KeyRoundRobin extends KeyDistributor {
 
-    private static AtomicInteger currentIndex = new AtomicInteger((int)(Math.random()*UNIQUE_COUNT));
+    // Per producer position, starting at a random offset so that producers don't move in lockstep
+    private int currentIndex;
+
+    public KeyRoundRobin(KeySpace keySpace) {
+        super(keySpace);
+        this.currentIndex = ThreadLocalRandom.current().nextInt(getLength());
+    }
 
     @Override
-    public String next() {
-        return get(Math.abs(currentIndex.getAndIncrement()) % getLength());
+    public int nextIndex() {
+        int index = currentIndex;
+        if (++currentIndex == getLength()) {
+            currentIndex = 0;
+        }
+        return index;
     }
 }
@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.utils.distributor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import com.google.common.io.BaseEncoding;
+
+/**
+ * Immutable table of the keys used when publishing, kept both as strings and as pre-encoded bytes so that drivers
+ * can skip encoding the key for every message. It is shared by all the producers of a worker.
+ */
+public final class KeySpace {
+
+    private static volatile KeySpace current;
+
+    private final int keyCount;
+    private final int keySize;
+    private final String[] keys;
+    private final byte[][] keyBytes;
+
+    private KeySpace(int keyCount, int keySize) {
+        this.keyCount = keyCount;
+        this.keySize = keySize;
+        this.keys = new String[keyCount];
+        this.keyBytes = new byte[keyCount][];
+
+        // Fixed seed so that every worker publishes on the same key space, which matters for the skewed distributors
+        Random random = new Random(keyCount);
+        byte[] buffer = new byte[(keySize * 3 + 3) / 4];
+        for (int i = 0; i < keyCount; i++) {
+            random.nextBytes(buffer);
+            keys[i] = BaseEncoding.base64Url().omitPadding().encode(buffer).substring(0, keySize);
+            keyBytes[i] = keys[i].getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Get the key space with the given number of keys, each of keySize bytes. Only the last requested key space is
+     * retained, since it can hold millions of keys.
+     */
+    public static KeySpace of(int keyCount, int keySize) {
+        KeySpace keySpace = current;
+        if (keySpace != null && keySpace.keyCount == keyCount && keySpace.keySize == keySize) {
+            return keySpace;
+        }
+
+        synchronized (KeySpace.class) {
+            keySpace = current;
+            if (keySpace == null || keySpace.keyCount != keyCount || keySpace.keySize != keySize) {
+                keySpace = new KeySpace(keyCount, keySize);
+                current = keySpace;
+            }
+            return keySpace;
+        }
+    }
+
+    public int size() {
+        return keyCount;
+    }
+
+    public String key(int index) {
+        return keys[index];
+    }
+
+    public byte[] keyBytes(int index) {
+        return keyBytes[index];
+    }
+}
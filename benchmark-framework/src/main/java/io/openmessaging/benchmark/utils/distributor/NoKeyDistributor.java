@@ -20,8 +20,12 @@ package io.openmessaging.benchmark.utils.distributor;
 
 public class NoKeyDistributor extends KeyDistributor {
 
+    public NoKeyDistributor() {
+        super(null);
+    }
+
     @Override
-    public String next() {
-        return null;
+    public int nextIndex() {
+        return -1;
     }
 }
@@ -18,13 +18,23 @@
  */
 package io.openmessaging.benchmark.utils.distributor;
 
-import javax.annotation.concurrent.ThreadSafe;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
 
-@ThreadSafe
+/**
+ * Uniformly random keys. The name is kept for compatibility with existing workloads, the keys used to be derived
+ * from System.nanoTime().
+ */
 public class RandomNano extends KeyDistributor {
 
-    public String next() {
-        int randomIndex = Math.abs((int) System.nanoTime() % getLength());
-        return get(randomIndex);
+    private final SplittableRandom random = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+
+    public RandomNano(KeySpace keySpace) {
+        super(keySpace);
+    }
+
+    @Override
+    public int nextIndex() {
+        return random.nextInt(getLength());
     }
 }
@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.utils.distributor;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A single hot key receives a given share of the traffic and moves to another key at regular intervals. The current
+ * hot key is derived from the wall clock, so producers on different workers agree on it.
+ */
+public class ShiftingHotKey extends KeyDistributor {
+
+    private final SplittableRandom random;
+    private final LongSupplier clock;
+    private final long shiftIntervalMillis;
+    private final double hotTrafficRatio;
+
+    // Step between consecutive hot keys, coprime with the key count so that the hot key visits every key before it
+    // comes back to the first one
+    private final long stride;
+
+    public ShiftingHotKey(KeySpace keySpace, int shiftIntervalSeconds, double hotTrafficRatio) {
+        this(keySpace, shiftIntervalSeconds, hotTrafficRatio,
+                new SplittableRandom(ThreadLocalRandom.current().nextLong()), System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock
+     *            the wall clock in milliseconds
+     */
+    ShiftingHotKey(KeySpace keySpace, int shiftIntervalSeconds, double hotTrafficRatio, SplittableRandom random,
+            LongSupplier clock) {
+        super(keySpace);
+        this.random = random;
+        this.clock = clock;
+        this.shiftIntervalMillis = TimeUnit.SECONDS.toMillis(shiftIntervalSeconds);
+        this.hotTrafficRatio = hotTrafficRatio;
+        this.stride = stride(getLength());
+    }
+
+    /**
+     * The first stride from about 0.618 of the key count that is coprime with it, which keeps consecutive hot keys
+     * far apart in the key space
+     */
+    private static long stride(int keyCount) {
+        long stride = Math.max(1, (long) (keyCount * 0.618));
+        while (gcd(stride, keyCount) != 1) {
+            stride++;
+        }
+        return stride;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+
+    @Override
+    public int nextIndex() {
+        if (random.nextDouble() < hotTrafficRatio) {
+            long slot = clock.getAsLong() / shiftIntervalMillis;
+            return (int) (((slot % getLength()) * stride) % getLength());
+        }
+        return random.nextInt(getLength());
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.utils.distributor;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Zipf distributed keys: the n-th key is picked with a probability proportional to 1 / n^exponent.
+ * <p>
+ * Uses the rejection-inversion sampler from W. Hörmann and G. Derflinger, "Rejection-inversion to generate variates
+ * from monotone discrete distributions", which needs no per-key tables and runs in constant time for any key count.
+ */
+public class Zipfian extends KeyDistributor {
+
+    private final SplittableRandom random;
+    private final double exponent;
+    private final double hIntegralX1;
+    private final double hIntegralNumberOfElements;
+    private final double s;
+
+    public Zipfian(KeySpace keySpace, double exponent) {
+        this(keySpace, exponent, new SplittableRandom(ThreadLocalRandom.current().nextLong()));
+    }
+
+    Zipfian(KeySpace keySpace, double exponent, SplittableRandom random) {
+        super(keySpace);
+        this.random = random;
+        this.exponent = exponent;
+        this.hIntegralX1 = hIntegral(1.5) - 1d;
+        this.hIntegralNumberOfElements = hIntegral(getLength() + 0.5);
+        this.s = 2d - hIntegralInverse(hIntegral(2.5) - h(2));
+    }
+
+    @Override
+    public int nextIndex() {
+        return nextRank() - 1;
+    }
+
+    int nextRank() {
+        int numberOfElements = getLength();
+        while (true) {
+            double u = hIntegralNumberOfElements + random.nextDouble() * (hIntegralX1 - hIntegralNumberOfElements);
+            double x = hIntegralInverse(u);
+            int k = (int) (x + 0.5);
+            if (k < 1) {
+                k = 1;
+            } else if (k > numberOfElements) {
+                k = numberOfElements;
+            }
+
+            if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return helper2((1d - exponent) * logX) * logX;
+    }
+
+    private double h(double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    private double hIntegralInverse(double x) {
+        double t = x * (1d - exponent);
+        if (t < -1d) {
+            // Numerical errors can push the value slightly out of [-1, +inf)
+            t = -1;
+        }
+        return Math.exp(helper1(t) * x);
+    }
+
+    /** log(1 + x) / x, with a series expansion around 0 */
+    private static double helper1(double x) {
+        if (Math.abs(x) > 1e-8) {
+            return Math.log1p(x) / x;
+        }
+        return 1. - x * ((1. / 2.) - x * ((1. / 3.) - x * (1. / 4.)));
+    }
+
+    /** (exp(x) - 1) / x, with a series expansion around 0 */
+    private static double helper2(double x) {
+        if (Math.abs(x) > 1e-8) {
+            return Math.expm1(x) / x;
+        }
+        return 1. + x * (1. / 2.) * (1. + x * (1. / 3.) * (1. + x * (1. / 4.)));
+    }
+}
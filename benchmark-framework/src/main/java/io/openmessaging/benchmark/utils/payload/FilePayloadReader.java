@@ -26,8 +26,17 @@ import static java.nio.file.Files.readAllBytes;
 
 public class FilePayloadReader implements PayloadReader {
 
+    private static final int ANY_LENGTH = -1;
+
     private final int expectedLength;
 
+    /**
+     * Reader that accepts payload files of any length, e.g. as seed content for variable-size payloads
+     */
+    public FilePayloadReader() {
+        this(ANY_LENGTH);
+    }
+
     public FilePayloadReader(int expectedLength) {
         this.expectedLength = expectedLength;
     }
@@ -45,7 +54,7 @@ public class FilePayloadReader implements PayloadReader {
     }
 
     private void checkPayloadLength(byte[] payload) {
-        if (expectedLength != payload.length) {
+        if (expectedLength != ANY_LENGTH && expectedLength != payload.length) {
             throw new PayloadException(MessageFormat.format("Payload length mismatch. Actual is: {0}, but expected: {1} ",
                     payload.length, expectedLength));
         }
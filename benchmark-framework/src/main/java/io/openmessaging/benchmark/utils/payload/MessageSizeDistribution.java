@@ -0,0 +1,182 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.utils.payload;
+
+import static java.nio.file.Files.readAllLines;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Describes how the sizes of the messages in the payload pool are distributed.
+ */
+public class MessageSizeDistribution {
+
+    public MessageSizeDistributionType type;
+
+    /** Bounds (in bytes) for UNIFORM, and clamping range for NORMAL and LOG_NORMAL */
+    public int minSize = 1;
+    public int maxSize = 1024 * 1024;
+
+    /** Mean and standard deviation (in bytes) of the sizes for NORMAL and LOG_NORMAL */
+    public double mean;
+    public double stdDev;
+
+    /** Weighted sizes for BUCKETS */
+    public List<SizeBucket> buckets = new ArrayList<>();
+
+    /** Source of the sizes for EMPIRICAL */
+    public String file;
+
+    public static class SizeBucket {
+        public int size;
+        public double weight = 1.0;
+
+        public SizeBucket() {
+        }
+
+        public SizeBucket(int size, double weight) {
+            this.size = size;
+            this.weight = weight;
+        }
+    }
+
+    private int[] sizes;
+    private double[] cumulativeWeights;
+
+    public void validate() throws IllegalArgumentException {
+        if (type == null) {
+            throw new IllegalArgumentException("Message size distribution needs a type");
+        }
+
+        if (minSize <= 0 || maxSize < minSize) {
+            throw new IllegalArgumentException("Message size distribution needs 0 < minSize <= maxSize");
+        }
+
+        switch (type) {
+            case NORMAL:
+            case LOG_NORMAL:
+                if (mean <= 0 || stdDev < 0) {
+                    throw new IllegalArgumentException("Normal and log-normal sizes need mean > 0 and stdDev >= 0");
+                }
+                break;
+            case BUCKETS:
+                if (buckets.isEmpty()) {
+                    throw new IllegalArgumentException("Bucketed sizes need at least one bucket");
+                }
+                for (SizeBucket bucket : buckets) {
+                    if (bucket.size <= 0 || bucket.weight < 0) {
+                        throw new IllegalArgumentException("Bucket sizes should be > 0 and weights >= 0");
+                    }
+                }
+                break;
+            case EMPIRICAL:
+                if (file == null) {
+                    throw new IllegalArgumentException("Empirical sizes need a file");
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Draw the size of the next message.
+     */
+    public int sample(Random random) {
+        switch (type) {
+            case UNIFORM:
+                return minSize + random.nextInt(maxSize - minSize + 1);
+            case NORMAL:
+                return clamp(mean + random.nextGaussian() * stdDev);
+            case LOG_NORMAL:
+                // Derive the parameters of the underlying normal distribution from the requested size moments
+                double sigmaSquared = Math.log(1 + (stdDev * stdDev) / (mean * mean));
+                double mu = Math.log(mean) - sigmaSquared / 2;
+                return clamp(Math.exp(mu + random.nextGaussian() * Math.sqrt(sigmaSquared)));
+            case BUCKETS:
+            case EMPIRICAL:
+                loadWeightedSizes();
+                double point = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+                int index = Arrays.binarySearch(cumulativeWeights, point);
+                if (index < 0) {
+                    index = -index - 1;
+                }
+                return sizes[Math.min(index, sizes.length - 1)];
+            default:
+                throw new IllegalStateException("Unsupported message size distribution " + type);
+        }
+    }
+
+    private int clamp(double size) {
+        return (int) Math.max(minSize, Math.min(maxSize, Math.round(size)));
+    }
+
+    private synchronized void loadWeightedSizes() {
+        if (sizes != null) {
+            return;
+        }
+
+        List<SizeBucket> weighted = type == MessageSizeDistributionType.EMPIRICAL ? readBuckets(file) : buckets;
+        int[] s = new int[weighted.size()];
+        double[] w = new double[weighted.size()];
+        double total = 0;
+        for (int i = 0; i < s.length; i++) {
+            total += weighted.get(i).weight;
+            s[i] = weighted.get(i).size;
+            w[i] = total;
+        }
+
+        if (total <= 0) {
+            throw new PayloadException("Message size distribution has no positive weights");
+        }
+
+        cumulativeWeights = w;
+        sizes = s;
+    }
+
+    private static List<SizeBucket> readBuckets(String file) {
+        List<SizeBucket> result = new ArrayList<>();
+        try {
+            for (String line : readAllLines(new File(file).toPath())) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] parts = line.split("[,\\s]+");
+                result.add(new SizeBucket(Integer.parseInt(parts[0]),
+                        parts.length > 1 ? Double.parseDouble(parts[1]) : 1.0));
+            }
+        } catch (IOException | NumberFormatException e) {
+            throw new PayloadException(MessageFormat.format("Failed to read message sizes from {0}: {1}", file,
+                    e.getMessage()));
+        }
+
+        if (result.isEmpty()) {
+            throw new PayloadException(MessageFormat.format("No message sizes found in {0}", file));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.utils.payload;
+
+public enum MessageSizeDistributionType {
+    /**
+     * Sizes uniformly distributed between minSize and maxSize
+     */
+    UNIFORM,
+
+    /**
+     * Normal distribution with the given mean and standard deviation, clamped to [minSize, maxSize]
+     */
+    NORMAL,
+
+    /**
+     * Log-normal distribution whose resulting sizes have the given mean and standard deviation, clamped to
+     * [minSize, maxSize]
+     */
+    LOG_NORMAL,
+
+    /**
+     * Fixed sizes picked according to their relative weights
+     */
+    BUCKETS,
+
+    /**
+     * Sizes read from a file, one per line, optionally followed by a comma and a weight
+     */
+    EMPIRICAL,
+}
@@ -0,0 +1,198 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker;
+
+import static io.openmessaging.benchmark.utils.UniformRateLimiter.uninterruptibleSleepNs;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.openmessaging.benchmark.driver.BenchmarkConsumer;
+import io.openmessaging.benchmark.driver.BenchmarkDriver;
+import io.openmessaging.benchmark.driver.ConsumerCallback;
+import io.openmessaging.benchmark.utils.RandomGenerator;
+import io.openmessaging.benchmark.utils.UniformRateLimiter;
+import io.openmessaging.benchmark.worker.commands.AdminOperationsAssignment;
+import io.openmessaging.benchmark.worker.commands.PeriodStats;
+
+/**
+ * Admin operations on the topics created by a worker for the admin benchmark, with the number of operations that
+ * succeeded and the time they took, keyed by operation
+ */
+final class AdminOperationsRunner {
+    private final ExecutorService executor;
+    private final Map<String, LongAdder> operationCounters = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+    private final LatencyRecorders<String> recorders;
+
+    AdminOperationsRunner(ExecutorService executor, long highestTrackableLatencyMicros) {
+        this.executor = executor;
+        this.recorders = new LatencyRecorders<>(highestTrackableLatencyMicros, 5);
+    }
+
+    /**
+     * Run the lifecycle of a new topic at the assigned rate, each on its own thread as the admin calls of some
+     * drivers block, with a bounded number of topics in progress at once
+     *
+     * @param running
+     *            whether the load is still running, checked before each new topic
+     */
+    void start(BenchmarkDriver driver, AdminOperationsAssignment assignment, BooleanSupplier running) {
+        UniformRateLimiter topicRateLimiter = new UniformRateLimiter(assignment.topicsPerSecond);
+        Semaphore inProgress = new Semaphore(assignment.maxConcurrentTopics);
+        String topicPrefix = String.format("%s-admin-%s", driver.getTopicNamePrefix(),
+                RandomGenerator.getRandomString());
+
+        log.info("Start admin operations -- {} topics/s with {} partitions and {} subscriptions, deleteTopics: {}",
+                assignment.topicsPerSecond, assignment.partitionsPerTopic, assignment.subscriptionsPerTopic,
+                assignment.deleteTopics);
+        executor.submit(() -> {
+            try {
+                for (long i = 0; running.getAsBoolean(); i++) {
+                    uninterruptibleSleepNs(topicRateLimiter.acquire());
+                    inProgress.acquire();
+                    String topic = String.format("%s-%06d", topicPrefix, i);
+                    executor.submit(() -> {
+                        try {
+                            runTopicLifecycle(driver, topic, assignment);
+                        } finally {
+                            inProgress.release();
+                        }
+                    });
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable t) {
+                log.error("Got error", t);
+            }
+        });
+    }
+
+    /**
+     * Create the topic, create its subscriptions by opening a consumer on each, close the consumers and delete the
+     * topic with its subscriptions. A failed operation ends the lifecycle, leaving the topic behind.
+     */
+    private void runTopicLifecycle(BenchmarkDriver driver, String topic, AdminOperationsAssignment assignment) {
+        if (!adminOperation("create topic", () -> driver.createTopic(topic, assignment.partitionsPerTopic))) {
+            return;
+        }
+
+        List<BenchmarkConsumer> subscriptionConsumers = new ArrayList<>();
+        ConsumerCallback discard = new ConsumerCallback() {
+            @Override
+            public void messageReceived(byte[] payload, long publishTimestamp) {
+            }
+
+            @Override
+            public void messageReceived(ByteBuffer payload, long publishTimestamp) {
+            }
+
+            @Override
+            public void exception(Exception e) {
+            }
+        };
+        for (int i = 0; i < assignment.subscriptionsPerTopic; i++) {
+            String subscription = String.format("sub-%03d", i);
+            if (!adminOperation("create subscription", () -> driver
+                    .createConsumer(topic, subscription, discard).thenAccept(subscriptionConsumers::add))) {
+                break;
+            }
+        }
+
+        boolean subscribed = subscriptionConsumers.size() == assignment.subscriptionsPerTopic;
+        for (BenchmarkConsumer consumer : subscriptionConsumers) {
+            try {
+                consumer.close();
+            } catch (Exception e) {
+                log.warn("Failed to close the consumer of a subscription of {}", topic, e);
+                subscribed = false;
+            }
+        }
+
+        if (subscribed && assignment.deleteTopics) {
+            adminOperation("delete topic", () -> driver.deleteTopic(topic));
+        }
+    }
+
+    /**
+     * Run an admin operation, accounting its time when it succeeds and an error when it fails
+     *
+     * @return whether the operation succeeded
+     */
+    private boolean adminOperation(String operation, Supplier<CompletableFuture<Void>> action) {
+        long start = System.nanoTime();
+        try {
+            action.get().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            log.warn("Failed to {}", operation, e);
+            errors.increment();
+            return false;
+        }
+
+        recorders.recordSince(operation, start);
+        operationCounters.computeIfAbsent(operation, o -> new LongAdder()).increment();
+        return true;
+    }
+
+    /**
+     * Move the operations counted since the previous period to the stats
+     */
+    void collectPeriodStats(PeriodStats stats) {
+        operationCounters.forEach((operation, counter) -> stats.adminOperations.put(operation, counter.sumThenReset()));
+        stats.adminOperationErrors = errors.sumThenReset();
+    }
+
+    /**
+     * The latencies recorded since the previous call, by operation
+     */
+    Map<String, Histogram> getIntervalHistograms() {
+        return recorders.getIntervalHistograms();
+    }
+
+    /**
+     * Reset the latencies in place, for the topic lifecycles in progress that keep recording into them
+     */
+    void resetLatencies() {
+        recorders.reset();
+    }
+
+    void clear() {
+        operationCounters.clear();
+        errors.reset();
+        recorders.clear();
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(AdminOperationsRunner.class);
+}
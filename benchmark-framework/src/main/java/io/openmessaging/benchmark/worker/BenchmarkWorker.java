@@ -33,6 +33,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 
 import io.javalin.Javalin;
+import io.openmessaging.benchmark.worker.rpc.RpcServer;
 
 /**
  * A benchmark worker that listen for tasks to perform
@@ -49,6 +50,10 @@ public class BenchmarkWorker {
 
         @Parameter(names = { "-sp", "--stats-port" }, description = "Stats port to listen on")
         public int statsPort = 8081;
+
+        @Parameter(names = { "-rp",
+                "--rpc-port" }, description = "Port to listen on for the binary control plane, disabled by default")
+        public Integer rpcPort;
     }
 
     public static void main(String[] args) throws Exception {
@@ -86,7 +91,11 @@ public class BenchmarkWorker {
         // Start web server
         Javalin app = Javalin.start(arguments.httpPort);
 
-        new WorkerHandler(app, provider.getStatsLogger("benchmark"));
+        WorkerHandler handler = new WorkerHandler(app, provider.getStatsLogger("benchmark"));
+
+        if (arguments.rpcPort != null) {
+            new RpcServer(handler).start(arguments.rpcPort);
+        }
     }
 
     private static final ObjectWriter writer = new ObjectMapper().writerWithDefaultPrettyPrinter();
@@ -0,0 +1,154 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.openmessaging.benchmark.worker.commands.TopicSubscription;
+
+/**
+ * Placement of the consumers on the consumer workers. Each consumer goes to the worker running the fewest consumers of
+ * its subscription, then the fewest consumers overall, and the consumers to close are taken from the workers running
+ * the most of them, so that scaling a subscription up and down keeps it balanced over the workers.
+ * <p>
+ * In symmetric mode, the consumers of a topic only go to half of the workers, a different half for each topic in turn,
+ * so that the producers of the topic always have the other half to run on.
+ */
+class ConsumerPlacement {
+    private final List<String> workers;
+    private final boolean symmetric;
+    private final int workersPerTopic;
+
+    // Index of each topic in the order they were first placed, to rotate the halves of the workers over the topics
+    private final Map<String, Integer> topicIndexes = new HashMap<>();
+    // Number of consumers of each topic subscription on each worker
+    private final Map<String, Map<String, Integer>> consumersBySubscription = new HashMap<>();
+    private final Map<String, Integer> consumersByWorker = new HashMap<>();
+
+    ConsumerPlacement(List<String> workers, boolean symmetric) {
+        this.workers = workers;
+        this.symmetric = symmetric;
+        this.workersPerTopic = symmetric ? Math.max(1, workers.size() / 2) : workers.size();
+    }
+
+    /**
+     * Place the consumers, in addition to the ones already placed
+     *
+     * @return the consumers of each worker given some, in the order of the workers
+     */
+    synchronized Map<String, List<TopicSubscription>> place(List<TopicSubscription> consumers) {
+        Map<String, List<TopicSubscription>> placement = new HashMap<>();
+        for (TopicSubscription ts : consumers) {
+            Map<String, Integer> subscriptionConsumers = consumersBySubscription.computeIfAbsent(key(ts),
+                    k -> new HashMap<>());
+            String selected = null;
+            for (String worker : consumerWorkers(ts.topic)) {
+                if (selected == null || compare(worker, selected, subscriptionConsumers) < 0) {
+                    selected = worker;
+                }
+            }
+            subscriptionConsumers.merge(selected, 1, Integer::sum);
+            consumersByWorker.merge(selected, 1, Integer::sum);
+            placement.computeIfAbsent(selected, w -> new ArrayList<>()).add(ts);
+        }
+        return inWorkersOrder(placement);
+    }
+
+    /**
+     * Take consumers out of the placement, each from the worker running the most consumers of its subscription
+     *
+     * @param untracked
+     *            receives the consumers of subscriptions without any consumer left on the workers
+     * @return the consumers to close on each worker, in the order of the workers
+     */
+    synchronized Map<String, List<TopicSubscription>> remove(List<TopicSubscription> consumers,
+            List<TopicSubscription> untracked) {
+        Map<String, List<TopicSubscription>> placement = new HashMap<>();
+        for (TopicSubscription ts : consumers) {
+            Map<String, Integer> subscriptionConsumers = consumersBySubscription.getOrDefault(key(ts),
+                    Collections.emptyMap());
+            String selected = null;
+            for (String worker : subscriptionConsumers.keySet()) {
+                if (selected == null || compare(worker, selected, subscriptionConsumers) > 0) {
+                    selected = worker;
+                }
+            }
+            if (selected == null) {
+                untracked.add(ts);
+                continue;
+            }
+
+            subscriptionConsumers.compute(selected, (w, count) -> count > 1 ? count - 1 : null);
+            consumersByWorker.compute(selected, (w, count) -> count > 1 ? count - 1 : null);
+            placement.computeIfAbsent(selected, w -> new ArrayList<>()).add(ts);
+        }
+        return inWorkersOrder(placement);
+    }
+
+    /**
+     * Whether producers of the topic should be kept off the worker, as it is one the consumers of the topic go to
+     */
+    synchronized boolean reservedForConsumers(String topic, String worker) {
+        return symmetric && topicIndexes.containsKey(topic) && consumerWorkers(topic).contains(worker);
+    }
+
+    synchronized void clear() {
+        topicIndexes.clear();
+        consumersBySubscription.clear();
+        consumersByWorker.clear();
+    }
+
+    private List<String> consumerWorkers(String topic) {
+        if (!symmetric) {
+            return workers;
+        }
+
+        int index = topicIndexes.computeIfAbsent(topic, t -> topicIndexes.size());
+        List<String> topicWorkers = new ArrayList<>(workersPerTopic);
+        for (int i = 0; i < workersPerTopic; i++) {
+            topicWorkers.add(workers.get((index * workersPerTopic + i) % workers.size()));
+        }
+        return topicWorkers;
+    }
+
+    /**
+     * Order the workers by the consumers of the subscription they run, then by all the consumers they run
+     */
+    private int compare(String a, String b, Map<String, Integer> subscriptionConsumers) {
+        int bySubscription = Integer.compare(subscriptionConsumers.getOrDefault(a, 0),
+                subscriptionConsumers.getOrDefault(b, 0));
+        return bySubscription != 0 ? bySubscription
+                : Integer.compare(consumersByWorker.getOrDefault(a, 0), consumersByWorker.getOrDefault(b, 0));
+    }
+
+    private Map<String, List<TopicSubscription>> inWorkersOrder(Map<String, List<TopicSubscription>> placement) {
+        Map<String, List<TopicSubscription>> ordered = new LinkedHashMap<>();
+        workers.stream().filter(placement::containsKey).forEach(w -> ordered.put(w, placement.get(w)));
+        return ordered;
+    }
+
+    private static String key(TopicSubscription ts) {
+        return ts.topic + "/" + ts.subscription;
+    }
+}
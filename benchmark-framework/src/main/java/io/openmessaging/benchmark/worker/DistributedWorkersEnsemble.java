@@ -19,42 +19,43 @@
 package io.openmessaging.benchmark.worker;
 
 import static java.util.stream.Collectors.toList;
-import static org.asynchttpclient.Dsl.asyncHttpClient;
-import static org.asynchttpclient.Dsl.config;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 import java.util.zip.DataFormatException;
 
 import org.HdrHistogram.Histogram;
-import org.asynchttpclient.AsyncHttpClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.beust.jcommander.internal.Maps;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 
-import io.netty.buffer.ByteBufUtil;
-import io.netty.buffer.Unpooled;
 import io.openmessaging.benchmark.WorkloadGenerator;
-import io.openmessaging.benchmark.driver.MetricsEnabled;
 import io.openmessaging.benchmark.utils.ListPartition;
+import io.openmessaging.benchmark.worker.commands.ClientSetup;
+import io.openmessaging.benchmark.worker.commands.AdminOperationsAssignment;
 import io.openmessaging.benchmark.worker.commands.ConsumerAssignment;
 import io.openmessaging.benchmark.worker.commands.CountersStats;
 import io.openmessaging.benchmark.worker.commands.CumulativeLatencies;
+import io.openmessaging.benchmark.worker.commands.PartitionAssignments;
 import io.openmessaging.benchmark.worker.commands.PeriodStats;
 import io.openmessaging.benchmark.worker.commands.ProducerWorkAssignment;
 import io.openmessaging.benchmark.worker.commands.Stats;
@@ -67,63 +68,160 @@ import io.openmessaging.benchmark.worker.commands.TopicsInfo;
  * track time in the {@link WorkloadGenerator}
  */
 public class DistributedWorkersEnsemble implements Worker {
-    private final static int REQUEST_TIMEOUT_MS = 300_000;
-    private final static int READ_TIMEOUT_MS = 300_000;
     private final List<String> workers;
     private final List<String> producerWorkers;
     private final List<String> consumerWorkers;
 
-    private final AsyncHttpClient httpClient;
+    private final WorkerClient workerClient;
+    private final StatsAggregator statsAggregator;
+
+    private final Map<String, Double> workerWeights;
+    private final boolean symmetric;
+
+    // Consumers of each worker, so that in symmetric mode producers are kept on other hosts
+    private final ConsumerPlacement consumerPlacement;
 
     private int numberOfUsedProducerWorkers;
 
+    // Number of producers assigned to each producer worker, used to split the publish rate
+    private final Map<String, Integer> producersPerWorker = new TreeMap<>();
+    // Topic of each producer of the producer workers, used to split the publish rate of traffic groups
+    private final Map<String, List<String>> topicsPerProducerWorker = new TreeMap<>();
+    private final Map<String, Double> targetPublishRatePerWorker = new TreeMap<>();
+
     public DistributedWorkersEnsemble(List<String> workers, boolean extraConsumerWorkers) {
+        this(workers, extraConsumerWorkers, Collections.emptyMap(), false, 0);
+    }
+
+    /**
+     * @param workers
+     *            the worker addresses
+     * @param extraConsumerWorkers
+     *            allocate more workers to consumers than to producers, ignored in symmetric mode
+     * @param workerWeights
+     *            relative weight of the workers, for the producers assignment
+     * @param symmetric
+     *            run both producers and consumers on every worker, keeping a topic's producers on other hosts than
+     *            its consumers
+     * @param statsFanout
+     *            collect the stats through a tree of aggregator workers with this fanout, 0 to query all the workers
+     *            directly
+     */
+    public DistributedWorkersEnsemble(List<String> workers, boolean extraConsumerWorkers,
+            Map<String, Double> workerWeights, boolean symmetric, int statsFanout) {
         Preconditions.checkArgument(workers.size() > 1);
+        workerWeights.forEach((w, weight) -> Preconditions.checkArgument(weight > 0,
+                "Weight of worker %s must be positive", w));
 
         this.workers = workers;
+        this.workerWeights = workerWeights;
+        this.symmetric = symmetric;
 
-	// For driver-jms extra consumers are required.
-	// If there is an odd number of workers then allocate the extra to consumption.
-	int numberOfProducerWorkers = extraConsumerWorkers ? (workers.size() + 2) / 3 : workers.size() / 2;
-	List<List<String>> partitions = Lists.partition(Lists.reverse(workers), workers.size() - numberOfProducerWorkers);
-	this.producerWorkers = partitions.get(1);
-	this.consumerWorkers = partitions.get(0);
+        if (symmetric) {
+            if (extraConsumerWorkers) {
+                log.warn("Extra consumer workers are ignored with symmetric workers");
+            }
+            this.producerWorkers = workers;
+            this.consumerWorkers = workers;
+        } else {
+            // For driver-jms extra consumers are required.
+            // If there is an odd number of workers then allocate the extra to consumption.
+            int numberOfProducerWorkers = extraConsumerWorkers ? (workers.size() + 2) / 3 : workers.size() / 2;
+            List<List<String>> partitions = Lists.partition(Lists.reverse(workers),
+                    workers.size() - numberOfProducerWorkers);
+            this.producerWorkers = partitions.get(1);
+            this.consumerWorkers = partitions.get(0);
+        }
 
         log.info("Workers list - producers: {}", producerWorkers);
         log.info("Workers list - consumers: {}", consumerWorkers);
+        if (!workerWeights.isEmpty()) {
+            log.info("Workers weights: {}", workerWeights);
+        }
+
+        if (statsFanout > 0) {
+            log.info("Collecting stats through aggregator workers with fanout {}", statsFanout);
+        }
 
-        httpClient = asyncHttpClient(config().setRequestTimeout(REQUEST_TIMEOUT_MS).setReadTimeout(READ_TIMEOUT_MS));
+        consumerPlacement = new ConsumerPlacement(consumerWorkers, symmetric);
+        workerClient = new WorkerClient();
+        statsAggregator = new StatsAggregator(workerClient, statsFanout);
     }
 
     @Override
     public void initializeDriver(File configurationFile) throws IOException {
         byte[] confFileContent = Files.readAllBytes(Paths.get(configurationFile.toString()));
-        sendPost(workers, "/initialize-driver", confFileContent);
+        workerClient.sendAll(workers, WorkerCommand.INITIALIZE_DRIVER, confFileContent);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public List<String> createTopics(TopicsInfo topicsInfo) throws IOException {
-        // Create all topics from a single worker node
-        return post(workers.get(0), "/create-topics", writer.writeValueAsBytes(topicsInfo), List.class)
-                .join();
+        if (topicsInfo.hasExistingTopics()) {
+            // Nothing to create, a single worker resolves the topics
+            return workerClient.send(workers.get(0), WorkerCommand.CREATE_TOPICS, topicsInfo, List.class).join();
+        }
+
+        // Split the topic creation across all the worker nodes, each creating a contiguous range of topics
+        List<CompletableFuture<List>> futures = Lists.newArrayList();
+        int firstTopicIndex = topicsInfo.firstTopicIndex;
+        for (int i = 0; i < workers.size(); i++) {
+            int numberOfTopics = topicsInfo.numberOfTopics / workers.size()
+                    + (i < topicsInfo.numberOfTopics % workers.size() ? 1 : 0);
+            if (numberOfTopics == 0) {
+                continue;
+            }
+
+            TopicsInfo workerTopicsInfo = new TopicsInfo(numberOfTopics, topicsInfo.numberOfPartitionsPerTopic,
+                    firstTopicIndex);
+            futures.add(workerClient.send(workers.get(i), WorkerCommand.CREATE_TOPICS, workerTopicsInfo, List.class));
+            firstTopicIndex += numberOfTopics;
+        }
+
+        List<String> topics = Lists.newArrayList();
+        futures.forEach(f -> topics.addAll(f.join()));
+        return topics;
+    }
+
+    @Override
+    public void configureClientSetup(ClientSetup clientSetup) {
+        workerClient.sendAll(workers, WorkerCommand.CONFIGURE_CLIENT_SETUP, clientSetup);
     }
 
     @Override
     public void createProducers(List<String> topics) {
-        List<List<String>> topicsPerProducer = ListPartition.partitionList(topics,
-                                                            producerWorkers.size());
+        List<Double> weights = producerWorkers.stream()
+                .map(w -> workerWeights.getOrDefault(w, 1.0))
+                .collect(toList());
+        // In symmetric mode, keep the producers of a topic away from the hosts consuming it
+        List<List<String>> topicsPerProducer = ListPartition.partitionList(topics, weights,
+                (topic, i) -> !consumerPlacement.reservedForConsumers(topic, producerWorkers.get(i)));
         Map<String, List<String>> topicsPerProducerMap = Maps.newHashMap();
-        int i = 0;
-        for (List<String> assignedTopics : topicsPerProducer) {
+        producersPerWorker.clear();
+        topicsPerProducerWorker.clear();
+        targetPublishRatePerWorker.clear();
+        for (int i = 0; i < producerWorkers.size(); i++) {
+            List<String> assignedTopics = topicsPerProducer.get(i);
             if (assignedTopics.isEmpty()) {
                 continue;
             }
-            topicsPerProducerMap.put(producerWorkers.get(i++), assignedTopics);
+            topicsPerProducerMap.put(producerWorkers.get(i), assignedTopics);
+            producersPerWorker.put(producerWorkers.get(i), assignedTopics.size());
+            topicsPerProducerWorker.put(producerWorkers.get(i), assignedTopics);
+        }
+
+        long colocatedProducers = topicsPerProducerMap.entrySet().stream()
+                .mapToLong(e -> e.getValue().stream()
+                        .filter(topic -> consumerPlacement.reservedForConsumers(topic, e.getKey()))
+                        .count())
+                .sum();
+        if (colocatedProducers > 0) {
+            throw new IllegalStateException(String.format(
+                    "%d producers would run on the same host as consumers of their topic", colocatedProducers));
         }
 
         // Number of actually used workers might be less than available workers
-        numberOfUsedProducerWorkers = i;
+        numberOfUsedProducerWorkers = topicsPerProducerMap.size();
 
         log.info("Number of producers configured for the topic: " + numberOfUsedProducerWorkers);
 
@@ -131,70 +229,181 @@ public class DistributedWorkersEnsemble implements Worker {
             log.debug("Producer assignment {} => {}", s, tpcs);
         });
 
-
-        List<CompletableFuture<Void>> futures = topicsPerProducerMap.keySet().stream().map(producer -> {
-            try {
-                return sendPost(producer, "/create-producers",
-                        writer.writeValueAsBytes(topicsPerProducerMap.get(producer)));
-            } catch (Exception e) {
-                CompletableFuture<Void> future = new CompletableFuture<>();
-                future.completeExceptionally(e);
-                return future;
-            }
-        }).collect(toList());
+        List<CompletableFuture<Void>> futures = topicsPerProducerMap.keySet().stream()
+                .map(producer -> workerClient.send(producer, WorkerCommand.CREATE_PRODUCERS,
+                        topicsPerProducerMap.get(producer)))
+                .collect(toList());
 
         FutureUtil.waitForAll(futures).join();
     }
 
     @Override
     public void startLoad(ProducerWorkAssignment producerWorkAssignment) throws IOException {
-        // Reduce the publish rate across all the brokers
-        producerWorkAssignment.publishRate /= numberOfUsedProducerWorkers;
-        sendPost(producerWorkers, "/start-load", writer.writeValueAsBytes(producerWorkAssignment));
+        if (producerWorkAssignment.groups != null && !producerWorkAssignment.groups.isEmpty()) {
+            startTrafficGroups(producerWorkAssignment.groups);
+            return;
+        }
+
+        // Split the publish rate across the workers, in proportion to the producers each of them drives
+        double publishRate = producerWorkAssignment.publishRate;
+        double producerChurnRate = producerWorkAssignment.producerChurnRate;
+        Map<String, Double> rates = splitPublishRate(publishRate);
+        List<CompletableFuture<Void>> futures = Lists.newArrayList();
+        for (Map.Entry<String, Double> entry : rates.entrySet()) {
+            producerWorkAssignment.publishRate = entry.getValue();
+            producerWorkAssignment.producerChurnRate = producerChurnRate / rates.size();
+            futures.add(workerClient.send(entry.getKey(), WorkerCommand.START_LOAD,
+                    writer.writeValueAsBytes(producerWorkAssignment)));
+        }
+        producerWorkAssignment.publishRate = publishRate;
+        producerWorkAssignment.producerChurnRate = producerChurnRate;
+        FutureUtil.waitForAll(futures).join();
     }
 
+    /**
+     * Split the topics created per second evenly across the producer workers
+     */
     @Override
-    public void probeProducers() throws IOException {
-        sendPost(producerWorkers, "/probe-producers", new byte[0]);
+    public void startAdminOperations(AdminOperationsAssignment assignment) throws IOException {
+        double topicsPerSecond = assignment.topicsPerSecond;
+        assignment.topicsPerSecond = topicsPerSecond / producerWorkers.size();
+        workerClient.sendAll(producerWorkers, WorkerCommand.START_ADMIN_OPERATIONS, assignment);
+        assignment.topicsPerSecond = topicsPerSecond;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Integer> getPartitions(List<String> topics) throws IOException {
+        return workerClient.send(workers.get(0), WorkerCommand.TOPIC_PARTITIONS, topics, Map.class).join();
+    }
+
+    /**
+     * Probe each topic from its first producer worker only, so that every partition gets a single probe whatever the
+     * number of workers holding producers of the topic
+     */
+    @Override
+    public void probeProducers(Map<String, Integer> partitionsByTopic) throws IOException {
+        Map<String, Map<String, Integer>> partitionsByWorker = new TreeMap<>();
+        partitionsByTopic.forEach((topic, partitions) -> producerWorkers.stream()
+                .filter(w -> topicsPerProducerWorker.getOrDefault(w, Collections.emptyList()).contains(topic))
+                .findFirst()
+                .ifPresent(w -> partitionsByWorker.computeIfAbsent(w, x -> new TreeMap<>()).put(topic, partitions)));
+
+        List<CompletableFuture<Void>> futures = Lists.newArrayList();
+        partitionsByWorker.forEach((w, partitions) -> futures
+                .add(workerClient.send(w, WorkerCommand.PROBE_PRODUCERS, partitions)));
+        FutureUtil.waitForAll(futures).join();
+    }
+
+    @Override
+    public PartitionAssignments getPartitionAssignments() throws IOException {
+        PartitionAssignments assignments = new PartitionAssignments();
+        workerClient.sendAll(consumerWorkers, WorkerCommand.PARTITION_ASSIGNMENTS, null, PartitionAssignments.class)
+                .forEach(assignments::addAll);
+        return assignments;
     }
 
     @Override
     public void adjustPublishRate(double publishRate) throws IOException {
-        // Reduce the publish rate across all the brokers
-        publishRate /= numberOfUsedProducerWorkers;
-        sendPost(producerWorkers, "/adjust-publish-rate", writer.writeValueAsBytes(publishRate));
+        // Split the publish rate across the workers, in proportion to the producers each of them drives
+        Map<String, Double> rates = splitPublishRate(publishRate);
+        List<CompletableFuture<Void>> futures = Lists.newArrayList();
+        for (Map.Entry<String, Double> entry : rates.entrySet()) {
+            futures.add(workerClient.send(entry.getKey(), WorkerCommand.ADJUST_PUBLISH_RATE, entry.getValue()));
+        }
+        FutureUtil.waitForAll(futures).join();
+    }
+
+    /**
+     * Split the publish rate of each traffic group across the workers, in proportion to the producers of the group
+     * topics each of them drives
+     */
+    private void startTrafficGroups(List<ProducerWorkAssignment> groups) throws IOException {
+        targetPublishRatePerWorker.clear();
+        Map<String, ProducerWorkAssignment> assignments = new TreeMap<>();
+        for (ProducerWorkAssignment group : groups) {
+            Set<String> groupTopics = new HashSet<>(group.topics);
+            Map<String, Long> groupProducersPerWorker = new TreeMap<>();
+            topicsPerProducerWorker.forEach((w, topics) -> {
+                long producers = topics.stream().filter(groupTopics::contains).count();
+                if (producers > 0) {
+                    groupProducersPerWorker.put(w, producers);
+                }
+            });
+            long totalProducers = groupProducersPerWorker.values().stream().mapToLong(Long::longValue).sum();
+
+            groupProducersPerWorker.forEach((w, producers) -> {
+                ProducerWorkAssignment workerGroup = new ProducerWorkAssignment();
+                workerGroup.group = group.group;
+                workerGroup.topics = group.topics;
+                workerGroup.payloadData = group.payloadData;
+                workerGroup.keyDistributorType = group.keyDistributorType;
+                workerGroup.keyDistributorConfig = group.keyDistributorConfig;
+                workerGroup.publishRate = group.publishRate * producers / totalProducers;
+
+                assignments.computeIfAbsent(w, x -> {
+                    ProducerWorkAssignment assignment = new ProducerWorkAssignment();
+                    assignment.groups = new ArrayList<>();
+                    return assignment;
+                }).groups.add(workerGroup);
+                targetPublishRatePerWorker.merge(w, workerGroup.publishRate, Double::sum);
+            });
+        }
+
+        List<CompletableFuture<Void>> futures = Lists.newArrayList();
+        for (Map.Entry<String, ProducerWorkAssignment> entry : assignments.entrySet()) {
+            futures.add(workerClient.send(entry.getKey(), WorkerCommand.START_LOAD, entry.getValue()));
+        }
+        FutureUtil.waitForAll(futures).join();
+    }
+
+    private Map<String, Double> splitPublishRate(double publishRate) {
+        int totalProducers = producersPerWorker.values().stream().mapToInt(Integer::intValue).sum();
+        targetPublishRatePerWorker.clear();
+        producersPerWorker.forEach((w, producers) -> targetPublishRatePerWorker.put(w,
+                publishRate * producers / totalProducers));
+        return targetPublishRatePerWorker;
     }
 
     @Override
     public void stopAll() {
-        sendPost(workers, "/stop-all", new byte[0]);
+        workerClient.sendAll(workers, WorkerCommand.STOP_ALL, null);
+        targetPublishRatePerWorker.clear();
+        consumerPlacement.clear();
+    }
+
+    @Override
+    public void stopLoad() {
+        workerClient.sendAll(producerWorkers, WorkerCommand.STOP_LOAD, null);
+        targetPublishRatePerWorker.clear();
     }
 
     @Override
     public void pauseConsumers() throws IOException {
-        sendPost(consumerWorkers, "/pause-consumers", new byte[0]);
+        workerClient.sendAll(consumerWorkers, WorkerCommand.PAUSE_CONSUMERS, null);
     }
 
     @Override
     public void resumeConsumers() throws IOException {
-        sendPost(consumerWorkers, "/resume-consumers", new byte[0]);
+        workerClient.sendAll(consumerWorkers, WorkerCommand.RESUME_CONSUMERS, null);
+    }
+
+    @Override
+    public void pauseCatchUpConsumers() throws IOException {
+        workerClient.sendAll(consumerWorkers, WorkerCommand.PAUSE_CATCH_UP_CONSUMERS, null);
+    }
+
+    @Override
+    public void resumeCatchUpConsumers() throws IOException {
+        workerClient.sendAll(consumerWorkers, WorkerCommand.RESUME_CATCH_UP_CONSUMERS, null);
     }
 
     @Override
     public void createConsumers(ConsumerAssignment overallConsumerAssignment) {
-        List<List<TopicSubscription>> subscriptionsPerConsumer = ListPartition.partitionList(
-                                                                        overallConsumerAssignment.topicsSubscriptions,
-                                                                        consumerWorkers.size());
         Map<String, ConsumerAssignment> topicsPerWorkerMap = Maps.newHashMap();
-        int i = 0, assignmemts = 0;
-        for (List<TopicSubscription> tsl : subscriptionsPerConsumer) {
-            ConsumerAssignment individualAssignement = new ConsumerAssignment();
-            individualAssignement.topicsSubscriptions = tsl;
-            topicsPerWorkerMap.put(consumerWorkers.get(i++), individualAssignement);
-            if (!individualAssignement.topicsSubscriptions.isEmpty()) {
-                assignmemts++;
-            }
-        }
+        consumerPlacement.place(overallConsumerAssignment.topicsSubscriptions).forEach((worker, tsl) ->
+                topicsPerWorkerMap.put(worker, new ConsumerAssignment(overallConsumerAssignment, tsl)));
+        int assignmemts = topicsPerWorkerMap.size();
 
         log.info("Number of consumers configured for the topic: " + assignmemts);
 
@@ -206,56 +415,45 @@ public class DistributedWorkersEnsemble implements Worker {
         });
 
 
-        List<CompletableFuture<Void>> futures = topicsPerWorkerMap.keySet().stream().map(consumer -> {
-            try {
-                return sendPost(consumer, "/create-consumers",
-                        writer.writeValueAsBytes(topicsPerWorkerMap.get(consumer)));
-            } catch (Exception e) {
-                CompletableFuture<Void> future = new CompletableFuture<>();
-                future.completeExceptionally(e);
-                return future;
-            }
-        }).collect(toList());
+        List<CompletableFuture<Void>> futures = topicsPerWorkerMap.keySet().stream()
+                .map(consumer -> workerClient.send(consumer, WorkerCommand.CREATE_CONSUMERS,
+                        topicsPerWorkerMap.get(consumer)))
+                .collect(toList());
 
         FutureUtil.waitForAll(futures).join();
     }
 
+    /**
+     * Close the consumers on the workers running the most consumers of their subscription
+     */
     @Override
-    public PeriodStats getPeriodStats() {
-        List<PeriodStats> individualStats = get(workers, "/period-stats", PeriodStats.class);
-        PeriodStats stats = new PeriodStats();
-        individualStats.forEach(is -> {
-            stats.messagesSent += is.messagesSent;
-            stats.bytesSent += is.bytesSent;
-            stats.messagesReceived += is.messagesReceived;
-            stats.bytesReceived += is.bytesReceived;
-            stats.totalMessagesSent += is.totalMessagesSent;
-            stats.totalMessagesReceived += is.totalMessagesReceived;
-            stats.elapsedMillis += is.elapsedMillis;
-            stats.consumerErrors += is.consumerErrors;
-            stats.publishErrors += is.publishErrors;
-
-            try {
-                stats.publishLatency.add(Histogram.decodeFromCompressedByteBuffer(
-                        ByteBuffer.wrap(is.publishLatencyBytes), TimeUnit.SECONDS.toMicros(60)));
-
-                stats.publishDelayLatency.add(Histogram.decodeFromCompressedByteBuffer(
-                        ByteBuffer.wrap(is.publishDelayLatencyBytes), TimeUnit.SECONDS.toMicros(30)));
+    public List<TopicSubscription> closeConsumers(List<TopicSubscription> topicsSubscriptions) {
+        List<TopicSubscription> notClosed = new ArrayList<>();
+        Map<String, List<TopicSubscription>> closing = consumerPlacement.remove(topicsSubscriptions, notClosed);
+        List<CompletableFuture<TopicSubscription[]>> futures = closing.entrySet().stream()
+                .map(e -> workerClient.send(e.getKey(), WorkerCommand.CLOSE_CONSUMERS, e.getValue(),
+                        TopicSubscription[].class))
+                .collect(toList());
+        futures.forEach(f -> notClosed.addAll(Arrays.asList(f.join())));
+        return notClosed;
+    }
 
-                stats.endToEndLatency.add(Histogram.decodeFromCompressedByteBuffer(
-                        ByteBuffer.wrap(is.endToEndLatencyBytes), TimeUnit.HOURS.toMicros(12)));
-            } catch (ArrayIndexOutOfBoundsException | DataFormatException e) {
-                throw new RuntimeException(e);
-            }
-        });
+    @Override
+    public PeriodStats getPeriodStats() {
+        PeriodStats stats = statsAggregator.collectPeriodStats(workers);
         stats.elapsedMillis /= workers.size();
 
+        // Only report the rates of the workers that were given a target
+        stats.publishRateByWorker.keySet().retainAll(targetPublishRatePerWorker.keySet());
+        stats.publishRateByWorker.keySet().forEach(
+                worker -> stats.targetPublishRateByWorker.put(worker, targetPublishRatePerWorker.get(worker)));
+
         return stats;
     }
 
     @Override
     public Stats getOnDemandStats() {
-        List<Stats> individualStats = get(workers, "/ondemand-stats", Stats.class);
+        List<Stats> individualStats = workerClient.sendAll(workers, WorkerCommand.ONDEMAND_STATS, null, Stats.class);
         Stats stats = new Stats();
         individualStats.forEach(is -> {
             try {
@@ -270,157 +468,43 @@ public class DistributedWorkersEnsemble implements Worker {
 
     @Override
     public CumulativeLatencies getCumulativeLatencies() {
-        List<CumulativeLatencies> individualStats = get(workers, "/cumulative-latencies", CumulativeLatencies.class);
-
-        CumulativeLatencies stats = new CumulativeLatencies();
-        individualStats.forEach(is -> {
-            try {
-                stats.publishLatency.add(Histogram.decodeFromCompressedByteBuffer(
-                        ByteBuffer.wrap(is.publishLatencyBytes), TimeUnit.SECONDS.toMicros(30)));
-            } catch (Exception e) {
-                log.error("Failed to decode publish latency: {}",
-                        ByteBufUtil.prettyHexDump(Unpooled.wrappedBuffer(is.publishLatencyBytes)));
-                throw new RuntimeException(e);
-            }
-
-            try {
-                stats.publishDelayLatency.add(Histogram.decodeFromCompressedByteBuffer(
-                        ByteBuffer.wrap(is.publishDelayLatencyBytes), TimeUnit.SECONDS.toMicros(30)));
-            } catch (Exception e) {
-                log.error("Failed to decode publish delay latency: {}",
-                          ByteBufUtil.prettyHexDump(Unpooled.wrappedBuffer(is.publishDelayLatencyBytes)));
-                throw new RuntimeException(e);
-            }
-
-            try {
-                stats.endToEndLatency.add(Histogram.decodeFromCompressedByteBuffer(
-                        ByteBuffer.wrap(is.endToEndLatencyBytes), TimeUnit.HOURS.toMicros(12)));
-            } catch (Exception e) {
-                log.error("Failed to decode end-to-end latency: {}",
-                        ByteBufUtil.prettyHexDump(Unpooled.wrappedBuffer(is.endToEndLatencyBytes)));
-                throw new RuntimeException(e);
-            }
-        });
-
-        return stats;
-
+        return statsAggregator.collectCumulativeLatencies(workers);
     }
 
     @Override
     public CountersStats getCountersStats() throws IOException {
-        List<CountersStats> individualStats = get(workers, "/counters-stats", CountersStats.class);
-
-        CountersStats stats = new CountersStats();
-        individualStats.forEach(is -> {
-            stats.messagesSent += is.messagesSent;
-            stats.messagesReceived += is.messagesReceived;
-            stats.elapsedMillis += is.elapsedMillis;
-            stats.consumerErrors += is.consumerErrors;
-            stats.publishErrors += is.publishErrors;
-            stats.producers += is.producers;
-            stats.consumers += is.consumers;
-        });
+        CountersStats stats = statsAggregator.collectCountersStats(workers);
         stats.elapsedMillis /= workers.size();
-
-        LocalWorker.processMetrics(stats, individualStats.stream().map(s -> new MetricsEnabled() {
-            @Override
-            public void supplyMetrics(BiConsumer<String, Metric> consumer) {
-                s.additionalMetrics.forEach((k, v) -> consumer.accept(k, v));
-            }
-        }));
-
         return stats;
     }
 
     @Override
     public void resetStats() throws IOException {
-        sendPost(workers, "/reset-stats", new byte[0]);
-    }
-
-    /**
-     * Send a request to multiple hosts and wait for all responses
-     */
-    private void sendPost(List<String> hosts, String path, byte[] body) {
-        FutureUtil.waitForAll(hosts.stream().map(w -> sendPost(w, path, body)).collect(toList())).join();
-    }
-
-    private CompletableFuture<Void> sendPost(String host, String path, byte[] body) {
-        return httpClient.preparePost(host + path).setBody(body).execute().toCompletableFuture().thenApply(x -> {
-            if (x.getStatusCode() != 200) {
-                log.error("Failed to do HTTP post request to {}{} -- code: {} error: {}", host, path, x.getStatusCode(),
-                        x.getResponseBody());
-            }
-            Preconditions.checkArgument(x.getStatusCode() == 200);
-            return (Void) null;
-        });
+        workerClient.sendAll(workers, WorkerCommand.RESET_STATS, null);
     }
 
-    private <T> List<T> get(List<String> hosts, String path, Class<T> clazz) {
-        List<CompletableFuture<T>> futures = hosts.stream().map(w -> get(w, path, clazz)).collect(toList());
-
-        CompletableFuture<List<T>> resultFuture = new CompletableFuture<>();
-        FutureUtil.waitForAll(futures).thenRun(() -> {
-            resultFuture.complete(futures.stream().map(CompletableFuture::join).collect(toList()));
-        }).exceptionally(ex -> {
-            resultFuture.completeExceptionally(ex);
-            return null;
-        });
-
-        return resultFuture.join();
-    }
-
-    private <T> CompletableFuture<T> get(String host, String path, Class<T> clazz) {
-        return httpClient.prepareGet(host + path).execute().toCompletableFuture().thenApply(response -> {
-            try {
-                if (response.getStatusCode() != 200) {
-                    log.error("Failed to do HTTP get request to {}{} -- code: {}", host, path, response.getStatusCode());
-                }
-                Preconditions.checkArgument(response.getStatusCode() == 200);
-                return mapper.readValue(response.getResponseBody(), clazz);
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
-        });
-    }
-
-    private <T> CompletableFuture<T> post(String host, String path, byte[] body, Class<T> clazz) {
-        return httpClient.preparePost(host + path).setBody(body).execute().toCompletableFuture().thenApply(response -> {
-            try {
-                if (response.getStatusCode() != 200) {
-                    log.error("Failed to do HTTP post request to {}{} -- code: {}", host, path, response.getStatusCode());
-                }
-                Preconditions.checkArgument(response.getStatusCode() == 200);
-                return mapper.readValue(response.getResponseBody(), clazz);
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
-        });
+    @Override
+    public Map<String, Histogram> getControlPlaneLatencies() {
+        return workerClient.getLatencies();
     }
 
     @Override
     public void close() throws Exception {
-        httpClient.close();
+        workerClient.close();
     }
 
-    private static final ObjectWriter writer = new ObjectMapper().writerWithDefaultPrettyPrinter();
-
-    private static final ObjectMapper mapper = new ObjectMapper()
-            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-
-    static {
-        mapper.enable(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_USING_DEFAULT_VALUE);
-    }
+    private static final ObjectWriter writer = new ObjectMapper().writer();
 
     private static final Logger log = LoggerFactory.getLogger(DistributedWorkersEnsemble.class);
 
     @Override
     public void pauseProducers() throws IOException {
-        sendPost(producerWorkers, "/pause-producers", new byte[0]);
+        workerClient.sendAll(producerWorkers, WorkerCommand.PAUSE_PRODUCERS, null);
     }
 
     @Override
     public void resumeProducers() throws IOException {
-        sendPost(producerWorkers, "/resume-producers", new byte[0]);
+        workerClient.sendAll(producerWorkers, WorkerCommand.RESUME_PRODUCERS, null);
     }
 
 }
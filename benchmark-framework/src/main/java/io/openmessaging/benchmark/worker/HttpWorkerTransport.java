@@ -0,0 +1,64 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker;
+
+import static org.asynchttpclient.Dsl.asyncHttpClient;
+import static org.asynchttpclient.Dsl.config;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.asynchttpclient.AsyncHttpClient;
+import org.asynchttpclient.BoundRequestBuilder;
+
+/**
+ * Sends the worker commands through the HTTP API of {@link WorkerHandler}
+ */
+public class HttpWorkerTransport implements WorkerTransport {
+    private final static int REQUEST_TIMEOUT_MS = 300_000;
+    private final static int READ_TIMEOUT_MS = 300_000;
+
+    private final AsyncHttpClient httpClient;
+
+    public HttpWorkerTransport() {
+        this.httpClient = asyncHttpClient(
+                config().setRequestTimeout(REQUEST_TIMEOUT_MS).setReadTimeout(READ_TIMEOUT_MS));
+    }
+
+    @Override
+    public CompletableFuture<byte[]> send(String worker, WorkerCommand command, byte[] body) {
+        BoundRequestBuilder request = command.isPost()
+                ? httpClient.preparePost(worker + command.path()).setBody(body)
+                : httpClient.prepareGet(worker + command.path());
+        // The HTTP API keeps its single request timeout, the per-command deadlines only apply to the RPC transport
+        return request.execute().toCompletableFuture()
+                .thenApply(response -> {
+                    if (response.getStatusCode() != 200) {
+                        throw new IllegalStateException(String.format(
+                                "Failed to do HTTP request to %s%s -- code: %d error: %s", worker, command.path(),
+                                response.getStatusCode(), response.getResponseBody()));
+                    }
+                    return response.getResponseBodyAsBytes();
+                });
+    }
+
+    @Override
+    public void close() throws Exception {
+        httpClient.close();
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latency recorders keyed by operation, measure or size bucket, each created when its key is first recorded. Values
+ * above the highest trackable one are recorded as the highest one rather than failing.
+ */
+final class LatencyRecorders<K> {
+    private final long highestTrackableValue;
+    private final int significantDigits;
+    private final Map<K, Recorder> recorders = new ConcurrentHashMap<>();
+
+    LatencyRecorders(long highestTrackableValue, int significantDigits) {
+        this.highestTrackableValue = highestTrackableValue;
+        this.significantDigits = significantDigits;
+    }
+
+    Recorder get(K key) {
+        return recorders.computeIfAbsent(key, k -> new Recorder(highestTrackableValue, significantDigits));
+    }
+
+    void record(K key, long micros) {
+        get(key).recordValue(Math.min(highestTrackableValue, micros));
+    }
+
+    /**
+     * Record the time elapsed since a start on the {@link System#nanoTime()} clock
+     */
+    void recordSince(K key, long startNanos) {
+        record(key, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * The values recorded since the previous call, by key
+     */
+    Map<K, Histogram> getIntervalHistograms() {
+        Map<K, Histogram> histograms = new TreeMap<>();
+        recorders.forEach((key, recorder) -> histograms.put(key, recorder.getIntervalHistogram()));
+        return histograms;
+    }
+
+    /**
+     * Reset the recorders in place, for the clients that keep recording into them
+     */
+    void reset() {
+        recorders.values().forEach(Recorder::reset);
+    }
+
+    void clear() {
+        recorders.clear();
+    }
+}
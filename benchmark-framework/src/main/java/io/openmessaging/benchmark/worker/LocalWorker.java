@@ -26,13 +26,24 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -57,7 +68,10 @@ import io.openmessaging.benchmark.DriverConfiguration;
 import io.openmessaging.benchmark.driver.BenchmarkConsumer;
 import io.openmessaging.benchmark.driver.BenchmarkDriver;
 import io.openmessaging.benchmark.driver.BenchmarkProducer;
+import io.openmessaging.benchmark.driver.BenchmarkReplyProducer;
+import io.openmessaging.benchmark.driver.BenchmarkTransactionalProducer;
 import io.openmessaging.benchmark.driver.ConsumerCallback;
+import io.openmessaging.benchmark.driver.TopicSpec;
 import io.openmessaging.benchmark.driver.MetricsEnabled;
 import io.openmessaging.benchmark.driver.MetricsEnabled.Combiner;
 import io.openmessaging.benchmark.driver.MetricsEnabled.Metric;
@@ -71,12 +85,27 @@ public class LocalWorker implements Worker, ConsumerCallback {
     private BenchmarkDriver benchmarkDriver = null;
 
     private List<BenchmarkProducer> producers = new ArrayList<>();
-    private List<BenchmarkConsumer> consumers = new ArrayList<>();
+    // Consumers can be closed during the test, while the stats are read
+    private List<BenchmarkConsumer> consumers = new CopyOnWriteArrayList<>();
+    // Topic and subscription of each consumer, in the same order
+    private final List<TopicSubscription> consumerSubscriptions = new CopyOnWriteArrayList<>();
+
+    // Producers of each topic, to start the traffic groups of a multi-group workload on their own topics
+    private final Map<String, List<BenchmarkProducer>> producersByTopic = new HashMap<>();
 
     private volatile UniformRateLimiter rateLimiter = new UniformRateLimiter(1.0);
+    private final Map<String, UniformRateLimiter> groupRateLimiters = new ConcurrentHashMap<>();
 
     private final ExecutorService executor = Executors.newCachedThreadPool(new DefaultThreadFactory("local-worker"));
 
+    private volatile ClientSetup clientSetup = new ClientSetup(ClientSetup.DEFAULT_CONCURRENCY,
+            ClientSetup.DEFAULT_TIMEOUT_SECONDS);
+    private ExecutorService clientSetupExecutor = newClientSetupExecutor(ClientSetup.DEFAULT_CONCURRENCY);
+
+    // Time for each producer and consumer to be ready, keyed by client kind
+    private final LatencyRecorders<String> clientSetupRecorders = new LatencyRecorders<>(
+            CLIENT_SETUP_MAX_LATENCY_MICROS, 5);
+
     // stats
 
     private final StatsLogger statsLogger;
@@ -128,10 +157,76 @@ public class LocalWorker implements Worker, ConsumerCallback {
     private final Recorder endToEndCumulativeLatencyRecorder = new Recorder(TimeUnit.HOURS.toMicros(12), 5);
     private final OpStatsLogger endToEndLatencyStats;
 
+    // Cumulative latencies by message size bucket, created lazily as sizes are seen
+    private final LatencyRecorders<Integer> publishLatencyBySizeRecorders = new LatencyRecorders<>(
+            TimeUnit.HOURS.toMicros(1), SIZE_BUCKET_SIGNIFICANT_DIGITS);
+    private final LatencyRecorders<Integer> endToEndLatencyBySizeRecorders = new LatencyRecorders<>(
+            TimeUnit.HOURS.toMicros(12), SIZE_BUCKET_SIGNIFICANT_DIGITS);
+
+    // Messages received by topic and partition, for drivers that report partitions
+    private final Map<String, Map<Integer, LongAdder>> partitionReceivedCounters = new ConcurrentHashMap<>();
+
+    // Messages received by subscription, when the consumer assignment asks to track them
+    private final Map<String, LongAdder> subscriptionReceivedCounters = new ConcurrentHashMap<>();
+
+    /**
+     * Traffic and cumulative latencies of a group of a multi-group workload
+     */
+    static class TrafficGroupRecorder {
+        final LongAdder messagesSent = new LongAdder();
+        final LongAdder bytesSent = new LongAdder();
+        final LongAdder messagesReceived = new LongAdder();
+        final LongAdder bytesReceived = new LongAdder();
+        final Recorder publishLatency = new Recorder(TimeUnit.HOURS.toMicros(1), 5);
+        final Recorder endToEndLatency = new Recorder(TimeUnit.HOURS.toMicros(12), 5);
+
+        TrafficGroupStats sinceLast() {
+            TrafficGroupStats stats = new TrafficGroupStats();
+            stats.messagesSent = messagesSent.sumThenReset();
+            stats.bytesSent = bytesSent.sumThenReset();
+            stats.messagesReceived = messagesReceived.sumThenReset();
+            stats.bytesReceived = bytesReceived.sumThenReset();
+            return stats;
+        }
+    }
+
+    private final Map<String, TrafficGroupRecorder> trafficGroupRecorders = new ConcurrentHashMap<>();
+
     private volatile boolean testCompleted = false;
 
+    // Incremented to stop the producer threads of the current load, while keeping the producers
+    private volatile int loadGeneration = 0;
+
+    // The producer threads of the load, waited for before the producers they send to are closed
+    private final Set<Future<?>> loadTasks = ConcurrentHashMap.newKeySet();
+
     private volatile boolean consumersArePaused = false;
 
+    // Catch-up subscriptions, accounted apart from the tailing ones and paused on their own
+    private final LongAdder catchUpMessagesReceived = new LongAdder();
+    private final LongAdder catchUpBytesReceived = new LongAdder();
+    private volatile boolean catchUpConsumersArePaused = false;
+
+    // Request/reply: reply topic and consumer of the producers of this worker, and producer of the replies of its
+    // consumers
+    private volatile byte[] replyTopic;
+    private BenchmarkConsumer replyConsumer;
+    private BenchmarkReplyProducer replyProducer;
+    private final LongAdder repliesReceived = new LongAdder();
+    private final Recorder roundTripLatencyRecorder = new Recorder(TimeUnit.HOURS.toMicros(1), 5);
+    private final Recorder cumulativeRoundTripLatencyRecorder = new Recorder(TimeUnit.HOURS.toMicros(1), 5);
+
+    private final ProducerChurnRunner producerChurn;
+
+    // Transactional producers publishing the load in transactions
+    private final List<TransactionBatcher> transactionBatchers = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService transactionCommitTimer = Executors
+            .newSingleThreadScheduledExecutor(new DefaultThreadFactory("local-worker-transaction-commit"));
+    private final TransactionRecorder transactionRecorder = new TransactionRecorder();
+
+    private final AdminOperationsRunner adminOperations = new AdminOperationsRunner(executor,
+            CLIENT_SETUP_MAX_LATENCY_MICROS);
+
     private volatile boolean producersArePaused = false;
 
     private volatile long lastPeriod;
@@ -151,6 +246,8 @@ public class LocalWorker implements Worker, ConsumerCallback {
         this.publishErrorCounter = new StatCounter(producerStatsLogger.getCounter("produce_errors"));
         this.publishDelayLatencyStats = producerStatsLogger.getOpStatsLogger("producer_delay_latency");
         this.publishLatencyStats = producerStatsLogger.getOpStatsLogger("produce_latency");
+        this.producerChurn = new ProducerChurnRunner(executor, messagesSentCounter, bytesSentCounter,
+                publishErrorCounter, CLIENT_SETUP_MAX_LATENCY_MICROS);
 
         StatsLogger consumerStatsLogger = statsLogger.scope("consumer");
         this.messagesReceivedCounter = new StatCounter(consumerStatsLogger.getCounter("messages_recv"));
@@ -178,33 +275,176 @@ public class LocalWorker implements Worker, ConsumerCallback {
 
     @Override
     public List<String> createTopics(TopicsInfo topicsInfo) {
-        List<CompletableFuture<Void>> futures = new ArrayList<>();
-
         Timer timer = new Timer();
 
+        if (topicsInfo.hasExistingTopics()) {
+            List<String> topics = topicsInfo.existingTopicsPrefix != null
+                    ? benchmarkDriver.listTopics(topicsInfo.existingTopicsPrefix).join()
+                    : topicsInfo.existingTopics;
+            if (topics.isEmpty()) {
+                throw new IllegalArgumentException("No topic starts with " + topicsInfo.existingTopicsPrefix);
+            }
+            log.info("Using {} existing topics", topics.size());
+            return topics;
+        }
 
+        String topicPrefix = benchmarkDriver.getTopicNamePrefix();
         List<String> topics = new ArrayList<>();
+        List<TopicSpec> topicSpecs = new ArrayList<>();
         for (int i = 0; i < topicsInfo.numberOfTopics; i++) {
-            String topicPrefix = benchmarkDriver.getTopicNamePrefix();
-            String topic = String.format("%s-%s-%04d", topicPrefix, RandomGenerator.getRandomString(), i);
+            String topic = String.format("%s-%s-%04d", topicPrefix, RandomGenerator.getRandomString(),
+                    topicsInfo.firstTopicIndex + i);
             topics.add(topic);
-            futures.add(benchmarkDriver.createTopic(topic, topicsInfo.numberOfPartitionsPerTopic));
+            topicSpecs.add(new TopicSpec(topic, topicsInfo.numberOfPartitionsPerTopic));
         }
 
-        futures.forEach(CompletableFuture::join);
+        benchmarkDriver.createTopics(topicSpecs).join();
 
         log.info("Created {} topics in {} ms", topics.size(), timer.elapsedMillis());
         return topics;
     }
 
+    @Override
+    public Map<String, Integer> getPartitions(List<String> topics) {
+        try {
+            return benchmarkDriver.getPartitions(topics).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UnsupportedOperationException) {
+                log.warn("The driver cannot tell the partitions of the topics: {}", e.getCause().getMessage());
+                return Collections.emptyMap();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized void configureClientSetup(ClientSetup clientSetup) {
+        Preconditions.checkArgument(clientSetup.concurrency > 0 && clientSetup.timeoutSeconds > 0,
+                "The client setup concurrency and timeout should be > 0");
+        if (clientSetup.concurrency != this.clientSetup.concurrency) {
+            clientSetupExecutor.shutdown();
+            clientSetupExecutor = newClientSetupExecutor(clientSetup.concurrency);
+        }
+        this.clientSetup = clientSetup;
+    }
+
+    private static ExecutorService newClientSetupExecutor(int concurrency) {
+        return Executors.newFixedThreadPool(concurrency, new DefaultThreadFactory("local-worker-client-setup"));
+    }
+
+    /**
+     * Run an operation on each client with at most {@link ClientSetup#concurrency} of them in flight. The operations
+     * run on the client setup threads since some drivers block the calling thread, eg. to open a connection per
+     * client. Each operation has {@link ClientSetup#timeoutSeconds} to complete, and the progress is logged every
+     * 10 seconds. When an operation fails or times out, the clients that the other operations created, or still
+     * create, are closed, since the caller gets none of them.
+     *
+     * @param latencyRecorder
+     *            optional recorder of the time for each operation to complete
+     * @return the results of the operations, in the order of the items
+     */
+    private synchronized <T, R> List<R> forEachClient(String operation, List<T> items,
+            Function<T, CompletableFuture<R>> action, Recorder latencyRecorder) {
+        ClientSetup setup = this.clientSetup;
+        Queue<CompletableFuture<R>> started = new ConcurrentLinkedQueue<>();
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Future<R>> futures = items.stream().map(item -> clientSetupExecutor.submit(() -> {
+            long start = System.nanoTime();
+            CompletableFuture<R> future = action.apply(item);
+            started.add(future);
+            if (failed.get() && started.remove(future)) {
+                closeWhenCreated(future);
+            }
+            R result = future.get();
+            if (latencyRecorder != null) {
+                latencyRecorder.recordValue(Math.min(CLIENT_SETUP_MAX_LATENCY_MICROS,
+                        TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start)));
+            }
+            return result;
+        })).collect(toList());
+
+        List<R> results = new ArrayList<>(items.size());
+        long nextProgressLog = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        boolean completed = false;
+        try {
+            // The operations start in order, so each one has been running for at most the time waited for it
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get(setup.timeoutSeconds, TimeUnit.SECONDS));
+                } catch (TimeoutException e) {
+                    throw new IllegalStateException(String.format("Timed out after %d s to %s %s", setup.timeoutSeconds,
+                            operation, items.get(i)));
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(String.format("Failed to %s %s", operation, items.get(i)),
+                            e.getCause());
+                }
+
+                if (System.nanoTime() > nextProgressLog) {
+                    log.info("{}: {}/{} done", operation, results.size(), items.size());
+                    nextProgressLog = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                }
+            }
+            completed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            if (!completed) {
+                failed.set(true);
+            }
+            futures.forEach(f -> f.cancel(true));
+            if (!completed) {
+                CompletableFuture<R> future;
+                while ((future = started.poll()) != null) {
+                    closeWhenCreated(future);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Close the client of an operation once it is created, if the operation creates one
+     */
+    private static void closeWhenCreated(CompletableFuture<?> future) {
+        future.thenAccept(client -> {
+            if (client instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) client).close();
+                } catch (Exception e) {
+                    log.warn("Failed to close {}", client, e);
+                }
+            }
+        });
+    }
+
+    private Recorder clientSetupRecorder(String client) {
+        return clientSetupRecorders.get(client);
+    }
+
+    private static CompletableFuture<Void> closeClient(AutoCloseable client) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            client.close();
+            future.complete(null);
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
     @Override
     public void createProducers(List<String> topics) {
         Timer timer = new Timer();
 
-        List<CompletableFuture<BenchmarkProducer>> futures = topics.stream()
-                .map(topic -> benchmarkDriver.createProducer(topic)).collect(toList());
+        List<BenchmarkProducer> created = forEachClient("create the producer of", topics,
+                benchmarkDriver::createProducer, clientSetupRecorder("producer"));
 
-        futures.forEach(f -> producers.add(f.join()));
+        for (int i = 0; i < topics.size(); i++) {
+            BenchmarkProducer producer = created.get(i);
+            producers.add(producer);
+            producersByTopic.computeIfAbsent(topics.get(i), t -> new ArrayList<>()).add(producer);
+        }
         log.info("Created {} producers in {} ms", producers.size(), timer.elapsedMillis());
     }
 
@@ -212,39 +452,241 @@ public class LocalWorker implements Worker, ConsumerCallback {
     public void createConsumers(ConsumerAssignment consumerAssignment) {
         Timer timer = new Timer();
 
-        List<CompletableFuture<BenchmarkConsumer>> futures = consumerAssignment.topicsSubscriptions.stream()
-                .map(ts -> benchmarkDriver.createConsumer(ts.topic, ts.subscription, this)).collect(toList());
+        if (consumerAssignment.requestReply && replyProducer == null) {
+            replyProducer = benchmarkDriver.createReplyProducer().join();
+        }
 
-        futures.forEach(f -> consumers.add(f.join()));
+        consumers.addAll(forEachClient("create the consumer of", consumerAssignment.topicsSubscriptions, ts -> {
+            ConsumerCallback callback = consumerAssignment.requestReply ? new RequestConsumerCallback()
+                    : ts.catchUp ? new CatchUpConsumerCallback()
+                    : ts.group != null ? new TrafficGroupConsumerCallback(trafficGroupRecorder(ts.group))
+                    : this;
+            if (consumerAssignment.trackSubscriptions) {
+                callback = new SubscriptionConsumerCallback(callback,
+                        subscriptionReceivedCounters.computeIfAbsent(ts.subscription, s -> new LongAdder()));
+            }
+            return benchmarkDriver.createConsumer(ts.topic, ts.subscription,
+                    ts.catchUp && consumerAssignment.catchUpStartPosition != null
+                            ? consumerAssignment.catchUpStartPosition : consumerAssignment.startPosition,
+                    consumerAssignment.startTimestamp, callback);
+        }, clientSetupRecorder("consumer")));
+        consumerSubscriptions.addAll(consumerAssignment.topicsSubscriptions);
         log.info("Created {} consumers in {} ms", consumers.size(), timer.elapsedMillis());
     }
 
+    @Override
+    public List<TopicSubscription> closeConsumers(List<TopicSubscription> topicsSubscriptions) {
+        Timer timer = new Timer();
+        List<TopicSubscription> notFound = new ArrayList<>();
+        SortedSet<Integer> closing = new TreeSet<>(Comparator.reverseOrder());
+        for (TopicSubscription ts : topicsSubscriptions) {
+            int i = consumerSubscriptions.size() - 1;
+            while (i >= 0 && (closing.contains(i) || !consumerSubscriptions.get(i).topic.equals(ts.topic)
+                    || !consumerSubscriptions.get(i).subscription.equals(ts.subscription))) {
+                i--;
+            }
+            if (i >= 0) {
+                closing.add(i);
+            } else {
+                notFound.add(ts);
+            }
+        }
+
+        // Remove the consumers from the highest index down, before closing them
+        List<BenchmarkConsumer> closed = new ArrayList<>();
+        closing.forEach(i -> {
+            closed.add(consumers.remove((int) i));
+            consumerSubscriptions.remove((int) i);
+        });
+        forEachClient("close", closed, LocalWorker::closeClient, null);
+        log.info("Closed {} consumers in {} ms, {} left", closed.size(), timer.elapsedMillis(), consumers.size());
+        return notFound;
+    }
+
+    @Override
+    public PartitionAssignments getPartitionAssignments() {
+        PartitionAssignments assignments = new PartitionAssignments();
+        for (int i = 0; i < consumers.size(); i++) {
+            TopicSubscription ts = consumerSubscriptions.get(i);
+            Optional<Set<Integer>> assigned = consumers.get(i).getAssignedPartitions();
+            if (assigned.isPresent()) {
+                assignments.add(ts.topic, ts.subscription, assigned.get());
+            } else {
+                assignments.unreportedConsumers++;
+            }
+        }
+        return assignments;
+    }
+
     @Override
     public void startLoad(ProducerWorkAssignment producerWorkAssignment) {
+        if (producerWorkAssignment.groups != null && !producerWorkAssignment.groups.isEmpty()) {
+            producerWorkAssignment.groups.forEach(this::startTrafficGroup);
+            lastPeriod = System.currentTimeMillis();
+            return;
+        }
+
+        if (producerWorkAssignment.requestReply && !producers.isEmpty()) {
+            createReplyConsumer();
+        }
+
         rateLimiter = new UniformRateLimiter(producerWorkAssignment.publishRate);
 
+        List<BenchmarkProducer> loadProducers = producers;
+        if (producerWorkAssignment.messagesPerTransaction > 0
+                || producerWorkAssignment.transactionCommitIntervalMillis > 0) {
+            loadProducers = createTransactionBatchers(producerWorkAssignment);
+        }
+
         // use a thread per producer - the client performs blocking actions, so we should use a high degree of concurrency here
         // TODO: cap the threads at a reasonable level
-        producers.stream().map(Collections::singletonList).forEach(producers -> submitProducersToExecutor(producers,
-                KeyDistributor.build(producerWorkAssignment.keyDistributorType), producerWorkAssignment.payloadData));
+        loadProducers.stream().map(Collections::singletonList).forEach(producers -> submitProducersToExecutor(producers,
+                KeyDistributor.build(producerWorkAssignment.keyDistributorType,
+                        producerWorkAssignment.keyDistributorConfig), producerWorkAssignment.payloadData,
+                () -> rateLimiter, null));
+
+        if (producerWorkAssignment.producerChurnRate > 0 && !producersByTopic.isEmpty()) {
+            producerChurn.start(benchmarkDriver, new ArrayList<>(producersByTopic.keySet()), producerWorkAssignment,
+                    loadRunning(), () -> producersArePaused);
+        }
 
         lastPeriod = System.currentTimeMillis();
     }
 
+    /**
+     * Create a transactional producer next to each producer, on the same topic, to publish the load in transactions.
+     * The producers stay in place for the readiness probes.
+     */
+    private List<BenchmarkProducer> createTransactionBatchers(ProducerWorkAssignment producerWorkAssignment) {
+        closeTransactionBatchers();
+
+        List<String> topics = producersByTopic.entrySet().stream()
+                .flatMap(e -> Collections.nCopies(e.getValue().size(), e.getKey()).stream())
+                .collect(toList());
+        Timer timer = new Timer();
+        List<BenchmarkTransactionalProducer> created = forEachClient("create the transactional producer of", topics,
+                benchmarkDriver::createTransactionalProducer, clientSetupRecorder("transactional producer"));
+        for (BenchmarkTransactionalProducer producer : created) {
+            transactionBatchers.add(new TransactionBatcher(producer, producerWorkAssignment.messagesPerTransaction,
+                    producerWorkAssignment.transactionCommitIntervalMillis, transactionCommitTimer,
+                    transactionRecorder));
+        }
+        log.info("Created {} transactional producers in {} ms -- {} messages per transaction, commit interval {} ms",
+                created.size(), timer.elapsedMillis(), producerWorkAssignment.messagesPerTransaction,
+                producerWorkAssignment.transactionCommitIntervalMillis);
+        return new ArrayList<>(transactionBatchers);
+    }
+
+    /**
+     * Commit the open transactions and close the transactional producers, once the load threads stopped using them
+     */
+    private void closeTransactionBatchers() {
+        if (transactionBatchers.isEmpty()) {
+            return;
+        }
+        Timer timer = new Timer();
+        forEachClient("close", new ArrayList<>(transactionBatchers), LocalWorker::closeClient, null);
+        log.info("Closed {} transactional producers in {} ms", transactionBatchers.size(), timer.elapsedMillis());
+        transactionBatchers.clear();
+    }
+
+    @Override
+    public void startAdminOperations(AdminOperationsAssignment assignment) {
+        adminOperations.start(benchmarkDriver, assignment, loadRunning());
+    }
+
+    /**
+     * Whether the load started now is still running: it stops when the test completes or the load is stopped
+     */
+    private BooleanSupplier loadRunning() {
+        final int generation = loadGeneration;
+        return () -> !testCompleted && generation == loadGeneration;
+    }
+
+    /**
+     * Start the producers of the topics of a group, publishing at the rate of the group with its own payloads and
+     * keys
+     */
+    private void startTrafficGroup(ProducerWorkAssignment group) {
+        List<BenchmarkProducer> groupProducers = group.topics.stream().distinct()
+                .flatMap(topic -> producersByTopic.getOrDefault(topic, Collections.emptyList()).stream())
+                .collect(toList());
+        if (groupProducers.isEmpty()) {
+            return;
+        }
+
+        log.info("Start traffic group {} with {} producers -- publish-rate: {} msg/s", group.group,
+                groupProducers.size(), group.publishRate);
+        groupRateLimiters.put(group.group, new UniformRateLimiter(group.publishRate));
+        TrafficGroupRecorder recorder = trafficGroupRecorder(group.group);
+        groupProducers.forEach(producer -> submitProducersToExecutor(Collections.singletonList(producer),
+                KeyDistributor.build(group.keyDistributorType, group.keyDistributorConfig), group.payloadData,
+                () -> groupRateLimiters.get(group.group), recorder));
+    }
+
+    /**
+     * Create the reply topic of the producers of this worker and subscribe to it, once for all the loads started on
+     * the same producers. The consumer only reads what is published after it is ready, so wait for it to be
+     * assigned the topic before sending the first request.
+     */
+    private void createReplyConsumer() {
+        if (replyConsumer == null) {
+            String topic = String.format("%s-reply-%s", benchmarkDriver.getTopicNamePrefix(),
+                    RandomGenerator.getRandomString());
+            benchmarkDriver.createTopic(topic, 1).join();
+            replyConsumer = forEachClient("create the reply consumer of", Collections.singletonList(topic),
+                    t -> benchmarkDriver.createConsumer(t, "reply-" + RandomGenerator.getRandomString(),
+                            new ReplyConsumerCallback()),
+                    clientSetupRecorder("reply consumer")).get(0);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(clientSetup.timeoutSeconds);
+            while (replyConsumer.getAssignedPartitions().map(Set::isEmpty).orElse(false)) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Timed out waiting for the assignment of reply topic " + topic);
+                }
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+            }
+
+            replyTopic = RequestReplyPayload.encodeTopic(topic);
+            log.info("Requests of this worker are replied on {}", topic);
+        }
+    }
+
+    private TrafficGroupRecorder trafficGroupRecorder(String group) {
+        return trafficGroupRecorders.computeIfAbsent(group, g -> new TrafficGroupRecorder());
+    }
+
     @Override
-    public void probeProducers() throws IOException {
-        producers.forEach(producer -> producer.sendAsync(Optional.of("key"), new byte[10])
-                .thenRun(() -> messagesSentCounter.accumulate(1)));
+    public void probeProducers(Map<String, Integer> partitionsByTopic) throws IOException {
+        // One probe per partition of the given topics is enough, sent by the first producer of the topic
+        producersByTopic.forEach((topic, topicProducers) -> {
+            int partitions = partitionsByTopic.getOrDefault(topic, 0);
+            if (partitions > 1 && !topicProducers.get(0).canSendToPartition()) {
+                log.warn("The driver cannot publish on a given partition: the {} probes of {} are routed by the "
+                        + "client and do not prove that every partition is consumed", partitions, topic);
+            }
+            for (int partition = 0; partition < partitions; partition++) {
+                topicProducers.get(0).sendToPartitionAsync(partition, new byte[10])
+                        .thenRun(() -> messagesSentCounter.accumulate(1));
+            }
+        });
     }
 
-    private void submitProducersToExecutor(List<BenchmarkProducer> producers, KeyDistributor keyDistributor, List<byte[]> payloads) {
-        executor.submit(() -> {
+    private void submitProducersToExecutor(List<BenchmarkProducer> producers, KeyDistributor keyDistributor,
+            List<byte[]> payloads, Supplier<UniformRateLimiter> rateLimiter, TrafficGroupRecorder groupRecorder) {
+        final int generation = loadGeneration;
+        loadTasks.add(executor.submit(() -> {
             int payloadCount = payloads.size();
             ThreadLocalRandom r = ThreadLocalRandom.current();
             byte[] firstPayload = payloads.get(0);
 
             try {
-                while (!testCompleted) {
+                while (!testCompleted && generation == loadGeneration) {
                     while (producersArePaused) {
                         try {
                             Thread.sleep(1000);
@@ -254,12 +696,26 @@ public class LocalWorker implements Worker, ConsumerCallback {
                     }
 
                     producers.forEach(producer -> {
+                        UniformRateLimiter limiter = rateLimiter.get();
+                        if (limiter == null) {
+                            // The traffic group rate limiters are dropped once the load is stopped
+                            return;
+                        }
                         byte[] payloadData = payloadCount == 0 ? firstPayload : payloads.get(r.nextInt(payloadCount));
-                        final long intendedSendTime = rateLimiter.acquire();
+                        final long intendedSendTime = limiter.acquire();
                         uninterruptibleSleepNs(intendedSendTime);
+                        if (testCompleted || generation != loadGeneration) {
+                            // Stopped while waiting for the send time, the producer may be closed already
+                            return;
+                        }
                         final long sendTime = System.nanoTime();
+                        final byte[] requestReplyTopic = groupRecorder == null ? replyTopic : null;
                         try {
-                            producer.sendAsync(Optional.ofNullable(keyDistributor.next()), payloadData).handle((v, t) -> {
+                            int keyIndex = keyDistributor.nextIndex();
+                            byte[] message = requestReplyTopic == null ? payloadData
+                                    : RequestReplyPayload.request(payloadData, sendTime, requestReplyTopic);
+                            producer.sendAsync(Optional.ofNullable(keyDistributor.key(keyIndex)),
+                                    keyDistributor.keyBytes(keyIndex), message).handle((v, t) -> {
                                 long microTime = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sendTime);
                                 if (t != null) {
                                     log.warn("Write error on message", t);
@@ -268,11 +724,18 @@ public class LocalWorker implements Worker, ConsumerCallback {
                                 } else {
                                     try {
                                       messagesSentCounter.accumulate(1);
-                                      bytesSentCounter.accumulate(payloadData.length);
+                                      bytesSentCounter.accumulate(message.length);
                                       publishLatencyStats.registerSuccessfulEvent(microTime, TimeUnit.MICROSECONDS);
                                       publishLatencyRecorder.recordValue(microTime);
                                       cumulativePublishLatencyRecorder.recordValue(microTime);
                                       onDemandPublishLatencyRecorder.recordValue(microTime);
+                                      publishLatencyBySizeRecorders.record(sizeBucket(message.length),
+                                              microTime);
+                                      if (groupRecorder != null) {
+                                          groupRecorder.messagesSent.increment();
+                                          groupRecorder.bytesSent.add(message.length);
+                                          groupRecorder.publishLatency.recordValue(microTime);
+                                      }
 
                                       final long sendDelayMicros = TimeUnit.NANOSECONDS.toMicros(sendTime - intendedSendTime);
                                       publishDelayLatencyRecorder.recordValue(sendDelayMicros);
@@ -293,7 +756,26 @@ public class LocalWorker implements Worker, ConsumerCallback {
             } catch (Throwable t) {
                 log.error("Got error", t);
             }
-        });
+        }));
+    }
+
+    /**
+     * Wait for the producer threads of the stopped load to exit, after their next send time at the latest
+     */
+    private void awaitLoadTasks() {
+        for (Future<?> task : new ArrayList<>(loadTasks)) {
+            try {
+                task.get(LOAD_TASK_STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // Already logged by the task
+            } catch (TimeoutException e) {
+                log.warn("A producer thread did not stop within {} s", LOAD_TASK_STOP_TIMEOUT_SECONDS);
+            }
+            loadTasks.remove(task);
+        }
     }
 
     @Override
@@ -322,6 +804,13 @@ public class LocalWorker implements Worker, ConsumerCallback {
         stats.messagesReceived = messagesReceivedCounter.sinceLast();
         stats.bytesReceived = bytesReceivedCounter.sinceLast();
 
+        stats.catchUpMessagesReceived = catchUpMessagesReceived.sumThenReset();
+        stats.catchUpBytesReceived = catchUpBytesReceived.sumThenReset();
+        stats.repliesReceived = repliesReceived.sumThenReset();
+        producerChurn.collectPeriodStats(stats);
+        transactionRecorder.collectPeriodStats(stats);
+        adminOperations.collectPeriodStats(stats);
+
         stats.publishErrors = publishErrorCounter.sinceLast();
         stats.consumerErrors = consumeErrorCounter.sinceLast();
 
@@ -331,6 +820,15 @@ public class LocalWorker implements Worker, ConsumerCallback {
         stats.publishLatency = publishLatencyRecorder.getIntervalHistogram();
         stats.publishDelayLatency = publishDelayLatencyRecorder.getIntervalHistogram();
         stats.endToEndLatency = endToEndLatencyRecorder.getIntervalHistogram();
+        stats.roundTripLatency = roundTripLatencyRecorder.getIntervalHistogram();
+
+        partitionReceivedCounters.forEach((topic, partitions) -> {
+            Map<Integer, Long> counts = new TreeMap<>();
+            partitions.forEach((partition, counter) -> counts.put(partition, counter.sumThenReset()));
+            stats.messagesReceivedByPartition.put(topic, counts);
+        });
+
+        trafficGroupRecorders.forEach((group, recorder) -> stats.trafficByGroup.put(group, recorder.sinceLast()));
 
         long now = System.currentTimeMillis();
         stats.elapsedMillis = now - this.lastPeriod;
@@ -345,6 +843,17 @@ public class LocalWorker implements Worker, ConsumerCallback {
         latencies.publishLatency = cumulativePublishLatencyRecorder.getIntervalHistogram();
         latencies.publishDelayLatency = cumulativePublishDelayLatencyRecorder.getIntervalHistogram();
         latencies.endToEndLatency = endToEndCumulativeLatencyRecorder.getIntervalHistogram();
+        latencies.roundTripLatency = cumulativeRoundTripLatencyRecorder.getIntervalHistogram();
+        latencies.publishLatencyBySize = publishLatencyBySizeRecorders.getIntervalHistograms();
+        latencies.endToEndLatencyBySize = endToEndLatencyBySizeRecorders.getIntervalHistograms();
+        trafficGroupRecorders.forEach((group, recorder) -> {
+            latencies.publishLatencyByGroup.put(group, recorder.publishLatency.getIntervalHistogram());
+            latencies.endToEndLatencyByGroup.put(group, recorder.endToEndLatency.getIntervalHistogram());
+        });
+        latencies.clientSetupLatency = clientSetupRecorders.getIntervalHistograms();
+        latencies.producerChurnLatency = producerChurn.getIntervalHistograms();
+        latencies.transactionLatency = transactionRecorder.getIntervalHistograms();
+        latencies.adminOperationLatency = adminOperations.getIntervalHistograms();
         return latencies;
     }
 
@@ -353,11 +862,15 @@ public class LocalWorker implements Worker, ConsumerCallback {
         CountersStats stats = new CountersStats();
         stats.messagesSent = messagesSentCounter.getTotal();
         stats.messagesReceived = messagesReceivedCounter.getTotal();
+        stats.bytesSent = bytesSentCounter.getTotal();
+        stats.bytesReceived = bytesReceivedCounter.getTotal();
         stats.publishErrors = publishErrorCounter.getTotal();
         stats.consumerErrors = consumeErrorCounter.getTotal();
         stats.elapsedMillis = System.currentTimeMillis() - startCounter;
         stats.consumers = this.consumers.size();
         stats.producers = this.producers.size();
+        subscriptionReceivedCounters.forEach((subscription, counter) ->
+                stats.messagesReceivedBySubscription.put(subscription, counter.sum()));
 
         // collect additional metrics
         Stream<MetricsEnabled> source = Stream.concat(consumers.stream(), producers.stream())
@@ -417,7 +930,36 @@ public class LocalWorker implements Worker, ConsumerCallback {
         internalMessageReceived(data.remaining(), publishTimestamp);
     }
 
+    @Override
+    public void messageReceived(byte[] data, long publishTimestamp, String topic, int partition) {
+        partitionReceivedCounter(topic, partition).increment();
+        internalMessageReceived(data.length, publishTimestamp);
+    }
+
+    @Override
+    public void messageReceived(ByteBuffer data, long publishTimestamp, String topic, int partition) {
+        partitionReceivedCounter(topic, partition).increment();
+        internalMessageReceived(data.remaining(), publishTimestamp);
+    }
+
+    private LongAdder partitionReceivedCounter(String topic, int partition) {
+        Map<Integer, LongAdder> partitions = partitionReceivedCounters.get(topic);
+        if (partitions == null) {
+            partitions = partitionReceivedCounters.computeIfAbsent(topic, t -> new ConcurrentHashMap<>());
+        }
+
+        LongAdder counter = partitions.get(partition);
+        if (counter == null) {
+            counter = partitions.computeIfAbsent(partition, p -> new LongAdder());
+        }
+        return counter;
+    }
+
     public void internalMessageReceived(int size, long publishTimestamp) {
+        internalMessageReceived(size, publishTimestamp, null);
+    }
+
+    private void internalMessageReceived(int size, long publishTimestamp, TrafficGroupRecorder groupRecorder) {
         messagesReceivedCounter.accumulate(1);
         bytesReceivedCounter.accumulate(size);
 
@@ -425,10 +967,18 @@ public class LocalWorker implements Worker, ConsumerCallback {
         // - it was updated in later OMB versions to be millisecond, not nano, throughout
         long now = System.currentTimeMillis();
         long endToEndLatencyMicros = TimeUnit.MILLISECONDS.toMicros(now - publishTimestamp);
+        if (groupRecorder != null) {
+            groupRecorder.messagesReceived.increment();
+            groupRecorder.bytesReceived.add(size);
+            if (endToEndLatencyMicros > 0) {
+                groupRecorder.endToEndLatency.recordValue(endToEndLatencyMicros);
+            }
+        }
         if (endToEndLatencyMicros > 0) {
             endToEndCumulativeLatencyRecorder.recordValue(endToEndLatencyMicros);
             endToEndLatencyRecorder.recordValue(endToEndLatencyMicros);
             endToEndLatencyStats.registerSuccessfulEvent(endToEndLatencyMicros, TimeUnit.MICROSECONDS);
+            endToEndLatencyBySizeRecorders.record(sizeBucket(size), endToEndLatencyMicros);
         }
 
         while (consumersArePaused) {
@@ -440,6 +990,228 @@ public class LocalWorker implements Worker, ConsumerCallback {
         }
     }
 
+    /**
+     * Consumer callback of the topics of a traffic group, accounting the messages both overall and for the group
+     */
+    private class TrafficGroupConsumerCallback implements ConsumerCallback {
+        private final TrafficGroupRecorder groupRecorder;
+
+        TrafficGroupConsumerCallback(TrafficGroupRecorder groupRecorder) {
+            this.groupRecorder = groupRecorder;
+        }
+
+        @Override
+        public void messageReceived(byte[] data, long publishTimestamp) {
+            internalMessageReceived(data.length, publishTimestamp, groupRecorder);
+        }
+
+        @Override
+        public void messageReceived(ByteBuffer data, long publishTimestamp) {
+            internalMessageReceived(data.remaining(), publishTimestamp, groupRecorder);
+        }
+
+        @Override
+        public void messageReceived(byte[] data, long publishTimestamp, String topic, int partition) {
+            partitionReceivedCounter(topic, partition).increment();
+            internalMessageReceived(data.length, publishTimestamp, groupRecorder);
+        }
+
+        @Override
+        public void messageReceived(ByteBuffer data, long publishTimestamp, String topic, int partition) {
+            partitionReceivedCounter(topic, partition).increment();
+            internalMessageReceived(data.remaining(), publishTimestamp, groupRecorder);
+        }
+
+        @Override
+        public void exception(Exception e) {
+            LocalWorker.this.exception(e);
+        }
+    }
+
+    /**
+     * Consumer callback counting the messages of its subscription before handing them to the callback of the workload
+     */
+    private static class SubscriptionConsumerCallback implements ConsumerCallback {
+        private final ConsumerCallback callback;
+        private final LongAdder subscriptionReceived;
+
+        SubscriptionConsumerCallback(ConsumerCallback callback, LongAdder subscriptionReceived) {
+            this.callback = callback;
+            this.subscriptionReceived = subscriptionReceived;
+        }
+
+        @Override
+        public void messageReceived(byte[] data, long publishTimestamp) {
+            subscriptionReceived.increment();
+            callback.messageReceived(data, publishTimestamp);
+        }
+
+        @Override
+        public void messageReceived(ByteBuffer data, long publishTimestamp) {
+            subscriptionReceived.increment();
+            callback.messageReceived(data, publishTimestamp);
+        }
+
+        @Override
+        public void messageReceived(byte[] data, long publishTimestamp, String topic, int partition) {
+            subscriptionReceived.increment();
+            callback.messageReceived(data, publishTimestamp, topic, partition);
+        }
+
+        @Override
+        public void messageReceived(ByteBuffer data, long publishTimestamp, String topic, int partition) {
+            subscriptionReceived.increment();
+            callback.messageReceived(data, publishTimestamp, topic, partition);
+        }
+
+        @Override
+        public void exception(Exception e) {
+            callback.exception(e);
+        }
+    }
+
+    /**
+     * Consumer callback of a request/reply benchmark, echoing each request to its reply topic before accounting it
+     */
+    private class RequestConsumerCallback implements ConsumerCallback {
+
+        @Override
+        public void messageReceived(byte[] data, long publishTimestamp) {
+            reply(data);
+            internalMessageReceived(data.length, publishTimestamp);
+        }
+
+        @Override
+        public void messageReceived(ByteBuffer data, long publishTimestamp) {
+            int size = data.remaining();
+            reply(toBytes(data));
+            internalMessageReceived(size, publishTimestamp);
+        }
+
+        @Override
+        public void messageReceived(byte[] data, long publishTimestamp, String topic, int partition) {
+            partitionReceivedCounter(topic, partition).increment();
+            messageReceived(data, publishTimestamp);
+        }
+
+        @Override
+        public void messageReceived(ByteBuffer data, long publishTimestamp, String topic, int partition) {
+            partitionReceivedCounter(topic, partition).increment();
+            messageReceived(data, publishTimestamp);
+        }
+
+        private void reply(byte[] request) {
+            String topic = RequestReplyPayload.replyTopic(request);
+            if (topic == null) {
+                // Not a request, eg. a readiness probe
+                return;
+            }
+
+            try {
+                replyProducer.sendReply(topic, request).exceptionally(t -> {
+                    log.warn("Failed to reply on {}", topic, t);
+                    consumeErrorCounter.accumulate(1);
+                    return null;
+                });
+            } catch (Exception e) {
+                log.warn("Failed to reply on {}", topic, e);
+                consumeErrorCounter.accumulate(1);
+            }
+        }
+
+        // The drivers can reuse the buffer once the callback returns, while the reply is published asynchronously
+        private byte[] toBytes(ByteBuffer data) {
+            byte[] bytes = new byte[data.remaining()];
+            data.duplicate().get(bytes);
+            return bytes;
+        }
+
+        @Override
+        public void exception(Exception e) {
+            LocalWorker.this.exception(e);
+        }
+    }
+
+    /**
+     * Consumer callback of the reply topic of the producers of this worker, measuring the round trip of each request
+     * on the local monotonic clock
+     */
+    private class ReplyConsumerCallback implements ConsumerCallback {
+
+        @Override
+        public void messageReceived(byte[] data, long publishTimestamp) {
+            replyReceived(RequestReplyPayload.sendTimeNanos(ByteBuffer.wrap(data)));
+        }
+
+        @Override
+        public void messageReceived(ByteBuffer data, long publishTimestamp) {
+            replyReceived(RequestReplyPayload.sendTimeNanos(data));
+        }
+
+        private void replyReceived(long sendTimeNanos) {
+            if (sendTimeNanos < 0) {
+                return;
+            }
+
+            repliesReceived.increment();
+            long roundTripMicros = Math.min(TimeUnit.HOURS.toMicros(1),
+                    TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sendTimeNanos));
+            if (roundTripMicros >= 0) {
+                roundTripLatencyRecorder.recordValue(roundTripMicros);
+                cumulativeRoundTripLatencyRecorder.recordValue(roundTripMicros);
+            }
+        }
+
+        @Override
+        public void exception(Exception e) {
+            LocalWorker.this.exception(e);
+        }
+    }
+
+    /**
+     * Consumer callback of the catch-up subscriptions, only counting what they read so that the latency and the
+     * consume rate reported for the workload are the ones of the tailing subscriptions
+     */
+    private class CatchUpConsumerCallback implements ConsumerCallback {
+
+        @Override
+        public void messageReceived(byte[] data, long publishTimestamp) {
+            catchUpMessageReceived(data.length);
+        }
+
+        @Override
+        public void messageReceived(ByteBuffer data, long publishTimestamp) {
+            catchUpMessageReceived(data.remaining());
+        }
+
+        private void catchUpMessageReceived(int size) {
+            catchUpMessagesReceived.increment();
+            catchUpBytesReceived.add(size);
+
+            while (catchUpConsumersArePaused || consumersArePaused) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void exception(Exception e) {
+            LocalWorker.this.exception(e);
+        }
+    }
+
+    /**
+     * Size buckets are powers of two, identified by their upper bound in bytes. They are computed the same way on
+     * every worker so that producer and consumer side breakdowns line up without any coordination.
+     */
+    static int sizeBucket(int size) {
+        return size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+    }
+
     @Override
     public void exception(Exception e) {
         consumeErrorCounter.accumulate(1);
@@ -457,6 +1229,18 @@ public class LocalWorker implements Worker, ConsumerCallback {
         log.info("Resuming consumers");
     }
 
+    @Override
+    public void pauseCatchUpConsumers() throws IOException {
+        catchUpConsumersArePaused = true;
+        log.info("Pausing catch-up consumers");
+    }
+
+    @Override
+    public void resumeCatchUpConsumers() throws IOException {
+        catchUpConsumersArePaused = false;
+        log.info("Resuming catch-up consumers");
+    }
+
     @Override
     public void resetStats() throws IOException {
         publishLatencyRecorder.reset();
@@ -465,39 +1249,57 @@ public class LocalWorker implements Worker, ConsumerCallback {
         cumulativePublishDelayLatencyRecorder.reset();
         endToEndLatencyRecorder.reset();
         endToEndCumulativeLatencyRecorder.reset();
+        roundTripLatencyRecorder.reset();
+        cumulativeRoundTripLatencyRecorder.reset();
+        // Reset the recorders in place, the producers and consumers keep recording into them
+        publishLatencyBySizeRecorders.reset();
+        endToEndLatencyBySizeRecorders.reset();
+        trafficGroupRecorders.values().forEach(recorder -> {
+            recorder.publishLatency.reset();
+            recorder.endToEndLatency.reset();
+        });
+        producerChurn.resetLatencies();
+        transactionRecorder.resetLatencies();
+        adminOperations.resetLatencies();
     }
 
     @Override
     public void stopAll() throws IOException {
         testCompleted = true;
         consumersArePaused = false;
+        catchUpConsumersArePaused = false;
         producersArePaused = false;
 
-        publishLatencyRecorder.reset();
-        cumulativePublishLatencyRecorder.reset();
-        publishDelayLatencyRecorder.reset();
-        cumulativePublishDelayLatencyRecorder.reset();
-        endToEndLatencyRecorder.reset();
-        endToEndCumulativeLatencyRecorder.reset();
-        onDemandPublishLatencyRecorder.reset();
+        try {
+            awaitLoadTasks();
 
-        messagesSentCounter.reset();
-        bytesSentCounter.reset();
-        messagesReceivedCounter.reset();
-        bytesReceivedCounter.reset();
+            closeTransactionBatchers();
 
-        try {
-            Thread.sleep(100);
+            if (!producers.isEmpty()) {
+                Timer timer = new Timer();
+                forEachClient("close", producers, LocalWorker::closeClient, null);
+                log.info("Closed {} producers in {} ms", producers.size(), timer.elapsedMillis());
+                producers.clear();
+                producersByTopic.clear();
+            }
 
-            for (BenchmarkProducer producer : producers) {
-                producer.close();
+            if (!consumers.isEmpty()) {
+                Timer timer = new Timer();
+                forEachClient("close", consumers, LocalWorker::closeClient, null);
+                log.info("Closed {} consumers in {} ms", consumers.size(), timer.elapsedMillis());
+                consumers.clear();
+                consumerSubscriptions.clear();
             }
-            producers.clear();
 
-            for (BenchmarkConsumer consumer : consumers) {
-                consumer.close();
+            replyTopic = null;
+            if (replyConsumer != null) {
+                replyConsumer.close();
+                replyConsumer = null;
+            }
+            if (replyProducer != null) {
+                replyProducer.close();
+                replyProducer = null;
             }
-            consumers.clear();
 
             if (benchmarkDriver != null) {
                 benchmarkDriver.close();
@@ -505,14 +1307,63 @@ public class LocalWorker implements Worker, ConsumerCallback {
             }
         } catch (Exception e) {
             throw new RuntimeException(e);
+        } finally {
+            clearStats();
         }
     }
 
+    /**
+     * Drop the stats of the test, once its clients are closed: the last transactions commit and the last messages
+     * are acknowledged while closing them, and would otherwise be recorded into the next test
+     */
+    private void clearStats() {
+        publishLatencyRecorder.reset();
+        cumulativePublishLatencyRecorder.reset();
+        publishDelayLatencyRecorder.reset();
+        cumulativePublishDelayLatencyRecorder.reset();
+        endToEndLatencyRecorder.reset();
+        endToEndCumulativeLatencyRecorder.reset();
+        roundTripLatencyRecorder.reset();
+        cumulativeRoundTripLatencyRecorder.reset();
+        onDemandPublishLatencyRecorder.reset();
+        publishLatencyBySizeRecorders.clear();
+        endToEndLatencyBySizeRecorders.clear();
+
+        messagesSentCounter.reset();
+        bytesSentCounter.reset();
+        messagesReceivedCounter.reset();
+        bytesReceivedCounter.reset();
+        partitionReceivedCounters.clear();
+        subscriptionReceivedCounters.clear();
+        repliesReceived.reset();
+        producerChurn.clear();
+        transactionRecorder.clear();
+        adminOperations.clear();
+        trafficGroupRecorders.clear();
+        groupRateLimiters.clear();
+        clientSetupRecorders.clear();
+    }
+
+    @Override
+    public void stopLoad() {
+        loadGeneration++;
+        producersArePaused = false;
+
+        awaitLoadTasks();
+        // Commit the last transactions for the consumers to catch up with them
+        closeTransactionBatchers();
+    }
+
     @Override
     public void close() throws Exception {
         executor.shutdown();
+        clientSetupExecutor.shutdown();
+        transactionCommitTimer.shutdown();
     }
 
+    // Lower precision than the main recorders, there can be a couple dozen of buckets per worker
+    private static final int SIZE_BUCKET_SIGNIFICANT_DIGITS = 3;
+
     private static final ObjectWriter writer = new ObjectMapper().writerWithDefaultPrettyPrinter();
 
     private static final ObjectMapper mapper = new ObjectMapper(new YAMLFactory())
@@ -522,6 +1373,10 @@ public class LocalWorker implements Worker, ConsumerCallback {
         mapper.enable(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_USING_DEFAULT_VALUE);
     }
 
+    private static final long CLIENT_SETUP_MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private static final long LOAD_TASK_STOP_TIMEOUT_SECONDS = 30;
+
     private static final Logger log = LoggerFactory.getLogger(LocalWorker.class);
 
     @Override
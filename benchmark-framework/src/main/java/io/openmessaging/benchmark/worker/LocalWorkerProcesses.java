@@ -0,0 +1,185 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Forks {@link BenchmarkWorker} JVMs on the local host, to be driven through a {@link DistributedWorkersEnsemble}. This
+ * allows to scale the load generated from a single large host beyond what a single JVM can do.
+ * <p>
+ * Each worker can be pinned to a CPU set, with <code>taskset</code>, or to a NUMA node, with <code>numactl</code>.
+ */
+public class LocalWorkerProcesses implements AutoCloseable {
+    private static final long STARTUP_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(60);
+    private static final long SHUTDOWN_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(10);
+
+    private final List<Process> processes = new ArrayList<>();
+    private final List<String> workers = new ArrayList<>();
+    private final Set<Integer> usedPorts = new HashSet<>();
+    private final Thread shutdownHook = new Thread(this::destroyProcesses, "local-workers-shutdown-thread");
+
+    /**
+     * @param numberOfWorkers
+     *            number of worker JVMs to start
+     * @param cpuSets
+     *            CPU sets, in <code>taskset</code> format, assigned round-robin to the workers, or empty
+     * @param numa
+     *            bind each worker to a NUMA node, assigned round-robin
+     * @param jvmOptions
+     *            options of the worker JVMs
+     */
+    public LocalWorkerProcesses(int numberOfWorkers, List<String> cpuSets, boolean numa, String jvmOptions)
+            throws IOException {
+        Preconditions.checkArgument(numberOfWorkers > 1, "At least 2 local workers are required");
+        Preconditions.checkArgument(cpuSets.isEmpty() || !numa, "Workers are pinned either to CPU sets or NUMA nodes");
+
+        int numaNodes = numa ? numaNodes() : 0;
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+
+        try {
+            for (int i = 0; i < numberOfWorkers; i++) {
+                List<String> command = new ArrayList<>();
+                if (!cpuSets.isEmpty()) {
+                    command.addAll(Arrays.asList("taskset", "-c", cpuSets.get(i % cpuSets.size())));
+                } else if (numa) {
+                    int node = i % numaNodes;
+                    command.addAll(Arrays.asList("numactl", "--cpunodebind=" + node, "--membind=" + node));
+                }
+
+                String pinning = command.isEmpty() ? "not pinned" : String.join(" ", command);
+                int httpPort = freePort();
+                int statsPort = freePort();
+                command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+                if (jvmOptions != null && !jvmOptions.trim().isEmpty()) {
+                    command.addAll(Arrays.asList(jvmOptions.trim().split("\\s+")));
+                }
+                command.addAll(Arrays.asList("-cp", System.getProperty("java.class.path"),
+                        BenchmarkWorker.class.getName(), "-p", Integer.toString(httpPort), "-sp",
+                        Integer.toString(statsPort)));
+
+                File logFile = new File(String.format("local-worker-%d.log", i));
+                log.info("Starting local worker {} on port {} ({}), logging to {}", i, httpPort, pinning, logFile);
+                processes.add(new ProcessBuilder(command)
+                        .redirectErrorStream(true)
+                        .redirectOutput(logFile)
+                        .start());
+                workers.add("http://localhost:" + httpPort);
+            }
+
+            for (int i = 0; i < numberOfWorkers; i++) {
+                waitForWorker(i);
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+
+        log.info("Started {} local workers: {}", numberOfWorkers, workers);
+    }
+
+    public List<String> getWorkers() {
+        return Collections.unmodifiableList(workers);
+    }
+
+    private void waitForWorker(int i) throws IOException {
+        int port = Integer.parseInt(workers.get(i).substring(workers.get(i).lastIndexOf(':') + 1));
+        long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MS;
+        while (true) {
+            if (!processes.get(i).isAlive()) {
+                throw new IOException(String.format("Local worker %d exited with code %d, see local-worker-%d.log", i,
+                        processes.get(i).exitValue(), i));
+            }
+
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress("localhost", port), 1000);
+                return;
+            } catch (IOException e) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw new IOException(String.format("Local worker %d did not start listening on port %d", i, port));
+                }
+            }
+
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+    }
+
+    private int freePort() throws IOException {
+        while (true) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                if (usedPorts.add(socket.getLocalPort())) {
+                    return socket.getLocalPort();
+                }
+            }
+        }
+    }
+
+    private static int numaNodes() {
+        File[] nodes = new File("/sys/devices/system/node").listFiles((dir, name) -> name.matches("node\\d+"));
+        return nodes == null || nodes.length == 0 ? 1 : nodes.length;
+    }
+
+    private void destroyProcesses() {
+        processes.forEach(Process::destroy);
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        log.info("Stopping {} local workers", processes.size());
+        destroyProcesses();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // Already shutting down
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(LocalWorkerProcesses.class);
+}
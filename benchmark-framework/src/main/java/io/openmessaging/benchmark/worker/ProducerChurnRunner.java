@@ -0,0 +1,194 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker;
+
+import static io.openmessaging.benchmark.utils.UniformRateLimiter.uninterruptibleSleepNs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.openmessaging.benchmark.driver.BenchmarkDriver;
+import io.openmessaging.benchmark.driver.BenchmarkProducer;
+import io.openmessaging.benchmark.utils.UniformRateLimiter;
+import io.openmessaging.benchmark.worker.LocalWorker.StatCounter;
+import io.openmessaging.benchmark.worker.commands.PeriodStats;
+import io.openmessaging.benchmark.worker.commands.ProducerWorkAssignment;
+
+/**
+ * Short-lived producers of the producer churn, with the time to create them, send their first message and close
+ * them, keyed by operation. Their messages are accounted with the messages of the long-lived producers.
+ */
+final class ProducerChurnRunner {
+    private final ExecutorService executor;
+    private final StatCounter messagesSentCounter;
+    private final StatCounter bytesSentCounter;
+    private final StatCounter publishErrorCounter;
+
+    private final LongAdder producersCreated = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LatencyRecorders<String> recorders;
+
+    ProducerChurnRunner(ExecutorService executor, StatCounter messagesSentCounter, StatCounter bytesSentCounter,
+            StatCounter publishErrorCounter, long highestTrackableLatencyMicros) {
+        this.executor = executor;
+        this.messagesSentCounter = messagesSentCounter;
+        this.bytesSentCounter = bytesSentCounter;
+        this.publishErrorCounter = publishErrorCounter;
+        this.recorders = new LatencyRecorders<>(highestTrackableLatencyMicros, 5);
+    }
+
+    /**
+     * Create short-lived producers at the churn rate, in turn on each of the topics. Each of them runs on its own
+     * thread, as creating or closing a producer blocks with some drivers, and the number alive at once is bounded: a
+     * driver slow to create or close them lowers the creation rate rather than piling up threads.
+     *
+     * @param running
+     *            whether the load is still running, checked before each new producer and each message
+     * @param paused
+     *            whether the producers are paused, in which case no new producer is created
+     */
+    void start(BenchmarkDriver driver, List<String> topics, ProducerWorkAssignment producerWorkAssignment,
+            BooleanSupplier running, BooleanSupplier paused) {
+        List<byte[]> payloads = producerWorkAssignment.payloadData;
+        int messages = producerWorkAssignment.messagesPerChurnProducer;
+        UniformRateLimiter churnRateLimiter = new UniformRateLimiter(producerWorkAssignment.producerChurnRate);
+        Semaphore alive = new Semaphore(producerWorkAssignment.maxConcurrentChurnProducers);
+
+        log.info("Start producer churn on {} topics -- {} producers/s sending {} messages each", topics.size(),
+                producerWorkAssignment.producerChurnRate, messages);
+        executor.submit(() -> {
+            try {
+                for (long i = 0; running.getAsBoolean(); i++) {
+                    while (paused.getAsBoolean()) {
+                        Thread.sleep(1000);
+                    }
+
+                    uninterruptibleSleepNs(churnRateLimiter.acquire());
+                    alive.acquire();
+                    String topic = topics.get((int) (i % topics.size()));
+                    executor.submit(() -> {
+                        try {
+                            runChurnProducer(driver, topic, payloads, messages, running);
+                        } finally {
+                            alive.release();
+                        }
+                    });
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable t) {
+                log.error("Got error", t);
+            }
+        });
+    }
+
+    /**
+     * Create a producer, wait for its first message to be acknowledged, send the others and close it once they are
+     * all acknowledged
+     */
+    private void runChurnProducer(BenchmarkDriver driver, String topic, List<byte[]> payloads, int messages,
+            BooleanSupplier running) {
+        long createStart = System.nanoTime();
+        BenchmarkProducer producer;
+        try {
+            producer = driver.createProducer(topic).get();
+        } catch (Exception e) {
+            log.warn("Failed to create a short-lived producer on {}", topic, e);
+            errors.increment();
+            return;
+        }
+        recorders.recordSince("create", createStart);
+        producersCreated.increment();
+
+        try {
+            ThreadLocalRandom r = ThreadLocalRandom.current();
+            List<CompletableFuture<Void>> sends = new ArrayList<>(messages);
+            for (int i = 0; i < messages && running.getAsBoolean(); i++) {
+                byte[] payloadData = payloads.isEmpty() ? new byte[0] : payloads.get(r.nextInt(payloads.size()));
+                long sendStart = System.nanoTime();
+                CompletableFuture<Void> send = producer.sendAsync(Optional.empty(), payloadData).thenRun(() -> {
+                    messagesSentCounter.accumulate(1);
+                    bytesSentCounter.accumulate(payloadData.length);
+                });
+                if (i == 0) {
+                    send.get();
+                    recorders.recordSince("first send", sendStart);
+                }
+                sends.add(send);
+            }
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Write error on message", e);
+            publishErrorCounter.accumulate(1);
+        } finally {
+            long closeStart = System.nanoTime();
+            try {
+                producer.close();
+                recorders.recordSince("close", closeStart);
+            } catch (Exception e) {
+                log.warn("Failed to close a short-lived producer on {}", topic, e);
+                errors.increment();
+            }
+        }
+    }
+
+    /**
+     * Move the producers created since the previous period to the stats
+     */
+    void collectPeriodStats(PeriodStats stats) {
+        stats.churnProducersCreated = producersCreated.sumThenReset();
+        stats.producerChurnErrors = errors.sumThenReset();
+    }
+
+    /**
+     * The latencies recorded since the previous call, by operation
+     */
+    Map<String, Histogram> getIntervalHistograms() {
+        return recorders.getIntervalHistograms();
+    }
+
+    /**
+     * Reset the latencies in place, for the short-lived producers alive that keep recording into them
+     */
+    void resetLatencies() {
+        recorders.reset();
+    }
+
+    void clear() {
+        producersCreated.reset();
+        errors.reset();
+        recorders.clear();
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(ProducerChurnRunner.class);
+}
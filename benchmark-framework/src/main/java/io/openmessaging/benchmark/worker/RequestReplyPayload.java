@@ -0,0 +1,77 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Header of the requests of a request/reply benchmark, written over the start of the payload: the send time on the
+ * requester monotonic clock, then the reply topic. A payload at least as large as the header keeps its size, a
+ * smaller one grows to the size of the header, 10 bytes plus the reply topic name. The replies echo the requests, so
+ * the requester reads its send time back from them.
+ */
+final class RequestReplyPayload {
+
+    private static final int SEND_TIME_SIZE = Long.BYTES;
+    private static final int HEADER_SIZE = SEND_TIME_SIZE + Short.BYTES;
+
+    private RequestReplyPayload() {
+    }
+
+    static byte[] encodeTopic(String replyTopic) {
+        byte[] topic = replyTopic.getBytes(StandardCharsets.UTF_8);
+        if (topic.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Reply topic name too long: " + replyTopic);
+        }
+        return topic;
+    }
+
+    /**
+     * Copy of the payload with the request header, grown if the payload is smaller than the header
+     */
+    static byte[] request(byte[] payload, long sendTimeNanos, byte[] replyTopic) {
+        byte[] request = new byte[Math.max(payload.length, HEADER_SIZE + replyTopic.length)];
+        System.arraycopy(payload, 0, request, 0, payload.length);
+        ByteBuffer.wrap(request).putLong(sendTimeNanos).putShort((short) replyTopic.length).put(replyTopic);
+        return request;
+    }
+
+    /**
+     * Reply topic of a request, or null for messages without a request header such as the readiness probes
+     */
+    static String replyTopic(byte[] request) {
+        if (request.length < HEADER_SIZE) {
+            return null;
+        }
+
+        int length = ByteBuffer.wrap(request).getShort(SEND_TIME_SIZE);
+        if (length <= 0 || request.length < HEADER_SIZE + length) {
+            return null;
+        }
+        return new String(request, HEADER_SIZE, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Send time of the request echoed by a reply, or -1 if the reply is too short to hold it
+     */
+    static long sendTimeNanos(ByteBuffer reply) {
+        return reply.remaining() < HEADER_SIZE ? -1 : reply.getLong(reply.position());
+    }
+}
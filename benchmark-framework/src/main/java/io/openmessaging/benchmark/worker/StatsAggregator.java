@@ -0,0 +1,321 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker;
+
+import static java.util.stream.Collectors.toList;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Lists;
+
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.openmessaging.benchmark.driver.MetricsEnabled;
+import io.openmessaging.benchmark.worker.commands.CountersStats;
+import io.openmessaging.benchmark.worker.commands.CumulativeLatencies;
+import io.openmessaging.benchmark.worker.commands.PeriodStats;
+import io.openmessaging.benchmark.worker.commands.StatsAggregationRequest;
+import io.openmessaging.benchmark.worker.commands.TrafficGroupStats;
+
+/**
+ * Collects and merges the stats of a list of workers.
+ * <p>
+ * With a fanout, the workers are arranged in a tree: only <code>fanout</code> workers are queried, and each of them
+ * acts as an aggregator that merges its own stats with the ones of its subtree before forwarding them. The number of
+ * results to decode and merge at each level is bounded by the fanout, so the cost on the coordinator grows
+ * logarithmically with the number of workers. A fanout of 0 queries all the workers directly.
+ * <p>
+ * Each level of the tree answers within a shorter deadline than the level above, so that a worker that does not
+ * answer in time is reported by its aggregator, rather than the whole subtree by the coordinator.
+ * <p>
+ * Merged stats carry the sum of the workers elapsed times, the caller is expected to divide it by the total number of
+ * workers.
+ */
+public class StatsAggregator {
+    private final WorkerClient workerClient;
+    private final int fanout;
+
+    public StatsAggregator(WorkerClient workerClient, int fanout) {
+        this.workerClient = workerClient;
+        this.fanout = fanout;
+    }
+
+    public PeriodStats collectPeriodStats(List<String> workers) {
+        PeriodStats stats = new PeriodStats();
+        collect(workers, WorkerCommand.PERIOD_STATS, WorkerCommand.AGGREGATE_PERIOD_STATS,
+                WorkerCommand.AGGREGATE_PERIOD_STATS.timeoutMillis(), PeriodStats.class, StatsAggregator::decode)
+                .join()
+                .forEach((worker, s) -> add(stats, worker, s));
+        return stats;
+    }
+
+    public CumulativeLatencies collectCumulativeLatencies(List<String> workers) {
+        CumulativeLatencies stats = new CumulativeLatencies();
+        collect(workers, WorkerCommand.CUMULATIVE_LATENCIES, WorkerCommand.AGGREGATE_CUMULATIVE_LATENCIES,
+                WorkerCommand.AGGREGATE_CUMULATIVE_LATENCIES.timeoutMillis(), CumulativeLatencies.class,
+                StatsAggregator::decode).join()
+                .values().forEach(s -> add(stats, s));
+        return stats;
+    }
+
+    public CountersStats collectCountersStats(List<String> workers) {
+        return merge(collect(workers, WorkerCommand.COUNTERS_STATS, WorkerCommand.AGGREGATE_COUNTERS_STATS,
+                WorkerCommand.AGGREGATE_COUNTERS_STATS.timeoutMillis(), CountersStats.class, s -> {
+                }).join().values());
+    }
+
+    /**
+     * Query the stats of the workers, through aggregators when there are more workers than the fanout. The results are
+     * keyed by the worker, or aggregator, that returned them.
+     *
+     * @param timeoutMillis
+     *            time within which the results are needed, after which the workers that did not answer yet are
+     *            reported. 0 to only rely on the deadlines of the commands.
+     */
+    <T> CompletableFuture<Map<String, T>> collect(List<String> workers, WorkerCommand command,
+            WorkerCommand aggregateCommand, long timeoutMillis, Class<T> clazz, Consumer<T> decoder) {
+        // The aggregators keep the rest of the time to merge and forward the stats of their subtree
+        long subtreeTimeoutMillis = timeoutMillis * SUBTREE_TIMEOUT_PERCENT / 100;
+        List<String> hosts;
+        List<CompletableFuture<T>> futures;
+        if (fanout <= 0 || workers.size() <= fanout) {
+            hosts = workers;
+            futures = workers.stream().map(w -> workerClient.send(w, command, null, clazz)).collect(toList());
+        } else {
+            List<List<String>> subtrees = Lists.partition(workers, (workers.size() + fanout - 1) / fanout);
+            hosts = subtrees.stream().map(subtree -> subtree.get(0)).collect(toList());
+            futures = subtrees.stream().map(subtree -> {
+                if (subtree.size() == 1) {
+                    return workerClient.send(subtree.get(0), command, null, clazz);
+                }
+                StatsAggregationRequest request = new StatsAggregationRequest(subtree.get(0),
+                        Lists.newArrayList(subtree.subList(1, subtree.size())), fanout, subtreeTimeoutMillis);
+                return workerClient.send(subtree.get(0), aggregateCommand, request, clazz);
+            }).collect(toList());
+        }
+
+        if (timeoutMillis > 0) {
+            for (int i = 0; i < futures.size(); i++) {
+                futures.set(i, withTimeout(futures.get(i), hosts.get(i), command, timeoutMillis));
+            }
+        }
+
+        // Decode the histograms as the responses arrive rather than serially once all of them are there
+        List<CompletableFuture<T>> decoded = futures.stream().map(f -> f.thenApply(s -> {
+            decoder.accept(s);
+            return s;
+        })).collect(toList());
+
+        return FutureUtil.waitForAll(decoded).thenApply(__ -> {
+            Map<String, T> results = new LinkedHashMap<>();
+            for (int i = 0; i < hosts.size(); i++) {
+                results.put(hosts.get(i), decoded.get(i).join());
+            }
+            return results;
+        });
+    }
+
+    /**
+     * Fail with the worker that did not answer in time, when the deadline of the command is longer
+     */
+    private static <T> CompletableFuture<T> withTimeout(CompletableFuture<T> future, String worker,
+            WorkerCommand command, long timeoutMillis) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        ScheduledFuture<?> timeout = timer.schedule(() -> result.completeExceptionally(new TimeoutException(
+                String.format("%s did not answer %s within %d ms", worker, command, timeoutMillis))),
+                timeoutMillis, TimeUnit.MILLISECONDS);
+        future.whenComplete((value, e) -> {
+            timeout.cancel(false);
+            if (e != null) {
+                result.completeExceptionally(e);
+            } else {
+                result.complete(value);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Add the stats of a worker, or of a subtree, to the target. Stats of a single worker never carry per-worker
+     * publish rates, so the rate of the worker is derived from its counters.
+     */
+    static void add(PeriodStats target, String worker, PeriodStats source) {
+        target.messagesSent += source.messagesSent;
+        target.bytesSent += source.bytesSent;
+        target.messagesReceived += source.messagesReceived;
+        target.bytesReceived += source.bytesReceived;
+        target.catchUpMessagesReceived += source.catchUpMessagesReceived;
+        target.catchUpBytesReceived += source.catchUpBytesReceived;
+        target.repliesReceived += source.repliesReceived;
+        target.churnProducersCreated += source.churnProducersCreated;
+        target.producerChurnErrors += source.producerChurnErrors;
+        target.adminOperationErrors += source.adminOperationErrors;
+        target.transactionsCommitted += source.transactionsCommitted;
+        target.transactionMessagesCommitted += source.transactionMessagesCommitted;
+        target.transactionErrors += source.transactionErrors;
+        target.totalMessagesSent += source.totalMessagesSent;
+        target.totalMessagesReceived += source.totalMessagesReceived;
+        target.elapsedMillis += source.elapsedMillis;
+        target.consumerErrors += source.consumerErrors;
+        target.publishErrors += source.publishErrors;
+
+        source.messagesReceivedByPartition.forEach((topic, partitions) -> {
+            Map<Integer, Long> merged = target.messagesReceivedByPartition.computeIfAbsent(topic,
+                    t -> new TreeMap<>());
+            partitions.forEach((partition, count) -> merged.merge(partition, count, Long::sum));
+        });
+
+        source.adminOperations.forEach((operation, count) -> target.adminOperations.merge(operation, count, Long::sum));
+
+        source.trafficByGroup.forEach((group, traffic) -> target.trafficByGroup
+                .computeIfAbsent(group, g -> new TrafficGroupStats()).add(traffic));
+
+        if (!source.publishRateByWorker.isEmpty()) {
+            target.publishRateByWorker.putAll(source.publishRateByWorker);
+        } else if (source.elapsedMillis > 0) {
+            target.publishRateByWorker.put(worker, source.messagesSent / (source.elapsedMillis / 1000));
+        }
+
+        target.publishLatency.add(source.publishLatency);
+        target.publishDelayLatency.add(source.publishDelayLatency);
+        target.endToEndLatency.add(source.endToEndLatency);
+        target.roundTripLatency.add(source.roundTripLatency);
+    }
+
+    static void add(CumulativeLatencies target, CumulativeLatencies source) {
+        target.publishLatency.add(source.publishLatency);
+        target.publishDelayLatency.add(source.publishDelayLatency);
+        target.endToEndLatency.add(source.endToEndLatency);
+        target.roundTripLatency.add(source.roundTripLatency);
+        addAll(target.publishLatencyBySize, source.publishLatencyBySize);
+        addAll(target.endToEndLatencyBySize, source.endToEndLatencyBySize);
+        addAll(target.publishLatencyByGroup, source.publishLatencyByGroup);
+        addAll(target.endToEndLatencyByGroup, source.endToEndLatencyByGroup);
+        addAll(target.clientSetupLatency, source.clientSetupLatency);
+        addAll(target.producerChurnLatency, source.producerChurnLatency);
+        addAll(target.adminOperationLatency, source.adminOperationLatency);
+        addAll(target.transactionLatency, source.transactionLatency);
+    }
+
+    private static <K> void addAll(Map<K, Histogram> target, Map<K, Histogram> source) {
+        source.forEach((key, histogram) -> target.merge(key, histogram.copy(), (h1, h2) -> {
+            h1.add(h2);
+            return h1;
+        }));
+    }
+
+    static CountersStats merge(Collection<CountersStats> individualStats) {
+        CountersStats stats = new CountersStats();
+        individualStats.forEach(is -> {
+            stats.messagesSent += is.messagesSent;
+            stats.messagesReceived += is.messagesReceived;
+            stats.bytesSent += is.bytesSent;
+            stats.bytesReceived += is.bytesReceived;
+            stats.elapsedMillis += is.elapsedMillis;
+            stats.consumerErrors += is.consumerErrors;
+            stats.publishErrors += is.publishErrors;
+            stats.producers += is.producers;
+            stats.consumers += is.consumers;
+            is.messagesReceivedBySubscription.forEach((subscription, count) ->
+                    stats.messagesReceivedBySubscription.merge(subscription, count, Long::sum));
+        });
+
+        LocalWorker.processMetrics(stats, individualStats.stream().map(s -> new MetricsEnabled() {
+            @Override
+            public void supplyMetrics(BiConsumer<String, Metric> consumer) {
+                s.additionalMetrics.forEach((k, v) -> consumer.accept(k, v));
+            }
+        }));
+
+        return stats;
+    }
+
+    static void decode(PeriodStats stats) {
+        stats.publishLatency = decode(stats.publishLatencyBytes, TimeUnit.SECONDS.toMicros(60), "publish latency");
+        stats.publishDelayLatency = decode(stats.publishDelayLatencyBytes, TimeUnit.SECONDS.toMicros(60),
+                "publish delay latency");
+        stats.endToEndLatency = decode(stats.endToEndLatencyBytes, TimeUnit.HOURS.toMicros(12),
+                "end-to-end latency");
+        stats.roundTripLatency = decode(stats.roundTripLatencyBytes, TimeUnit.HOURS.toMicros(1),
+                "round trip latency");
+    }
+
+    static void decode(CumulativeLatencies stats) {
+        stats.publishLatency = decode(stats.publishLatencyBytes, TimeUnit.SECONDS.toMicros(60), "publish latency");
+        stats.publishDelayLatency = decode(stats.publishDelayLatencyBytes, TimeUnit.SECONDS.toMicros(60),
+                "publish delay latency");
+        stats.endToEndLatency = decode(stats.endToEndLatencyBytes, TimeUnit.HOURS.toMicros(12),
+                "end-to-end latency");
+        stats.roundTripLatency = decode(stats.roundTripLatencyBytes, TimeUnit.HOURS.toMicros(1),
+                "round trip latency");
+        decode(stats.publishLatencyBySizeBytes, stats.publishLatencyBySize, TimeUnit.HOURS.toMicros(1));
+        decode(stats.endToEndLatencyBySizeBytes, stats.endToEndLatencyBySize, TimeUnit.HOURS.toMicros(12));
+        decode(stats.publishLatencyByGroupBytes, stats.publishLatencyByGroup, TimeUnit.HOURS.toMicros(1));
+        decode(stats.endToEndLatencyByGroupBytes, stats.endToEndLatencyByGroup, TimeUnit.HOURS.toMicros(12));
+        decode(stats.clientSetupLatencyBytes, stats.clientSetupLatency, TimeUnit.MINUTES.toMicros(10));
+        decode(stats.producerChurnLatencyBytes, stats.producerChurnLatency, TimeUnit.MINUTES.toMicros(10));
+        decode(stats.adminOperationLatencyBytes, stats.adminOperationLatency, TimeUnit.MINUTES.toMicros(10));
+        decode(stats.transactionLatencyBytes, stats.transactionLatency, TimeUnit.MINUTES.toMicros(10));
+    }
+
+    private static Histogram decode(byte[] bytes, long highestTrackableValue, String name) {
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(bytes), highestTrackableValue);
+        } catch (Exception e) {
+            log.error("Failed to decode {}: {}", name, ByteBufUtil.prettyHexDump(Unpooled.wrappedBuffer(bytes)));
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static <K> void decode(Map<K, byte[]> encoded, Map<K, Histogram> target,
+            long highestTrackableValue) {
+        if (encoded == null) {
+            return;
+        }
+
+        encoded.forEach((key, bytes) -> target.put(key,
+                decode(bytes, highestTrackableValue, "latency for " + key)));
+    }
+
+    // Share of its own time that each level gives to the level below
+    private static final long SUBTREE_TIMEOUT_PERCENT = 75;
+
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            new DefaultThreadFactory("stats-aggregator-timeout", true));
+
+    private static final Logger log = LoggerFactory.getLogger(StatsAggregator.class);
+}
@@ -0,0 +1,165 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.openmessaging.benchmark.driver.BenchmarkProducer;
+import io.openmessaging.benchmark.driver.BenchmarkTransaction;
+import io.openmessaging.benchmark.driver.BenchmarkTransactionalProducer;
+
+/**
+ * Producer publishing its messages in the transactions of a transactional producer. A transaction begins with the
+ * first message after the previous one was committed, and is committed after messagesPerTransaction messages or
+ * commitInterval after its first message, whichever comes first. The next transaction does not wait for the commit:
+ * the driver runs it on another session of its pool.
+ */
+final class TransactionBatcher implements BenchmarkProducer {
+
+    interface Listener {
+        /**
+         * A transaction was committed, or failed to commit when error is not null. The times are on the
+         * {@link System#nanoTime()} clock.
+         */
+        void transactionCompleted(long firstMessageTime, long commitStartTime, int messages, Throwable error);
+    }
+
+    private final BenchmarkTransactionalProducer producer;
+    private final int messagesPerTransaction;
+    private final long commitIntervalNanos;
+    private final ScheduledExecutorService commitTimer;
+    private final Listener listener;
+
+    // Open transaction, null until the next message. Each message is sent once the previous one was, so that the
+    // commit chained after the last message follows all of them even while the transaction waits to begin.
+    private CompletableFuture<BenchmarkTransaction> transaction;
+    private CompletableFuture<BenchmarkTransaction> began;
+    private long firstMessageTime;
+    private int messages;
+    private ScheduledFuture<?> timedCommit;
+    private boolean closed;
+
+    private final Set<CompletableFuture<Void>> pendingCommits = ConcurrentHashMap.newKeySet();
+
+    TransactionBatcher(BenchmarkTransactionalProducer producer, int messagesPerTransaction, long commitIntervalMillis,
+            ScheduledExecutorService commitTimer, Listener listener) {
+        this.producer = producer;
+        this.messagesPerTransaction = messagesPerTransaction;
+        this.commitIntervalNanos = TimeUnit.MILLISECONDS.toNanos(commitIntervalMillis);
+        this.commitTimer = commitTimer;
+        this.listener = listener;
+    }
+
+    /**
+     * Does not wait for the transaction to begin when all the sessions of the pool are busy: the message is sent once
+     * the transaction began.
+     */
+    @Override
+    public synchronized CompletableFuture<Void> sendAsync(Optional<String> key, byte[] payload) {
+        if (closed) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            future.completeExceptionally(new IllegalStateException("Transactional producer closed"));
+            return future;
+        }
+
+        if (transaction == null) {
+            began = producer.beginTransaction();
+            transaction = began;
+            firstMessageTime = System.nanoTime();
+            messages = 0;
+            if (commitIntervalNanos > 0) {
+                CompletableFuture<BenchmarkTransaction> opened = began;
+                timedCommit = commitTimer.schedule(() -> commitIfOpen(opened), commitIntervalNanos,
+                        TimeUnit.NANOSECONDS);
+            }
+        }
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        transaction = transaction.thenApply(opened -> {
+            opened.sendAsync(key, payload).whenComplete((v, t) -> {
+                if (t != null) {
+                    future.completeExceptionally(t);
+                } else {
+                    future.complete(v);
+                }
+            });
+            return opened;
+        });
+        transaction.whenComplete((opened, t) -> {
+            if (t != null) {
+                future.completeExceptionally(t instanceof CompletionException ? t.getCause() : t);
+            }
+        });
+
+        if (++messages == messagesPerTransaction) {
+            commit();
+        }
+        return future;
+    }
+
+    private synchronized void commitIfOpen(CompletableFuture<BenchmarkTransaction> opened) {
+        if (transaction != null && began == opened) {
+            commit();
+        }
+    }
+
+    private void commit() {
+        CompletableFuture<BenchmarkTransaction> committed = transaction;
+        long first = firstMessageTime;
+        int count = messages;
+        transaction = null;
+        began = null;
+        if (timedCommit != null) {
+            timedCommit.cancel(false);
+            timedCommit = null;
+        }
+
+        long[] commitStart = { System.nanoTime() };
+        CompletableFuture<Void> commit = committed.thenCompose(opened -> {
+            commitStart[0] = System.nanoTime();
+            return opened.commit();
+        }).whenComplete((v, t) -> listener.transactionCompleted(first, commitStart[0], count,
+                t instanceof CompletionException ? t.getCause() : t));
+        pendingCommits.add(commit);
+        commit.whenComplete((v, t) -> pendingCommits.remove(commit));
+    }
+
+    /**
+     * Commit the open transaction so that its messages reach the consumers, wait for the commits in progress and
+     * close the transactional producer
+     */
+    @Override
+    public void close() throws Exception {
+        synchronized (this) {
+            closed = true;
+            if (transaction != null) {
+                commit();
+            }
+        }
+        CompletableFuture.allOf(pendingCommits.toArray(new CompletableFuture[0])).handle((v, t) -> null).join();
+        producer.close();
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.openmessaging.benchmark.worker.commands.PeriodStats;
+
+/**
+ * Transactions committed by the transaction batchers of a worker, with the time to commit them and from their first
+ * message to their commit, keyed by measure
+ */
+final class TransactionRecorder implements TransactionBatcher.Listener {
+    // Covers the commit interval of a transaction, from its first message, on top of the commit itself
+    private static final long TRANSACTION_MAX_LATENCY_MICROS = TimeUnit.HOURS.toMicros(1);
+
+    private final LongAdder transactionsCommitted = new LongAdder();
+    private final LongAdder messagesCommitted = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LatencyRecorders<String> recorders = new LatencyRecorders<>(TRANSACTION_MAX_LATENCY_MICROS, 5);
+
+    @Override
+    public void transactionCompleted(long firstMessageTime, long commitStartTime, int messages, Throwable error) {
+        if (error != null) {
+            log.warn("Failed to commit a transaction of {} messages", messages, error);
+            errors.increment();
+            return;
+        }
+
+        transactionsCommitted.increment();
+        messagesCommitted.add(messages);
+        recorders.recordSince("commit", commitStartTime);
+        recorders.recordSince("first message to commit", firstMessageTime);
+    }
+
+    /**
+     * Move the transactions completed since the previous period to the stats
+     */
+    void collectPeriodStats(PeriodStats stats) {
+        stats.transactionsCommitted = transactionsCommitted.sumThenReset();
+        stats.transactionMessagesCommitted = messagesCommitted.sumThenReset();
+        stats.transactionErrors = errors.sumThenReset();
+    }
+
+    /**
+     * The latencies recorded since the previous call, by measure
+     */
+    Map<String, Histogram> getIntervalHistograms() {
+        return recorders.getIntervalHistograms();
+    }
+
+    /**
+     * Reset the latencies in place, for the transactions in progress that keep recording into them
+     */
+    void resetLatencies() {
+        recorders.reset();
+    }
+
+    void clear() {
+        transactionsCommitted.reset();
+        messagesCommitted.reset();
+        errors.reset();
+        recorders.clear();
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionRecorder.class);
+}
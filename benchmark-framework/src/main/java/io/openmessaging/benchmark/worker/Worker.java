@@ -20,14 +20,22 @@ package io.openmessaging.benchmark.worker;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
+import org.HdrHistogram.Histogram;
+
+import io.openmessaging.benchmark.worker.commands.AdminOperationsAssignment;
+import io.openmessaging.benchmark.worker.commands.ClientSetup;
 import io.openmessaging.benchmark.worker.commands.ConsumerAssignment;
 import io.openmessaging.benchmark.worker.commands.CountersStats;
 import io.openmessaging.benchmark.worker.commands.CumulativeLatencies;
+import io.openmessaging.benchmark.worker.commands.PartitionAssignments;
 import io.openmessaging.benchmark.worker.commands.PeriodStats;
 import io.openmessaging.benchmark.worker.commands.ProducerWorkAssignment;
 import io.openmessaging.benchmark.worker.commands.Stats;
+import io.openmessaging.benchmark.worker.commands.TopicSubscription;
 import io.openmessaging.benchmark.worker.commands.TopicsInfo;
 
 public interface Worker extends AutoCloseable {
@@ -36,20 +44,62 @@ public interface Worker extends AutoCloseable {
 
     List<String> createTopics(TopicsInfo topicsInfo) throws IOException;
 
+    /**
+     * Set how the next producers and consumers are created, and how they are closed
+     */
+    void configureClientSetup(ClientSetup clientSetup) throws IOException;
+
     void createProducers(List<String> topics) throws IOException;
 
     void createConsumers(ConsumerAssignment consumerAssignment) throws IOException;
 
-    void probeProducers() throws IOException;
+    /**
+     * Close a consumer of each of the given topic subscriptions, the last one created first
+     *
+     * @return the topic subscriptions that had no consumer left to close on this worker
+     */
+    List<TopicSubscription> closeConsumers(List<TopicSubscription> topicsSubscriptions) throws IOException;
+
+    /**
+     * Get the number of partitions of existing topics
+     *
+     * @return the partitions of each topic, empty when the driver cannot tell
+     */
+    Map<String, Integer> getPartitions(List<String> topics) throws IOException;
+
+    /**
+     * Publish a probe message on each partition of the topics of the producers
+     *
+     * @param partitionsByTopic
+     *            number of partitions of each topic
+     */
+    void probeProducers(Map<String, Integer> partitionsByTopic) throws IOException;
+
+    /**
+     * Get the partitions currently assigned to the consumers
+     */
+    PartitionAssignments getPartitionAssignments() throws IOException;
 
     void startLoad(ProducerWorkAssignment producerWorkAssignment) throws IOException;
 
+    /**
+     * Create, subscribe and delete topics at the assigned rate until the load is stopped, timing each operation
+     */
+    void startAdminOperations(AdminOperationsAssignment assignment) throws IOException;
+
     void adjustPublishRate(double publishRate) throws IOException;
 
     void pauseConsumers() throws IOException;
 
     void resumeConsumers() throws IOException;
 
+    /**
+     * Hold the catch-up subscriptions while the others keep tailing the topics
+     */
+    void pauseCatchUpConsumers() throws IOException;
+
+    void resumeCatchUpConsumers() throws IOException;
+
     void pauseProducers() throws IOException;
 
     void resumeProducers() throws IOException;
@@ -64,5 +114,18 @@ public interface Worker extends AutoCloseable {
 
     void stopAll() throws IOException;
 
+    /**
+     * Stop publishing, keeping the driver, producers and consumers so that a next load can be started on them
+     */
+    void stopLoad() throws IOException;
+
     Stats getOnDemandStats();
+
+    /**
+     * Get the latency of the commands sent to remote workers since the previous call, in microseconds, keyed by
+     * command. Empty when the worker runs in process.
+     */
+    default Map<String, Histogram> getControlPlaneLatencies() {
+        return Collections.emptyMap();
+    }
 }
@@ -0,0 +1,182 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker;
+
+import static java.util.stream.Collectors.toList;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import io.openmessaging.benchmark.worker.rpc.RpcWorkerTransport;
+
+/**
+ * Sends commands to remote workers and records the control plane latency of each command.
+ * <p>
+ * Workers addressed as <code>rpc://host:port</code> are reached through the binary control plane, all the other
+ * addresses through the HTTP API.
+ */
+public class WorkerClient implements AutoCloseable {
+    private static final long HIGHEST_TRACKABLE_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final WorkerTransport httpTransport;
+
+    // Only created when a worker is addressed through the binary control plane
+    private RpcWorkerTransport rpcTransport;
+
+    private final Map<WorkerCommand, Recorder> latencies = new EnumMap<>(WorkerCommand.class);
+
+    public WorkerClient() {
+        this(new HttpWorkerTransport());
+    }
+
+    /**
+     * @param httpTransport
+     *            the transport of the workers that are not addressed through the binary control plane
+     */
+    WorkerClient(WorkerTransport httpTransport) {
+        this.httpTransport = httpTransport;
+        for (WorkerCommand command : WorkerCommand.values()) {
+            latencies.put(command, new Recorder(HIGHEST_TRACKABLE_LATENCY_MICROS, 5));
+        }
+    }
+
+    private CompletableFuture<byte[]> execute(String worker, WorkerCommand command, byte[] body) {
+        long start = System.nanoTime();
+        return transport(worker).send(worker, command, body).whenComplete((response, e) -> {
+            long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            latencies.get(command).recordValue(Math.min(latencyMicros, HIGHEST_TRACKABLE_LATENCY_MICROS));
+            if (e != null) {
+                log.error("Failed to send {} to {}: {}", command, worker, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Send a command and decode the JSON response
+     *
+     * @param request
+     *            the command arguments, serialized to JSON unless they are already bytes
+     */
+    public <T> CompletableFuture<T> send(String worker, WorkerCommand command, Object request, Class<T> clazz) {
+        byte[] body;
+        try {
+            body = toBytes(request);
+        } catch (IOException e) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+
+        return execute(worker, command, body).thenApply(response -> {
+            if (clazz == Void.class) {
+                return null;
+            }
+            try {
+                return mapper.readValue(response, clazz);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    public CompletableFuture<Void> send(String worker, WorkerCommand command, Object request) {
+        return send(worker, command, request, Void.class);
+    }
+
+    /**
+     * Send a command to multiple workers and wait for all the responses
+     */
+    public <T> List<T> sendAll(List<String> workers, WorkerCommand command, Object request, Class<T> clazz) {
+        List<CompletableFuture<T>> futures = workers.stream().map(w -> send(w, command, request, clazz))
+                .collect(toList());
+        FutureUtil.waitForAll(futures).join();
+        return futures.stream().map(CompletableFuture::join).collect(toList());
+    }
+
+    public void sendAll(List<String> workers, WorkerCommand command, Object request) {
+        sendAll(workers, command, request, Void.class);
+    }
+
+    /**
+     * Get the latency of the commands sent since the previous call, in microseconds, keyed by command
+     */
+    public Map<String, Histogram> getLatencies() {
+        Map<String, Histogram> result = new TreeMap<>();
+        latencies.forEach((command, recorder) -> {
+            Histogram histogram = recorder.getIntervalHistogram();
+            if (histogram.getTotalCount() > 0) {
+                result.put(command.name(), histogram);
+            }
+        });
+        return result;
+    }
+
+    private synchronized WorkerTransport transport(String worker) {
+        if (!worker.startsWith(RpcWorkerTransport.SCHEME + "://")) {
+            return httpTransport;
+        }
+        if (rpcTransport == null) {
+            rpcTransport = new RpcWorkerTransport();
+        }
+        return rpcTransport;
+    }
+
+    private static byte[] toBytes(Object request) throws IOException {
+        if (request == null) {
+            return new byte[0];
+        } else if (request instanceof byte[]) {
+            return (byte[]) request;
+        } else {
+            return writer.writeValueAsBytes(request);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws Exception {
+        httpTransport.close();
+        if (rpcTransport != null) {
+            rpcTransport.close();
+        }
+    }
+
+    private static final ObjectWriter writer = new ObjectMapper().writer();
+
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    static {
+        mapper.enable(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_USING_DEFAULT_VALUE);
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(WorkerClient.class);
+}
@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Commands that a coordinator can send to a worker, with their HTTP route and the deadline the coordinator waits for
+ * an answer over the RPC transport. Setup and teardown commands can take long with many topics, producers or
+ * consumers, while stats and rate commands are expected to answer quickly, so that a stuck worker is detected early.
+ * The HTTP transport keeps its single timeout for every command.
+ */
+public enum WorkerCommand {
+    INITIALIZE_DRIVER(1, "/initialize-driver", true, TimeUnit.MINUTES.toMillis(5)),
+    CREATE_TOPICS(2, "/create-topics", true, TimeUnit.MINUTES.toMillis(5)),
+    CREATE_PRODUCERS(3, "/create-producers", true, TimeUnit.MINUTES.toMillis(5)),
+    PROBE_PRODUCERS(4, "/probe-producers", true, TimeUnit.MINUTES.toMillis(5)),
+    CREATE_CONSUMERS(5, "/create-consumers", true, TimeUnit.MINUTES.toMillis(5)),
+    PAUSE_CONSUMERS(6, "/pause-consumers", true, TimeUnit.SECONDS.toMillis(60)),
+    RESUME_CONSUMERS(7, "/resume-consumers", true, TimeUnit.SECONDS.toMillis(60)),
+    PAUSE_PRODUCERS(8, "/pause-producers", true, TimeUnit.SECONDS.toMillis(60)),
+    RESUME_PRODUCERS(9, "/resume-producers", true, TimeUnit.SECONDS.toMillis(60)),
+    START_LOAD(10, "/start-load", true, TimeUnit.SECONDS.toMillis(60)),
+    ADJUST_PUBLISH_RATE(11, "/adjust-publish-rate", true, TimeUnit.SECONDS.toMillis(30)),
+    STOP_ALL(12, "/stop-all", true, TimeUnit.MINUTES.toMillis(5)),
+    PERIOD_STATS(13, "/period-stats", false, TimeUnit.SECONDS.toMillis(30)),
+    CUMULATIVE_LATENCIES(14, "/cumulative-latencies", false, TimeUnit.SECONDS.toMillis(60)),
+    COUNTERS_STATS(15, "/counters-stats", false, TimeUnit.SECONDS.toMillis(30)),
+    RESET_STATS(16, "/reset-stats", true, TimeUnit.SECONDS.toMillis(30)),
+    ONDEMAND_STATS(17, "/ondemand-stats", false, TimeUnit.SECONDS.toMillis(30)),
+    AGGREGATE_PERIOD_STATS(18, "/aggregate/period-stats", true, TimeUnit.SECONDS.toMillis(60)),
+    AGGREGATE_CUMULATIVE_LATENCIES(19, "/aggregate/cumulative-latencies", true, TimeUnit.SECONDS.toMillis(120)),
+    AGGREGATE_COUNTERS_STATS(20, "/aggregate/counters-stats", true, TimeUnit.SECONDS.toMillis(60)),
+    STOP_LOAD(21, "/stop-load", true, TimeUnit.SECONDS.toMillis(60)),
+    CONFIGURE_CLIENT_SETUP(22, "/configure-client-setup", true, TimeUnit.SECONDS.toMillis(30)),
+    PARTITION_ASSIGNMENTS(23, "/partition-assignments", false, TimeUnit.SECONDS.toMillis(30)),
+    PAUSE_CATCH_UP_CONSUMERS(24, "/pause-catch-up-consumers", true, TimeUnit.SECONDS.toMillis(60)),
+    RESUME_CATCH_UP_CONSUMERS(25, "/resume-catch-up-consumers", true, TimeUnit.SECONDS.toMillis(60)),
+    CLOSE_CONSUMERS(26, "/close-consumers", true, TimeUnit.MINUTES.toMillis(5)),
+    START_ADMIN_OPERATIONS(27, "/start-admin-operations", true, TimeUnit.SECONDS.toMillis(60)),
+    TOPIC_PARTITIONS(28, "/topic-partitions", true, TimeUnit.MINUTES.toMillis(5));
+
+    private static final WorkerCommand[] BY_CODE = new WorkerCommand[values().length + 1];
+
+    static {
+        for (WorkerCommand command : values()) {
+            BY_CODE[command.code] = command;
+        }
+    }
+
+    private final int code;
+    private final String path;
+    private final boolean post;
+    private final long timeoutMillis;
+
+    WorkerCommand(int code, String path, boolean post, long timeoutMillis) {
+        this.code = code;
+        this.path = path;
+        this.post = post;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Identifier of the command in the binary control plane
+     */
+    public int code() {
+        return code;
+    }
+
+    public String path() {
+        return path;
+    }
+
+    public boolean isPost() {
+        return post;
+    }
+
+    public long timeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public static WorkerCommand fromCode(int code) {
+        if (code <= 0 || code >= BY_CODE.length || BY_CODE[code] == null) {
+            throw new IllegalArgumentException("Unknown worker command " + code);
+        }
+        return BY_CODE[code];
+    }
+}
@@ -18,54 +18,111 @@
  */
 package io.openmessaging.benchmark.worker;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.net.HttpURLConnection;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.HdrHistogram.Histogram;
 
 import org.apache.bookkeeper.stats.StatsLogger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.google.common.io.Files;
 
-import io.javalin.Context;
+import io.javalin.Handler;
 import io.javalin.Javalin;
+import io.openmessaging.benchmark.worker.commands.AdminOperationsAssignment;
+import io.openmessaging.benchmark.worker.commands.ClientSetup;
 import io.openmessaging.benchmark.worker.commands.ConsumerAssignment;
+import io.openmessaging.benchmark.worker.commands.CountersStats;
 import io.openmessaging.benchmark.worker.commands.CumulativeLatencies;
+import io.openmessaging.benchmark.worker.commands.PartitionAssignments;
 import io.openmessaging.benchmark.worker.commands.PeriodStats;
 import io.openmessaging.benchmark.worker.commands.ProducerWorkAssignment;
 import io.openmessaging.benchmark.worker.commands.Stats;
+import io.openmessaging.benchmark.worker.commands.StatsAggregationRequest;
+import io.openmessaging.benchmark.worker.commands.TopicSubscription;
 import io.openmessaging.benchmark.worker.commands.TopicsInfo;
 
+/**
+ * Executes the {@link WorkerCommand}s received from the coordinator on the {@link LocalWorker}. The commands are
+ * exposed over HTTP and can also be dispatched from other transports through {@link #handle(WorkerCommand, byte[])}.
+ */
 @SuppressWarnings("unchecked")
 public class WorkerHandler {
 
+    /**
+     * Handles a serialized command and returns the serialized response, or null when there is none
+     */
+    interface CommandHandler {
+        byte[] handle(byte[] body) throws Exception;
+    }
+
     private final Worker localWorker;
 
+    private final Map<WorkerCommand, CommandHandler> handlers = new EnumMap<>(WorkerCommand.class);
+
+    // Only created when this worker is used as a stats aggregator
+    private WorkerClient workerClient;
+
     public WorkerHandler(Javalin app, StatsLogger statsLogger) {
         this.localWorker = new LocalWorker(statsLogger);
 
-        app.post("/initialize-driver", this::handleInitializeDriver);
-        app.post("/create-topics", this::handleCreateTopics);
-        app.post("/create-producers", this::handleCreateProducers);
-        app.post("/probe-producers", this::handleProbeProducers);
-        app.post("/create-consumers", this::handleCreateConsumers);
-        app.post("/pause-consumers", this::handlePauseConsumers);
-        app.post("/resume-consumers", this::handleResumeConsumers);
-        app.post("/pause-producers", this::handlePauseProducers);
-        app.post("/resume-producers", this::handleResumeProducers);
-        app.post("/start-load", this::handleStartLoad);
-        app.post("/adjust-publish-rate", this::handleAdjustPublishRate);
-        app.post("/stop-all", this::handleStopAll);
-        app.get("/period-stats", this::handlePeriodStats);
-        app.get("/cumulative-latencies", this::handleCumulativeLatencies);
-        app.get("/counters-stats", this::handleCountersStats);
-        app.post("/reset-stats", this::handleResetStats);
-        app.get("/ondemand-stats", this::handleOnDemandStats);
+        handlers.put(WorkerCommand.INITIALIZE_DRIVER, this::handleInitializeDriver);
+        handlers.put(WorkerCommand.CREATE_TOPICS, this::handleCreateTopics);
+        handlers.put(WorkerCommand.CREATE_PRODUCERS, this::handleCreateProducers);
+        handlers.put(WorkerCommand.TOPIC_PARTITIONS, this::handleTopicPartitions);
+        handlers.put(WorkerCommand.PROBE_PRODUCERS, this::handleProbeProducers);
+        handlers.put(WorkerCommand.CREATE_CONSUMERS, this::handleCreateConsumers);
+        handlers.put(WorkerCommand.CLOSE_CONSUMERS, this::handleCloseConsumers);
+        handlers.put(WorkerCommand.PARTITION_ASSIGNMENTS, this::handlePartitionAssignments);
+        handlers.put(WorkerCommand.PAUSE_CONSUMERS, this::handlePauseConsumers);
+        handlers.put(WorkerCommand.RESUME_CONSUMERS, this::handleResumeConsumers);
+        handlers.put(WorkerCommand.PAUSE_CATCH_UP_CONSUMERS, this::handlePauseCatchUpConsumers);
+        handlers.put(WorkerCommand.RESUME_CATCH_UP_CONSUMERS, this::handleResumeCatchUpConsumers);
+        handlers.put(WorkerCommand.PAUSE_PRODUCERS, this::handlePauseProducers);
+        handlers.put(WorkerCommand.RESUME_PRODUCERS, this::handleResumeProducers);
+        handlers.put(WorkerCommand.START_LOAD, this::handleStartLoad);
+        handlers.put(WorkerCommand.START_ADMIN_OPERATIONS, this::handleStartAdminOperations);
+        handlers.put(WorkerCommand.ADJUST_PUBLISH_RATE, this::handleAdjustPublishRate);
+        handlers.put(WorkerCommand.STOP_ALL, this::handleStopAll);
+        handlers.put(WorkerCommand.STOP_LOAD, this::handleStopLoad);
+        handlers.put(WorkerCommand.CONFIGURE_CLIENT_SETUP, this::handleConfigureClientSetup);
+        handlers.put(WorkerCommand.PERIOD_STATS, this::handlePeriodStats);
+        handlers.put(WorkerCommand.CUMULATIVE_LATENCIES, this::handleCumulativeLatencies);
+        handlers.put(WorkerCommand.COUNTERS_STATS, this::handleCountersStats);
+        handlers.put(WorkerCommand.RESET_STATS, this::handleResetStats);
+        handlers.put(WorkerCommand.ONDEMAND_STATS, this::handleOnDemandStats);
+        handlers.put(WorkerCommand.AGGREGATE_PERIOD_STATS, this::handleAggregatePeriodStats);
+        handlers.put(WorkerCommand.AGGREGATE_CUMULATIVE_LATENCIES, this::handleAggregateCumulativeLatencies);
+        handlers.put(WorkerCommand.AGGREGATE_COUNTERS_STATS, this::handleAggregateCountersStats);
+
+        handlers.forEach((command, handler) -> {
+            Handler route = ctx -> {
+                byte[] response = handler.handle(ctx.bodyAsBytes());
+                if (response != null) {
+                    ctx.result(new ByteArrayInputStream(response));
+                }
+            };
+            if (command.isPost()) {
+                app.post(command.path(), route);
+            } else {
+                app.get(command.path(), route);
+            }
+        });
 
         app.exception(Exception.class, (e, ctx) -> {
             log.error("Request handler: {} - Exception: {}", ctx.path(), e.getMessage(), e);
@@ -73,78 +130,153 @@ public class WorkerHandler {
         });
     }
 
-    private void handleInitializeDriver(Context ctx) throws Exception {
+    /**
+     * Execute a command received from another transport than HTTP
+     *
+     * @return the serialized response, or null when there is none
+     */
+    public byte[] handle(WorkerCommand command, byte[] body) throws Exception {
+        return handlers.get(command).handle(body);
+    }
+
+    private byte[] handleInitializeDriver(byte[] body) throws Exception {
         // Save config to temp file
         File tempFile = File.createTempFile("driver-configuration" + System.currentTimeMillis(), "conf");
-        Files.write(ctx.bodyAsBytes(), tempFile);
+        Files.write(body, tempFile);
 
         localWorker.initializeDriver(tempFile);
         tempFile.delete();
+        return null;
     }
 
-    private void handleCreateTopics(Context ctx) throws Exception {
-        TopicsInfo topicsInfo = mapper.readValue(ctx.body(), TopicsInfo.class);
-        log.info("Received create topics request for topics: {}", ctx.body());
+    private byte[] handleCreateTopics(byte[] body) throws Exception {
+        TopicsInfo topicsInfo = mapper.readValue(body, TopicsInfo.class);
+        log.info("Received create topics request for topics: {}", new String(body));
         List<String> topics = localWorker.createTopics(topicsInfo);
-        ctx.result(writer.writeValueAsString(topics));
+        return writer.writeValueAsBytes(topics);
     }
 
-    private void handleCreateProducers(Context ctx) throws Exception {
-        List<String> topics = (List<String>) mapper.readValue(ctx.body(), List.class);
+    private byte[] handleCreateProducers(byte[] body) throws Exception {
+        List<String> topics = (List<String>) mapper.readValue(body, List.class);
         log.info("Received create producers request for topics: {}", topics);
         localWorker.createProducers(topics);
+        return null;
     }
 
-    private void handleProbeProducers(Context ctx) throws Exception {
-        localWorker.probeProducers();
+    private byte[] handleTopicPartitions(byte[] body) throws Exception {
+        List<String> topics = (List<String>) mapper.readValue(body, List.class);
+        return writer.writeValueAsBytes(localWorker.getPartitions(topics));
+    }
+
+    private byte[] handleProbeProducers(byte[] body) throws Exception {
+        Map<String, Integer> partitionsByTopic = mapper.readValue(body, new TypeReference<Map<String, Integer>>() {
+        });
+        localWorker.probeProducers(partitionsByTopic);
+        return null;
     }
 
-    private void handleCreateConsumers(Context ctx) throws Exception {
-        ConsumerAssignment consumerAssignment = mapper.readValue(ctx.body(), ConsumerAssignment.class);
+    private byte[] handleCreateConsumers(byte[] body) throws Exception {
+        ConsumerAssignment consumerAssignment = mapper.readValue(body, ConsumerAssignment.class);
 
         log.info("Received create consumers request for topics: {}", consumerAssignment.topicsSubscriptions);
         localWorker.createConsumers(consumerAssignment);
+        return null;
     }
 
-    private void handlePauseConsumers(Context ctx) throws Exception {
+    private byte[] handleCloseConsumers(byte[] body) throws Exception {
+        List<TopicSubscription> topicsSubscriptions = mapper.readValue(body,
+                new TypeReference<List<TopicSubscription>>() {
+                });
+        return writer.writeValueAsBytes(localWorker.closeConsumers(topicsSubscriptions));
+    }
+
+    private byte[] handlePartitionAssignments(byte[] body) throws Exception {
+        return writer.writeValueAsBytes(localWorker.getPartitionAssignments());
+    }
+
+    private byte[] handlePauseConsumers(byte[] body) throws Exception {
         localWorker.pauseConsumers();
+        return null;
     }
 
-    private void handleResumeConsumers(Context ctx) throws Exception {
+    private byte[] handleResumeConsumers(byte[] body) throws Exception {
         localWorker.resumeConsumers();
+        return null;
+    }
+
+    private byte[] handlePauseCatchUpConsumers(byte[] body) throws Exception {
+        localWorker.pauseCatchUpConsumers();
+        return null;
     }
 
-    private void handlePauseProducers(Context ctx) throws Exception {
+    private byte[] handleResumeCatchUpConsumers(byte[] body) throws Exception {
+        localWorker.resumeCatchUpConsumers();
+        return null;
+    }
+
+    private byte[] handlePauseProducers(byte[] body) throws Exception {
         localWorker.pauseProducers();
+        return null;
     }
 
-    private void handleResumeProducers(Context ctx) throws Exception {
+    private byte[] handleResumeProducers(byte[] body) throws Exception {
         localWorker.resumeProducers();
+        return null;
     }
 
-    private void handleStartLoad(Context ctx) throws Exception {
-        ProducerWorkAssignment producerWorkAssignment = mapper.readValue(ctx.body(), ProducerWorkAssignment.class);
+    private byte[] handleStartLoad(byte[] body) throws Exception {
+        ProducerWorkAssignment producerWorkAssignment = mapper.readValue(body, ProducerWorkAssignment.class);
 
-        log.info("Start load publish-rate: {} msg/s -- payload-size: {}", producerWorkAssignment.publishRate,
-                producerWorkAssignment.payloadData.get(0).length);
+        if (producerWorkAssignment.groups != null) {
+            log.info("Start load of traffic groups: {}", producerWorkAssignment.groups.stream()
+                    .map(g -> g.group + " (" + g.publishRate + " msg/s)").collect(Collectors.joining(", ")));
+        } else {
+            log.info("Start load publish-rate: {} msg/s -- payload-size: {}", producerWorkAssignment.publishRate,
+                    producerWorkAssignment.payloadData.get(0).length);
+        }
 
         localWorker.startLoad(producerWorkAssignment);
+        return null;
     }
 
-    private void handleAdjustPublishRate(Context ctx) throws Exception {
-        Double publishRate = mapper.readValue(ctx.body(), Double.class);
+    private byte[] handleStartAdminOperations(byte[] body) throws Exception {
+        localWorker.startAdminOperations(mapper.readValue(body, AdminOperationsAssignment.class));
+        return null;
+    }
+
+    private byte[] handleAdjustPublishRate(byte[] body) throws Exception {
+        Double publishRate = mapper.readValue(body, Double.class);
         log.info("Adjust publish-rate: {} msg/s", publishRate);
         localWorker.adjustPublishRate(publishRate);
+        return null;
     }
 
-    private void handleStopAll(Context ctx) throws Exception {
+    private byte[] handleStopAll(byte[] body) throws Exception {
         log.info("Stop All");
         localWorker.stopAll();
+        return null;
+    }
+
+    private byte[] handleStopLoad(byte[] body) throws Exception {
+        log.info("Stop load");
+        localWorker.stopLoad();
+        return null;
+    }
+
+    private byte[] handleConfigureClientSetup(byte[] body) throws Exception {
+        ClientSetup clientSetup = mapper.readValue(body, ClientSetup.class);
+        log.info("Client setup concurrency: {} - timeout: {} s", clientSetup.concurrency,
+                clientSetup.timeoutSeconds);
+        localWorker.configureClientSetup(clientSetup);
+        return null;
     }
 
-    private void handlePeriodStats(Context ctx) throws Exception {
+    private byte[] handlePeriodStats(byte[] body) throws Exception {
         PeriodStats stats = localWorker.getPeriodStats();
+        return serialize(stats);
+    }
 
+    private byte[] serialize(PeriodStats stats) throws Exception {
         // Serialize histograms
         synchronized (histogramSerializationBuffer) {
             histogramSerializationBuffer.clear();
@@ -164,12 +296,18 @@ public class WorkerHandler {
             stats.endToEndLatencyBytes = new byte[histogramSerializationBuffer.position()];
             histogramSerializationBuffer.flip();
             histogramSerializationBuffer.get(stats.endToEndLatencyBytes);
+
+            histogramSerializationBuffer.clear();
+            stats.roundTripLatency.encodeIntoCompressedByteBuffer(histogramSerializationBuffer);
+            stats.roundTripLatencyBytes = new byte[histogramSerializationBuffer.position()];
+            histogramSerializationBuffer.flip();
+            histogramSerializationBuffer.get(stats.roundTripLatencyBytes);
         }
 
-        ctx.result(writer.writeValueAsString(stats));
+        return writer.writeValueAsBytes(stats);
     }
 
-    private void handleOnDemandStats(Context ctx) throws Exception {
+    private byte[] handleOnDemandStats(byte[] body) throws Exception {
         Stats stats = localWorker.getOnDemandStats();
 
         // Serialize histograms
@@ -181,12 +319,15 @@ public class WorkerHandler {
             histogramSerializationBuffer.get(stats.publishLatencyBytes);
         }
 
-        ctx.result(writer.writeValueAsString(stats));
+        return writer.writeValueAsBytes(stats);
     }
 
-    private void handleCumulativeLatencies(Context ctx) throws Exception {
+    private byte[] handleCumulativeLatencies(byte[] body) throws Exception {
         CumulativeLatencies stats = localWorker.getCumulativeLatencies();
+        return serialize(stats);
+    }
 
+    private byte[] serialize(CumulativeLatencies stats) throws Exception {
         // Serialize histograms
         synchronized (histogramSerializationBuffer) {
             histogramSerializationBuffer.clear();
@@ -206,18 +347,96 @@ public class WorkerHandler {
             stats.endToEndLatencyBytes = new byte[histogramSerializationBuffer.position()];
             histogramSerializationBuffer.flip();
             histogramSerializationBuffer.get(stats.endToEndLatencyBytes);
+
+            histogramSerializationBuffer.clear();
+            stats.roundTripLatency.encodeIntoCompressedByteBuffer(histogramSerializationBuffer);
+            stats.roundTripLatencyBytes = new byte[histogramSerializationBuffer.position()];
+            histogramSerializationBuffer.flip();
+            histogramSerializationBuffer.get(stats.roundTripLatencyBytes);
+
+            stats.publishLatencyBySizeBytes = serializeHistograms(stats.publishLatencyBySize);
+            stats.endToEndLatencyBySizeBytes = serializeHistograms(stats.endToEndLatencyBySize);
+            stats.publishLatencyByGroupBytes = serializeHistograms(stats.publishLatencyByGroup);
+            stats.endToEndLatencyByGroupBytes = serializeHistograms(stats.endToEndLatencyByGroup);
+            stats.clientSetupLatencyBytes = serializeHistograms(stats.clientSetupLatency);
+            stats.producerChurnLatencyBytes = serializeHistograms(stats.producerChurnLatency);
+            stats.adminOperationLatencyBytes = serializeHistograms(stats.adminOperationLatency);
+            stats.transactionLatencyBytes = serializeHistograms(stats.transactionLatency);
         }
 
-        ctx.result(writer.writeValueAsString(stats));
+        return writer.writeValueAsBytes(stats);
     }
 
-    private void handleCountersStats(Context ctx) throws Exception {
-        ctx.result(writer.writeValueAsString(localWorker.getCountersStats()));
+    private <K> Map<K, byte[]> serializeHistograms(Map<K, Histogram> histograms) {
+        Map<K, byte[]> result = new TreeMap<>();
+        histograms.forEach((key, histogram) -> {
+            histogramSerializationBuffer.clear();
+            histogram.encodeIntoCompressedByteBuffer(histogramSerializationBuffer);
+            byte[] bytes = new byte[histogramSerializationBuffer.position()];
+            histogramSerializationBuffer.flip();
+            histogramSerializationBuffer.get(bytes);
+            result.put(key, bytes);
+        });
+        return result;
+    }
+
+    private byte[] handleCountersStats(byte[] body) throws Exception {
+        return writer.writeValueAsBytes(localWorker.getCountersStats());
+    }
+
+    /**
+     * Merge the local stats with the ones of a subtree of workers, the queries to the subtree are sent before
+     * collecting the local stats so that all the workers sample their period at about the same time
+     */
+    private byte[] handleAggregatePeriodStats(byte[] body) throws Exception {
+        StatsAggregationRequest request = mapper.readValue(body, StatsAggregationRequest.class);
+        CompletableFuture<Map<String, PeriodStats>> subtreeStats = statsAggregator(request.fanout)
+                .collect(request.workers, WorkerCommand.PERIOD_STATS, WorkerCommand.AGGREGATE_PERIOD_STATS,
+                        request.timeoutMillis, PeriodStats.class, StatsAggregator::decode);
+
+        PeriodStats stats = new PeriodStats();
+        StatsAggregator.add(stats, request.worker, localWorker.getPeriodStats());
+        subtreeStats.join().forEach((worker, s) -> StatsAggregator.add(stats, worker, s));
+        return serialize(stats);
+    }
+
+    private byte[] handleAggregateCumulativeLatencies(byte[] body) throws Exception {
+        StatsAggregationRequest request = mapper.readValue(body, StatsAggregationRequest.class);
+        CompletableFuture<Map<String, CumulativeLatencies>> subtreeStats = statsAggregator(request.fanout)
+                .collect(request.workers, WorkerCommand.CUMULATIVE_LATENCIES,
+                        WorkerCommand.AGGREGATE_CUMULATIVE_LATENCIES, request.timeoutMillis, CumulativeLatencies.class,
+                        StatsAggregator::decode);
+
+        CumulativeLatencies stats = new CumulativeLatencies();
+        StatsAggregator.add(stats, localWorker.getCumulativeLatencies());
+        subtreeStats.join().values().forEach(s -> StatsAggregator.add(stats, s));
+        return serialize(stats);
+    }
+
+    private byte[] handleAggregateCountersStats(byte[] body) throws Exception {
+        StatsAggregationRequest request = mapper.readValue(body, StatsAggregationRequest.class);
+        CompletableFuture<Map<String, CountersStats>> subtreeStats = statsAggregator(request.fanout)
+                .collect(request.workers, WorkerCommand.COUNTERS_STATS, WorkerCommand.AGGREGATE_COUNTERS_STATS,
+                        request.timeoutMillis, CountersStats.class, s -> {
+                        });
+
+        List<CountersStats> individualStats = new ArrayList<>();
+        individualStats.add(localWorker.getCountersStats());
+        individualStats.addAll(subtreeStats.join().values());
+        return writer.writeValueAsBytes(StatsAggregator.merge(individualStats));
+    }
+
+    private synchronized StatsAggregator statsAggregator(int fanout) {
+        if (workerClient == null) {
+            workerClient = new WorkerClient();
+        }
+        return new StatsAggregator(workerClient, fanout);
     }
 
-    private void handleResetStats(Context ctx) throws Exception {
+    private byte[] handleResetStats(byte[] body) throws Exception {
         log.info("Reset stats");
         localWorker.resetStats();
+        return null;
     }
 
     private final ByteBuffer histogramSerializationBuffer = ByteBuffer.allocate(1024 * 1024);
@@ -231,6 +450,6 @@ public class WorkerHandler {
         mapper.enable(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_USING_DEFAULT_VALUE);
     }
 
-    private static final ObjectWriter writer = new ObjectMapper().writerWithDefaultPrettyPrinter();
+    private static final ObjectWriter writer = new ObjectMapper().writer();
 
 }
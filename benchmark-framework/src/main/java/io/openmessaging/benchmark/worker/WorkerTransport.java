@@ -0,0 +1,41 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A way of sending commands from the coordinator to the workers
+ */
+public interface WorkerTransport extends AutoCloseable {
+
+    /**
+     * Send a command to a worker
+     *
+     * @param worker
+     *            the worker address
+     * @param command
+     *            the command
+     * @param body
+     *            the serialized command arguments, empty when there are none
+     * @return a future completed with the serialized response, failed if the worker returned an error or did not
+     *         answer within the deadline of the command
+     */
+    CompletableFuture<byte[]> send(String worker, WorkerCommand command, byte[] body);
+}
@@ -0,0 +1,41 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker.commands;
+
+/**
+ * How a worker creates and closes its producers and consumers
+ */
+public class ClientSetup {
+    public static final int DEFAULT_CONCURRENCY = 32;
+    public static final int DEFAULT_TIMEOUT_SECONDS = 120;
+
+    /** Producers or consumers being created or closed at once */
+    public int concurrency;
+
+    /** Time allowed to create or close each producer or consumer */
+    public int timeoutSeconds;
+
+    public ClientSetup() {
+    }
+
+    public ClientSetup(int concurrency, int timeoutSeconds) {
+        this.concurrency = concurrency;
+        this.timeoutSeconds = timeoutSeconds;
+    }
+}
@@ -21,6 +21,38 @@ package io.openmessaging.benchmark.worker.commands;
 import java.util.ArrayList;
 import java.util.List;
 
+import io.openmessaging.benchmark.driver.ConsumerStartPosition;
+
 public class ConsumerAssignment {
     public List<TopicSubscription> topicsSubscriptions = new ArrayList<>();
+
+    /** Where the new subscriptions start reading */
+    public ConsumerStartPosition startPosition = ConsumerStartPosition.LATEST;
+
+    /** With a TIMESTAMP start position, the publish time of the first message to read */
+    public long startTimestamp;
+
+    /** Where the catch-up subscriptions start reading, the same as the others when not set */
+    public ConsumerStartPosition catchUpStartPosition;
+
+    /** Echo each message received to the reply topic of its request */
+    public boolean requestReply;
+
+    /** Count the messages received by each subscription, to follow them through consumer scaling events */
+    public boolean trackSubscriptions;
+
+    public ConsumerAssignment() {
+    }
+
+    /**
+     * Copy of an assignment for other topic subscriptions, eg. the share of a worker
+     */
+    public ConsumerAssignment(ConsumerAssignment other, List<TopicSubscription> topicsSubscriptions) {
+        this.topicsSubscriptions = topicsSubscriptions;
+        this.startPosition = other.startPosition;
+        this.startTimestamp = other.startTimestamp;
+        this.catchUpStartPosition = other.catchUpStartPosition;
+        this.requestReply = other.requestReply;
+        this.trackSubscriptions = other.trackSubscriptions;
+    }
 }
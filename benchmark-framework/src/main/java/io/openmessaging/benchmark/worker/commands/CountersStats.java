@@ -20,18 +20,24 @@ package io.openmessaging.benchmark.worker.commands;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
 import io.openmessaging.benchmark.driver.MetricsEnabled.Metric;
 
 public class CountersStats {
     public long messagesSent;
     public long messagesReceived;
+    public long bytesSent;
+    public long bytesReceived;
     public double elapsedMillis;
     public long publishErrors;
     public long consumerErrors;
     public int producers;
     public int consumers;
 
+    // Messages received by subscription since the start, when the consumers track them
+    public Map<String, Long> messagesReceivedBySubscription = new TreeMap<>();
+
     public Map<String, Metric> additionalMetrics = new LinkedHashMap<>();
 
 }
@@ -18,6 +18,8 @@
  */
 package io.openmessaging.benchmark.worker.commands;
 
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
 
 import org.HdrHistogram.Histogram;
@@ -37,4 +39,62 @@ public class CumulativeLatencies {
     @JsonIgnore
     public Histogram endToEndLatency = HistogramFactory.create(TimeUnit.HOURS.toMicros(12));
     public byte[] endToEndLatencyBytes;
+
+    /**
+     * Time from sending a request to receiving its reply, on the clock of the producer worker
+     */
+    @JsonIgnore
+    public Histogram roundTripLatency = HistogramFactory.create(TimeUnit.HOURS.toMicros(1));
+    public byte[] roundTripLatencyBytes;
+
+    /**
+     * Latencies broken down by message size bucket, keyed by the bucket upper bound in bytes
+     */
+    @JsonIgnore
+    public Map<Integer, Histogram> publishLatencyBySize = new TreeMap<>();
+    public Map<Integer, byte[]> publishLatencyBySizeBytes;
+
+    @JsonIgnore
+    public Map<Integer, Histogram> endToEndLatencyBySize = new TreeMap<>();
+    public Map<Integer, byte[]> endToEndLatencyBySizeBytes;
+
+    /**
+     * Latencies of each group of a multi-group workload, keyed by group name
+     */
+    @JsonIgnore
+    public Map<String, Histogram> publishLatencyByGroup = new TreeMap<>();
+    public Map<String, byte[]> publishLatencyByGroupBytes;
+
+    @JsonIgnore
+    public Map<String, Histogram> endToEndLatencyByGroup = new TreeMap<>();
+    public Map<String, byte[]> endToEndLatencyByGroupBytes;
+
+    /**
+     * Time for each producer and consumer to be ready, keyed by client kind
+     */
+    @JsonIgnore
+    public Map<String, Histogram> clientSetupLatency = new TreeMap<>();
+    public Map<String, byte[]> clientSetupLatencyBytes;
+
+    /**
+     * Time to create the short-lived producers of the producer churn, to send their first message and to close them,
+     * keyed by operation
+     */
+    @JsonIgnore
+    public Map<String, Histogram> producerChurnLatency = new TreeMap<>();
+    public Map<String, byte[]> producerChurnLatencyBytes;
+
+    /**
+     * Time to commit the transactions, and from their first message to their commit, keyed by measure
+     */
+    @JsonIgnore
+    public Map<String, Histogram> transactionLatency = new TreeMap<>();
+    public Map<String, byte[]> transactionLatencyBytes;
+
+    /**
+     * Time of each admin operation, keyed by operation
+     */
+    @JsonIgnore
+    public Map<String, Histogram> adminOperationLatency = new TreeMap<>();
+    public Map<String, byte[]> adminOperationLatencyBytes;
 }
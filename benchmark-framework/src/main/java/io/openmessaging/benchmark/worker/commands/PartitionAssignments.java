@@ -0,0 +1,47 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker.commands;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Partitions assigned to the consumers of one or more workers
+ */
+public class PartitionAssignments {
+    /** Assigned partitions, by topic and subscription */
+    public Map<String, Map<String, Set<Integer>>> partitions = new TreeMap<>();
+
+    /** Consumers whose driver does not report the partitions assigned to them */
+    public int unreportedConsumers;
+
+    public void add(String topic, String subscription, Set<Integer> assigned) {
+        partitions.computeIfAbsent(topic, t -> new TreeMap<>())
+                .computeIfAbsent(subscription, s -> new TreeSet<>())
+                .addAll(assigned);
+    }
+
+    public void addAll(PartitionAssignments other) {
+        other.partitions.forEach((topic, subscriptions) -> subscriptions
+                .forEach((subscription, assigned) -> add(topic, subscription, assigned)));
+        unreportedConsumers += other.unreportedConsumers;
+    }
+}
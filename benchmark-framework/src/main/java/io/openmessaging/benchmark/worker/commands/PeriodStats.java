@@ -20,6 +20,8 @@ package io.openmessaging.benchmark.worker.commands;
 
 import org.HdrHistogram.Histogram;
 
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -34,9 +36,55 @@ public class PeriodStats {
     public long publishErrors;
     public long consumerErrors;
 
+    /**
+     * Messages read by the catch-up subscriptions, which are not part of the messages received
+     */
+    public long catchUpMessagesReceived = 0;
+    public long catchUpBytesReceived = 0;
+
+    /**
+     * Replies received by the producers of a request/reply benchmark
+     */
+    public long repliesReceived = 0;
+
+    /**
+     * Short-lived producers created by the producer churn, and the ones that could not be created or closed
+     */
+    public long churnProducersCreated = 0;
+    public long producerChurnErrors = 0;
+
+    /**
+     * Transactions committed with their messages, and transactions that could not be committed
+     */
+    public long transactionsCommitted = 0;
+    public long transactionMessagesCommitted = 0;
+    public long transactionErrors = 0;
+
+    /**
+     * Successful admin operations by kind, and admin operations that failed
+     */
+    public Map<String, Long> adminOperations = new TreeMap<>();
+    public long adminOperationErrors = 0;
+
     public long totalMessagesSent = 0;
     public long totalMessagesReceived = 0;
 
+    /**
+     * Messages received in the period by topic and partition, only for drivers that report partitions
+     */
+    public Map<String, Map<Integer, Long>> messagesReceivedByPartition = new TreeMap<>();
+
+    /**
+     * Achieved and target publish rate (msg/s) of each producer worker, only filled by a distributed ensemble
+     */
+    public Map<String, Double> publishRateByWorker = new TreeMap<>();
+    public Map<String, Double> targetPublishRateByWorker = new TreeMap<>();
+
+    /**
+     * Traffic of each group of a multi-group workload, keyed by group name
+     */
+    public Map<String, TrafficGroupStats> trafficByGroup = new TreeMap<>();
+
     @JsonIgnore
     public Histogram publishLatency = HistogramFactory.create(TimeUnit.SECONDS.toMicros(60));
     public byte[] publishLatencyBytes;
@@ -50,5 +98,9 @@ public class PeriodStats {
     public Histogram endToEndLatency = HistogramFactory.create(TimeUnit.HOURS.toMicros(12));
     public byte[] endToEndLatencyBytes;
 
+    @JsonIgnore
+    public Histogram roundTripLatency = HistogramFactory.create(TimeUnit.HOURS.toMicros(1));
+    public byte[] roundTripLatencyBytes;
+
     public double elapsedMillis;
 }
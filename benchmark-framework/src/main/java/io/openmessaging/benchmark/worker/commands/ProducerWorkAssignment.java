@@ -18,6 +18,7 @@
  */
 package io.openmessaging.benchmark.worker.commands;
 
+import io.openmessaging.benchmark.utils.distributor.KeyDistributorConfig;
 import io.openmessaging.benchmark.utils.distributor.KeyDistributorType;
 
 import java.util.List;
@@ -29,4 +30,37 @@ public class ProducerWorkAssignment {
     public double publishRate;
 
     public KeyDistributorType keyDistributorType;
+
+    public KeyDistributorConfig keyDistributorConfig;
+
+    /** Send requests carrying a reply topic, and measure the round trip until their replies come back */
+    public boolean requestReply;
+
+    /**
+     * Short-lived producers created per second on the topics of the worker, each sending a few messages before being
+     * closed, with at most maxConcurrentChurnProducers of them alive at once. No churn when the rate is 0.
+     */
+    public double producerChurnRate;
+    public int messagesPerChurnProducer;
+    public int maxConcurrentChurnProducers;
+
+    /**
+     * Publish the messages in transactions committed after messagesPerTransaction messages or
+     * transactionCommitIntervalMillis after their first message. No transactions when both are 0.
+     */
+    public int messagesPerTransaction;
+    public long transactionCommitIntervalMillis;
+
+    /**
+     * Name and topics of the traffic group this assignment applies to, only set for the groups of a multi-group
+     * workload
+     */
+    public String group;
+    public List<String> topics;
+
+    /**
+     * Assignments of the traffic groups of a multi-group workload, each with its own rate, payloads and keys. When
+     * set, the top level fields are ignored.
+     */
+    public List<ProducerWorkAssignment> groups;
 }
@@ -0,0 +1,58 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker.commands;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Asks an aggregator worker to merge its own stats with the stats of a subtree of workers
+ */
+public class StatsAggregationRequest {
+    /**
+     * Address of the aggregator worker itself, as known by the coordinator
+     */
+    public String worker;
+
+    /**
+     * Workers of the subtree below the aggregator
+     */
+    public List<String> workers = new ArrayList<>();
+
+    /**
+     * Maximum number of workers or sub-aggregators queried by each aggregator
+     */
+    public int fanout;
+
+    /**
+     * Time the aggregator has to answer, shorter than the deadline of the request to it so that a slow worker of the
+     * subtree is reported by its aggregator. 0 to only rely on the deadlines of the commands.
+     */
+    public long timeoutMillis;
+
+    public StatsAggregationRequest() {
+    }
+
+    public StatsAggregationRequest(String worker, List<String> workers, int fanout, long timeoutMillis) {
+        this.worker = worker;
+        this.workers = workers;
+        this.fanout = fanout;
+        this.timeoutMillis = timeoutMillis;
+    }
+}
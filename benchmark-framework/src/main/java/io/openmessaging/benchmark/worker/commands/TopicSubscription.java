@@ -22,6 +22,12 @@ public class TopicSubscription {
     public String topic;
     public String subscription;
 
+    // Traffic group of a multi-group workload the topic belongs to, if any
+    public String group;
+
+    // Catch-up subscription reading behind the tailing ones, accounted apart from them
+    public boolean catchUp;
+
     public TopicSubscription() {
     }
 
@@ -30,11 +36,18 @@ public class TopicSubscription {
         this.subscription = subscription;
     }
 
+    public TopicSubscription(String topic, String subscription, String group) {
+        this(topic, subscription);
+        this.group = group;
+    }
+
     @Override
     public String toString() {
         return "TopicSubscription{" +
             "topic='" + topic + '\'' +
             ", subscription='" + subscription + '\'' +
+            (group != null ? ", group='" + group + '\'' : "") +
+            (catchUp ? ", catchUp=true" : "") +
             '}';
     }
 }
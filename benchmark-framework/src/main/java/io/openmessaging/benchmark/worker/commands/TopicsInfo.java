@@ -18,10 +18,23 @@
  */
 package io.openmessaging.benchmark.worker.commands;
 
+import java.util.List;
+
 public class TopicsInfo {
     public int numberOfTopics;
     public int numberOfPartitionsPerTopic;
 
+    /**
+     * Index of the first topic to create, so that topic names stay unique when the creation is split across workers
+     */
+    public int firstTopicIndex;
+
+    /** Existing topics to use instead of creating new ones */
+    public List<String> existingTopics;
+
+    /** Use the existing topics whose name starts with this prefix instead of creating new ones */
+    public String existingTopicsPrefix;
+
     public TopicsInfo() {
     }
 
@@ -29,4 +42,14 @@ public class TopicsInfo {
         this.numberOfTopics = numberOfTopics;
         this.numberOfPartitionsPerTopic = numberOfPartitionsPerTopic;
     }
+
+    public TopicsInfo(int numberOfTopics, int numberOfPartitionsPerTopic, int firstTopicIndex) {
+        this.numberOfTopics = numberOfTopics;
+        this.numberOfPartitionsPerTopic = numberOfPartitionsPerTopic;
+        this.firstTopicIndex = firstTopicIndex;
+    }
+
+    public boolean hasExistingTopics() {
+        return (existingTopics != null && !existingTopics.isEmpty()) || existingTopicsPrefix != null;
+    }
 }
@@ -0,0 +1,37 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker.commands;
+
+/**
+ * Traffic of a group of a multi-group workload over a stats period
+ */
+public class TrafficGroupStats {
+    public long messagesSent = 0;
+    public long bytesSent = 0;
+
+    public long messagesReceived = 0;
+    public long bytesReceived = 0;
+
+    public void add(TrafficGroupStats other) {
+        messagesSent += other.messagesSent;
+        bytesSent += other.bytesSent;
+        messagesReceived += other.messagesReceived;
+        bytesReceived += other.bytesReceived;
+    }
+}
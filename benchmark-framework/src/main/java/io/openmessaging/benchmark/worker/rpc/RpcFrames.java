@@ -0,0 +1,127 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker.rpc;
+
+import java.io.ByteArrayOutputStream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+
+/**
+ * Binary framing of the worker control plane.
+ * <p>
+ * Each frame is length prefixed and carries:
+ *
+ * <pre>
+ * type (1 byte) | request id (8 bytes) | command code (1 byte) | last chunk flag (1 byte) | payload chunk
+ * </pre>
+ *
+ * Requests are multiplexed on a single connection by their id. Bodies larger than {@link #CHUNK_SIZE} are streamed as
+ * a sequence of frames, each written after the previous one is flushed, so that a large response, eg. the cumulative
+ * latencies, does not hold the connection for the other requests and does not need a frame buffer sized for the whole
+ * body.
+ */
+final class RpcFrames {
+    static final byte REQUEST = 0;
+    static final byte RESPONSE = 1;
+    static final byte ERROR = 2;
+
+    static final int CHUNK_SIZE = 1024 * 1024;
+    private static final int LENGTH_FIELD_SIZE = 4;
+    private static final int HEADER_SIZE = 1 + 8 + 1 + 1;
+    // The decoder counts the length prefix in the frame size
+    private static final int MAX_FRAME_SIZE = LENGTH_FIELD_SIZE + HEADER_SIZE + CHUNK_SIZE;
+
+    private RpcFrames() {
+    }
+
+    static void initPipeline(ChannelPipeline pipeline) {
+        pipeline.addLast(new LengthFieldBasedFrameDecoder(MAX_FRAME_SIZE, 0, LENGTH_FIELD_SIZE, 0,
+                LENGTH_FIELD_SIZE));
+        pipeline.addLast(new LengthFieldPrepender(LENGTH_FIELD_SIZE));
+    }
+
+    /**
+     * Write a body as a sequence of frames, an empty body is sent as a single empty frame. Each frame is only written
+     * once the previous one is flushed, so that the frames of the other requests are interleaved with them.
+     *
+     * @return a future completed when the last frame is flushed, or failed with the first frame that could not be
+     */
+    static ChannelFuture write(Channel channel, byte type, long id, int command, byte[] body) {
+        ChannelPromise promise = channel.newPromise();
+        writeChunk(channel, type, id, command, body, 0, promise);
+        return promise;
+    }
+
+    private static void writeChunk(Channel channel, byte type, long id, int command, byte[] body, int offset,
+            ChannelPromise promise) {
+        int length = Math.min(CHUNK_SIZE, body.length - offset);
+        boolean last = offset + length == body.length;
+        ByteBuf frame = channel.alloc().buffer(HEADER_SIZE + length);
+        frame.writeByte(type);
+        frame.writeLong(id);
+        frame.writeByte(command);
+        frame.writeBoolean(last);
+        frame.writeBytes(body, offset, length);
+        channel.writeAndFlush(frame).addListener(f -> {
+            if (!f.isSuccess()) {
+                promise.tryFailure(f.cause());
+            } else if (last) {
+                promise.trySuccess();
+            } else {
+                writeChunk(channel, type, id, command, body, offset + length, promise);
+            }
+        });
+    }
+
+    /**
+     * A frame whose payload was not read yet
+     */
+    static class Frame {
+        final byte type;
+        final long id;
+        final int command;
+        final boolean last;
+        private final ByteBuf payload;
+
+        Frame(ByteBuf buf) {
+            this.type = buf.readByte();
+            this.id = buf.readLong();
+            this.command = buf.readUnsignedByte();
+            this.last = buf.readBoolean();
+            this.payload = buf;
+        }
+
+        void readPayload(ByteArrayOutputStream target) {
+            int length = payload.readableBytes();
+            if (payload.hasArray()) {
+                target.write(payload.array(), payload.arrayOffset() + payload.readerIndex(), length);
+            } else {
+                byte[] bytes = new byte[length];
+                payload.readBytes(bytes);
+                target.write(bytes, 0, length);
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker.rpc;
+
+import java.io.ByteArrayOutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.openmessaging.benchmark.worker.WorkerCommand;
+import io.openmessaging.benchmark.worker.WorkerHandler;
+
+/**
+ * Serves the worker commands over the binary control plane, next to the HTTP API
+ */
+public class RpcServer implements AutoCloseable {
+
+    /**
+     * Executes a command and returns the serialized response, or null when there is none
+     */
+    interface CommandDispatcher {
+        byte[] handle(WorkerCommand command, byte[] body) throws Exception;
+    }
+
+    private final CommandDispatcher handler;
+    private final EventLoopGroup bossGroup = new NioEventLoopGroup(1, new DefaultThreadFactory("worker-rpc-boss"));
+    private final EventLoopGroup workerGroup = new NioEventLoopGroup(1, new DefaultThreadFactory("worker-rpc-io"));
+
+    // Commands can block for long, eg. when creating producers, so they are not run on the event loop
+    private final ExecutorService executor = Executors
+            .newCachedThreadPool(new DefaultThreadFactory("worker-rpc-handler"));
+
+    private Channel serverChannel;
+
+    public RpcServer(WorkerHandler handler) {
+        this(handler::handle);
+    }
+
+    RpcServer(CommandDispatcher handler) {
+        this.handler = handler;
+    }
+
+    public void start(int port) throws InterruptedException {
+        serverChannel = new ServerBootstrap().group(bossGroup, workerGroup).channel(NioServerSocketChannel.class)
+                .childOption(ChannelOption.TCP_NODELAY, true).childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        RpcFrames.initPipeline(ch.pipeline());
+                        ch.pipeline().addLast(new RequestHandler());
+                    }
+                }).bind(port).sync().channel();
+        log.info("Listening for worker commands on RPC port {}", getPort());
+    }
+
+    /**
+     * The port the server is bound to, which is chosen by the system when started on port 0
+     */
+    int getPort() {
+        return ((InetSocketAddress) serverChannel.localAddress()).getPort();
+    }
+
+    @Override
+    public void close() {
+        if (serverChannel != null) {
+            serverChannel.close().syncUninterruptibly();
+        }
+        bossGroup.shutdownGracefully();
+        workerGroup.shutdownGracefully();
+        executor.shutdownNow();
+    }
+
+    private class RequestHandler extends SimpleChannelInboundHandler<ByteBuf> {
+        // Requests whose body is still being received, only accessed from the channel event loop
+        private final Map<Long, ByteArrayOutputStream> partialRequests = new HashMap<>();
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, ByteBuf buf) {
+            RpcFrames.Frame frame = new RpcFrames.Frame(buf);
+            if (frame.type != RpcFrames.REQUEST) {
+                log.warn("Ignoring unexpected frame of type {} from {}", frame.type, ctx.channel().remoteAddress());
+                return;
+            }
+
+            ByteArrayOutputStream body = partialRequests.computeIfAbsent(frame.id, id -> new ByteArrayOutputStream());
+            frame.readPayload(body);
+            if (!frame.last) {
+                return;
+            }
+            partialRequests.remove(frame.id);
+
+            Channel channel = ctx.channel();
+            executor.execute(() -> {
+                try {
+                    WorkerCommand command = WorkerCommand.fromCode(frame.command);
+                    byte[] response = handler.handle(command, body.toByteArray());
+                    RpcFrames.write(channel, RpcFrames.RESPONSE, frame.id, frame.command,
+                            response != null ? response : new byte[0]);
+                } catch (Exception e) {
+                    log.error("Request handler: {} - Exception: {}", frame.command, e.getMessage(), e);
+                    String message = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+                    RpcFrames.write(channel, RpcFrames.ERROR, frame.id, frame.command,
+                            message.getBytes(StandardCharsets.UTF_8));
+                }
+            });
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            // The rest of these bodies will never come
+            partialRequests.clear();
+            super.channelInactive(ctx);
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            log.warn("Closing RPC connection from {}: {}", ctx.channel().remoteAddress(), cause.getMessage());
+            ctx.close();
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(RpcServer.class);
+}
@@ -0,0 +1,207 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker.rpc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.openmessaging.benchmark.worker.WorkerCommand;
+import io.openmessaging.benchmark.worker.WorkerTransport;
+
+/**
+ * Sends the worker commands to {@link RpcServer}s. All the requests to a worker are multiplexed on a single
+ * connection, and each of them fails on its own when the deadline of its command expires.
+ */
+public class RpcWorkerTransport implements WorkerTransport {
+    public static final String SCHEME = "rpc";
+
+    private static final int CONNECT_TIMEOUT_MS = 10_000;
+
+    private final EventLoopGroup group = new NioEventLoopGroup(1, new DefaultThreadFactory("worker-rpc-client"));
+    private final Map<String, CompletableFuture<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicLong nextRequestId = new AtomicLong();
+    private final ToLongFunction<WorkerCommand> timeoutMillis;
+
+    public RpcWorkerTransport() {
+        this(WorkerCommand::timeoutMillis);
+    }
+
+    /**
+     * @param timeoutMillis
+     *            the deadline of each command, instead of its own
+     */
+    RpcWorkerTransport(ToLongFunction<WorkerCommand> timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public CompletableFuture<byte[]> send(String worker, WorkerCommand command, byte[] body) {
+        return connection(worker).thenCompose(connection -> connection.send(command, body));
+    }
+
+    private CompletableFuture<Connection> connection(String worker) {
+        return connections.computeIfAbsent(worker, w -> {
+            URI uri = URI.create(w);
+            Connection connection = new Connection(w);
+            CompletableFuture<Connection> future = new CompletableFuture<>();
+            new Bootstrap().group(group).channel(NioSocketChannel.class)
+                    .option(ChannelOption.TCP_NODELAY, true)
+                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, CONNECT_TIMEOUT_MS)
+                    .handler(new ChannelInitializer<SocketChannel>() {
+                        @Override
+                        protected void initChannel(SocketChannel ch) {
+                            RpcFrames.initPipeline(ch.pipeline());
+                            ch.pipeline().addLast(connection);
+                        }
+                    }).connect(uri.getHost(), uri.getPort()).addListener(f -> {
+                        if (f.isSuccess()) {
+                            future.complete(connection);
+                        } else {
+                            // Let the next request try to connect again
+                            connections.remove(w);
+                            future.completeExceptionally(f.cause());
+                        }
+                    });
+            return future;
+        });
+    }
+
+    @Override
+    public void close() {
+        connections.values().forEach(f -> f.thenAccept(c -> c.channel.close()));
+        group.shutdownGracefully();
+    }
+
+    private static class PendingRequest {
+        final WorkerCommand command;
+        final CompletableFuture<byte[]> future = new CompletableFuture<>();
+        final ByteArrayOutputStream response = new ByteArrayOutputStream();
+        ScheduledFuture<?> deadline;
+
+        PendingRequest(WorkerCommand command) {
+            this.command = command;
+        }
+    }
+
+    private class Connection extends SimpleChannelInboundHandler<ByteBuf> {
+        private final String worker;
+        private final Map<Long, PendingRequest> pendingRequests = new ConcurrentHashMap<>();
+        private volatile Channel channel;
+
+        Connection(String worker) {
+            this.worker = worker;
+        }
+
+        @Override
+        public void handlerAdded(ChannelHandlerContext ctx) {
+            this.channel = ctx.channel();
+        }
+
+        CompletableFuture<byte[]> send(WorkerCommand command, byte[] body) {
+            long id = nextRequestId.incrementAndGet();
+            PendingRequest request = new PendingRequest(command);
+            pendingRequests.put(id, request);
+            long timeout = timeoutMillis.applyAsLong(command);
+            request.deadline = channel.eventLoop().schedule(() -> {
+                if (pendingRequests.remove(id) != null) {
+                    request.future.completeExceptionally(new TimeoutException(String.format(
+                            "%s to %s did not complete within %d ms", command, worker, timeout)));
+                }
+            }, timeout, TimeUnit.MILLISECONDS);
+
+            RpcFrames.write(channel, RpcFrames.REQUEST, id, command.code(), body).addListener(f -> {
+                if (!f.isSuccess() && pendingRequests.remove(id) != null) {
+                    request.deadline.cancel(false);
+                    request.future.completeExceptionally(f.cause());
+                }
+            });
+            return request.future;
+        }
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, ByteBuf buf) {
+            RpcFrames.Frame frame = new RpcFrames.Frame(buf);
+            PendingRequest request = pendingRequests.get(frame.id);
+            if (request == null) {
+                // The request already timed out
+                return;
+            }
+
+            frame.readPayload(request.response);
+            if (!frame.last) {
+                return;
+            }
+
+            pendingRequests.remove(frame.id);
+            request.deadline.cancel(false);
+            if (frame.type == RpcFrames.ERROR) {
+                request.future.completeExceptionally(new IllegalStateException(String.format(
+                        "Failed to do RPC request %s to %s -- error: %s", request.command, worker,
+                        new String(request.response.toByteArray(), StandardCharsets.UTF_8))));
+            } else {
+                request.future.complete(request.response.toByteArray());
+            }
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            connections.remove(worker);
+            IOException e = new IOException("Connection to " + worker + " closed");
+            pendingRequests.values().forEach(request -> {
+                request.deadline.cancel(false);
+                request.future.completeExceptionally(e);
+            });
+            pendingRequests.clear();
+            super.channelInactive(ctx);
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            log.warn("Closing RPC connection to {}: {}", worker, cause.getMessage());
+            ctx.close();
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(RpcWorkerTransport.class);
+}
@@ -0,0 +1,158 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+public class ResultsStreamTest {
+
+    private static final ObjectWriter writer = new ObjectMapper().writerWithDefaultPrettyPrinter();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static TestResult description() {
+        TestResult result = new TestResult();
+        result.workload = "1 topic";
+        result.driver = "Kafka";
+        result.messageSize = 1024;
+        result.topics = 1;
+        result.partitions = 16;
+        return result;
+    }
+
+    private static void complete(TestResult result) {
+        result.aggregatedPublishLatency99pct = 12.5;
+        result.aggregatedPublishDelayLatency99pct = 42;
+        result.aggregatedPublishLatencyQuantiles.put(99.0, 12.5);
+        result.controlPlaneLatency.put("START_LOAD", new LatencySummary());
+        result.aggregatedPublishErrors = 3;
+    }
+
+    private static List<PeriodResult> periods(int count) {
+        List<PeriodResult> periods = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            PeriodResult period = new PeriodResult();
+            period.timestamp = 1_000_000 + i * 10_000L;
+            period.publishRate = 1000 + i;
+            period.consumeRate = 999.5 + i;
+            period.backlog = i * 7L;
+            period.publishLatency99pct = 5.25 + i;
+            period.publishDelayLatency99pct = 100 + i;
+            period.endToEndLatencyMax = 30.0 + i;
+            period.additionalMetrics.put("bytes-out", 2.0 * i);
+            period.publishRateByWorker.put("http://worker-1", 500.0 + i);
+            if (i % 2 == 0) {
+                period.partitionConsumeRateMin = 10.0;
+                period.partitionConsumeRateAvg = 20.0;
+                period.partitionConsumeRateMax = 30.0 + i;
+            }
+            periods.add(period);
+        }
+        return periods;
+    }
+
+    private File stream(List<PeriodResult> periods, boolean completed) throws IOException {
+        File file = folder.newFile();
+        try (ResultsStream stream = new ResultsStream(file)) {
+            stream.write(description());
+            for (PeriodResult period : periods) {
+                stream.append(period);
+            }
+            if (completed) {
+                TestResult result = description();
+                complete(result);
+                stream.write(result);
+            }
+        }
+        return file;
+    }
+
+    private static TestResult inMemory(List<PeriodResult> periods, boolean completed) {
+        TestResult result = description();
+        periods.forEach(result::addPeriod);
+        if (completed) {
+            complete(result);
+        }
+        return result;
+    }
+
+    @Test
+    public void testReadRebuildsTheInMemoryResult() throws Exception {
+        List<PeriodResult> periods = periods(5);
+        File file = stream(periods, true);
+
+        assertEquals(writer.writeValueAsString(inMemory(periods, true)),
+                writer.writeValueAsString(ResultsStream.read(file)));
+    }
+
+    @Test
+    public void testReadPeriodsIntoTheFinalResult() throws Exception {
+        List<PeriodResult> periods = periods(5);
+        File file = folder.newFile();
+        TestResult result = description();
+        try (ResultsStream stream = new ResultsStream(file)) {
+            stream.write(result);
+            for (PeriodResult period : periods) {
+                stream.append(period);
+            }
+            complete(result);
+            stream.write(result);
+            stream.readPeriods(result);
+        }
+
+        assertEquals(writer.writeValueAsString(inMemory(periods, true)), writer.writeValueAsString(result));
+    }
+
+    @Test
+    public void testTruncatedLastLine() throws Exception {
+        // A crashed test: no aggregated results and the last period cut short
+        List<PeriodResult> periods = periods(4);
+        File file = stream(periods, false);
+        String line = "{\"period\":{\"timestamp\":123,\"publishRate\":10";
+        Files.write(file.toPath(), line.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        assertEquals(writer.writeValueAsString(inMemory(periods, false)),
+                writer.writeValueAsString(ResultsStream.read(file)));
+    }
+
+    @Test(expected = IOException.class)
+    public void testStreamWithoutResult() throws Exception {
+        File file = folder.newFile();
+        try (ResultsStream stream = new ResultsStream(file)) {
+            stream.append(periods(1).get(0));
+        }
+        ResultsStream.read(file);
+    }
+}
@@ -0,0 +1,202 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import io.openmessaging.benchmark.utils.distributor.KeyDistributorType;
+
+public class WorkloadSweepTest {
+
+    private static Workload base() {
+        Workload workload = new Workload();
+        workload.name = "base";
+        workload.topics = 1;
+        workload.partitionsPerTopic = 16;
+        workload.messageSize = 1024;
+        workload.subscriptionsPerTopic = 1;
+        workload.producersPerTopic = 1;
+        workload.consumerPerSubscription = 1;
+        workload.producerRate = 1000;
+        workload.testDurationMinutes = 5;
+        return workload;
+    }
+
+    private static WorkloadSweep sweep(String name) {
+        WorkloadSweep sweep = new WorkloadSweep();
+        sweep.name = name;
+        sweep.base = base();
+        return sweep;
+    }
+
+    private static List<String> names(List<Workload> workloads) {
+        return workloads.stream().map(w -> w.name).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testNoAxes() {
+        List<Workload> points = sweep(null).expand();
+
+        assertEquals(Collections.singletonList("base"), names(points));
+        assertEquals(1000, points.get(0).producerRate);
+    }
+
+    @Test
+    public void testTopologyAxesVaryTheSlowest() {
+        WorkloadSweep sweep = sweep("sweep");
+        // Declared before the topology axis, still varies the fastest
+        sweep.axes.put("producerRate", Arrays.asList(100, 200));
+        sweep.axes.put("partitionsPerTopic", Arrays.asList(1, 8, 64));
+
+        List<Workload> points = sweep.expand();
+
+        assertEquals(Arrays.asList(
+                "sweep [partitionsPerTopic=1, producerRate=100]",
+                "sweep [partitionsPerTopic=1, producerRate=200]",
+                "sweep [partitionsPerTopic=8, producerRate=100]",
+                "sweep [partitionsPerTopic=8, producerRate=200]",
+                "sweep [partitionsPerTopic=64, producerRate=100]",
+                "sweep [partitionsPerTopic=64, producerRate=200]"), names(points));
+        List<Integer> partitions = new ArrayList<>();
+        List<Integer> rates = new ArrayList<>();
+        points.forEach(point -> {
+            partitions.add(point.partitionsPerTopic);
+            rates.add(point.producerRate);
+            // The fields that are not swept keep the value of the base
+            assertEquals(1024, point.messageSize);
+            assertEquals(5, point.testDurationMinutes);
+        });
+        assertEquals(Arrays.asList(1, 1, 8, 8, 64, 64), partitions);
+        assertEquals(Arrays.asList(100, 200, 100, 200, 100, 200), rates);
+    }
+
+    @Test
+    public void testPointsAreNamedAfterTheBaseWithoutSweepName() {
+        WorkloadSweep sweep = sweep(null);
+        sweep.axes.put("keyDistributor", Arrays.asList("NO_KEY", "RANDOM_NANO"));
+
+        List<Workload> points = sweep.expand();
+
+        assertEquals(Arrays.asList("base [keyDistributor=NO_KEY]", "base [keyDistributor=RANDOM_NANO]"),
+                names(points));
+        assertEquals(KeyDistributorType.NO_KEY, points.get(0).keyDistributor);
+        assertEquals(KeyDistributorType.RANDOM_NANO, points.get(1).keyDistributor);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownAxis() {
+        WorkloadSweep sweep = sweep("sweep");
+        sweep.axes.put("producerRat", Arrays.asList(100, 200));
+        sweep.expand();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNameAxis() {
+        WorkloadSweep sweep = sweep("sweep");
+        sweep.axes.put("name", Arrays.asList("a", "b"));
+        sweep.expand();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTrafficGroupsAxis() {
+        WorkloadSweep sweep = sweep("sweep");
+        sweep.axes.put("trafficGroups", Collections.singletonList(Collections.emptyList()));
+        sweep.expand();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyAxis() {
+        WorkloadSweep sweep = sweep("sweep");
+        sweep.axes.put("producerRate", Collections.emptyList());
+        sweep.expand();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingBase() {
+        WorkloadSweep sweep = sweep("sweep");
+        sweep.base = null;
+        sweep.expand();
+    }
+
+    @Test
+    public void testReusableFieldsShareTheTopology() {
+        Workload other = base();
+        other.name = "other";
+        other.producerRate = 50_000;
+        other.messageSize = 100;
+        other.keyDistributor = KeyDistributorType.RANDOM_NANO;
+        other.testDurationMinutes = 15;
+        other.warmupDurationMinutes = 0;
+
+        assertTrue(WorkloadSweep.sameTopology(base(), other));
+    }
+
+    @Test
+    public void testTopologyFieldsChangeTheTopology() {
+        Workload partitions = base();
+        partitions.partitionsPerTopic = 32;
+        assertFalse(WorkloadSweep.sameTopology(base(), partitions));
+
+        Workload producers = base();
+        producers.producersPerTopic = 4;
+        assertFalse(WorkloadSweep.sameTopology(base(), producers));
+
+        Workload subscriptions = base();
+        subscriptions.subscriptionsPerTopic = 2;
+        assertFalse(WorkloadSweep.sameTopology(base(), subscriptions));
+    }
+
+    @Test
+    public void testWorkloadsThatCannotReuseTheirTopology() {
+        Workload backlog = base();
+        backlog.consumerBacklogSizeGB = 1;
+        assertFalse(WorkloadSweep.sameTopology(backlog, backlog));
+
+        Workload consumerOnly = base();
+        consumerOnly.consumerOnly = true;
+        assertFalse(WorkloadSweep.sameTopology(consumerOnly, consumerOnly));
+
+        Workload groups = base();
+        groups.trafficGroups = Collections.singletonList(base());
+        assertFalse(WorkloadSweep.sameTopology(groups, groups));
+    }
+
+    @Test
+    public void testSweptPointsShareTheTopologyOfTheirAxis() {
+        WorkloadSweep sweep = sweep("sweep");
+        sweep.axes.put("partitionsPerTopic", Arrays.asList(1, 8));
+        sweep.axes.put("producerRate", Arrays.asList(100, 200));
+
+        List<Workload> points = sweep.expand();
+
+        assertTrue(WorkloadSweep.sameTopology(points.get(0), points.get(1)));
+        assertFalse(WorkloadSweep.sameTopology(points.get(1), points.get(2)));
+        assertTrue(WorkloadSweep.sameTopology(points.get(2), points.get(3)));
+    }
+}
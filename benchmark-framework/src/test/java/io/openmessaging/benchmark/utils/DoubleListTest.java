@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class DoubleListTest extends PrimitiveListTestBase<Double> {
+
+    @Override
+    protected List<Double> newList() {
+        return new DoubleList();
+    }
+
+    @Override
+    protected Double value(int i) {
+        return i * 0.5;
+    }
+
+    @Test
+    public void testKeepsSpecialValues() {
+        List<Double> list = new DoubleList();
+        list.add(Double.NaN);
+        list.add(-0.0);
+        list.add(Double.POSITIVE_INFINITY);
+
+        assertTrue(Double.isNaN(list.get(0)));
+        assertTrue(list.contains(Double.NaN));
+        assertEquals(Double.valueOf(-0.0), list.get(1));
+        assertEquals(Double.valueOf(Double.POSITIVE_INFINITY), list.get(2));
+    }
+}
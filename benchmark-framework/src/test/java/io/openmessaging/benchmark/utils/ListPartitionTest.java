@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class ListPartitionTest {
+
+    private static List<Integer> items(int count) {
+        return IntStream.range(0, count).boxed().collect(Collectors.toList());
+    }
+
+    @Test
+    public void testEqualWeightsMatchUnweightedSplit() {
+        for (int count : new int[] { 1, 2, 3, 10, 31 }) {
+            List<Integer> items = items(count);
+            assertEquals(ListPartition.partitionList(items, 3),
+                    ListPartition.partitionList(items, Arrays.asList(1.0, 1.0, 1.0)));
+        }
+    }
+
+    @Test
+    public void testWeightedSplit() {
+        List<List<Integer>> parts = ListPartition.partitionList(items(30), Arrays.asList(2.0, 1.0));
+
+        assertEquals(20, parts.get(0).size());
+        assertEquals(10, parts.get(1).size());
+        // Interleaved rather than in blocks
+        assertEquals(Arrays.asList(0, 2, 3, 5, 6), parts.get(0).subList(0, 5));
+        assertEquals(Arrays.asList(1, 4, 7), parts.get(1).subList(0, 3));
+    }
+
+    @Test
+    public void testZeroWeight() {
+        List<List<Integer>> parts = ListPartition.partitionList(items(10), Arrays.asList(1.0, 0.0, 1.0));
+
+        assertEquals(5, parts.get(0).size());
+        assertTrue(parts.get(1).isEmpty());
+        assertEquals(5, parts.get(2).size());
+    }
+
+    @Test
+    public void testAllowedParts() {
+        // Even items only go to part 0, odd items anywhere
+        List<List<Integer>> parts = ListPartition.partitionList(items(12), Arrays.asList(1.0, 1.0),
+                (item, part) -> item % 2 == 1 || part == 0);
+
+        assertTrue(parts.get(0).containsAll(Arrays.asList(0, 2, 4, 6, 8, 10)));
+        assertTrue(parts.get(1).stream().allMatch(item -> item % 2 == 1));
+    }
+
+    @Test
+    public void testFallbackWhenNothingIsAllowed() {
+        List<Integer> items = items(9);
+        assertEquals(ListPartition.partitionList(items, Arrays.asList(2.0, 1.0)),
+                ListPartition.partitionList(items, Arrays.asList(2.0, 1.0), (item, part) -> false));
+    }
+
+    @Test
+    public void testEmptyListHasOnePartPerWeight() {
+        assertEquals(Arrays.asList(Collections.emptyList(), Collections.emptyList()),
+                ListPartition.partitionList(Collections.emptyList(), Arrays.asList(1.0, 1.0)));
+    }
+
+    @Test
+    public void testNoWeights() {
+        assertEquals(Collections.emptyList(), ListPartition.partitionList(items(3), Collections.emptyList()));
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class LongListTest extends PrimitiveListTestBase<Long> {
+
+    @Override
+    protected List<Long> newList() {
+        return new LongList();
+    }
+
+    @Override
+    protected Long value(int i) {
+        return (long) i * 3;
+    }
+
+    @Test
+    public void testKeepsValuesBeyondIntRange() {
+        List<Long> list = new LongList();
+        list.add(Long.MAX_VALUE);
+        list.add(Long.MIN_VALUE);
+        list.add(1L << 40);
+
+        assertEquals(Long.valueOf(Long.MAX_VALUE), list.get(0));
+        assertEquals(Long.valueOf(Long.MIN_VALUE), list.get(1));
+        assertEquals(Long.valueOf(1L << 40), list.get(2));
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Cases shared by the lists of primitive values, each subclass running them on its list with values of its type
+ *
+ * @param <T>
+ *            the boxed type of the values
+ */
+public abstract class PrimitiveListTestBase<T extends Comparable<T>> {
+
+    protected abstract List<T> newList();
+
+    /**
+     * Distinct values, increasing with i
+     */
+    protected abstract T value(int i);
+
+    @Test
+    public void testAddBeyondInitialCapacity() {
+        List<T> list = newList();
+        List<T> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            list.add(value(i));
+            expected.add(value(i));
+        }
+
+        assertEquals(100, list.size());
+        assertEquals(expected, list);
+        assertEquals(expected.hashCode(), list.hashCode());
+    }
+
+    @Test
+    public void testInsertSetAndRemove() {
+        T a = value(1);
+        T b = value(2);
+        T c = value(-3);
+        List<T> list = newList();
+        list.add(a);
+        list.add(c);
+        list.add(1, b);
+        list.add(0, c);
+        assertEquals(Arrays.asList(c, a, b, c), list);
+
+        assertEquals(a, list.set(1, b));
+        assertEquals(b, list.remove(2));
+        assertEquals(c, list.remove(0));
+        assertEquals(Arrays.asList(b, c), list);
+
+        assertTrue(list.remove(c));
+        assertEquals(1, list.size());
+        assertEquals(b, list.get(0));
+
+        list.clear();
+        assertTrue(list.isEmpty());
+        list.add(a);
+        assertEquals(a, list.get(0));
+    }
+
+    @Test
+    public void testSort() {
+        List<T> list = newList();
+        List<T> expected = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            list.add(value((i * 7) % 50 - 25));
+            expected.add(value(i - 25));
+        }
+
+        Collections.sort(list);
+        assertEquals(expected, list);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfBounds() {
+        List<T> list = newList();
+        list.add(value(1));
+        list.get(1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testAddOutOfBounds() {
+        newList().add(1, value(1));
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testModifiedWhileIterating() {
+        List<T> list = newList();
+        list.add(value(1));
+        list.add(value(2));
+        Iterator<T> iterator = list.iterator();
+        iterator.next();
+        list.add(value(3));
+        iterator.next();
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class StatisticsTest {
+
+    @Test
+    public void testMeanAndStdDev() {
+        assertEquals(5, Statistics.mean(Arrays.asList(2.0, 4.0, 4.0, 4.0, 5.0, 5.0, 7.0, 9.0)), 1e-12);
+        assertEquals(Math.sqrt(32.0 / 7), Statistics.stdDev(Arrays.asList(2.0, 4.0, 4.0, 4.0, 5.0, 5.0, 7.0, 9.0)),
+                1e-12);
+        assertEquals(0, Statistics.stdDev(Arrays.asList(3.0)), 0);
+    }
+
+    @Test
+    public void testLogGamma() {
+        assertEquals(Math.log(24), Statistics.logGamma(5), 1e-9);
+        assertEquals(Math.log(Math.sqrt(Math.PI)), Statistics.logGamma(0.5), 1e-9);
+    }
+
+    @Test
+    public void testRegularizedIncompleteBeta() {
+        assertEquals(0, Statistics.regularizedIncompleteBeta(0, 2, 3), 0);
+        assertEquals(1, Statistics.regularizedIncompleteBeta(1, 2, 3), 0);
+        // I_x(1, 1) = x and I_x(a, 1) = x^a
+        assertEquals(0.3, Statistics.regularizedIncompleteBeta(0.3, 1, 1), 1e-9);
+        assertEquals(0.125, Statistics.regularizedIncompleteBeta(0.5, 3, 1), 1e-9);
+        // Symmetric distribution
+        assertEquals(0.5, Statistics.regularizedIncompleteBeta(0.5, 2, 2), 1e-9);
+        // Binomial tail: P(X >= 2) for X ~ B(4, 0.2)
+        assertEquals(0.1808, Statistics.regularizedIncompleteBeta(0.2, 2, 3), 1e-9);
+        // Above the mean, through the symmetry
+        assertEquals(1 - 0.1808, Statistics.regularizedIncompleteBeta(0.8, 3, 2), 1e-9);
+    }
+
+    @Test
+    public void testTCdf() {
+        assertEquals(0.5, Statistics.tCdf(0, 7), 1e-12);
+        // With one degree of freedom, the Cauchy distribution: 1/2 + atan(t) / pi
+        assertEquals(0.25, Statistics.tCdf(-1, 1), 1e-9);
+        assertEquals(0.5 + Math.atan(3) / Math.PI, Statistics.tCdf(3, 1), 1e-9);
+        assertEquals(0.975, Statistics.tCdf(2.228139, 10), 1e-6);
+        assertEquals(0.025, Statistics.tCdf(-2.228139, 10), 1e-6);
+    }
+
+    @Test
+    public void testTQuantile() {
+        // Two-sided critical values of the t table
+        assertEquals(12.706, Statistics.tQuantile(0.975, 1), 1e-3);
+        assertEquals(2.015, Statistics.tQuantile(0.95, 5), 1e-3);
+        assertEquals(2.228, Statistics.tQuantile(0.975, 10), 1e-3);
+        assertEquals(2.750, Statistics.tQuantile(0.995, 30), 1e-3);
+        assertEquals(-2.228, Statistics.tQuantile(0.025, 10), 1e-3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTQuantileOutOfRange() {
+        Statistics.tQuantile(1, 10);
+    }
+
+    @Test
+    public void testWelchTTest() {
+        // Example of unequal variances, t = -2.455 with 24.99 degrees of freedom
+        List<Double> a = Arrays.asList(27.5, 21.0, 19.0, 23.6, 17.0, 17.9, 16.9, 20.1, 21.9, 22.6, 23.1, 19.6, 19.0,
+                21.7, 21.4);
+        List<Double> b = Arrays.asList(27.1, 22.0, 20.8, 23.4, 23.4, 23.5, 25.8, 22.0, 24.8, 20.2, 21.9, 22.1, 22.9,
+                20.5, 24.4);
+        assertEquals(0.02138, Statistics.welchTTest(a, b), 1e-4);
+        assertEquals(Statistics.welchTTest(a, b), Statistics.welchTTest(b, a), 1e-12);
+        assertEquals(1, Statistics.welchTTest(a, a), 1e-12);
+    }
+
+    @Test
+    public void testWelchTTestDegenerateSamples() {
+        assertTrue(Double.isNaN(Statistics.welchTTest(Collections.singletonList(1.0), Arrays.asList(1.0, 2.0))));
+        assertTrue(Double.isNaN(Statistics.welchTTest(Arrays.asList(1.0, 2.0), Collections.emptyList())));
+        // Without variance, the means are either the same or different for sure
+        assertEquals(1, Statistics.welchTTest(Arrays.asList(3.0, 3.0), Arrays.asList(3.0, 3.0, 3.0)), 0);
+        assertEquals(0, Statistics.welchTTest(Arrays.asList(3.0, 3.0), Arrays.asList(4.0, 4.0, 4.0)), 0);
+    }
+}
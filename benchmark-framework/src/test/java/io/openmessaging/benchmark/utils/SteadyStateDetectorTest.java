@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import io.openmessaging.benchmark.AdaptiveWarmup;
+
+public class SteadyStateDetectorTest {
+
+    private static SteadyStateDetector detector(int minDurationSeconds) {
+        AdaptiveWarmup settings = new AdaptiveWarmup();
+        settings.minDurationSeconds = minDurationSeconds;
+        return new SteadyStateDetector(settings);
+    }
+
+    @Test
+    public void testStableWindow() {
+        SteadyStateDetector detector = detector(0);
+
+        assertFalse(detector.addPeriod(10, 1000, 5.0, 100));
+        assertFalse(detector.addPeriod(10, 1010, 5.2, 110));
+        // The window is full with the third period
+        assertTrue(detector.addPeriod(10, 990, 4.9, 105));
+        assertEquals(30, detector.getElapsedSeconds(), 0);
+        assertTrue(detector.getPublishRateVariation() < 0.05);
+        assertTrue(detector.getBacklogSlope() < 0.02);
+    }
+
+    @Test
+    public void testNoisyPublishRate() {
+        SteadyStateDetector detector = detector(0);
+
+        detector.addPeriod(10, 1000, 5.0, 0);
+        detector.addPeriod(10, 1500, 5.0, 0);
+        assertFalse(detector.addPeriod(10, 600, 5.0, 0));
+        assertTrue(detector.getPublishRateVariation() > 0.05);
+
+        // Steady again once the noisy periods leave the window
+        detector.addPeriod(10, 1000, 5.0, 0);
+        detector.addPeriod(10, 1000, 5.0, 0);
+        assertTrue(detector.addPeriod(10, 1000, 5.0, 0));
+    }
+
+    @Test
+    public void testNoisyPublishLatency() {
+        SteadyStateDetector detector = detector(0);
+
+        detector.addPeriod(10, 1000, 5.0, 0);
+        detector.addPeriod(10, 1000, 50.0, 0);
+        assertFalse(detector.addPeriod(10, 1000, 5.0, 0));
+        assertTrue(detector.getPublishLatencyVariation() > 0.25);
+    }
+
+    @Test
+    public void testRisingBacklog() {
+        SteadyStateDetector detector = detector(0);
+
+        // The backlog grows by 10% of the publish rate every second
+        detector.addPeriod(10, 1000, 5.0, 0);
+        detector.addPeriod(10, 1000, 5.0, 1000);
+        assertFalse(detector.addPeriod(10, 1000, 5.0, 2000));
+        assertEquals(0.1, detector.getBacklogSlope(), 1e-9);
+    }
+
+    @Test
+    public void testDrainingBacklog() {
+        SteadyStateDetector detector = detector(0);
+
+        detector.addPeriod(10, 1000, 5.0, 2000);
+        detector.addPeriod(10, 1000, 5.0, 1000);
+        assertFalse(detector.addPeriod(10, 1000, 5.0, 0));
+        assertEquals(0.1, detector.getBacklogSlope(), 1e-9);
+    }
+
+    @Test
+    public void testMinDuration() {
+        SteadyStateDetector detector = detector(50);
+
+        for (int i = 0; i < 4; i++) {
+            assertFalse(detector.addPeriod(10, 1000, 5.0, 0));
+        }
+        assertTrue(detector.addPeriod(10, 1000, 5.0, 0));
+    }
+
+    @Test
+    public void testZeroPublishRate() {
+        SteadyStateDetector detector = detector(0);
+
+        detector.addPeriod(10, 0, 0, 0);
+        detector.addPeriod(10, 0, 0, 0);
+        // Nothing published is not a steady state
+        assertFalse(detector.addPeriod(10, 0, 0, 0));
+        assertEquals(0, detector.getPublishRateVariation(), 0);
+
+        // A backlog change without any publish rate is an infinite slope
+        assertFalse(detector.addPeriod(10, 0, 0, 100));
+        assertEquals(Double.POSITIVE_INFINITY, detector.getBacklogSlope(), 0);
+    }
+
+    @Test
+    public void testNoStatsBeforeTheWindowIsFull() {
+        SteadyStateDetector detector = detector(0);
+
+        detector.addPeriod(10, 1000, 5.0, 0);
+        assertTrue(Double.isNaN(detector.getPublishRateVariation()));
+        assertTrue(Double.isNaN(detector.getBacklogSlope()));
+    }
+}
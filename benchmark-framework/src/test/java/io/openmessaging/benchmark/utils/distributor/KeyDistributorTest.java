@@ -0,0 +1,151 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.utils.distributor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class KeyDistributorTest {
+
+    private static final int SAMPLES = 1_000_000;
+    private static final KeySpace KEY_SPACE = KeySpace.of(10_000, 10);
+
+    private static int[] histogram(KeyDistributor distributor, int samples) {
+        int[] counts = new int[KEY_SPACE.size()];
+        for (int i = 0; i < samples; i++) {
+            int index = distributor.nextIndex();
+            assertTrue(index >= 0 && index < counts.length);
+            counts[index]++;
+        }
+        return counts;
+    }
+
+    private static int hottest(int[] counts) {
+        int hottest = 0;
+        for (int i = 1; i < counts.length; i++) {
+            if (counts[i] > counts[hottest]) {
+                hottest = i;
+            }
+        }
+        return hottest;
+    }
+
+    @Test
+    public void testZipfianRankRatio() {
+        for (double exponent : new double[] { 0.8, 1.0, 1.5 }) {
+            int[] counts = histogram(new Zipfian(KEY_SPACE, exponent, new SplittableRandom(1)), SAMPLES);
+
+            double ratio = (double) counts[0] / counts[1];
+            assertEquals("exponent " + exponent, Math.pow(2, exponent), ratio, Math.pow(2, exponent) * 0.03);
+            assertTrue(counts[1] > counts[2] && counts[2] > counts[9]);
+        }
+    }
+
+    @Test
+    public void testZipfianIsDeterministicForASeed() {
+        Zipfian first = new Zipfian(KEY_SPACE, 1.0, new SplittableRandom(42));
+        Zipfian second = new Zipfian(KEY_SPACE, 1.0, new SplittableRandom(42));
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(first.nextIndex(), second.nextIndex());
+        }
+    }
+
+    @Test
+    public void testHotSetShare() {
+        // 1% of the keys get 80% of the traffic
+        int[] counts = histogram(new HotSet(KEY_SPACE, 0.01, 0.8, new SplittableRandom(1)), SAMPLES);
+
+        int hotKeys = KEY_SPACE.size() / 100;
+        long hotTraffic = 0;
+        for (int i = 0; i < hotKeys; i++) {
+            hotTraffic += counts[i];
+        }
+        assertEquals(0.8, (double) hotTraffic / SAMPLES, 0.005);
+
+        // The rest is uniform over the cold keys
+        double coldPerKey = SAMPLES * 0.2 / (KEY_SPACE.size() - hotKeys);
+        assertEquals(coldPerKey, counts[hotKeys], coldPerKey * 0.5);
+        assertEquals(coldPerKey, counts[KEY_SPACE.size() - 1], coldPerKey * 0.5);
+    }
+
+    @Test
+    public void testHotSetOfAllKeys() {
+        int[] counts = histogram(new HotSet(KEY_SPACE, 1.0, 0.5, new SplittableRandom(1)), SAMPLES);
+
+        double perKey = (double) SAMPLES / KEY_SPACE.size();
+        assertEquals(perKey, counts[0], perKey * 0.5);
+        assertEquals(perKey, counts[KEY_SPACE.size() - 1], perKey * 0.5);
+    }
+
+    @Test
+    public void testShiftingHotKeyMovesOverTime() {
+        AtomicLong clock = new AtomicLong();
+        KeyDistributor distributor = new ShiftingHotKey(KEY_SPACE, 60, 0.8, new SplittableRandom(1), clock::get);
+        long interval = TimeUnit.SECONDS.toMillis(60);
+
+        int[] first = histogram(distributor, SAMPLES / 10);
+        int hotKey = hottest(first);
+        assertEquals(0.8, (double) first[hotKey] / (SAMPLES / 10), 0.01);
+
+        // Same hot key until the end of the interval
+        clock.set(interval - 1);
+        assertEquals(hotKey, hottest(histogram(distributor, SAMPLES / 10)));
+
+        clock.set(interval);
+        int[] second = histogram(distributor, SAMPLES / 10);
+        int nextHotKey = hottest(second);
+        assertNotEquals(hotKey, nextHotKey);
+        assertEquals(0.8, (double) second[nextHotKey] / (SAMPLES / 10), 0.01);
+    }
+
+    @Test
+    public void testShiftingHotKeyVisitsEveryKey() {
+        // A key count that is a multiple of a fixed prime stride would keep the hot key in place
+        KeySpace keySpace = KeySpace.of(2 * 7_919, 10);
+        AtomicLong clock = new AtomicLong();
+        KeyDistributor distributor = new ShiftingHotKey(keySpace, 60, 1.0, new SplittableRandom(1), clock::get);
+        long interval = TimeUnit.SECONDS.toMillis(60);
+
+        boolean[] visited = new boolean[keySpace.size()];
+        for (int slot = 0; slot < keySpace.size(); slot++) {
+            clock.set(slot * interval);
+            int hotKey = distributor.nextIndex();
+            assertFalse("key " + hotKey + " hot twice", visited[hotKey]);
+            visited[hotKey] = true;
+        }
+    }
+
+    @Test
+    public void testShiftingHotKeyIsSharedAcrossProducers() {
+        AtomicLong clock = new AtomicLong(TimeUnit.MINUTES.toMillis(90));
+        int[] first = histogram(new ShiftingHotKey(KEY_SPACE, 60, 1.0, new SplittableRandom(1), clock::get), 100);
+        int[] second = histogram(new ShiftingHotKey(KEY_SPACE, 60, 1.0, new SplittableRandom(2), clock::get), 100);
+
+        assertArrayEquals(first, second);
+    }
+}
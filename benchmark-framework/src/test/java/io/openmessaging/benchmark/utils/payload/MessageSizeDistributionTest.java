@@ -0,0 +1,166 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.utils.payload;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.openmessaging.benchmark.utils.payload.MessageSizeDistribution.SizeBucket;
+
+public class MessageSizeDistributionTest {
+
+    private static final int SAMPLES = 200_000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static MessageSizeDistribution distribution(MessageSizeDistributionType type) {
+        MessageSizeDistribution distribution = new MessageSizeDistribution();
+        distribution.type = type;
+        return distribution;
+    }
+
+    /**
+     * Sample the distribution and check that every size is in [min, max]
+     *
+     * @return the mean size
+     */
+    private static double sampleMean(MessageSizeDistribution distribution, int min, int max) {
+        distribution.validate();
+        Random random = new Random(1);
+        double sum = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            int size = distribution.sample(random);
+            assertTrue("size " + size, size >= min && size <= max);
+            sum += size;
+        }
+        return sum / SAMPLES;
+    }
+
+    @Test
+    public void testUniform() {
+        MessageSizeDistribution distribution = distribution(MessageSizeDistributionType.UNIFORM);
+        distribution.minSize = 100;
+        distribution.maxSize = 300;
+
+        assertEquals(200, sampleMean(distribution, 100, 300), 1);
+    }
+
+    @Test
+    public void testUniformSingleSize() {
+        MessageSizeDistribution distribution = distribution(MessageSizeDistributionType.UNIFORM);
+        distribution.minSize = 512;
+        distribution.maxSize = 512;
+
+        assertEquals(512, sampleMean(distribution, 512, 512), 0);
+    }
+
+    @Test
+    public void testNormal() {
+        MessageSizeDistribution distribution = distribution(MessageSizeDistributionType.NORMAL);
+        distribution.mean = 1000;
+        distribution.stdDev = 100;
+
+        assertEquals(1000, sampleMean(distribution, 1, 1024 * 1024), 2);
+    }
+
+    @Test
+    public void testNormalIsClamped() {
+        MessageSizeDistribution distribution = distribution(MessageSizeDistributionType.NORMAL);
+        distribution.minSize = 900;
+        distribution.maxSize = 1100;
+        distribution.mean = 1000;
+        distribution.stdDev = 1000;
+
+        // Symmetric clamping keeps the mean
+        assertEquals(1000, sampleMean(distribution, 900, 1100), 2);
+    }
+
+    @Test
+    public void testLogNormal() {
+        MessageSizeDistribution distribution = distribution(MessageSizeDistributionType.LOG_NORMAL);
+        distribution.maxSize = Integer.MAX_VALUE;
+        distribution.mean = 2000;
+        distribution.stdDev = 1000;
+
+        // The mean of the sizes is the requested one, not the mean of the underlying normal distribution
+        assertEquals(2000, sampleMean(distribution, 1, Integer.MAX_VALUE), 20);
+    }
+
+    @Test
+    public void testBuckets() {
+        MessageSizeDistribution distribution = distribution(MessageSizeDistributionType.BUCKETS);
+        distribution.buckets = Arrays.asList(new SizeBucket(100, 3), new SizeBucket(1000, 1),
+                new SizeBucket(5000, 0));
+
+        assertEquals(0.75 * 100 + 0.25 * 1000, sampleMean(distribution, 100, 1000), 5);
+    }
+
+    @Test
+    public void testEmpiricalFile() throws Exception {
+        File file = folder.newFile("sizes.txt");
+        Files.write(file.toPath(), Arrays.asList("# size, weight", "", "100, 1", "200 1", "400"),
+                StandardCharsets.UTF_8);
+        MessageSizeDistribution distribution = distribution(MessageSizeDistributionType.EMPIRICAL);
+        distribution.file = file.getPath();
+
+        assertEquals((100 + 200 + 400) / 3.0, sampleMean(distribution, 100, 400), 2);
+    }
+
+    @Test(expected = PayloadException.class)
+    public void testEmpiricalFileWithoutSizes() throws Exception {
+        File file = folder.newFile("empty.txt");
+        Files.write(file.toPath(), Arrays.asList("# nothing"), StandardCharsets.UTF_8);
+        MessageSizeDistribution distribution = distribution(MessageSizeDistributionType.EMPIRICAL);
+        distribution.file = file.getPath();
+
+        distribution.sample(new Random(1));
+    }
+
+    @Test(expected = PayloadException.class)
+    public void testBucketsWithoutWeight() {
+        MessageSizeDistribution distribution = distribution(MessageSizeDistributionType.BUCKETS);
+        distribution.buckets = Arrays.asList(new SizeBucket(100, 0));
+
+        distribution.sample(new Random(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValidateRange() {
+        MessageSizeDistribution distribution = distribution(MessageSizeDistributionType.UNIFORM);
+        distribution.minSize = 10;
+        distribution.maxSize = 5;
+        distribution.validate();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValidateNormalMean() {
+        distribution(MessageSizeDistributionType.NORMAL).validate();
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import io.openmessaging.benchmark.worker.commands.TopicSubscription;
+
+public class ConsumerPlacementTest {
+
+    private static final List<String> WORKERS = Arrays.asList("w1", "w2", "w3", "w4");
+
+    private static List<TopicSubscription> consumers(String topic, String subscription, int count) {
+        return new ArrayList<>(Collections.nCopies(count, new TopicSubscription(topic, subscription)));
+    }
+
+    @Test
+    public void testSpreadOverAllWorkers() {
+        ConsumerPlacement placement = new ConsumerPlacement(WORKERS, false);
+        Map<String, List<TopicSubscription>> placed = placement.place(consumers("t1", "s1", 16));
+
+        assertEquals(WORKERS, new ArrayList<>(placed.keySet()));
+        placed.values().forEach(tsl -> assertEquals(4, tsl.size()));
+        assertFalse(placement.reservedForConsumers("t1", "w1"));
+    }
+
+    @Test
+    public void testSpreadTopicsWithOneConsumerEach() {
+        ConsumerPlacement placement = new ConsumerPlacement(WORKERS, false);
+        List<TopicSubscription> consumers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            consumers.add(new TopicSubscription("t" + i, "s"));
+        }
+
+        placement.place(consumers).values().forEach(tsl -> assertEquals(2, tsl.size()));
+    }
+
+    @Test
+    public void testSymmetricKeepsHalfOfTheWorkersForProducers() {
+        ConsumerPlacement placement = new ConsumerPlacement(WORKERS, true);
+        Map<String, List<TopicSubscription>> placed = placement.place(consumers("t1", "s1", 16));
+
+        assertEquals(Arrays.asList("w1", "w2"), new ArrayList<>(placed.keySet()));
+        placed.values().forEach(tsl -> assertEquals(8, tsl.size()));
+        assertTrue(placement.reservedForConsumers("t1", "w1"));
+        assertTrue(placement.reservedForConsumers("t1", "w2"));
+        assertFalse(placement.reservedForConsumers("t1", "w3"));
+        assertFalse(placement.reservedForConsumers("t1", "w4"));
+        // Topics without consumers can have their producers anywhere
+        assertFalse(placement.reservedForConsumers("t2", "w1"));
+    }
+
+    @Test
+    public void testSymmetricRotatesTheHalvesOverTheTopics() {
+        ConsumerPlacement placement = new ConsumerPlacement(WORKERS, true);
+        List<TopicSubscription> consumers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            consumers.addAll(consumers("t" + i, "s", 2));
+        }
+        Map<String, List<TopicSubscription>> placed = placement.place(consumers);
+
+        for (String worker : WORKERS) {
+            Set<String> topics = new HashSet<>();
+            placed.get(worker).forEach(ts -> topics.add(ts.topic));
+            assertEquals(2, topics.size());
+            // Every topic keeps two workers free of its consumers
+            topics.forEach(topic -> assertEquals(2,
+                    WORKERS.stream().filter(w -> !placement.reservedForConsumers(topic, w)).count()));
+        }
+    }
+
+    @Test
+    public void testSymmetricWithTwoWorkers() {
+        ConsumerPlacement placement = new ConsumerPlacement(Arrays.asList("w1", "w2"), true);
+        Map<String, List<TopicSubscription>> placed = placement.place(consumers("t1", "s1", 3));
+
+        assertEquals(Collections.singleton("w1"), placed.keySet());
+        assertFalse(placement.reservedForConsumers("t1", "w2"));
+    }
+
+    @Test
+    public void testClear() {
+        ConsumerPlacement placement = new ConsumerPlacement(WORKERS, true);
+        placement.place(consumers("t1", "s1", 1));
+        placement.clear();
+
+        assertFalse(placement.reservedForConsumers("t1", "w1"));
+    }
+
+    @Test
+    public void testScaleUpOnTheLeastLoadedWorkers() {
+        ConsumerPlacement placement = new ConsumerPlacement(WORKERS, false);
+        placement.place(consumers("t1", "s1", 2));
+
+        // Each new consumer goes to a worker without a consumer of the subscription, not always the first one
+        assertEquals(Collections.singleton("w3"), placement.place(consumers("t1", "s1", 1)).keySet());
+        assertEquals(Collections.singleton("w4"), placement.place(consumers("t1", "s1", 1)).keySet());
+        assertEquals(Collections.singleton("w1"), placement.place(consumers("t1", "s1", 1)).keySet());
+    }
+
+    @Test
+    public void testScaleDownFromTheMostLoadedWorkers() {
+        ConsumerPlacement placement = new ConsumerPlacement(WORKERS, false);
+        placement.place(consumers("t1", "s1", 4));
+        placement.place(consumers("t1", "s1", 1));
+
+        // The consumer just added is the only second one of the subscription on its worker
+        List<TopicSubscription> untracked = new ArrayList<>();
+        Map<String, List<TopicSubscription>> removed = placement.remove(consumers("t1", "s1", 1), untracked);
+        assertEquals(Collections.singleton("w1"), removed.keySet());
+
+        removed = placement.remove(consumers("t1", "s1", 2), untracked);
+        assertEquals(2, removed.size());
+        removed.values().forEach(tsl -> assertEquals(1, tsl.size()));
+        assertTrue(untracked.isEmpty());
+
+        // The remaining consumers are on two workers, the next one goes to a worker without any
+        String added = placement.place(consumers("t1", "s1", 1)).keySet().iterator().next();
+        assertTrue(removed.containsKey(added));
+    }
+
+    @Test
+    public void testRemoveUntrackedConsumers() {
+        ConsumerPlacement placement = new ConsumerPlacement(WORKERS, false);
+        placement.place(consumers("t1", "s1", 1));
+
+        List<TopicSubscription> untracked = new ArrayList<>();
+        Map<String, List<TopicSubscription>> removed = placement.remove(consumers("t1", "s1", 2), untracked);
+        assertEquals(1, removed.values().stream().mapToInt(List::size).sum());
+        assertEquals(1, untracked.size());
+        assertTrue(placement.remove(consumers("t2", "s1", 1), untracked).isEmpty());
+        assertEquals(2, untracked.size());
+    }
+}
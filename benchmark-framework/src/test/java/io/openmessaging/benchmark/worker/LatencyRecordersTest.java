@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+import org.junit.Test;
+
+public class LatencyRecordersTest {
+
+    @Test
+    public void testRecordByKey() {
+        LatencyRecorders<String> recorders = new LatencyRecorders<>(1_000_000, 3);
+        recorders.record("create", 100);
+        recorders.record("create", 300);
+        recorders.record("close", 50);
+
+        Map<String, Histogram> histograms = recorders.getIntervalHistograms();
+        assertEquals(Arrays.asList("close", "create"), Arrays.asList(histograms.keySet().toArray()));
+        assertEquals(2, histograms.get("create").getTotalCount());
+        assertEquals(300, histograms.get("create").getMaxValue(), 1);
+
+        // The next interval starts empty
+        assertEquals(0, recorders.getIntervalHistograms().get("create").getTotalCount());
+    }
+
+    @Test
+    public void testValuesAboveTheHighestTrackableOneAreClamped() {
+        LatencyRecorders<String> recorders = new LatencyRecorders<>(1_000, 3);
+        recorders.record("commit", 1_000_000);
+
+        Histogram histogram = recorders.getIntervalHistograms().get("commit");
+        assertEquals(1, histogram.getTotalCount());
+        assertTrue(histogram.getMaxValue() <= 1_001);
+    }
+
+    @Test
+    public void testResetKeepsTheKeysAndClearDropsThem() {
+        LatencyRecorders<Integer> recorders = new LatencyRecorders<>(1_000, 3);
+        recorders.record(1024, 10);
+
+        recorders.reset();
+        Map<Integer, Histogram> histograms = recorders.getIntervalHistograms();
+        assertEquals(1, histograms.size());
+        assertEquals(0, histograms.get(1024).getTotalCount());
+
+        recorders.clear();
+        assertTrue(recorders.getIntervalHistograms().isEmpty());
+    }
+}
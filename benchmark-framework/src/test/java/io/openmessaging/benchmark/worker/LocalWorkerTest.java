@@ -0,0 +1,43 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class LocalWorkerTest {
+
+    @Test
+    public void testSizeBucketBoundaries() {
+        assertEquals(1, LocalWorker.sizeBucket(0));
+        assertEquals(1, LocalWorker.sizeBucket(1));
+        assertEquals(2, LocalWorker.sizeBucket(2));
+        assertEquals(4, LocalWorker.sizeBucket(3));
+        assertEquals(4, LocalWorker.sizeBucket(4));
+        assertEquals(8, LocalWorker.sizeBucket(5));
+
+        // Each bucket is identified by its inclusive upper bound
+        assertEquals(1024, LocalWorker.sizeBucket(513));
+        assertEquals(1024, LocalWorker.sizeBucket(1024));
+        assertEquals(2048, LocalWorker.sizeBucket(1025));
+        assertEquals(1024 * 1024, LocalWorker.sizeBucket(1024 * 1024));
+        assertEquals(2 * 1024 * 1024, LocalWorker.sizeBucket(1024 * 1024 + 1));
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.openmessaging.benchmark.worker.commands.CountersStats;
+import io.openmessaging.benchmark.worker.commands.PeriodStats;
+import io.openmessaging.benchmark.worker.commands.StatsAggregationRequest;
+
+public class StatsAggregatorTest {
+
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final CompletableFuture<byte[]> NEVER = new CompletableFuture<>();
+
+    /**
+     * Workers answering with the stats of worker i: i + 1 messages sent over one second. The aggregators merge their
+     * subtree the same way as {@link WorkerHandler}, querying it through their own transport.
+     */
+    private static class Workers {
+        final List<String> addresses;
+        final Map<String, List<String>> requestsBySender = new ConcurrentHashMap<>();
+        final Map<String, Integer> requestsByWorker = new ConcurrentHashMap<>();
+        final Map<String, Long> timeoutByAggregator = new ConcurrentHashMap<>();
+        String unresponsiveWorker;
+
+        Workers(int count) {
+            addresses = IntStream.range(0, count).mapToObj(i -> "worker-" + i).collect(Collectors.toList());
+        }
+
+        WorkerClient client(String sender) {
+            return new WorkerClient(new WorkerTransport() {
+                @Override
+                public CompletableFuture<byte[]> send(String worker, WorkerCommand command, byte[] body) {
+                    requestsBySender.computeIfAbsent(sender, s -> Collections.synchronizedList(new ArrayList<>()))
+                            .add(worker);
+                    requestsByWorker.merge(worker, 1, Integer::sum);
+                    if (worker.equals(unresponsiveWorker)) {
+                        return NEVER;
+                    }
+                    try {
+                        if (command == WorkerCommand.PERIOD_STATS) {
+                            return CompletableFuture.completedFuture(mapper.writeValueAsBytes(stats(worker)));
+                        }
+                        return aggregate(mapper.readValue(body, StatsAggregationRequest.class));
+                    } catch (Exception e) {
+                        CompletableFuture<byte[]> future = new CompletableFuture<>();
+                        future.completeExceptionally(e);
+                        return future;
+                    }
+                }
+
+                @Override
+                public void close() {
+                }
+            });
+        }
+
+        CompletableFuture<byte[]> aggregate(StatsAggregationRequest request) {
+            timeoutByAggregator.put(request.worker, request.timeoutMillis);
+            return new StatsAggregator(client(request.worker), request.fanout)
+                    .collect(request.workers, WorkerCommand.PERIOD_STATS, WorkerCommand.AGGREGATE_PERIOD_STATS,
+                            request.timeoutMillis, PeriodStats.class, s -> {
+                            })
+                    .thenApply(subtree -> {
+                        PeriodStats merged = new PeriodStats();
+                        StatsAggregator.add(merged, request.worker, stats(request.worker));
+                        subtree.forEach((w, s) -> StatsAggregator.add(merged, w, s));
+                        try {
+                            return mapper.writeValueAsBytes(merged);
+                        } catch (Exception e) {
+                            throw new CompletionException(e);
+                        }
+                    });
+        }
+
+        PeriodStats stats(String worker) {
+            PeriodStats stats = new PeriodStats();
+            stats.messagesSent = addresses.indexOf(worker) + 1;
+            stats.bytesSent = stats.messagesSent * 100;
+            stats.elapsedMillis = 1000;
+            return stats;
+        }
+
+        PeriodStats collect(int fanout, long timeoutMillis) {
+            PeriodStats stats = new PeriodStats();
+            new StatsAggregator(client("coordinator"), fanout)
+                    .collect(addresses, WorkerCommand.PERIOD_STATS, WorkerCommand.AGGREGATE_PERIOD_STATS,
+                            timeoutMillis, PeriodStats.class, s -> {
+                            })
+                    .join().forEach((worker, s) -> StatsAggregator.add(stats, worker, s));
+            return stats;
+        }
+    }
+
+    @Test
+    public void testTreeReachesEveryWorkerOnce() {
+        Workers workers = new Workers(50);
+        PeriodStats stats = workers.collect(3, 0);
+
+        workers.requestsBySender.forEach((sender, requests) -> assertTrue(sender + " sent " + requests.size(),
+                requests.size() <= 3));
+        assertTrue(workers.requestsBySender.size() > 1);
+        assertEquals(workers.addresses.size(), workers.requestsByWorker.size());
+        workers.requestsByWorker.forEach((worker, requests) -> assertEquals(worker, 1, (int) requests));
+
+        assertEquals(50 * 51 / 2, stats.messagesSent);
+        assertEquals(50 * 51 / 2 * 100, stats.bytesSent);
+        assertEquals(50 * 1000, stats.elapsedMillis, 0);
+        assertEquals(50, stats.publishRateByWorker.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i + 1, stats.publishRateByWorker.get("worker-" + i), 0.001);
+        }
+    }
+
+    @Test
+    public void testNoFanoutQueriesEveryWorkerDirectly() {
+        Workers workers = new Workers(10);
+        PeriodStats stats = workers.collect(0, 0);
+
+        assertEquals(Collections.singleton("coordinator"), workers.requestsBySender.keySet());
+        assertEquals(10, workers.requestsBySender.get("coordinator").size());
+        assertEquals(55, stats.messagesSent);
+        assertEquals(10, stats.publishRateByWorker.size());
+    }
+
+    @Test
+    public void testEachLevelHasAShorterDeadline() {
+        Workers workers = new Workers(50);
+        workers.collect(3, 60_000);
+
+        // The first level aggregators get three quarters of the coordinator time, the next ones three quarters of that
+        Collection<Long> timeouts = workers.timeoutByAggregator.values();
+        assertTrue(timeouts.contains(45_000L));
+        assertTrue(timeouts.contains(33_750L));
+    }
+
+    @Test
+    public void testSlowWorkerIsNamedByItsAggregator() {
+        Workers workers = new Workers(50);
+        // A leaf below a second level aggregator
+        workers.unresponsiveWorker = "worker-2";
+        try {
+            workers.collect(3, 1_000);
+            fail("The collect should have timed out");
+        } catch (CompletionException e) {
+            Throwable cause = e;
+            while (cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            assertTrue(cause.getMessage(), cause.getMessage().contains("worker-2 did not answer PERIOD_STATS"));
+        }
+    }
+
+    @Test
+    public void testMergeCountersStats() {
+        CountersStats first = new CountersStats();
+        first.messagesSent = 10;
+        first.messagesReceived = 20;
+        first.producers = 1;
+        first.messagesReceivedBySubscription.put("sub-a", 5L);
+        CountersStats second = new CountersStats();
+        second.messagesSent = 1;
+        second.messagesReceived = 2;
+        second.consumers = 3;
+        second.messagesReceivedBySubscription.put("sub-a", 1L);
+        second.messagesReceivedBySubscription.put("sub-b", 7L);
+
+        CountersStats merged = StatsAggregator.merge(Arrays.asList(first, second));
+        assertEquals(11, merged.messagesSent);
+        assertEquals(22, merged.messagesReceived);
+        assertEquals(1, merged.producers);
+        assertEquals(3, merged.consumers);
+        assertEquals(6L, (long) merged.messagesReceivedBySubscription.get("sub-a"));
+        assertEquals(7L, (long) merged.messagesReceivedBySubscription.get("sub-b"));
+    }
+}
@@ -0,0 +1,191 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.openmessaging.benchmark.driver.BenchmarkTransaction;
+import io.openmessaging.benchmark.driver.BenchmarkTransactionalProducer;
+
+public class TransactionBatcherTest {
+
+    private final ScheduledExecutorService commitTimer = Executors.newSingleThreadScheduledExecutor();
+
+    /**
+     * Transactions recording their messages in order, then the commit
+     */
+    private static class FakeProducer implements BenchmarkTransactionalProducer {
+        final List<List<String>> transactions = new CopyOnWriteArrayList<>();
+        volatile boolean closed;
+
+        @Override
+        public CompletableFuture<BenchmarkTransaction> beginTransaction() {
+            List<String> events = Collections.synchronizedList(new ArrayList<>());
+            transactions.add(events);
+            return CompletableFuture.completedFuture(new BenchmarkTransaction() {
+                @Override
+                public CompletableFuture<Void> sendAsync(Optional<String> key, byte[] payload) {
+                    events.add(new String(payload));
+                    return CompletableFuture.completedFuture(null);
+                }
+
+                @Override
+                public CompletableFuture<Void> commit() {
+                    events.add("commit");
+                    return CompletableFuture.completedFuture(null);
+                }
+
+                @Override
+                public CompletableFuture<Void> abort() {
+                    events.add("abort");
+                    return CompletableFuture.completedFuture(null);
+                }
+            });
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private static class Commits implements TransactionBatcher.Listener {
+        final List<Integer> messages = new CopyOnWriteArrayList<>();
+        final CountDownLatch first = new CountDownLatch(1);
+
+        @Override
+        public void transactionCompleted(long firstMessageTime, long commitStartTime, int count, Throwable error) {
+            assertNull(error);
+            assertTrue(commitStartTime >= firstMessageTime);
+            messages.add(count);
+            first.countDown();
+        }
+    }
+
+    @After
+    public void shutdown() {
+        commitTimer.shutdownNow();
+    }
+
+    private static void send(TransactionBatcher batcher, String... messages) throws Exception {
+        for (String message : messages) {
+            batcher.sendAsync(Optional.empty(), message.getBytes()).get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testCommitAfterMessagesPerTransaction() throws Exception {
+        FakeProducer producer = new FakeProducer();
+        Commits commits = new Commits();
+        TransactionBatcher batcher = new TransactionBatcher(producer, 3, 0, commitTimer, commits);
+
+        send(batcher, "a", "b", "c", "d", "e", "f", "g");
+
+        assertEquals(Arrays.asList(3, 3), commits.messages);
+        assertEquals(Arrays.asList("a", "b", "c", "commit"), producer.transactions.get(0));
+        assertEquals(Arrays.asList("d", "e", "f", "commit"), producer.transactions.get(1));
+        assertEquals(Collections.singletonList("g"), producer.transactions.get(2));
+        batcher.close();
+    }
+
+    @Test
+    public void testCommitAfterInterval() throws Exception {
+        FakeProducer producer = new FakeProducer();
+        Commits commits = new Commits();
+        TransactionBatcher batcher = new TransactionBatcher(producer, 1000, 50, commitTimer, commits);
+
+        send(batcher, "a", "b");
+        assertTrue(commits.first.await(10, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList(2), commits.messages);
+        assertEquals(Arrays.asList("a", "b", "commit"), producer.transactions.get(0));
+
+        // The next message begins a new transaction
+        send(batcher, "c");
+        assertEquals(2, producer.transactions.size());
+        batcher.close();
+    }
+
+    @Test
+    public void testCloseCommitsTheOpenTransaction() throws Exception {
+        FakeProducer producer = new FakeProducer();
+        Commits commits = new Commits();
+        TransactionBatcher batcher = new TransactionBatcher(producer, 1000, 0, commitTimer, commits);
+
+        send(batcher, "a", "b");
+        assertTrue(commits.messages.isEmpty());
+
+        batcher.close();
+        assertEquals(Collections.singletonList(2), commits.messages);
+        assertEquals(Arrays.asList("a", "b", "commit"), producer.transactions.get(0));
+        assertTrue(producer.closed);
+
+        // Nothing is sent once closed
+        assertTrue(batcher.sendAsync(Optional.empty(), new byte[1]).isCompletedExceptionally());
+        assertEquals(1, producer.transactions.size());
+    }
+
+    @Test
+    public void testMessagesWaitForTheTransactionToBegin() throws Exception {
+        CompletableFuture<BenchmarkTransaction> begun = new CompletableFuture<>();
+        FakeProducer delegate = new FakeProducer();
+        BenchmarkTransactionalProducer producer = new BenchmarkTransactionalProducer() {
+            @Override
+            public CompletableFuture<BenchmarkTransaction> beginTransaction() {
+                return begun;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Commits commits = new Commits();
+        TransactionBatcher batcher = new TransactionBatcher(producer, 2, 0, commitTimer, commits);
+
+        // Sending does not block while every session of the pool is busy
+        CompletableFuture<Void> first = batcher.sendAsync(Optional.empty(), "a".getBytes());
+        CompletableFuture<Void> second = batcher.sendAsync(Optional.empty(), "b".getBytes());
+        assertFalse(first.isDone());
+        assertFalse(second.isDone());
+        assertTrue(commits.messages.isEmpty());
+
+        begun.complete(delegate.beginTransaction().join());
+        second.get(10, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("a", "b", "commit"), delegate.transactions.get(0));
+        assertEquals(Collections.singletonList(2), commits.messages);
+        batcher.close();
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker.rpc;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.openmessaging.benchmark.worker.WorkerCommand;
+
+public class RpcRoundTripTest {
+
+    private static final long SHORT_TIMEOUT_MILLIS = 200;
+
+    // Released at the end of each test, so that a command blocked past its deadline does not outlive it
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private RpcServer server;
+    private RpcWorkerTransport transport;
+    private String worker;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new RpcServer((command, body) -> {
+            switch (command) {
+                case CREATE_TOPICS:
+                    throw new IllegalArgumentException("no such topic");
+                case STOP_ALL:
+                    release.await();
+                    return body;
+                default:
+                    return body;
+            }
+        });
+        server.start(0);
+        transport = new RpcWorkerTransport(
+                command -> command == WorkerCommand.STOP_ALL ? SHORT_TIMEOUT_MILLIS : TimeUnit.SECONDS.toMillis(30));
+        worker = "rpc://localhost:" + server.getPort();
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        transport.close();
+        server.close();
+    }
+
+    private byte[] send(WorkerCommand command, byte[] body) throws Exception {
+        return transport.send(worker, command, body).get(30, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testEmptyBody() throws Exception {
+        assertArrayEquals(new byte[0], send(WorkerCommand.PERIOD_STATS, new byte[0]));
+    }
+
+    @Test
+    public void testMultiChunkBody() throws Exception {
+        byte[] body = new byte[RpcFrames.CHUNK_SIZE * 2 + 123];
+        new Random(1).nextBytes(body);
+
+        assertArrayEquals(body, send(WorkerCommand.CUMULATIVE_LATENCIES, body));
+    }
+
+    @Test
+    public void testBodyOfExactlyOneChunk() throws Exception {
+        byte[] body = new byte[RpcFrames.CHUNK_SIZE];
+        new Random(2).nextBytes(body);
+
+        assertArrayEquals(body, send(WorkerCommand.CUMULATIVE_LATENCIES, body));
+    }
+
+    @Test
+    public void testErrorFrame() throws Exception {
+        try {
+            send(WorkerCommand.CREATE_TOPICS, new byte[0]);
+            fail("The command should have failed");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+            assertTrue(e.getCause().getMessage().contains("no such topic"));
+        }
+
+        // The connection is still usable
+        assertArrayEquals(new byte[] { 1 }, send(WorkerCommand.PERIOD_STATS, new byte[] { 1 }));
+    }
+
+    @Test
+    public void testDeadlineExpiry() throws Exception {
+        try {
+            send(WorkerCommand.STOP_ALL, new byte[] { 1 });
+            fail("The command should have timed out");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+
+        // The late response is dropped and the other requests are not affected
+        release.countDown();
+        assertArrayEquals(new byte[] { 2 }, send(WorkerCommand.PERIOD_STATS, new byte[] { 2 }));
+    }
+
+    @Test
+    public void testConcurrentRequests() throws Exception {
+        byte[] large = new byte[RpcFrames.CHUNK_SIZE * 4];
+        new Random(3).nextBytes(large);
+
+        // Large and small bodies multiplexed on the same connection
+        List<CompletableFuture<byte[]>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(transport.send(worker, WorkerCommand.CUMULATIVE_LATENCIES,
+                    i % 2 == 0 ? large : new byte[] { (byte) i }));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            byte[] response = futures.get(i).get(30, TimeUnit.SECONDS);
+            if (i % 2 == 0) {
+                assertArrayEquals(large, response);
+            } else {
+                assertEquals(1, response.length);
+                assertEquals(i, response[0]);
+            }
+        }
+    }
+}
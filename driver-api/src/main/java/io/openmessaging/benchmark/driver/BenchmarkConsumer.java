@@ -18,6 +18,19 @@
  */
 package io.openmessaging.benchmark.driver;
 
+import java.util.Optional;
+import java.util.Set;
+
 public interface BenchmarkConsumer extends AutoCloseable {
 
+    /**
+     * Get the partitions of the topic currently assigned to this consumer. The benchmark waits for all the partitions
+     * of each subscription to be assigned before it probes the topics and starts measuring.
+     *
+     * @return the indexes of the assigned partitions, or empty if the driver does not track the assignment
+     */
+    default Optional<Set<Integer>> getAssignedPartitions() {
+        return Optional.empty();
+    }
+
 }
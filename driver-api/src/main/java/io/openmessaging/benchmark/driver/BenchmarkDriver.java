@@ -20,7 +20,12 @@ package io.openmessaging.benchmark.driver;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.bookkeeper.stats.StatsLogger;
 
 /**
@@ -49,11 +54,51 @@ public interface BenchmarkDriver extends AutoCloseable {
      */
     CompletableFuture<Void> createTopic(String topic, int partitions);
 
+    /**
+     * Create a batch of topics.
+     * <p>
+     * The default implementation issues one {@link #createTopic(String, int)} per topic. Drivers whose admin API
+     * supports batched or pipelined creation should override this, since it is used to set up all the topics of a
+     * benchmark run.
+     *
+     * @param topics
+     *            the topics to create
+     * @return a future that completes when all the topics have been created
+     */
+    default CompletableFuture<Void> createTopics(List<TopicSpec> topics) {
+        CompletableFuture<?>[] futures = topics.stream()
+                .map(t -> createTopic(t.getTopic(), t.getPartitions()))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * Delete a topic with all its partitions and subscriptions, to measure the admin operations of the cluster.
+     * <p>
+     * The default implementation fails, drivers whose admin API can delete topics should override it.
+     */
+    default CompletableFuture<Void> deleteTopic(String topic) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        future.completeExceptionally(new UnsupportedOperationException("The driver cannot delete topics"));
+        return future;
+    }
+
     /**
      * Create a producer for a given topic
      */
     CompletableFuture<BenchmarkProducer> createProducer(String topic);
 
+    /**
+     * Create a producer publishing its messages in transactions, for the transactional benchmarks.
+     * <p>
+     * The default implementation fails, drivers whose clients support transactions should override it.
+     */
+    default CompletableFuture<BenchmarkTransactionalProducer> createTransactionalProducer(String topic) {
+        CompletableFuture<BenchmarkTransactionalProducer> future = new CompletableFuture<>();
+        future.completeExceptionally(new UnsupportedOperationException("The driver does not support transactions"));
+        return future;
+    }
+
     /**
      * Create a benchmark consumer relative to one particular topic and subscription.
      * 
@@ -69,4 +114,110 @@ public interface BenchmarkDriver extends AutoCloseable {
         String topic,
         String subscriptionName,
         ConsumerCallback consumerCallback);
+
+    /**
+     * Create a benchmark consumer for a new subscription that starts reading at the given position, to read data
+     * already stored in the topic.
+     * <p>
+     * The default implementation only supports {@link ConsumerStartPosition#LATEST}.
+     *
+     * @param topic
+     * @param subscriptionName
+     * @param startPosition
+     * @param startTimestamp
+     *            with {@link ConsumerStartPosition#TIMESTAMP}, the publish time of the first message to read, in
+     *            milliseconds since the epoch
+     * @param consumerCallback
+     * @return
+     */
+    default CompletableFuture<BenchmarkConsumer> createConsumer(
+        String topic,
+        String subscriptionName,
+        ConsumerStartPosition startPosition,
+        long startTimestamp,
+        ConsumerCallback consumerCallback) {
+        if (startPosition == ConsumerStartPosition.LATEST) {
+            return createConsumer(topic, subscriptionName, consumerCallback);
+        }
+
+        CompletableFuture<BenchmarkConsumer> future = new CompletableFuture<>();
+        future.completeExceptionally(new UnsupportedOperationException(
+                "The driver cannot start consumers from " + startPosition));
+        return future;
+    }
+
+    /**
+     * Create a producer of the replies of a request/reply benchmark, which can publish on any reply topic.
+     * <p>
+     * The default implementation creates a producer with {@link #createProducer(String)} for each reply topic it
+     * publishes on. Drivers whose clients can publish on any topic should override it to share a single client.
+     */
+    default CompletableFuture<BenchmarkReplyProducer> createReplyProducer() {
+        Map<String, CompletableFuture<BenchmarkProducer>> producers = new ConcurrentHashMap<>();
+        return CompletableFuture.completedFuture(new BenchmarkReplyProducer() {
+            @Override
+            public CompletableFuture<Void> sendReply(String replyTopic, byte[] payload) {
+                CompletableFuture<BenchmarkProducer> producer = producers.computeIfAbsent(replyTopic,
+                        BenchmarkDriver.this::createProducer);
+                if (!producer.isDone() || producer.isCompletedExceptionally()) {
+                    // Create the producer again on the next reply to the topic if it could not be created
+                    producer.whenComplete((p, t) -> {
+                        if (t != null) {
+                            producers.remove(replyTopic, producer);
+                        }
+                    });
+                }
+                return producer.thenCompose(p -> p.sendAsync(Optional.empty(), payload));
+            }
+
+            /**
+             * Close all the producers, then fail with the first error if some could not be closed
+             */
+            @Override
+            public void close() throws Exception {
+                Exception error = null;
+                for (CompletableFuture<BenchmarkProducer> producer : new ArrayList<>(producers.values())) {
+                    try {
+                        if (!producer.isCompletedExceptionally()) {
+                            producer.join().close();
+                        }
+                    } catch (Exception e) {
+                        if (error == null) {
+                            error = e;
+                        } else {
+                            error.addSuppressed(e);
+                        }
+                    }
+                }
+                producers.clear();
+                if (error != null) {
+                    throw error;
+                }
+            }
+        });
+    }
+
+    /**
+     * List the existing topics whose name starts with the given prefix, to run a benchmark on topics created and
+     * filled beforehand.
+     * <p>
+     * The default implementation fails, drivers whose admin API can list topics should override it.
+     */
+    default CompletableFuture<List<String>> listTopics(String prefix) {
+        CompletableFuture<List<String>> future = new CompletableFuture<>();
+        future.completeExceptionally(new UnsupportedOperationException("The driver cannot list the topics"));
+        return future;
+    }
+
+    /**
+     * Get the number of partitions of existing topics, to wait for all of them to be assigned before a benchmark
+     * runs on topics created beforehand. A non-partitioned topic counts as one partition.
+     * <p>
+     * The default implementation fails, drivers whose admin API can describe topics should override it.
+     */
+    default CompletableFuture<Map<String, Integer>> getPartitions(List<String> topics) {
+        CompletableFuture<Map<String, Integer>> future = new CompletableFuture<>();
+        future.completeExceptionally(new UnsupportedOperationException("The driver cannot describe the topics"));
+        return future;
+    }
 }
@@ -34,4 +34,44 @@ public interface BenchmarkProducer extends AutoCloseable {
      */
     CompletableFuture<Void> sendAsync(Optional<String> key, byte[] payload);
 
+    /**
+     * Publish a message whose key is also available pre-encoded. Drivers that need the key as bytes can override
+     * this to avoid encoding it for every message.
+     *
+     * @param key
+     *            the key associated with this message
+     * @param keyBytes
+     *            the UTF-8 encoding of the key, or null when there is no key
+     * @param payload
+     *            the message payload
+     * @return a future that will be triggered when the message is successfully published
+     */
+    default CompletableFuture<Void> sendAsync(Optional<String> key, byte[] keyBytes, byte[] payload) {
+        return sendAsync(key, payload);
+    }
+
+    /**
+     * Publish a message on a given partition of the topic. Used to probe every partition before a test starts.
+     * <p>
+     * The default implementation publishes an unkeyed message, which the client routes to any partition: drivers that
+     * can target a partition should override it along with {@link #canSendToPartition()}.
+     *
+     * @param partition
+     *            the index of the partition
+     * @param payload
+     *            the message payload
+     * @return a future that will be triggered when the message is successfully published
+     */
+    default CompletableFuture<Void> sendToPartitionAsync(int partition, byte[] payload) {
+        return sendAsync(Optional.empty(), payload);
+    }
+
+    /**
+     * @return whether {@link #sendToPartitionAsync(int, byte[])} publishes on the given partition. Otherwise the
+     *         probes received do not prove that every partition is consumed.
+     */
+    default boolean canSendToPartition() {
+        return false;
+    }
+
 }
@@ -0,0 +1,39 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.driver;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Producer of the replies of a request/reply benchmark, publishing each reply on the topic named by its request
+ */
+public interface BenchmarkReplyProducer extends AutoCloseable {
+
+    /**
+     * Publish a reply on a topic created with {@link BenchmarkDriver#createTopic(String, int)}.
+     *
+     * @param replyTopic
+     *            the topic the requester listens to for its replies
+     * @param payload
+     *            the reply payload
+     * @return a future that will be triggered when the reply is successfully published
+     */
+    CompletableFuture<Void> sendReply(String replyTopic, byte[] payload);
+
+}
@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.driver;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Transaction of a {@link BenchmarkTransactionalProducer}, whose messages become visible to the consumers once it is
+ * committed
+ */
+public interface BenchmarkTransaction {
+
+    /**
+     * Publish a message in the transaction.
+     *
+     * @param key
+     *            the key associated with this message
+     * @param payload
+     *            the message payload
+     * @return a future that will be triggered when the message is accepted in the transaction
+     */
+    CompletableFuture<Void> sendAsync(Optional<String> key, byte[] payload);
+
+    /**
+     * Commit the transaction, once its messages are all sent.
+     *
+     * @return a future that will be triggered when the messages of the transaction are visible to the consumers
+     */
+    CompletableFuture<Void> commit();
+
+    /**
+     * Abort the transaction, discarding its messages
+     */
+    CompletableFuture<Void> abort();
+}
@@ -0,0 +1,35 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.driver;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Producer publishing its messages in transactions. A new transaction can begin while the previous ones are being
+ * committed: drivers keep a pool of the sessions or clients the transactions run on, and reuse them once committed.
+ */
+public interface BenchmarkTransactionalProducer extends AutoCloseable {
+
+    /**
+     * Begin a transaction on the topic of the producer.
+     *
+     * @return a future that will be triggered when a session of the pool is free to run the transaction
+     */
+    CompletableFuture<BenchmarkTransaction> beginTransaction();
+}
@@ -44,6 +44,27 @@ public interface ConsumerCallback {
      */
     void messageReceived(ByteBuffer payload, long publishTimestamp);
 
+    /**
+     * Variant of {@link #messageReceived(byte[], long)} for drivers that know which partition the message was read
+     * from. This lets the benchmark report how the traffic is spread across partitions.
+     *
+     * @param topic
+     *            the topic the message was read from, without any driver specific partition suffix
+     * @param partition
+     *            the partition index within the topic
+     */
+    default void messageReceived(byte[] payload, long publishTimestamp, String topic, int partition) {
+        messageReceived(payload, publishTimestamp);
+    }
+
+    /**
+     * Variant of {@link #messageReceived(ByteBuffer, long)} for drivers that know which partition the message was
+     * read from.
+     */
+    default void messageReceived(ByteBuffer payload, long publishTimestamp, String topic, int partition) {
+        messageReceived(payload, publishTimestamp);
+    }
+
     /**
      * There was an error consuming a message.
      */
@@ -0,0 +1,281 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.driver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Base of the transactional producers running their transactions on a pool of clients, for the drivers whose clients
+ * only run one transaction at a time. A client is created on demand up to the size of the pool, then a new transaction
+ * waits in line for one to be free, without blocking the thread beginning it. A client whose transaction fails to
+ * begin, commit or abort is closed instead of being reused, and the pool creates another one in its place.
+ *
+ * @param <C>
+ *            the client a transaction runs on
+ */
+public abstract class PooledTransactionalProducer<C> implements BenchmarkTransactionalProducer {
+
+    private final int poolSize;
+    private final Set<C> clients = ConcurrentHashMap.newKeySet();
+
+    // Guarded by this
+    private final Queue<C> idleClients = new ArrayDeque<>();
+    private final Queue<CompletableFuture<C>> waiters = new ArrayDeque<>();
+    private int leasedClients;
+    private boolean closed;
+
+    // Creating a client and committing block until they are completed, one thread per client lets them overlap
+    private final ExecutorService clientExecutor;
+
+    protected PooledTransactionalProducer(int poolSize) {
+        this.poolSize = Math.max(1, poolSize);
+        this.clientExecutor = Executors.newFixedThreadPool(this.poolSize);
+    }
+
+    /**
+     * Create a new client of the pool, ready to begin a transaction
+     */
+    protected abstract C createClient() throws Exception;
+
+    protected abstract void beginTransaction(C client) throws Exception;
+
+    protected abstract CompletableFuture<Void> sendAsync(C client, Optional<String> key, byte[] payload);
+
+    protected abstract void commitTransaction(C client) throws Exception;
+
+    protected abstract void abortTransaction(C client) throws Exception;
+
+    /**
+     * Close a client, which discards the transaction it may still have in progress. Failures are only logged.
+     */
+    protected abstract void closeClient(C client);
+
+    @Override
+    public CompletableFuture<BenchmarkTransaction> beginTransaction() {
+        return acquireClient().thenApply(client -> {
+            try {
+                beginTransaction(client);
+            } catch (Exception e) {
+                releaseClient(client, false);
+                throw new CompletionException(e);
+            }
+            return new PooledTransaction(client);
+        });
+    }
+
+    /**
+     * Lease an idle client, create a new one while the pool is not full, or else wait for a client to be released
+     */
+    private CompletableFuture<C> acquireClient() {
+        synchronized (this) {
+            if (closed) {
+                CompletableFuture<C> future = new CompletableFuture<>();
+                future.completeExceptionally(new IllegalStateException("Transactional producer closed"));
+                return future;
+            }
+            C client = idleClients.poll();
+            if (client != null) {
+                leasedClients++;
+                return CompletableFuture.completedFuture(client);
+            }
+            if (leasedClients == poolSize) {
+                CompletableFuture<C> waiter = new CompletableFuture<>();
+                waiters.add(waiter);
+                return waiter;
+            }
+            leasedClients++;
+        }
+
+        CompletableFuture<C> future = new CompletableFuture<>();
+        createClientAsync(future);
+        return future;
+    }
+
+    /**
+     * Create a client in a slot already leased, and give the slot back if it fails
+     */
+    private void createClientAsync(CompletableFuture<C> future) {
+        CompletableFuture<C> created;
+        try {
+            created = CompletableFuture.supplyAsync(() -> {
+                try {
+                    C client = createClient();
+                    clients.add(client);
+                    return client;
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, clientExecutor);
+        } catch (RejectedExecutionException e) {
+            // Closed while the client was waited for
+            releaseSlot();
+            future.completeExceptionally(e);
+            return;
+        }
+
+        created.whenComplete((client, t) -> {
+            if (t != null) {
+                releaseSlot();
+                future.completeExceptionally(t);
+                return;
+            }
+            boolean open;
+            synchronized (this) {
+                open = !closed;
+            }
+            if (open) {
+                future.complete(client);
+            } else {
+                releaseClient(client, false);
+                future.completeExceptionally(new IllegalStateException("Transactional producer closed"));
+            }
+        });
+    }
+
+    /**
+     * Hand the client over to the next transaction waiting, or give it back to the pool. A client that is not reusable
+     * is closed and the next transaction waiting gets a new client instead.
+     */
+    private void releaseClient(C client, boolean reusable) {
+        if (!reusable) {
+            clients.remove(client);
+            closeClient(client);
+            releaseSlot();
+            return;
+        }
+
+        CompletableFuture<C> waiter;
+        synchronized (this) {
+            waiter = waiters.poll();
+            if (waiter == null) {
+                leasedClients--;
+                if (closed) {
+                    clients.remove(client);
+                } else {
+                    idleClients.add(client);
+                    return;
+                }
+            }
+        }
+        if (waiter != null) {
+            waiter.complete(client);
+        } else {
+            closeClient(client);
+        }
+    }
+
+    /**
+     * Give back the slot of a client that was closed or could not be created, to the next transaction waiting if any
+     */
+    private void releaseSlot() {
+        CompletableFuture<C> waiter;
+        synchronized (this) {
+            waiter = waiters.poll();
+            if (waiter == null) {
+                leasedClients--;
+                return;
+            }
+        }
+        createClientAsync(waiter);
+    }
+
+    @Override
+    public void close() throws Exception {
+        List<CompletableFuture<C>> pending;
+        synchronized (this) {
+            closed = true;
+            pending = new ArrayList<>(waiters);
+            waiters.clear();
+            idleClients.clear();
+        }
+        for (CompletableFuture<C> waiter : pending) {
+            waiter.completeExceptionally(new IllegalStateException("Transactional producer closed"));
+        }
+
+        clientExecutor.shutdown();
+        for (C client : clients) {
+            closeClient(client);
+        }
+        clients.clear();
+    }
+
+    private class PooledTransaction implements BenchmarkTransaction {
+        private final C client;
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        PooledTransaction(C client) {
+            this.client = client;
+        }
+
+        @Override
+        public CompletableFuture<Void> sendAsync(Optional<String> key, byte[] payload) {
+            return PooledTransactionalProducer.this.sendAsync(client, key, payload);
+        }
+
+        @Override
+        public CompletableFuture<Void> commit() {
+            return complete(true);
+        }
+
+        @Override
+        public CompletableFuture<Void> abort() {
+            return complete(false);
+        }
+
+        /**
+         * Commit or abort the transaction, then give the client back to the pool, or replace it when it failed
+         */
+        private CompletableFuture<Void> complete(boolean commit) {
+            if (!completed.compareAndSet(false, true)) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return CompletableFuture.runAsync(() -> {
+                boolean reusable = false;
+                try {
+                    if (commit) {
+                        commitTransaction(client);
+                    } else {
+                        abortTransaction(client);
+                    }
+                    reusable = true;
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                } finally {
+                    releaseClient(client, reusable);
+                }
+            }, clientExecutor);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.driver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class PooledTransactionalProducerTest {
+
+    /**
+     * Pool of clients numbered in creation order, failing the next begin or commit on demand
+     */
+    private static class FakePool extends PooledTransactionalProducer<Integer> {
+        final AtomicInteger created = new AtomicInteger();
+        final List<Integer> begun = new CopyOnWriteArrayList<>();
+        final List<Integer> closed = new CopyOnWriteArrayList<>();
+        volatile boolean failNextBegin;
+        volatile boolean failNextCommit;
+
+        FakePool(int poolSize) {
+            super(poolSize);
+        }
+
+        @Override
+        protected Integer createClient() {
+            return created.incrementAndGet();
+        }
+
+        @Override
+        protected void beginTransaction(Integer client) {
+            if (failNextBegin) {
+                failNextBegin = false;
+                throw new IllegalStateException("begin failed on client " + client);
+            }
+            begun.add(client);
+        }
+
+        @Override
+        protected CompletableFuture<Void> sendAsync(Integer client, Optional<String> key, byte[] payload) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        protected void commitTransaction(Integer client) {
+            if (failNextCommit) {
+                failNextCommit = false;
+                throw new IllegalStateException("commit failed on client " + client);
+            }
+        }
+
+        @Override
+        protected void abortTransaction(Integer client) {
+        }
+
+        @Override
+        protected void closeClient(Integer client) {
+            closed.add(client);
+        }
+    }
+
+    private static BenchmarkTransaction get(CompletableFuture<BenchmarkTransaction> future) throws Exception {
+        return future.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testWaiterIsHandedTheReleasedClient() throws Exception {
+        FakePool pool = new FakePool(1);
+        BenchmarkTransaction first = get(pool.beginTransaction());
+
+        CompletableFuture<BenchmarkTransaction> second = pool.beginTransaction();
+        assertFalse(second.isDone());
+
+        first.commit().get(10, TimeUnit.SECONDS);
+        get(second).commit().get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, pool.created.get());
+        assertEquals(2, pool.begun.size());
+        pool.close();
+    }
+
+    @Test
+    public void testFailedCommitReplacesTheClient() throws Exception {
+        FakePool pool = new FakePool(1);
+        BenchmarkTransaction first = get(pool.beginTransaction());
+        CompletableFuture<BenchmarkTransaction> second = pool.beginTransaction();
+
+        pool.failNextCommit = true;
+        try {
+            first.commit().get(10, TimeUnit.SECONDS);
+            fail("The commit should have failed");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+
+        // The waiting transaction runs on a new client in the slot of the failed one
+        get(second);
+        assertEquals(2, pool.created.get());
+        assertEquals(2, (int) pool.begun.get(1));
+        assertTrue(pool.closed.contains(1));
+        pool.close();
+    }
+
+    @Test
+    public void testFailedBeginFreesTheSlot() throws Exception {
+        FakePool pool = new FakePool(1);
+        pool.failNextBegin = true;
+        try {
+            get(pool.beginTransaction());
+            fail("The begin should have failed");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertTrue(pool.closed.contains(1));
+
+        get(pool.beginTransaction());
+        assertEquals(2, pool.created.get());
+        pool.close();
+    }
+
+    @Test
+    public void testClientsAreCreatedUpToThePoolSize() throws Exception {
+        FakePool pool = new FakePool(2);
+        get(pool.beginTransaction());
+        get(pool.beginTransaction());
+        assertFalse(pool.beginTransaction().isDone());
+        assertEquals(2, pool.created.get());
+        pool.close();
+    }
+
+    @Test
+    public void testCloseFailsPendingWaiters() throws Exception {
+        FakePool pool = new FakePool(1);
+        get(pool.beginTransaction());
+        CompletableFuture<BenchmarkTransaction> waiting = pool.beginTransaction();
+
+        pool.close();
+        assertTrue(waiting.isCompletedExceptionally());
+        assertEquals(1, pool.closed.size());
+
+        assertTrue(pool.beginTransaction().isCompletedExceptionally());
+    }
+}
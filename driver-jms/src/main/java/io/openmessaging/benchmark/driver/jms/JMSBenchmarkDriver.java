@@ -23,6 +23,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.StringReader;
 import java.lang.reflect.Constructor;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Random;
@@ -46,7 +47,10 @@ import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import io.openmessaging.benchmark.driver.BenchmarkConsumer;
 import io.openmessaging.benchmark.driver.BenchmarkDriver;
 import io.openmessaging.benchmark.driver.BenchmarkProducer;
+import io.openmessaging.benchmark.driver.BenchmarkReplyProducer;
+import io.openmessaging.benchmark.driver.BenchmarkTransactionalProducer;
 import io.openmessaging.benchmark.driver.ConsumerCallback;
+import io.openmessaging.benchmark.driver.TopicSpec;
 import io.openmessaging.benchmark.driver.jms.config.JMSConfig;
 
 public class JMSBenchmarkDriver implements BenchmarkDriver {
@@ -128,11 +132,20 @@ public class JMSBenchmarkDriver implements BenchmarkDriver {
         return CompletableFuture.completedFuture(null);
     }
 
+    @Override
+    public CompletableFuture<Void> createTopics(List<TopicSpec> topics) {
+        if (delegateForAdminOperations != null) {
+            return delegateForAdminOperations.createTopics(topics);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
     @Override
     public CompletableFuture<BenchmarkProducer> createProducer(String topic) {
         try {
             if (config.sendWithTransactions) {
-                return CompletableFuture.completedFuture(new JMSBenchmarkTransactionProducer(connection, topic, config.use20api, config.properties));
+                return CompletableFuture.completedFuture(new JMSBenchmarkTransactionProducer(connection, topic, config.use20api,
+                        config.properties, config.transactionSessionPoolSize));
             } else {
                 Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
                 Destination destination = session.createTopic(topic);
@@ -145,6 +158,24 @@ public class JMSBenchmarkDriver implements BenchmarkDriver {
         }
     }
 
+    @Override
+    public CompletableFuture<BenchmarkTransactionalProducer> createTransactionalProducer(String topic) {
+        return CompletableFuture.completedFuture(new JMSBenchmarkTransactionalProducer(connection, topic,
+                config.use20api, config.properties, config.transactionSessionPoolSize));
+    }
+
+    @Override
+    public CompletableFuture<BenchmarkReplyProducer> createReplyProducer() {
+        try {
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            return CompletableFuture.completedFuture(new JMSBenchmarkReplyProducer(session));
+        } catch (Exception err) {
+            CompletableFuture<BenchmarkReplyProducer> res = new CompletableFuture<>();
+            res.completeExceptionally(err);
+            return res;
+        }
+    }
+
     @Override
     public CompletableFuture<BenchmarkConsumer> createConsumer(String topic, String subscriptionName,
                     ConsumerCallback consumerCallback) {
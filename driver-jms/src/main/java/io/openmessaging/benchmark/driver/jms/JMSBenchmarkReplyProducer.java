@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.driver.jms;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.jms.BytesMessage;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import io.openmessaging.benchmark.driver.BenchmarkReplyProducer;
+
+/**
+ * Publish the replies through an unidentified producer, which takes the destination of each message. The session is
+ * shared by the consumers replying, so the sends are serialized.
+ */
+public class JMSBenchmarkReplyProducer implements BenchmarkReplyProducer {
+
+    private final Session session;
+    private final MessageProducer producer;
+    private final Map<String, Destination> destinations = new ConcurrentHashMap<>();
+
+    public JMSBenchmarkReplyProducer(Session session) throws JMSException {
+        this.session = session;
+        this.producer = session.createProducer(null);
+    }
+
+    @Override
+    public synchronized CompletableFuture<Void> sendReply(String replyTopic, byte[] payload) {
+        CompletableFuture<Void> res = new CompletableFuture<>();
+        try {
+            Destination destination = destinations.get(replyTopic);
+            if (destination == null) {
+                destination = session.createTopic(replyTopic);
+                destinations.put(replyTopic, destination);
+            }
+
+            BytesMessage bytesMessage = session.createBytesMessage();
+            bytesMessage.writeBytes(payload);
+            bytesMessage.setLongProperty("E2EStartMillis", System.currentTimeMillis());
+            producer.send(destination, bytesMessage);
+            res.complete(null);
+        } catch (JMSException err) {
+            res.completeExceptionally(err);
+        }
+        return res;
+    }
+
+    @Override
+    public void close() throws Exception {
+        session.close();
+    }
+
+}
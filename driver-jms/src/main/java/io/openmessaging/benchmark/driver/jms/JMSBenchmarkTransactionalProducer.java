@@ -0,0 +1,113 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.driver.jms;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import javax.jms.Connection;
+import javax.jms.Session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.openmessaging.benchmark.driver.PooledTransactionalProducer;
+import io.openmessaging.benchmark.driver.jms.config.JMSConfig;
+
+/**
+ * Transactions on a pool of transacted sessions, each with its own producer, since a JMS session runs one transaction
+ * at a time. A session whose commit or rollback fails is closed, which rolls back the transaction it still has in
+ * progress, and replaced with a new session of the connection.
+ */
+public class JMSBenchmarkTransactionalProducer
+        extends PooledTransactionalProducer<JMSBenchmarkTransactionalProducer.PooledSession> {
+
+    private final Connection connection;
+    private final String destination;
+    private final boolean useAsyncSend;
+    private final List<JMSConfig.AddProperty> properties;
+
+    public JMSBenchmarkTransactionalProducer(Connection connection, String destination, boolean useAsyncSend,
+            List<JMSConfig.AddProperty> properties, int poolSize) {
+        super(poolSize);
+        this.connection = connection;
+        this.destination = destination;
+        this.useAsyncSend = useAsyncSend;
+        this.properties = properties;
+    }
+
+    @Override
+    protected PooledSession createClient() throws Exception {
+        Session jmsSession = connection.createSession(true, Session.SESSION_TRANSACTED);
+        try {
+            return new PooledSession(jmsSession, new JMSBenchmarkProducer(jmsSession,
+                    jmsSession.createTopic(destination), useAsyncSend, properties));
+        } catch (Exception err) {
+            jmsSession.close();
+            throw err;
+        }
+    }
+
+    /**
+     * A transacted session is always in a transaction, the next one begins when the previous one completes
+     */
+    @Override
+    protected void beginTransaction(PooledSession session) {
+    }
+
+    @Override
+    protected CompletableFuture<Void> sendAsync(PooledSession session, Optional<String> key, byte[] payload) {
+        return session.producer.sendAsync(key, payload);
+    }
+
+    /**
+     * JMS waits for the asynchronous sends of the session before committing them
+     */
+    @Override
+    protected void commitTransaction(PooledSession session) throws Exception {
+        session.session.commit();
+    }
+
+    @Override
+    protected void abortTransaction(PooledSession session) throws Exception {
+        session.session.rollback();
+    }
+
+    @Override
+    protected void closeClient(PooledSession session) {
+        try {
+            session.producer.close();
+        } catch (Throwable err) {
+            log.error("Error closing session {}", err.toString());
+        }
+    }
+
+    static class PooledSession {
+        final Session session;
+        final JMSBenchmarkProducer producer;
+
+        PooledSession(Session session, JMSBenchmarkProducer producer) {
+            this.session = session;
+            this.producer = producer;
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(JMSBenchmarkTransactionalProducer.class);
+}
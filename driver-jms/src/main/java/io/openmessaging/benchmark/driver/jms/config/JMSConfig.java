@@ -38,6 +38,8 @@ public class JMSConfig
 
     public boolean sendWithTransactions = false;
 
+    public int transactionSessionPoolSize = 8;
+
     public String delegateForAdminOperationsClassName;
 
     public static class AddProperty {
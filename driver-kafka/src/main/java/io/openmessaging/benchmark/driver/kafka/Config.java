@@ -30,4 +30,14 @@ public class Config {
     public String consumerConfig;
 
     public boolean reset;
+
+    /**
+     * Maximum number of topics sent in a single CreateTopics admin request.
+     */
+    public int topicCreationBatchSize = 500;
+
+    /**
+     * Maximum number of producers of each transactional producer, so many transactions can be committed at once.
+     */
+    public int transactionalProducerPoolSize = 4;
 }
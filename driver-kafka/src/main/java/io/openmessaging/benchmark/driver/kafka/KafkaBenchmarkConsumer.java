@@ -19,12 +19,16 @@
 package io.openmessaging.benchmark.driver.kafka;
 
 import java.time.Duration;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
@@ -48,6 +52,11 @@ public class KafkaBenchmarkConsumer implements BenchmarkConsumer {
     private final Future<?> consumerTask;
     private volatile boolean closing = false;
     private boolean autoCommit;
+    private volatile Runnable closeListener = () -> {
+    };
+
+    // Snapshot of the assignment taken by the poll thread, since the KafkaConsumer is not thread-safe
+    private volatile Set<Integer> assignedPartitions = Collections.emptySet();
 
     public KafkaBenchmarkConsumer(KafkaConsumer<String, byte[]> consumer,
                                   Properties consumerConfig,
@@ -66,10 +75,12 @@ public class KafkaBenchmarkConsumer implements BenchmarkConsumer {
             while (!closing) {
                 try {
                     ConsumerRecords<String, byte[]> records = consumer.poll(Duration.ofMillis(pollTimeoutMs));
+                    assignedPartitions = consumer.assignment().stream().map(TopicPartition::partition)
+                            .collect(Collectors.toSet());
 
                     Map<TopicPartition, OffsetAndMetadata> offsetMap = new HashMap<>();
                     for (ConsumerRecord<String, byte[]> record : records) {
-                        callback.messageReceived(record.value(), record.timestamp());
+                        callback.messageReceived(record.value(), record.timestamp(), record.topic(), record.partition());
 
                         offsetMap.put(new TopicPartition(record.topic(), record.partition()),
                             new OffsetAndMetadata(record.offset()+1));
@@ -86,12 +97,28 @@ public class KafkaBenchmarkConsumer implements BenchmarkConsumer {
         });
     }
 
+    @Override
+    public Optional<Set<Integer>> getAssignedPartitions() {
+        return Optional.of(assignedPartitions);
+    }
+
+    /**
+     * Run the listener once the consumer is closed, for the driver to stop tracking it
+     */
+    void onClose(Runnable listener) {
+        this.closeListener = listener;
+    }
+
     @Override
     public void close() throws Exception {
-        closing = true;
-        executor.shutdown();
-        consumerTask.get();
-        consumer.close();
+        try {
+            closing = true;
+            executor.shutdown();
+            consumerTask.get();
+            consumer.close();
+        } finally {
+            closeListener.run();
+        }
     }
 
 }
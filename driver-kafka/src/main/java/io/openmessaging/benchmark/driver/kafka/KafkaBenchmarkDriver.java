@@ -23,28 +23,35 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
 
 import org.apache.bookkeeper.stats.StatsLogger;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.admin.DeleteTopicsResult;
 import org.apache.kafka.clients.admin.ListTopicsResult;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.admin.TopicDescription;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
-import org.apache.kafka.common.serialization.StringSerializer;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -53,14 +60,21 @@ import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import io.openmessaging.benchmark.driver.BenchmarkConsumer;
 import io.openmessaging.benchmark.driver.BenchmarkDriver;
 import io.openmessaging.benchmark.driver.BenchmarkProducer;
+import io.openmessaging.benchmark.driver.BenchmarkReplyProducer;
+import io.openmessaging.benchmark.driver.BenchmarkTransactionalProducer;
 import io.openmessaging.benchmark.driver.ConsumerCallback;
+import io.openmessaging.benchmark.driver.ConsumerStartPosition;
+import io.openmessaging.benchmark.driver.TopicSpec;
 
 public class KafkaBenchmarkDriver implements BenchmarkDriver {
 
     private Config config;
 
-    private List<BenchmarkProducer> producers = Collections.synchronizedList(new ArrayList<>());
-    private List<BenchmarkConsumer> consumers = Collections.synchronizedList(new ArrayList<>());
+    // The producers and consumers still open, each one leaving its set when closed since churn producers and the
+    // consumers creating subscriptions come and go
+    private Set<BenchmarkProducer> producers = ConcurrentHashMap.newKeySet();
+    private Set<BenchmarkConsumer> consumers = ConcurrentHashMap.newKeySet();
+    private Set<BenchmarkTransactionalProducer> transactionalProducers = ConcurrentHashMap.newKeySet();
 
     private Properties topicProperties;
     private Properties producerProperties;
@@ -78,7 +92,7 @@ public class KafkaBenchmarkDriver implements BenchmarkDriver {
         producerProperties = new Properties();
         commonProperties.forEach((key, value) -> producerProperties.put(key, value));
         producerProperties.load(new StringReader(config.producerConfig));
-        producerProperties.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        producerProperties.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
         producerProperties.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
 
         consumerProperties = new Properties();
@@ -112,28 +126,68 @@ public class KafkaBenchmarkDriver implements BenchmarkDriver {
         return "test-topic";
     }
 
-    @SuppressWarnings({ "rawtypes", "unchecked" })
     @Override
     public CompletableFuture<Void> createTopic(String topic, int partitions) {
-        return CompletableFuture.runAsync(() -> {
-            try {
-                NewTopic newTopic = new NewTopic(topic, partitions, config.replicationFactor);
-                newTopic.configs(new HashMap<>((Map) topicProperties));
-                admin.createTopics(Arrays.asList(newTopic)).all().get();
-            } catch (InterruptedException | ExecutionException e) {
-                throw new RuntimeException(e);
+        return createTopics(Collections.singletonList(new TopicSpec(topic, partitions)));
+    }
+
+    /**
+     * Create the topics with one admin request per chunk of {@link Config#topicCreationBatchSize} topics, chaining the
+     * chunks so that the controller only has one request in flight from this worker.
+     */
+    @Override
+    public CompletableFuture<Void> createTopics(List<TopicSpec> topics) {
+        int batchSize = Math.max(1, config.topicCreationBatchSize);
+        CompletableFuture<Void> future = CompletableFuture.completedFuture(null);
+        for (int i = 0; i < topics.size(); i += batchSize) {
+            List<TopicSpec> batch = topics.subList(i, Math.min(topics.size(), i + batchSize));
+            future = future.thenCompose(__ -> createTopicsBatch(batch));
+        }
+        return future;
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private CompletableFuture<Void> createTopicsBatch(List<TopicSpec> topics) {
+        List<NewTopic> newTopics = new ArrayList<>(topics.size());
+        for (TopicSpec topic : topics) {
+            NewTopic newTopic = new NewTopic(topic.getTopic(), topic.getPartitions(), config.replicationFactor);
+            newTopic.configs(new HashMap<>((Map) topicProperties));
+            newTopics.add(newTopic);
+        }
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        admin.createTopics(newTopics).all().whenComplete((result, throwable) -> {
+            if (throwable == null) {
+                future.complete(result);
+            } else {
+                future.completeExceptionally(throwable);
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteTopic(String topic) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        admin.deleteTopics(Collections.singleton(topic)).all().whenComplete((result, throwable) -> {
+            if (throwable == null) {
+                future.complete(result);
+            } else {
+                future.completeExceptionally(throwable);
             }
         });
+        return future;
     }
 
     @Override
     public CompletableFuture<BenchmarkProducer> createProducer(String topic) {
         Properties newProducerProperties = newProducerProperties(topic);
-        KafkaProducer<String, byte[]> kafkaProducer = new KafkaProducer<>(newProducerProperties);
-        BenchmarkProducer benchmarkProducer = newProducer(kafkaProducer, newProducerProperties, topic);
+        KafkaProducer<byte[], byte[]> kafkaProducer = new KafkaProducer<>(newProducerProperties);
+        KafkaBenchmarkProducer benchmarkProducer = newProducer(kafkaProducer, newProducerProperties, topic);
         try {
-            // Add to producer list to close later
+            // Add to producer set to close later, unless closed before
             producers.add(benchmarkProducer);
+            benchmarkProducer.onClose(() -> producers.remove(benchmarkProducer));
             return CompletableFuture.completedFuture(benchmarkProducer);
         } catch (Throwable t) {
             kafkaProducer.close();
@@ -143,24 +197,62 @@ public class KafkaBenchmarkDriver implements BenchmarkDriver {
         }
     }
 
+    @Override
+    public CompletableFuture<BenchmarkTransactionalProducer> createTransactionalProducer(String topic) {
+        KafkaBenchmarkTransactionalProducer transactionalProducer = new KafkaBenchmarkTransactionalProducer(topic,
+                newProducerProperties(topic), config.transactionalProducerPoolSize);
+        transactionalProducers.add(transactionalProducer);
+        transactionalProducer.onClose(() -> transactionalProducers.remove(transactionalProducer));
+        return CompletableFuture.completedFuture(transactionalProducer);
+    }
+
     protected Properties newProducerProperties(String topic) {
         Properties result = new Properties();
         result.putAll(producerProperties);
         return result;
     }
 
-    protected KafkaBenchmarkProducer newProducer(KafkaProducer<String, byte[]> kafkaProducer, Properties properties, String topic) {
+    protected KafkaBenchmarkProducer newProducer(KafkaProducer<byte[], byte[]> kafkaProducer, Properties properties, String topic) {
         return new KafkaBenchmarkProducer(kafkaProducer, topic);
     }
 
+    @Override
+    public CompletableFuture<BenchmarkReplyProducer> createReplyProducer() {
+        try {
+            return CompletableFuture.completedFuture(
+                    new KafkaBenchmarkReplyProducer(new KafkaProducer<>(newProducerProperties("replies"))));
+        } catch (Throwable t) {
+            CompletableFuture<BenchmarkReplyProducer> future = new CompletableFuture<>();
+            future.completeExceptionally(t);
+            return future;
+        }
+    }
+
     @Override
     public CompletableFuture<BenchmarkConsumer> createConsumer(String topic, String subscriptionName,
             ConsumerCallback consumerCallback) {
+        return createConsumer(topic, subscriptionName, ConsumerStartPosition.LATEST, 0, consumerCallback);
+    }
+
+    @Override
+    public CompletableFuture<BenchmarkConsumer> createConsumer(String topic, String subscriptionName,
+            ConsumerStartPosition startPosition, long startTimestamp, ConsumerCallback consumerCallback) {
         Properties properties = newConsumerProperties(subscriptionName);
+        if (startPosition != ConsumerStartPosition.LATEST) {
+            properties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        }
         KafkaConsumer<String, byte[]> consumer = new KafkaConsumer<>(properties);
         try {
-            consumer.subscribe(Arrays.asList(topic));
-            return CompletableFuture.completedFuture(newConsumer(consumer, properties, consumerCallback));
+            if (startPosition == ConsumerStartPosition.TIMESTAMP) {
+                consumer.subscribe(Arrays.asList(topic), new SeekToTimestamp(consumer, startTimestamp));
+            } else {
+                consumer.subscribe(Arrays.asList(topic));
+            }
+            KafkaBenchmarkConsumer benchmarkConsumer = newConsumer(consumer, properties, consumerCallback);
+            // Add to consumer set to close later, unless closed before
+            consumers.add(benchmarkConsumer);
+            benchmarkConsumer.onClose(() -> consumers.remove(benchmarkConsumer));
+            return CompletableFuture.completedFuture(benchmarkConsumer);
         } catch (Throwable t) {
             consumer.close();
             CompletableFuture<BenchmarkConsumer> future = new CompletableFuture<>();
@@ -170,6 +262,79 @@ public class KafkaBenchmarkDriver implements BenchmarkDriver {
 
     }
 
+    /**
+     * Move the partitions to the first offset published at or after the timestamp, or to their end when nothing was
+     * published since, as long as the group has not committed an offset for them. A partition handed over by a
+     * rebalance, eg. as the other consumers of the subscription join, then resumes where its previous owner stopped
+     * rather than going back to the timestamp.
+     */
+    private static class SeekToTimestamp implements ConsumerRebalanceListener {
+        private final KafkaConsumer<String, byte[]> consumer;
+        private final long timestamp;
+        private final Set<TopicPartition> positioned = new HashSet<>();
+
+        SeekToTimestamp(KafkaConsumer<String, byte[]> consumer, long timestamp) {
+            this.consumer = consumer;
+            this.timestamp = timestamp;
+        }
+
+        @Override
+        public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        }
+
+        @Override
+        public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+            Set<TopicPartition> unpositioned = partitions.stream().filter(positioned::add).collect(Collectors.toSet());
+            if (unpositioned.isEmpty()) {
+                return;
+            }
+
+            Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(unpositioned);
+            Map<TopicPartition, Long> timestamps = new HashMap<>();
+            unpositioned.stream().filter(partition -> committed.get(partition) == null)
+                    .forEach(partition -> timestamps.put(partition, timestamp));
+            if (timestamps.isEmpty()) {
+                return;
+            }
+
+            consumer.offsetsForTimes(timestamps).forEach((partition, offset) -> {
+                if (offset != null) {
+                    consumer.seek(partition, offset.offset());
+                } else {
+                    consumer.seekToEnd(Collections.singletonList(partition));
+                }
+            });
+        }
+    }
+
+    @Override
+    public CompletableFuture<List<String>> listTopics(String prefix) {
+        CompletableFuture<List<String>> future = new CompletableFuture<>();
+        admin.listTopics().names().whenComplete((names, throwable) -> {
+            if (throwable == null) {
+                future.complete(names.stream().filter(name -> name.startsWith(prefix)).sorted()
+                        .collect(Collectors.toList()));
+            } else {
+                future.completeExceptionally(throwable);
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Integer>> getPartitions(List<String> topics) {
+        CompletableFuture<Map<String, Integer>> future = new CompletableFuture<>();
+        admin.describeTopics(topics).all().whenComplete((descriptions, throwable) -> {
+            if (throwable == null) {
+                future.complete(descriptions.values().stream().collect(
+                        Collectors.toMap(TopicDescription::name, description -> description.partitions().size())));
+            } else {
+                future.completeExceptionally(throwable);
+            }
+        });
+        return future;
+    }
+
     protected Properties newConsumerProperties(String subscriptionName) {
         Properties properties = new Properties();
         properties.putAll(consumerProperties);
@@ -188,6 +353,10 @@ public class KafkaBenchmarkDriver implements BenchmarkDriver {
             producer.close();
         }
 
+        for (BenchmarkTransactionalProducer producer : transactionalProducers) {
+            producer.close();
+        }
+
         for (BenchmarkConsumer consumer : consumers) {
             consumer.close();
         }
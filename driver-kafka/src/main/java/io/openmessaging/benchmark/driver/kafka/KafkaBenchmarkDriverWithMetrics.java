@@ -59,7 +59,7 @@ public class KafkaBenchmarkDriverWithMetrics extends KafkaBenchmarkDriver {
     }
 
     @Override
-    protected KafkaBenchmarkProducer newProducer(KafkaProducer<String, byte[]> kafkaProducer, Properties properties, String topic) {
+    protected KafkaBenchmarkProducer newProducer(KafkaProducer<byte[], byte[]> kafkaProducer, Properties properties, String topic) {
         return new KafkaBenchmarkProducerWithMetrics(kafkaProducer, topic, properties);
     }
 
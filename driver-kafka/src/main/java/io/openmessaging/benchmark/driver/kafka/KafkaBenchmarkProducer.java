@@ -18,6 +18,7 @@
  */
 package io.openmessaging.benchmark.driver.kafka;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -32,18 +33,41 @@ import io.openmessaging.benchmark.driver.BenchmarkProducer;
 
 public class KafkaBenchmarkProducer implements BenchmarkProducer {
 
-    private final KafkaProducer<String, byte[]> producer;
+    private final KafkaProducer<byte[], byte[]> producer;
     private final String topic;
+    private volatile Runnable closeListener = () -> {
+    };
 
-    public KafkaBenchmarkProducer(KafkaProducer<String, byte[]> producer, String topic) {
+    public KafkaBenchmarkProducer(KafkaProducer<byte[], byte[]> producer, String topic) {
         this.producer = producer;
         this.topic = topic;
     }
 
     @Override
     public CompletableFuture<Void> sendAsync(Optional<String> key, byte[] payload) {
-        ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, key.orElse(null), payload);
+        return send(new ProducerRecord<>(topic, key.map(k -> k.getBytes(StandardCharsets.UTF_8)).orElse(null),
+                payload));
+    }
+
+    /**
+     * The keys are serialized as bytes, so the pre-encoded key is sent as is
+     */
+    @Override
+    public CompletableFuture<Void> sendAsync(Optional<String> key, byte[] keyBytes, byte[] payload) {
+        return send(new ProducerRecord<>(topic, keyBytes, payload));
+    }
+
+    @Override
+    public CompletableFuture<Void> sendToPartitionAsync(int partition, byte[] payload) {
+        return send(new ProducerRecord<>(topic, partition, null, payload));
+    }
+
+    @Override
+    public boolean canSendToPartition() {
+        return true;
+    }
 
+    private CompletableFuture<Void> send(ProducerRecord<byte[], byte[]> record) {
         CompletableFuture<Void> future = new CompletableFuture<>();
 
         producer.send(record, (metadata, exception) -> {
@@ -57,9 +81,20 @@ public class KafkaBenchmarkProducer implements BenchmarkProducer {
         return future;
     }
 
+    /**
+     * Run the listener once the producer is closed, for the driver to stop tracking it
+     */
+    void onClose(Runnable listener) {
+        this.closeListener = listener;
+    }
+
     @Override
     public void close() throws Exception {
-        producer.close();
+        try {
+            producer.close();
+        } finally {
+            closeListener.run();
+        }
     }
 
 }
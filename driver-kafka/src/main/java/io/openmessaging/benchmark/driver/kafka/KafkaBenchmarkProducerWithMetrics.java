@@ -38,7 +38,7 @@ public class KafkaBenchmarkProducerWithMetrics extends KafkaBenchmarkProducer im
     private String clientId;
     private MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
 
-    public KafkaBenchmarkProducerWithMetrics(KafkaProducer<String, byte[]> producer, String topic, Properties producerConfig) {
+    public KafkaBenchmarkProducerWithMetrics(KafkaProducer<byte[], byte[]> producer, String topic, Properties producerConfig) {
         super(producer, topic);
         this.clientId = producerConfig.getProperty(ConsumerConfig.CLIENT_ID_CONFIG);
     }
@@ -0,0 +1,59 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.driver.kafka;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+
+import io.openmessaging.benchmark.driver.BenchmarkReplyProducer;
+
+/**
+ * Publish the replies on any reply topic through a single Kafka producer
+ */
+public class KafkaBenchmarkReplyProducer implements BenchmarkReplyProducer {
+
+    private final KafkaProducer<byte[], byte[]> producer;
+
+    public KafkaBenchmarkReplyProducer(KafkaProducer<byte[], byte[]> producer) {
+        this.producer = producer;
+    }
+
+    @Override
+    public CompletableFuture<Void> sendReply(String replyTopic, byte[] payload) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+
+        producer.send(new ProducerRecord<>(replyTopic, payload), (metadata, exception) -> {
+            if (exception != null) {
+                future.completeExceptionally(exception);
+            } else {
+                future.complete(null);
+            }
+        });
+
+        return future;
+    }
+
+    @Override
+    public void close() throws Exception {
+        producer.close();
+    }
+
+}
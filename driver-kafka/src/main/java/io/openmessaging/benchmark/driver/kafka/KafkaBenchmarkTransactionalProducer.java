@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.driver.kafka;
+
+import java.util.Optional;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.openmessaging.benchmark.driver.PooledTransactionalProducer;
+
+/**
+ * Transactions on a pool of producers, each with its own transactional id, since a Kafka producer runs one transaction
+ * at a time. A producer whose commit or abort fails is in an error state that may not be recoverable, so it is closed,
+ * which lets the coordinator abort its transaction, and replaced with a producer with a new transactional id.
+ * <p>
+ * The consumers only skip the uncommitted messages with isolation.level=read_committed in the consumer config.
+ */
+public class KafkaBenchmarkTransactionalProducer
+        extends PooledTransactionalProducer<KafkaBenchmarkTransactionalProducer.PooledProducer> {
+
+    private final String topic;
+    private final Properties properties;
+    private volatile Runnable closeListener = () -> {
+    };
+
+    public KafkaBenchmarkTransactionalProducer(String topic, Properties properties, int poolSize) {
+        super(poolSize);
+        this.topic = topic;
+        this.properties = properties;
+    }
+
+    @Override
+    protected PooledProducer createClient() {
+        Properties producerProperties = new Properties();
+        producerProperties.putAll(properties);
+        producerProperties.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, topic + "-" + UUID.randomUUID().toString());
+        KafkaProducer<byte[], byte[]> kafkaProducer = new KafkaProducer<>(producerProperties);
+        try {
+            kafkaProducer.initTransactions();
+        } catch (RuntimeException e) {
+            kafkaProducer.close();
+            throw e;
+        }
+        return new PooledProducer(kafkaProducer, new KafkaBenchmarkProducer(kafkaProducer, topic));
+    }
+
+    @Override
+    protected void beginTransaction(PooledProducer producer) {
+        producer.kafkaProducer.beginTransaction();
+    }
+
+    @Override
+    protected CompletableFuture<Void> sendAsync(PooledProducer producer, Optional<String> key, byte[] payload) {
+        return producer.producer.sendAsync(key, payload);
+    }
+
+    /**
+     * Committing flushes the messages of the transaction still being sent
+     */
+    @Override
+    protected void commitTransaction(PooledProducer producer) {
+        producer.kafkaProducer.commitTransaction();
+    }
+
+    @Override
+    protected void abortTransaction(PooledProducer producer) {
+        producer.kafkaProducer.abortTransaction();
+    }
+
+    @Override
+    protected void closeClient(PooledProducer producer) {
+        try {
+            producer.producer.close();
+        } catch (Throwable t) {
+            log.warn("Failed to close a transactional producer on {}", topic, t);
+        }
+    }
+
+    /**
+     * Run the listener once the producer is closed, for the driver to stop tracking it
+     */
+    void onClose(Runnable listener) {
+        this.closeListener = listener;
+    }
+
+    @Override
+    public void close() throws Exception {
+        try {
+            super.close();
+        } finally {
+            closeListener.run();
+        }
+    }
+
+    static class PooledProducer {
+        final KafkaProducer<byte[], byte[]> kafkaProducer;
+        final KafkaBenchmarkProducer producer;
+
+        PooledProducer(KafkaProducer<byte[], byte[]> kafkaProducer, KafkaBenchmarkProducer producer) {
+            this.kafkaProducer = kafkaProducer;
+            this.producer = producer;
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaBenchmarkTransactionalProducer.class);
+}
@@ -54,7 +54,6 @@ import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
-import org.apache.kafka.common.serialization.StringSerializer;
 import org.apache.pulsar.client.api.Consumer;
 import org.apache.pulsar.client.api.ConsumerBuilder;
 import org.apache.pulsar.client.api.ProducerBuilder;
@@ -92,7 +91,7 @@ public class KopBenchmarkDriver implements BenchmarkDriver {
 
         producerProperties = new Properties();
         commonProperties.forEach(producerProperties::put);
-        producerProperties.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producerProperties.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
         producerProperties.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
 
         consumerProperties = new Properties();
@@ -146,7 +145,8 @@ public class KopBenchmarkDriver implements BenchmarkDriver {
             producers.add(producer);
             return CompletableFuture.completedFuture(producer);
         } else if (config.consumerType.equals(ClientType.PULSAR)) {
-            return producerBuilder.clone().topic(topic).createAsync().thenApply(PulsarBenchmarkProducer::new);
+            return producerBuilder.clone().topic(topic).createAsync()
+                    .thenApply(producer -> new PulsarBenchmarkProducer(producer, client, producerBuilder));
         } else {
             throw new IllegalArgumentException("producerType " + config.producerType + " is invalid");
         }
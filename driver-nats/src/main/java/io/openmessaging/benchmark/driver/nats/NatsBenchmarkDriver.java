@@ -29,6 +29,7 @@ import java.time.Duration;
 import io.openmessaging.benchmark.driver.BenchmarkConsumer;
 import io.openmessaging.benchmark.driver.BenchmarkDriver;
 import io.openmessaging.benchmark.driver.BenchmarkProducer;
+import io.openmessaging.benchmark.driver.BenchmarkReplyProducer;
 import io.openmessaging.benchmark.driver.ConsumerCallback;
 import java.io.File;
 import java.io.IOException;
@@ -70,6 +71,18 @@ public class NatsBenchmarkDriver implements BenchmarkDriver {
         return CompletableFuture.completedFuture(new NatsBenchmarkProducer(natsProducer, topic));
     }
 
+    @Override public CompletableFuture<BenchmarkReplyProducer> createReplyProducer() {
+        try {
+            Options options = new Options.Builder().server(config.natsHostUrl).maxReconnects(5).build();
+            return CompletableFuture.completedFuture(new NatsBenchmarkReplyProducer(Nats.connect(options)));
+        } catch (Exception e) {
+            log.error("createReplyProducer exception " + e);
+            CompletableFuture<BenchmarkReplyProducer> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
     @Override public CompletableFuture<BenchmarkConsumer> createConsumer(String topic, String subscriptionName,
         ConsumerCallback consumerCallback) {
         Dispatcher natsConsumer;
@@ -0,0 +1,50 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.driver.nats;
+
+import io.nats.client.Connection;
+import io.openmessaging.benchmark.driver.BenchmarkReplyProducer;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Publish the replies on any subject through a single connection. Like the requests, the reply subject of the
+ * messages carries their publish timestamp.
+ */
+public class NatsBenchmarkReplyProducer implements BenchmarkReplyProducer {
+    private final Connection connection;
+
+    public NatsBenchmarkReplyProducer(final Connection connection) {
+        this.connection = connection;
+    }
+
+    @Override public CompletableFuture<Void> sendReply(String replyTopic, byte[] payload) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            connection.publish(replyTopic, Long.toString(System.currentTimeMillis()), payload);
+            future.complete(null);
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    @Override public void close() throws Exception {
+        connection.close();
+    }
+}
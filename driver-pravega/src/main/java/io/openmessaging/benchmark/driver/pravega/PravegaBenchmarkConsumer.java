@@ -24,7 +24,9 @@ import io.pravega.client.EventStreamClientFactory;
 import io.pravega.client.admin.ReaderGroupManager;
 import io.pravega.client.stream.EventStreamReader;
 import io.pravega.client.stream.ReaderConfig;
+import io.pravega.client.stream.ReaderGroup;
 import io.pravega.client.stream.ReaderGroupConfig;
+import io.pravega.client.stream.ReaderSegmentDistribution;
 import io.pravega.client.stream.ReinitializationRequiredException;
 import io.pravega.client.stream.Stream;
 import io.pravega.client.stream.impl.ByteBufferSerializer;
@@ -32,17 +34,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class PravegaBenchmarkConsumer implements BenchmarkConsumer {
     private static final Logger log = LoggerFactory.getLogger(PravegaBenchmarkConsumer.class);
 
     private final ExecutorService executor;
     private final EventStreamReader<ByteBuffer> reader;
+    private final String readerId = UUID.randomUUID().toString();
+    private final ReaderGroup readerGroup;
     private final AtomicBoolean closed = new AtomicBoolean(false);
 
     public PravegaBenchmarkConsumer(String streamName, String scopeName, String subscriptionName, ConsumerCallback consumerCallback,
@@ -54,9 +63,10 @@ public class PravegaBenchmarkConsumer implements BenchmarkConsumer {
                 .stream(Stream.of(scopeName, streamName))
                 .build();
         readerGroupManager.createReaderGroup(subscriptionName, readerGroupConfig);
+        readerGroup = readerGroupManager.getReaderGroup(subscriptionName);
         // Create reader.
         reader = clientFactory.createReader(
-                UUID.randomUUID().toString(),
+                readerId,
                 subscriptionName,
                 new ByteBufferSerializer(),
                 ReaderConfig.builder().disableTimeWindows(true).build());
@@ -84,11 +94,27 @@ public class PravegaBenchmarkConsumer implements BenchmarkConsumer {
         });
     }
 
+    /**
+     * Segments are not numbered like partitions: once the reader group has no unassigned segment left, every reader
+     * holding segments reports all of them, so that together they cover the stream.
+     */
+    @Override
+    public Optional<Set<Integer>> getAssignedPartitions() {
+        ReaderSegmentDistribution distribution = readerGroup.getReaderSegmentDistribution();
+        int assigned = distribution.getReaderSegmentDistribution().values().stream().mapToInt(Integer::intValue).sum();
+        if (distribution.getUnassignedSegments() > 0
+                || distribution.getReaderSegmentDistribution().getOrDefault(readerId, 0) == 0) {
+            return Optional.of(Collections.emptySet());
+        }
+        return Optional.of(IntStream.range(0, assigned).boxed().collect(Collectors.toSet()));
+    }
+
     @Override
     public void close() throws Exception {
         closed.set(true);
         this.executor.shutdown();
         this.executor.awaitTermination(1, TimeUnit.MINUTES);
         reader.close();
+        readerGroup.close();
     }
 }
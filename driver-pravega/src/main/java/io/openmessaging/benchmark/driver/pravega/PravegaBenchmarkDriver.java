@@ -25,7 +25,9 @@ import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import io.openmessaging.benchmark.driver.BenchmarkConsumer;
 import io.openmessaging.benchmark.driver.BenchmarkDriver;
 import io.openmessaging.benchmark.driver.BenchmarkProducer;
+import io.openmessaging.benchmark.driver.BenchmarkTransactionalProducer;
 import io.openmessaging.benchmark.driver.ConsumerCallback;
+import io.openmessaging.benchmark.driver.TopicSpec;
 import io.openmessaging.benchmark.driver.pravega.config.PravegaConfig;
 import io.pravega.client.ClientConfig;
 import io.pravega.client.EventStreamClientFactory;
@@ -43,6 +45,8 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class PravegaBenchmarkDriver implements BenchmarkDriver {
     private static final Logger log = LoggerFactory.getLogger(PravegaBenchmarkDriver.class);
@@ -56,6 +60,7 @@ public class PravegaBenchmarkDriver implements BenchmarkDriver {
     private ReaderGroupManager readerGroupManager;
     private EventStreamClientFactory clientFactory;
     private final List<String> createdTopics = new ArrayList<>();
+    private final ExecutorService adminExecutor = Executors.newCachedThreadPool();
 
     @Override
     public void initialize(File configurationFile, StatsLogger statsLogger) throws IOException {
@@ -90,14 +95,33 @@ public class PravegaBenchmarkDriver implements BenchmarkDriver {
 
     @Override
     public CompletableFuture<Void> createTopic(String topic, int partitions) {
+        if (config.createScope) {
+            streamManager.createScope(scopeName);
+        }
+        createStream(topic, partitions);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Create the scope once and then all the streams.
+     */
+    @Override
+    public CompletableFuture<Void> createTopics(List<TopicSpec> topics) {
+        if (config.createScope) {
+            streamManager.createScope(scopeName);
+        }
+        for (TopicSpec topic : topics) {
+            createStream(topic.getTopic(), topic.getPartitions());
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private void createStream(String topic, int partitions) {
         topic = cleanName(topic);
         log.info("createTopic: topic={}, partitions={}", topic, partitions);
         synchronized (createdTopics) {
             createdTopics.add(topic);
         }
-        if (config.createScope) {
-            streamManager.createScope(scopeName);
-        }
         ScalingPolicy scalingPolicy;
         // Create a fixed or auto-scaling Stream based on user configuration.
         if (config.enableStreamAutoScaling && (config.eventsPerSecond != PravegaConfig.DEFAULT_STREAM_AUTOSCALING_VALUE ||
@@ -109,7 +133,27 @@ public class PravegaBenchmarkDriver implements BenchmarkDriver {
             scalingPolicy = ScalingPolicy.fixed(partitions);
         }
         streamManager.createStream(scopeName, topic, StreamConfiguration.builder().scalingPolicy(scalingPolicy).build());
-        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Seal the stream, which Pravega requires before deleting it, on the admin executor as the stream manager calls
+     * block
+     */
+    @Override
+    public CompletableFuture<Void> deleteTopic(String topic) {
+        String stream = cleanName(topic);
+        log.info("deleteTopic: topic={}", stream);
+        return CompletableFuture.runAsync(() -> {
+            if (!streamManager.sealStream(scopeName, stream)) {
+                throw new IllegalStateException("Failed to seal stream " + stream);
+            }
+            if (!streamManager.deleteStream(scopeName, stream)) {
+                throw new IllegalStateException("Failed to delete stream " + stream);
+            }
+            synchronized (createdTopics) {
+                createdTopics.remove(stream);
+            }
+        }, adminExecutor);
     }
 
     @Override
@@ -126,6 +170,13 @@ public class PravegaBenchmarkDriver implements BenchmarkDriver {
         return CompletableFuture.completedFuture(producer);
     }
 
+    @Override
+    public CompletableFuture<BenchmarkTransactionalProducer> createTransactionalProducer(String topic) {
+        return CompletableFuture.completedFuture(new PravegaBenchmarkTransactionalProducer(cleanName(topic),
+                clientFactory, config.includeTimestampInEvent, config.writer.enableConnectionPooling,
+                config.concurrentTransactions));
+    }
+
     @Override
     public CompletableFuture<BenchmarkConsumer> createConsumer(String topic, String subscriptionName,
             ConsumerCallback consumerCallback) {
@@ -151,6 +202,7 @@ public class PravegaBenchmarkDriver implements BenchmarkDriver {
     @Override
     public void close() throws Exception {
         log.info("close: clientConfig={}", clientConfig);
+        adminExecutor.shutdownNow();
         if (clientFactory != null) {
             clientFactory.close();
         }
@@ -0,0 +1,143 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.driver.pravega;
+
+import io.openmessaging.benchmark.driver.BenchmarkTransaction;
+import io.openmessaging.benchmark.driver.BenchmarkTransactionalProducer;
+import io.pravega.client.EventStreamClientFactory;
+import io.pravega.client.stream.EventWriterConfig;
+import io.pravega.client.stream.Transaction;
+import io.pravega.client.stream.TransactionalEventStreamWriter;
+import io.pravega.client.stream.TxnFailedException;
+import io.pravega.client.stream.impl.ByteBufferSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Transactions of a single transactional writer, which Pravega lets run many transactions at once. A commit only
+ * starts committing the transaction, so its future waits for the transaction to be committed, when its events become
+ * visible to the readers. Each commit waits on its own thread of a pool sized to the transactions committing at once,
+ * so that a commit is not delayed by the others.
+ */
+public class PravegaBenchmarkTransactionalProducer implements BenchmarkTransactionalProducer {
+    private static final Logger log = LoggerFactory.getLogger(PravegaBenchmarkTransactionalProducer.class);
+
+    private static final long COMMIT_STATUS_POLL_MILLIS = 10;
+
+    private final TransactionalEventStreamWriter<ByteBuffer> transactionWriter;
+    private final boolean includeTimestampInEvent;
+    private final ExecutorService commitExecutor;
+
+    public PravegaBenchmarkTransactionalProducer(String streamName, EventStreamClientFactory clientFactory,
+            boolean includeTimestampInEvent, boolean enableConnectionPooling, int concurrentTransactions) {
+        log.info("PravegaBenchmarkTransactionalProducer: BEGIN: streamName={}", streamName);
+
+        final String writerId = UUID.randomUUID().toString();
+        transactionWriter = clientFactory.createTransactionalEventWriter(writerId, streamName,
+                new ByteBufferSerializer(),
+                EventWriterConfig.builder().enableConnectionPooling(enableConnectionPooling).build());
+        this.includeTimestampInEvent = includeTimestampInEvent;
+        this.commitExecutor = Executors.newFixedThreadPool(Math.max(1, concurrentTransactions));
+    }
+
+    @Override
+    public CompletableFuture<BenchmarkTransaction> beginTransaction() {
+        return CompletableFuture.completedFuture(new PravegaBenchmarkTransaction(transactionWriter.beginTxn()));
+    }
+
+    @Override
+    public void close() throws Exception {
+        commitExecutor.shutdown();
+        transactionWriter.close();
+    }
+
+    private class PravegaBenchmarkTransaction implements BenchmarkTransaction {
+        private final Transaction<ByteBuffer> transaction;
+
+        PravegaBenchmarkTransaction(Transaction<ByteBuffer> transaction) {
+            this.transaction = transaction;
+        }
+
+        @Override
+        public CompletableFuture<Void> sendAsync(Optional<String> key, byte[] payload) {
+            ByteBuffer event;
+            if (includeTimestampInEvent) {
+                event = ByteBuffer.allocate(Long.BYTES + payload.length);
+                event.putLong(System.currentTimeMillis()).put(payload).flip();
+            } else {
+                event = ByteBuffer.wrap(payload);
+            }
+
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            try {
+                if (key.isPresent()) {
+                    transaction.writeEvent(key.get(), event);
+                } else {
+                    transaction.writeEvent(event);
+                }
+                future.complete(null);
+            } catch (TxnFailedException e) {
+                future.completeExceptionally(e);
+            }
+            return future;
+        }
+
+        @Override
+        public CompletableFuture<Void> commit() {
+            return CompletableFuture.runAsync(() -> {
+                try {
+                    transaction.commit();
+                    waitCommitted();
+                } catch (TxnFailedException e) {
+                    throw new CompletionException(e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CompletionException(e);
+                }
+            }, commitExecutor);
+        }
+
+        private void waitCommitted() throws InterruptedException {
+            while (true) {
+                switch (transaction.checkStatus()) {
+                    case COMMITTED:
+                        return;
+                    case ABORTING:
+                    case ABORTED:
+                        throw new IllegalStateException("Transaction " + transaction.getTxnId() + " aborted");
+                    default:
+                        Thread.sleep(COMMIT_STATUS_POLL_MILLIS);
+                }
+            }
+        }
+
+        @Override
+        public CompletableFuture<Void> abort() {
+            return CompletableFuture.runAsync(transaction::abort, commitExecutor);
+        }
+    }
+}
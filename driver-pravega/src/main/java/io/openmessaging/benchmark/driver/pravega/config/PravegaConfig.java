@@ -31,6 +31,9 @@ public class PravegaConfig {
     // defines how many events the benchmark writes on each transaction prior
     // committing it (only applies if transactional writers are enabled).
     public int eventsPerTransaction = 1;
+    // defines how many transactions of a transactional producer commit at once, each
+    // on its own thread waiting for the commit (only applies to the transactional benchmarks).
+    public int concurrentTransactions = 8;
 
     // Enable the configuration of Streams with auto-scaling policies
     public boolean enableStreamAutoScaling = false;
@@ -21,7 +21,11 @@ package io.openmessaging.benchmark.driver.pulsar;
 import io.openmessaging.benchmark.driver.BenchmarkConsumer;
 import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.common.naming.TopicName;
 
 public class PulsarBenchmarkConsumer implements BenchmarkConsumer {
 
@@ -31,6 +35,17 @@ public class PulsarBenchmarkConsumer implements BenchmarkConsumer {
         this.consumer = consumer;
     }
 
+    /**
+     * One consumer is subscribed to each partition, a partition is assigned once its consumer is connected.
+     */
+    @Override
+    public Optional<Set<Integer>> getAssignedPartitions() {
+        return Optional.of(consumer.stream()
+                .filter(Consumer::isConnected)
+                .map(c -> Math.max(0, TopicName.get(c.getTopic()).getPartitionIndex()))
+                .collect(Collectors.toSet()));
+    }
+
     @Override
     public void close() throws Exception {
         for (Consumer<?> c : consumer) {
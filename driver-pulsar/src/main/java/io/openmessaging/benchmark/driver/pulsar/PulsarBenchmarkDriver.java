@@ -25,9 +25,15 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import java.util.stream.Collectors;
 import org.apache.bookkeeper.stats.StatsLogger;
@@ -37,11 +43,14 @@ import org.apache.pulsar.client.admin.PulsarAdminException;
 import org.apache.pulsar.client.admin.PulsarAdminException.ConflictException;
 import org.apache.pulsar.client.api.ClientBuilder;
 import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.MessageId;
 import org.apache.pulsar.client.api.ProducerBuilder;
 import org.apache.pulsar.client.api.PulsarClient;
 import org.apache.pulsar.client.api.Schema;
 import org.apache.pulsar.client.api.SizeUnit;
+import org.apache.pulsar.client.api.SubscriptionInitialPosition;
 import org.apache.pulsar.client.api.SubscriptionType;
+import org.apache.pulsar.common.naming.TopicName;
 import org.apache.pulsar.common.policies.data.BacklogQuota;
 import org.apache.pulsar.common.policies.data.BacklogQuota.RetentionPolicy;
 import org.apache.pulsar.common.policies.data.PersistencePolicies;
@@ -60,7 +69,10 @@ import com.google.common.io.BaseEncoding;
 import io.openmessaging.benchmark.driver.BenchmarkConsumer;
 import io.openmessaging.benchmark.driver.BenchmarkDriver;
 import io.openmessaging.benchmark.driver.BenchmarkProducer;
+import io.openmessaging.benchmark.driver.BenchmarkReplyProducer;
 import io.openmessaging.benchmark.driver.ConsumerCallback;
+import io.openmessaging.benchmark.driver.ConsumerStartPosition;
+import io.openmessaging.benchmark.driver.TopicSpec;
 import io.openmessaging.benchmark.driver.pulsar.config.PulsarClientConfig.PersistenceConfiguration;
 import io.openmessaging.benchmark.driver.pulsar.config.PulsarConfig;
 
@@ -76,6 +88,9 @@ public class PulsarBenchmarkDriver implements BenchmarkDriver {
     private String namespace;
     private ProducerBuilder<byte[]> producerBuilder;
 
+    // Subscriptions moved to their start timestamp, keyed by topic and subscription, so that it is done only once
+    private final Map<String, CompletableFuture<Void>> positionedSubscriptions = new ConcurrentHashMap<>();
+
     @Override
     public void initialize(File configurationFile, StatsLogger statsLogger) throws IOException {
         this.config = readConfig(configurationFile);
@@ -178,19 +193,90 @@ public class PulsarBenchmarkDriver implements BenchmarkDriver {
         return adminClient.topics().createPartitionedTopicAsync(topic, partitions);
     }
 
+    /**
+     * Create the partitioned topics through the async admin API, keeping at most
+     * {@code topicCreationConcurrency} requests in flight.
+     */
+    @Override
+    public CompletableFuture<Void> createTopics(List<TopicSpec> topics) {
+        List<TopicSpec> partitionedTopics = topics.stream()
+                .filter(t -> t.getPartitions() > 1)
+                .collect(Collectors.toList());
+        if (partitionedTopics.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        AtomicInteger nextTopic = new AtomicInteger();
+        AtomicInteger pendingTopics = new AtomicInteger(partitionedTopics.size());
+        int concurrency = Math.min(Math.max(1, config.client.topicCreationConcurrency), partitionedTopics.size());
+        for (int i = 0; i < concurrency; i++) {
+            createNextTopic(partitionedTopics, nextTopic, pendingTopics, future);
+        }
+        return future;
+    }
+
+    private void createNextTopic(List<TopicSpec> topics, AtomicInteger nextTopic, AtomicInteger pendingTopics,
+            CompletableFuture<Void> future) {
+        int index = nextTopic.getAndIncrement();
+        if (index >= topics.size() || future.isDone()) {
+            return;
+        }
+
+        TopicSpec topic = topics.get(index);
+        adminClient.topics().createPartitionedTopicAsync(topic.getTopic(), topic.getPartitions())
+                .whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        future.completeExceptionally(throwable);
+                    } else if (pendingTopics.decrementAndGet() == 0) {
+                        future.complete(null);
+                    } else {
+                        createNextTopic(topics, nextTopic, pendingTopics, future);
+                    }
+                });
+    }
+
+    /**
+     * Delete the topic forcefully, as its producers and consumers may still be connected. Topics with a single
+     * partition are not partitioned topics, see {@link #createTopic(String, int)}.
+     */
+    @Override
+    public CompletableFuture<Void> deleteTopic(String topic) {
+        return adminClient.topics().getPartitionedTopicMetadataAsync(topic)
+                .thenCompose(metadata -> metadata.partitions > 0
+                        ? adminClient.topics().deletePartitionedTopicAsync(topic, true)
+                        : adminClient.topics().deleteAsync(topic, true));
+    }
+
     @Override
     public CompletableFuture<BenchmarkProducer> createProducer(String topic) {
         return producerBuilder.topic(topic).createAsync()
-                        .thenApply(PulsarBenchmarkProducer::new);
+                        .thenApply(producer -> new PulsarBenchmarkProducer(producer, client, producerBuilder));
+    }
+
+    @Override
+    public CompletableFuture<BenchmarkReplyProducer> createReplyProducer() {
+        return CompletableFuture.completedFuture(new PulsarBenchmarkReplyProducer(producerBuilder));
     }
 
     @Override
     public CompletableFuture<BenchmarkConsumer> createConsumer(String topic, String subscriptionName,
                     ConsumerCallback consumerCallback) {
+        return createConsumer(topic, subscriptionName, ConsumerStartPosition.LATEST, 0, consumerCallback);
+    }
+
+    @Override
+    public CompletableFuture<BenchmarkConsumer> createConsumer(String topic, String subscriptionName,
+                    ConsumerStartPosition startPosition, long startTimestamp, ConsumerCallback consumerCallback) {
         List<CompletableFuture<Consumer<ByteBuffer>>> futures = new ArrayList<>();
-        return client.getPartitionsForTopic(topic)
+        CompletableFuture<Void> positioned = startPosition == ConsumerStartPosition.TIMESTAMP
+                ? positionedSubscriptions.computeIfAbsent(topic + "/" + subscriptionName,
+                        k -> positionSubscription(topic, subscriptionName, startTimestamp))
+                : CompletableFuture.completedFuture(null);
+        return positioned.thenCompose(__ -> client.getPartitionsForTopic(topic))
                 .thenCompose(partitions -> {
-                    partitions.forEach(p -> futures.add(createInternalConsumer(p, subscriptionName, consumerCallback)));
+                    partitions.forEach(p -> futures.add(createInternalConsumer(p, subscriptionName, startPosition,
+                            consumerCallback)));
                     return FutureUtil.waitForAll(futures);
                 }).thenApply(__ -> new PulsarBenchmarkConsumer(
                                 futures.stream().map(CompletableFuture::join).collect(Collectors.toList())
@@ -199,13 +285,16 @@ public class PulsarBenchmarkDriver implements BenchmarkDriver {
     }
 
     CompletableFuture<Consumer<ByteBuffer>> createInternalConsumer(String topic, String subscriptionName,
-            ConsumerCallback consumerCallback) {
+            ConsumerStartPosition startPosition, ConsumerCallback consumerCallback) {
+        TopicName topicName = TopicName.get(topic);
+        String baseTopic = topicName.getPartitionedTopicName();
+        int partition = Math.max(0, topicName.getPartitionIndex());
         return client.newConsumer(Schema.BYTEBUFFER)
                 .priorityLevel(0)
                 .subscriptionType(SubscriptionType.Failover)
                 .messageListener((c, msg) -> {
                     try {
-                        consumerCallback.messageReceived(msg.getValue(), msg.getPublishTime());
+                        consumerCallback.messageReceived(msg.getValue(), msg.getPublishTime(), baseTopic, partition);
                         c.acknowledgeAsync(msg);
                     } finally {
                         msg.release();
@@ -216,9 +305,52 @@ public class PulsarBenchmarkDriver implements BenchmarkDriver {
                 .receiverQueueSize(config.consumer.receiverQueueSize)
                 .maxTotalReceiverQueueSizeAcrossPartitions(Integer.MAX_VALUE)
                 .poolMessages(true)
+                .subscriptionInitialPosition(startPosition == ConsumerStartPosition.LATEST
+                        ? SubscriptionInitialPosition.Latest : SubscriptionInitialPosition.Earliest)
                 .subscribeAsync();
     }
 
+    /**
+     * Create the subscription and move its cursor to the timestamp, once before its consumers attach. A seek from
+     * each consumer would reset the cursor again and disconnect the consumers already attached every time.
+     */
+    private CompletableFuture<Void> positionSubscription(String topic, String subscriptionName, long startTimestamp) {
+        return adminClient.topics().createSubscriptionAsync(topic, subscriptionName, MessageId.earliest)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                    if (!(cause instanceof ConflictException)) {
+                        throw new CompletionException(cause);
+                    }
+                    // The subscription already exists, eg. with existing topics
+                    return null;
+                })
+                .thenCompose(__ -> adminClient.topics().resetCursorAsync(topic, subscriptionName, startTimestamp));
+    }
+
+    /**
+     * List the non-partitioned and partitioned topics of the namespace of the prefix
+     */
+    @Override
+    public CompletableFuture<List<String>> listTopics(String prefix) {
+        String namespace = TopicName.get(prefix + "-").getNamespace();
+        return adminClient.topics().getListAsync(namespace)
+                .thenCombine(adminClient.topics().getPartitionedTopicListAsync(namespace), (topics, partitioned) -> {
+                    Set<String> names = new TreeSet<>(partitioned);
+                    topics.stream().filter(topic -> !TopicName.get(topic).isPartitioned()).forEach(names::add);
+                    return names.stream().filter(name -> name.startsWith(prefix)).collect(Collectors.toList());
+                });
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Integer>> getPartitions(List<String> topics) {
+        Map<String, Integer> partitions = new ConcurrentHashMap<>();
+        return CompletableFuture.allOf(topics.stream()
+                .map(topic -> adminClient.topics().getPartitionedTopicMetadataAsync(topic)
+                        .thenAccept(metadata -> partitions.put(topic, Math.max(1, metadata.partitions))))
+                .toArray(CompletableFuture[]::new))
+                .thenApply(v -> partitions);
+    }
+
     @Override
     public void close() throws Exception {
         log.info("Shutting down Pulsar benchmark driver");
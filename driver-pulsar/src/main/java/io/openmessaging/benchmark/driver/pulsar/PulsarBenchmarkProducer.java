@@ -18,10 +18,15 @@
  */
 package io.openmessaging.benchmark.driver.pulsar;
 
+import java.util.ArrayList;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.pulsar.client.api.Producer;
+import org.apache.pulsar.client.api.ProducerBuilder;
+import org.apache.pulsar.client.api.PulsarClient;
 import org.apache.pulsar.client.api.TypedMessageBuilder;
 
 import io.openmessaging.benchmark.driver.BenchmarkProducer;
@@ -29,13 +34,37 @@ import io.openmessaging.benchmark.driver.BenchmarkProducer;
 public class PulsarBenchmarkProducer implements BenchmarkProducer {
 
     private final Producer<byte[]> producer;
+    private final PulsarClient client;
+    private final ProducerBuilder<byte[]> producerBuilder;
+
+    // Producers on a single partition of the topic, created on the first message sent to the partition
+    private final Map<Integer, CompletableFuture<Producer<byte[]>>> partitionProducers = new ConcurrentHashMap<>();
 
     public PulsarBenchmarkProducer(Producer<byte[]> producer) {
+        this(producer, null, null);
+    }
+
+    /**
+     * @param client
+     *            the client, to look up the partitions of the topic
+     * @param producerBuilder
+     *            the builder of the producer, to create the producers on a single partition
+     */
+    public PulsarBenchmarkProducer(Producer<byte[]> producer, PulsarClient client,
+            ProducerBuilder<byte[]> producerBuilder) {
         this.producer = producer;
+        this.client = client;
+        this.producerBuilder = producerBuilder;
     }
 
     @Override
     public void close() throws Exception {
+        for (CompletableFuture<Producer<byte[]>> partitionProducer : new ArrayList<>(partitionProducers.values())) {
+            if (!partitionProducer.isCompletedExceptionally() && partitionProducer.join() != producer) {
+                partitionProducer.join().close();
+            }
+        }
+        partitionProducers.clear();
         producer.close();
     }
 
@@ -49,4 +78,25 @@ public class PulsarBenchmarkProducer implements BenchmarkProducer {
         return msgBuilder.sendAsync().thenApply(msgId -> null);
     }
 
+    /**
+     * Publish through a producer on the partition itself, since the message router of a producer on a partitioned
+     * topic cannot be told the partition of a message. A non-partitioned topic is its own single partition.
+     */
+    @Override
+    public CompletableFuture<Void> sendToPartitionAsync(int partition, byte[] payload) {
+        if (client == null) {
+            return sendAsync(Optional.empty(), payload);
+        }
+        return partitionProducers.computeIfAbsent(partition, p -> client.getPartitionsForTopic(producer.getTopic())
+                .thenCompose(partitions -> partitions.size() <= 1 ? CompletableFuture.completedFuture(producer)
+                        : producerBuilder.clone().topic(partitions.get(p % partitions.size())).createAsync()))
+                .thenCompose(partitionProducer -> partitionProducer.newMessage().value(payload).sendAsync())
+                .thenApply(msgId -> null);
+    }
+
+    @Override
+    public boolean canSendToPartition() {
+        return client != null;
+    }
+
 }
@@ -0,0 +1,75 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.driver.pulsar;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.pulsar.client.api.Producer;
+import org.apache.pulsar.client.api.ProducerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.openmessaging.benchmark.driver.BenchmarkReplyProducer;
+
+/**
+ * Publish the replies through one producer per reply topic, created on the first reply to the topic
+ */
+public class PulsarBenchmarkReplyProducer implements BenchmarkReplyProducer {
+
+    private final ProducerBuilder<byte[]> producerBuilder;
+    private final Map<String, CompletableFuture<Producer<byte[]>>> producers = new ConcurrentHashMap<>();
+
+    public PulsarBenchmarkReplyProducer(ProducerBuilder<byte[]> producerBuilder) {
+        this.producerBuilder = producerBuilder;
+    }
+
+    @Override
+    public CompletableFuture<Void> sendReply(String replyTopic, byte[] payload) {
+        CompletableFuture<Producer<byte[]>> producer = producers.computeIfAbsent(replyTopic,
+                topic -> producerBuilder.clone().topic(topic).createAsync());
+        if (!producer.isDone() || producer.isCompletedExceptionally()) {
+            // Create the producer again on the next reply to the topic if it could not be created
+            producer.whenComplete((p, t) -> {
+                if (t != null) {
+                    producers.remove(replyTopic, producer);
+                }
+            });
+        }
+        return producer.thenCompose(p -> p.newMessage().value(payload).sendAsync()).thenApply(msgId -> null);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (CompletableFuture<Producer<byte[]>> producer : new ArrayList<>(producers.values())) {
+            try {
+                if (!producer.isCompletedExceptionally()) {
+                    producer.join().close();
+                }
+            } catch (Exception e) {
+                log.warn("Failed to close a reply producer", e);
+            }
+        }
+        producers.clear();
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(PulsarBenchmarkReplyProducer.class);
+}
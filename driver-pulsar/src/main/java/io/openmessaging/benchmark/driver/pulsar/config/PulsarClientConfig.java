@@ -33,6 +33,8 @@ public class PulsarClientConfig {
 
     public String namespacePrefix;
 
+    public int topicCreationConcurrency = 32;
+
     public String clusterName;
 
     public TopicDomain topicType = TopicDomain.persistent;
@@ -43,6 +43,7 @@ import io.netty.handler.codec.http.QueryStringDecoder;
 import io.openmessaging.benchmark.driver.BenchmarkConsumer;
 import io.openmessaging.benchmark.driver.BenchmarkDriver;
 import io.openmessaging.benchmark.driver.BenchmarkProducer;
+import io.openmessaging.benchmark.driver.BenchmarkReplyProducer;
 import io.openmessaging.benchmark.driver.ConsumerCallback;
 import org.apache.bookkeeper.stats.StatsLogger;
 import org.slf4j.Logger;
@@ -114,6 +115,11 @@ public class RabbitMqBenchmarkDriver implements BenchmarkDriver {
         return future;
     }
 
+    @Override
+    public CompletableFuture<BenchmarkReplyProducer> createReplyProducer() {
+        return CompletableFuture.completedFuture(new RabbitMqBenchmarkReplyProducer(this, config.messagePersistence));
+    }
+
     @Override
     public CompletableFuture<BenchmarkConsumer> createConsumer(String topic, String subscriptionName,
             ConsumerCallback consumerCallback) {
@@ -139,7 +145,7 @@ public class RabbitMqBenchmarkDriver implements BenchmarkDriver {
         return future;
     }
 
-    private String getExchangeName(String uri) {
+    String getExchangeName(String uri) {
         QueryStringDecoder decoder = new QueryStringDecoder(uri);
         Map<String, List<String>> parameters = decoder.parameters();
 
@@ -149,7 +155,7 @@ public class RabbitMqBenchmarkDriver implements BenchmarkDriver {
         return parameters.get("exchange").get(0);
     }
 
-    private Connection getOrCreateConnection(String uri) {
+    Connection getOrCreateConnection(String uri) {
         return connections.computeIfAbsent(uri, uriKey -> {
             try {
                 ConnectionFactory connectionFactory = new ConnectionFactory();
@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.driver.rabbitmq;
+
+import com.rabbitmq.client.AlreadyClosedException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import com.rabbitmq.client.AMQP.BasicProperties;
+import com.rabbitmq.client.Channel;
+
+import io.openmessaging.benchmark.driver.BenchmarkReplyProducer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publish the replies on the exchange of each reply topic, through one channel per broker. Channels cannot publish
+ * from several threads at once, so the replies are serialized. Replies are not confirmed, like the replies of an
+ * AMQP RPC server.
+ */
+public class RabbitMqBenchmarkReplyProducer implements BenchmarkReplyProducer {
+
+    private static final Logger log = LoggerFactory.getLogger(RabbitMqBenchmarkReplyProducer.class);
+
+    private final RabbitMqBenchmarkDriver driver;
+    private final boolean messagePersistence;
+    private final Map<String, Channel> channels = new HashMap<>();
+
+    public RabbitMqBenchmarkReplyProducer(RabbitMqBenchmarkDriver driver, boolean messagePersistence) {
+        this.driver = driver;
+        this.messagePersistence = messagePersistence;
+    }
+
+    @Override
+    public synchronized CompletableFuture<Void> sendReply(String replyTopic, byte[] payload) {
+        BasicProperties.Builder builder = defaultProperties.builder().timestamp(new Date());
+        if (messagePersistence) {
+            builder.deliveryMode(2);
+        }
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            String uri = replyTopic.split("\\?")[0];
+            Channel channel = channels.get(uri);
+            if (channel == null) {
+                channel = driver.getOrCreateConnection(uri).createChannel();
+                channels.put(uri, channel);
+            }
+            channel.basicPublish(driver.getExchangeName(replyTopic), "", builder.build(), payload);
+            future.complete(null);
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+
+    @Override
+    public synchronized void close() throws Exception {
+        for (Channel channel : channels.values()) {
+            try {
+                channel.close();
+            } catch (AlreadyClosedException e) {
+                log.warn("Channel already closed", e);
+            }
+        }
+        channels.clear();
+    }
+
+    private static final BasicProperties defaultProperties = new BasicProperties();
+
+}
@@ -18,6 +18,7 @@
  */
 package io.openmessaging.benchmark.driver.redis;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -28,28 +29,36 @@ import redis.clients.jedis.*;
 import redis.clients.jedis.params.XAddParams;
 
 public class RedisBenchmarkProducer implements BenchmarkProducer {
+    private static final byte[] PAYLOAD_FIELD = "payload".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] KEY_FIELD = "key".getBytes(StandardCharsets.UTF_8);
+
     private final JedisPool pool;
-    private final String rmqTopic;
+    private final byte[] topicBytes;
     private final XAddParams xaddParams;
 
     public RedisBenchmarkProducer(final JedisPool pool, final String rmqTopic) {
         this.pool = pool;
-        this.rmqTopic = rmqTopic;
+        this.topicBytes = rmqTopic.getBytes(StandardCharsets.UTF_8);
         this.xaddParams = redis.clients.jedis.params.XAddParams.xAddParams();
     }
 
     @Override
     public CompletableFuture<Void> sendAsync(final Optional<String> key, final byte[] payload) {
+        return sendAsync(key, key.map(k -> k.getBytes(StandardCharsets.UTF_8)).orElse(null), payload);
+    }
+
+    @Override
+    public CompletableFuture<Void> sendAsync(final Optional<String> key, final byte[] keyBytes, final byte[] payload) {
         Map<byte[], byte[]> map1 = new HashMap<>();
-        map1.put("payload".getBytes(), payload);
+        map1.put(PAYLOAD_FIELD, payload);
 
-        if (key.isPresent()) {
-            map1.put("key".getBytes(), key.toString().getBytes());
+        if (keyBytes != null) {
+            map1.put(KEY_FIELD, keyBytes);
         }
 
         CompletableFuture<Void> future = new CompletableFuture<>();
             try (Jedis jedis = this.pool.getResource()) {
-                jedis.xadd(this.rmqTopic.getBytes(),map1, this.xaddParams);
+                jedis.xadd(this.topicBytes, map1, this.xaddParams);
                 future.complete(null);
             } catch (Exception e) {
                 future.completeExceptionally(e);
@@ -23,16 +23,23 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.google.common.io.BaseEncoding;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import io.openmessaging.benchmark.driver.BenchmarkConsumer;
 import io.openmessaging.benchmark.driver.BenchmarkDriver;
 import io.openmessaging.benchmark.driver.BenchmarkProducer;
 import io.openmessaging.benchmark.driver.ConsumerCallback;
+import io.openmessaging.benchmark.driver.TopicSpec;
 import io.openmessaging.benchmark.driver.rocketmq.client.RocketMQClientConfig;
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.apache.bookkeeper.stats.StatsLogger;
 import org.apache.rocketmq.client.consumer.DefaultMQPushConsumer;
 import org.apache.rocketmq.client.consumer.listener.ConsumeConcurrentlyStatus;
@@ -47,6 +54,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class RocketMQBenchmarkDriver implements BenchmarkDriver {
+    private static final int TOPIC_CREATION_CONCURRENCY = 16;
+
     private DefaultMQAdminExt rmqAdmin;
     private RocketMQClientConfig rmqClientConfig;
     DefaultMQProducer rmqProducer;
@@ -72,24 +81,75 @@ public class RocketMQBenchmarkDriver implements BenchmarkDriver {
 
     @Override
     public CompletableFuture<Void> createTopic(final String topic, final int partitions) {
-        return CompletableFuture.runAsync(() -> {
-            TopicConfig topicConfig = new TopicConfig();
-            topicConfig.setOrder(false);
-            topicConfig.setPerm(6);
-            topicConfig.setReadQueueNums(partitions);
-            topicConfig.setWriteQueueNums(partitions);
-            topicConfig.setTopicName(topic);
+        return CompletableFuture.runAsync(() -> createTopic(topic, partitions, fetchBrokerList()));
+    }
 
-            try {
-                Set<String> brokerList = CommandUtil.fetchMasterAddrByClusterName(this.rmqAdmin, this.rmqClientConfig.clusterName);
-                topicConfig.setReadQueueNums(Math.max(1, partitions / brokerList.size()));
-                topicConfig.setWriteQueueNums(Math.max(1, partitions / brokerList.size()));
+    /**
+     * Create the topics looking up the cluster's master brokers only once, and updating the topic configs from a
+     * bounded pool of admin threads.
+     */
+    @Override
+    public CompletableFuture<Void> createTopics(final List<TopicSpec> topics) {
+        if (topics.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
 
-                for (String brokerAddr : brokerList) {
-                    this.rmqAdmin.createAndUpdateTopicConfig(brokerAddr, topicConfig);
-                }
+        final Set<String> brokerList;
+        try {
+            brokerList = fetchBrokerList();
+        } catch (RuntimeException e) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(topics.size(), TOPIC_CREATION_CONCURRENCY),
+                new DefaultThreadFactory("rocketmq-create-topics"));
+        CompletableFuture<?>[] futures = topics.stream()
+                .map(t -> CompletableFuture.runAsync(() -> createTopic(t.getTopic(), t.getPartitions(), brokerList),
+                        executor))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(futures).whenComplete((result, throwable) -> executor.shutdown());
+    }
+
+    private Set<String> fetchBrokerList() {
+        try {
+            return CommandUtil.fetchMasterAddrByClusterName(this.rmqAdmin, this.rmqClientConfig.clusterName);
+        } catch (Exception e) {
+            throw new RuntimeException(String.format("Failed to fetch brokers of cluster [%s]", this.rmqClientConfig.clusterName), e);
+        }
+    }
+
+    private void createTopic(final String topic, final int partitions, final Set<String> brokerList) {
+        TopicConfig topicConfig = new TopicConfig();
+        topicConfig.setOrder(false);
+        topicConfig.setPerm(6);
+        topicConfig.setReadQueueNums(Math.max(1, partitions / brokerList.size()));
+        topicConfig.setWriteQueueNums(Math.max(1, partitions / brokerList.size()));
+        topicConfig.setTopicName(topic);
+
+        try {
+            for (String brokerAddr : brokerList) {
+                this.rmqAdmin.createAndUpdateTopicConfig(brokerAddr, topicConfig);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(String.format("Failed to create topic [%s] to cluster [%s]", topic, this.rmqClientConfig.clusterName), e);
+        }
+    }
+
+    /**
+     * Delete the topic from the master brokers, then from the name servers
+     */
+    @Override
+    public CompletableFuture<Void> deleteTopic(final String topic) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                this.rmqAdmin.deleteTopicInBroker(fetchBrokerList(), topic);
+                this.rmqAdmin.deleteTopicInNameServer(
+                        new HashSet<>(Arrays.asList(this.rmqClientConfig.namesrvAddr.split(";"))), topic);
             } catch (Exception e) {
-                throw new RuntimeException(String.format("Failed to create topic [%s] to cluster [%s]", topic, this.rmqClientConfig.clusterName), e);
+                throw new RuntimeException(String.format("Failed to delete topic [%s] from cluster [%s]", topic, this.rmqClientConfig.clusterName), e);
             }
         });
     }
@@ -132,7 +192,8 @@ public class RocketMQBenchmarkDriver implements BenchmarkDriver {
             rmqConsumer.subscribe(topic, "*");
             rmqConsumer.registerMessageListener((MessageListenerConcurrently) (msgs, context) -> {
                 for (MessageExt message : msgs) {
-                    consumerCallback.messageReceived(message.getBody(), message.getBornTimestamp());
+                    consumerCallback.messageReceived(message.getBody(), message.getBornTimestamp(), message.getTopic(),
+                            message.getQueueId());
                 }
                 return ConsumeConcurrentlyStatus.CONSUME_SUCCESS;
             });
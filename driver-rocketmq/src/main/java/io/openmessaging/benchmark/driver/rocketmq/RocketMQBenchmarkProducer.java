@@ -46,23 +46,48 @@ public class RocketMQBenchmarkProducer implements BenchmarkProducer {
 
         CompletableFuture<Void> future = new CompletableFuture<>();
         try {
-            this.rmqProducer.send(message, new SendCallback() {
-                @Override
-                public void onSuccess(final SendResult sendResult) {
-                    future.complete(null);
-                }
+            this.rmqProducer.send(message, completeOnSend(future));
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
 
-                @Override
-                public void onException(final Throwable e) {
-                    future.completeExceptionally(e);
-                }
-            });
+    /**
+     * The partitions of a RocketMQ topic are its message queues, selected by their index in the queues of the topic
+     */
+    @Override
+    public CompletableFuture<Void> sendToPartitionAsync(final int partition, final byte[] payload) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            this.rmqProducer.send(new Message(this.rmqTopic, payload),
+                    (queues, message, arg) -> queues.get((Integer) arg % queues.size()), partition,
+                    completeOnSend(future));
         } catch (Exception e) {
             future.completeExceptionally(e);
         }
         return future;
     }
 
+    @Override
+    public boolean canSendToPartition() {
+        return true;
+    }
+
+    private static SendCallback completeOnSend(final CompletableFuture<Void> future) {
+        return new SendCallback() {
+            @Override
+            public void onSuccess(final SendResult sendResult) {
+                future.complete(null);
+            }
+
+            @Override
+            public void onException(final Throwable e) {
+                future.completeExceptionally(e);
+            }
+        };
+    }
+
     @Override
     public void close() throws Exception {
         // Close in Driver